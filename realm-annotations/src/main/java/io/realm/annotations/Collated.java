@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Makes sorting on a String field follow the collation rules of a locale instead of only ordering the characters in
+ * the Latin ranges (UTF-8 0-591).
+ * <p>
+ * A collation key is computed with {@link java.text.Collator} every time the field is written and stored in an extra
+ * column next to it. Sorting on the field, e.g. with {@code findAllSorted()} or {@code RealmResults.sort()}, uses this
+ * column, so sorting large results in other scripts is as fast as sorting Latin strings.
+ * <p>
+ * The locale is given as {@code "language"} or {@code "language_COUNTRY"}, e.g. {@code "ru"} or {@code "zh_CN"}. If
+ * no locale is given the root locale is used. The locale is fixed for the field so the stored keys stay comparable
+ * when the device locale changes.
+ * <p>
+ * NOTICE: Only String fields that are not a primary key can be collated. Adding the annotation to an existing field
+ * requires a migration using {@code RealmObjectSchema.addCollationKey(String, String)}. The collation key is not
+ * updated when the field is changed through a {@code DynamicRealmObject}.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface Collated {
+
+    /**
+     * The locale used to compare values, {@code "language"} or {@code "language_COUNTRY"}.
+     */
+    String value() default "";
+}
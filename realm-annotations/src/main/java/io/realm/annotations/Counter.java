@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a field as a counter, e.g. the number of times an item was viewed or played. A counter is changed by
+ * adding to it with {@code RealmObject.increment()} or {@code RealmQuery.increment()}, which add in native code
+ * without reading the value first. Increments from different threads and processes add up instead of overwriting
+ * each other.
+ * <p>
+ * {@code copyToRealmOrUpdate()} and {@code insertOrUpdate()} only set the value of a counter when they create the
+ * object. An existing object keeps its count, as the value of the unmanaged object is usually outdated by increments
+ * made since it was read. The setter still sets the value, e.g. to reset the counter.
+ * <p>
+ * NOTICE: Only {@code long}, {@code int}, {@code short} and {@code byte} fields which are not the primary key can be
+ * counters.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface Counter {
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares an inverse relationship. The annotated field must be of type {@code RealmResults<T>} where {@code T} is a
+ * model class with a field of the type of the enclosing class, or a {@code RealmList} of it, named by {@link #value()}.
+ * <p>
+ * The field is not persisted. On managed objects it returns a live {@code RealmResults} with all objects of type
+ * {@code T} that link to this object through the named field. The results are read from the backlinks Realm keeps
+ * for every link, so no query on {@code T} is needed. The field can also be used in link queries, e.g.
+ * {@code realm.where(Customer.class).greaterThan("orders.total", 100)}.
+ * <p>
+ * The field cannot be set and is {@code null} on unmanaged objects.
+ * <pre>
+ * public class Order extends RealmObject {
+ *     private Customer customer;
+ * }
+ *
+ * public class Customer extends RealmObject {
+ *     &#64;LinkingObjects("customer")
+ *     private RealmResults&lt;Order&gt; orders;
+ * }
+ * </pre>
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface LinkingObjects {
+
+    /**
+     * The name of the field in the linking class which points to the class declaring the annotated field.
+     */
+    String value();
+}
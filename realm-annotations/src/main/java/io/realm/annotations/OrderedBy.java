@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that objects of the model class are appended in the order of a field, e.g. events or measurements
+ * ordered by their timestamp. The objects are stored in that order, which lets Realm answer range conditions on the
+ * field by binary search instead of a search index:
+ * <ul>
+ *     <li>{@code greaterThan()}, {@code lessThan()}, {@code between()} etc. on the field narrow the objects
+ *     {@code findAll()}, {@code count()}, {@code findFirst()} and {@code deleteAll()} look at. The objects within
+ *     the bounds are found when the query runs and again whenever the results are updated. Conditions combined with
+ *     {@code or()} or inside {@code beginGroup()} and {@code not()} do not narrow the objects.</li>
+ *     <li>{@code Realm.deleteBefore()} removes the oldest objects for retention without scanning.</li>
+ * </ul>
+ * Objects must be added with a value greater than or equal to the one of the last object and the field can only be
+ * changed within the values of its neighbours, otherwise an {@code IllegalArgumentException} is thrown. Objects
+ * must be created and set one after another, as {@code copyToRealm()}, {@code insert()} and
+ * {@code createObject()} followed by the setters do. Deleting objects keeps the order of the others.
+ * <p>
+ * The field must be a {@code long}, {@code int}, {@code short}, {@code byte} or a {@code @Required}
+ * {@link java.util.Date} or boxed integer. It must not be indexed or be the primary key, as maintaining a search
+ * index on every append is what this annotation avoids.
+ * <pre>
+ * &#64;OrderedBy("timestamp")
+ * public class Measurement extends RealmObject {
+ *     &#64;Required
+ *     private Date timestamp;
+ *     private double value;
+ * }
+ * </pre>
+ * NOTICE: The order is only maintained through the model classes of a {@code Realm}. Objects changed or deleted
+ * through a {@code DynamicRealm} or {@code RealmList.deleteFromRealm()} can break it.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface OrderedBy {
+
+    /**
+     * The name of the field the objects are ordered by.
+     */
+    String value();
+}
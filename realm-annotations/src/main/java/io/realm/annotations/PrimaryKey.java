@@ -32,9 +32,27 @@ import java.lang.annotation.Target;
  * It is allowed to apply this annotation on the following primitive types: byte, short, int, and long.
  * String, Byte, Short, Integer, and Long are also allowed, and further permitted to have {@code null}
  * as a primary key value.
+ * <p>
+ * Primary keys of the primitive integer types can be assigned by Realm with {@code autoIncrement = true}. Objects
+ * whose key is {@code 0} when they are copied or inserted, or which are created with
+ * {@code Realm.createObject(Class)}, get the next value of a sequence stored in the Realm for the class. The sequence
+ * starts after the largest key of the existing objects and is advanced by keys set explicitly, so keys are never
+ * reused. Assigning a key costs a single lookup and is safe with writers in other threads and processes, as the
+ * sequence is updated within the write transaction. The assigned key is also set in the copied or inserted object.
+ * Once the sequence goes beyond the largest value of the field, e.g. {@code Byte.MAX_VALUE} for a {@code byte} key,
+ * assigning a key throws an {@code IllegalStateException}.
+ * <pre>
+ * &#64;PrimaryKey(autoIncrement = true)
+ * private long id;
+ * </pre>
  */
 @Retention(RetentionPolicy.CLASS)
 @Target(ElementType.FIELD)
 public @interface PrimaryKey {
 
+    /**
+     * Whether keys equal to {@code 0} are replaced by the next value of a sequence. Only allowed for the primitive
+     * integer types.
+     */
+    boolean autoIncrement() default false;
 }
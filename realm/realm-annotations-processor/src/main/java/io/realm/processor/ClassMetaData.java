@@ -37,8 +37,12 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
+import io.realm.annotations.Collated;
+import io.realm.annotations.Counter;
 import io.realm.annotations.Ignore;
 import io.realm.annotations.Index;
+import io.realm.annotations.LinkingObjects;
+import io.realm.annotations.OrderedBy;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -55,6 +59,11 @@ public class ClassMetaData {
     private List<VariableElement> fields = new ArrayList<VariableElement>(); // List of all fields in the class except those @Ignored.
     private List<VariableElement> indexedFields = new ArrayList<VariableElement>(); // list of all fields marked @Index.
     private Set<VariableElement> nullableFields = new HashSet<VariableElement>(); // Set of fields which can be nullable
+    private List<VariableElement> backlinkFields = new ArrayList<VariableElement>(); // List of all fields marked @LinkingObjects.
+    private List<VariableElement> collatedFields = new ArrayList<VariableElement>(); // List of all fields marked @Collated.
+    private Set<VariableElement> counterFields = new HashSet<VariableElement>(); // Set of all fields marked @Counter.
+    private VariableElement orderedField; // Field named by @OrderedBy, if any.
+    private boolean primaryKeyAutoIncrement; // @PrimaryKey(autoIncrement = true)
     private boolean containsToString;
     private boolean containsEquals;
     private boolean containsHashCode;
@@ -118,6 +127,7 @@ public class ClassMetaData {
         if (!checkListTypes()) return  false;
         if (!checkReferenceTypes()) return  false;
         if (!checkDefaultConstructor()) return false;
+        if (!checkOrderedField()) return false;
         if (!checkForFinalFields()) return false;
         if (!checkForTransientFields()) return false;
         if (!checkForVolatileFields()) return false;
@@ -229,6 +239,15 @@ public class ClassMetaData {
                     continue;
                 }
 
+                if (variableElement.getAnnotation(LinkingObjects.class) != null) {
+                    // Backlinks are not persisted as columns, so they are kept out of the list of fields.
+                    if (!checkBacklinkField(variableElement)) {
+                        return false;
+                    }
+                    backlinkFields.add(variableElement);
+                    continue;
+                }
+
                 if (variableElement.getAnnotation(Index.class) != null) {
                     // The field has the @Index annotation. It's only valid for column types:
                     // STRING, DATE, INTEGER, BOOLEAN
@@ -290,6 +309,13 @@ public class ClassMetaData {
                     }
 
                     primaryKey = variableElement;
+                    primaryKeyAutoIncrement = variableElement.getAnnotation(PrimaryKey.class).autoIncrement();
+                    if (primaryKeyAutoIncrement && (!Utils.isPrimitiveType(variableElement)
+                            || !isValidPrimaryKeyType(fieldType))) {
+                        Utils.error("@PrimaryKey(autoIncrement = true) is only applicable to byte, short, int and long fields: "
+                                + element, element);
+                        return false;
+                    }
 
                     // Also add as index. All types of primary key can be indexed.
                     if (!indexedFields.contains(variableElement)) {
@@ -297,6 +323,29 @@ public class ClassMetaData {
                     }
                 }
 
+                if (variableElement.getAnnotation(Collated.class) != null) {
+                    // The field has the @Collated annotation. It's only valid for String fields which are set
+                    // through the proxy setters, which rules out the primary key.
+                    if (!Utils.isString(variableElement) || variableElement == primaryKey) {
+                        Utils.error("@Collated is only applicable to String fields that are not a primary key: " + element, element);
+                        return false;
+                    }
+                    collatedFields.add(variableElement);
+                }
+
+                if (variableElement.getAnnotation(Counter.class) != null) {
+                    // Counters are changed by adding to the native integer
+                    String fieldType = variableElement.asType().toString();
+                    boolean integer = fieldType.equals("long") || fieldType.equals("int")
+                            || fieldType.equals("short") || fieldType.equals("byte");
+                    if (!integer || variableElement.getAnnotation(PrimaryKey.class) != null) {
+                        Utils.error("@Counter is only applicable to byte, short, int and long fields that are not a primary key: "
+                                + element, element);
+                        return false;
+                    }
+                    counterFields.add(variableElement);
+                }
+
                 fields.add(variableElement);
             } else if (elementKind.equals(ElementKind.CONSTRUCTOR)) {
                 hasDefaultConstructor =  hasDefaultConstructor || Utils.isDefaultConstructor(element);
@@ -311,6 +360,91 @@ public class ClassMetaData {
         return true;
     }
 
+    // Checks that the field named by @OrderedBy exists and can be ordered without a search index.
+    private boolean checkOrderedField() {
+        OrderedBy orderedBy = classType.getAnnotation(OrderedBy.class);
+        if (orderedBy == null) {
+            return true;
+        }
+        for (VariableElement field : fields) {
+            if (!field.getSimpleName().contentEquals(orderedBy.value())) {
+                continue;
+            }
+            String fieldType = field.asType().toString();
+            boolean validType = Utils.isPrimitiveType(field) ? !fieldType.equals("boolean")
+                    && !fieldType.equals("float") && !fieldType.equals("double")
+                    : (fieldType.equals("java.util.Date") || fieldType.equals("java.lang.Long")
+                    || fieldType.equals("java.lang.Integer") || fieldType.equals("java.lang.Short")
+                    || fieldType.equals("java.lang.Byte"));
+            if (!validType || isNullable(field)) {
+                Utils.error("@OrderedBy is only applicable to integer fields or @Required Date and boxed integer fields: " + field, field);
+                return false;
+            }
+            if (indexedFields.contains(field)) {
+                Utils.error("The field named by @OrderedBy cannot be indexed or a primary key: " + field, field);
+                return false;
+            }
+            orderedField = field;
+            return true;
+        }
+        Utils.error(String.format("Field '%s' named by @OrderedBy does not exist in '%s'.", orderedBy.value(), className),
+                classType);
+        return false;
+    }
+
+    // Checks that a @LinkingObjects field is a RealmResults of a model class that has a link or list
+    // field with the given name pointing back to this class.
+    private boolean checkBacklinkField(VariableElement field) {
+        String originFieldName = field.getAnnotation(LinkingObjects.class).value();
+        if (!Utils.isRealmResults(field)) {
+            Utils.error("Fields annotated with @LinkingObjects must be of type RealmResults: " + field, field);
+            return false;
+        }
+        if (field.getAnnotation(Index.class) != null || field.getAnnotation(Required.class) != null
+                || field.getAnnotation(PrimaryKey.class) != null) {
+            Utils.error("@LinkingObjects cannot be combined with @Index, @Required or @PrimaryKey: " + field, field);
+            return false;
+        }
+        if (originFieldName == null || originFieldName.isEmpty()) {
+            Utils.error("@LinkingObjects must name the field in the linking class: " + field, field);
+            return false;
+        }
+        String originClassName = Utils.getGenericTypeQualifiedName(field);
+        if (originClassName == null) {
+            Utils.error("No generic type supplied for field", field);
+            return false;
+        }
+
+        TypeElement originClass = elements.getTypeElement(originClassName);
+        if (originClass == null || !Utils.isImplementingMarkerInterface(originClass)) {
+            Utils.error(String.format("The generic type '%s' of fields annotated with @LinkingObjects must be a "
+                    + "RealmModel class: %s", originClassName, field), field);
+            return false;
+        }
+        VariableElement originField = null;
+        for (Element element : originClass.getEnclosedElements()) {
+            if (element.getKind().equals(ElementKind.FIELD) && element.getSimpleName().contentEquals(originFieldName)) {
+                originField = (VariableElement) element;
+                break;
+            }
+        }
+        if (originField == null || originField.getModifiers().contains(Modifier.STATIC)
+                || originField.getAnnotation(Ignore.class) != null) {
+            Utils.error(String.format("Field '%s' in '%s' referenced by @LinkingObjects does not exist.",
+                    originFieldName, originClassName), field);
+            return false;
+        }
+
+        String linkedType = Utils.isRealmList(originField) ?
+                Utils.getGenericTypeQualifiedName(originField) : originField.asType().toString();
+        if (!getFullyQualifiedClassName().equals(linkedType)) {
+            Utils.error(String.format("Field '%s' in '%s' referenced by @LinkingObjects must link to '%s'.",
+                    originFieldName, originClassName, getFullyQualifiedClassName()), field);
+            return false;
+        }
+        return true;
+    }
+
     public String getSimpleClassName() {
         return className;
     }
@@ -340,6 +474,54 @@ public class ClassMetaData {
         return fields;
     }
 
+    /**
+     * Returns the fields annotated with {@link LinkingObjects}. They are not part of {@link #getFields()}.
+     */
+    public List<VariableElement> getBacklinkFields() {
+        return backlinkFields;
+    }
+
+    /**
+     * Returns the fields annotated with {@link Collated}. Each of them has an extra column holding the collation keys.
+     */
+    public List<VariableElement> getCollatedFields() {
+        return collatedFields;
+    }
+
+    /**
+     * Returns the locale of a field annotated with {@link Collated} or {@code null} if the field is not collated.
+     */
+    public String getCollationLocale(String fieldName) {
+        for (VariableElement field : collatedFields) {
+            if (field.getSimpleName().toString().equals(fieldName)) {
+                return field.getAnnotation(Collated.class).value();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a field is annotated with {@link Counter}. The value of a counter is only set when an object is
+     * created, updates keep the stored count.
+     */
+    public boolean isCounter(VariableElement field) {
+        return counterFields.contains(field);
+    }
+
+    /**
+     * Returns {@code true} if the class has fields annotated with {@link Counter}.
+     */
+    public boolean hasCounters() {
+        return !counterFields.isEmpty();
+    }
+
+    /**
+     * Returns the field named by {@link OrderedBy} or {@code null} if the objects are not ordered.
+     */
+    public VariableElement getOrderedField() {
+        return orderedField;
+    }
+
     public String getGetter(String fieldName) {
         return "realmGet$" + fieldName;
     }
@@ -356,10 +538,30 @@ public class ClassMetaData {
         return primaryKey != null;
     }
 
+    /**
+     * Checks if the class has {@code RealmModel} or {@code RealmList} fields. Only objects of such
+     * classes can reference other objects when they are inserted.
+     */
+    public boolean hasLinks() {
+        for (VariableElement field : fields) {
+            if (Utils.isRealmModel(field) || Utils.isRealmList(field)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public VariableElement getPrimaryKey() {
         return primaryKey;
     }
 
+    /**
+     * Returns {@code true} if the primary key is declared with {@code autoIncrement = true}.
+     */
+    public boolean isPrimaryKeyAutoIncrement() {
+        return primaryKeyAutoIncrement;
+    }
+
     public String getPrimaryKeyGetter() {
         return getGetter(primaryKey.getSimpleName().toString());
     }
@@ -33,6 +33,8 @@ import javax.lang.model.type.DeclaredType;
 import javax.lang.model.util.Types;
 import javax.tools.JavaFileObject;
 
+import io.realm.annotations.LinkingObjects;
+
 public class RealmProxyClassGenerator {
     private ProcessingEnvironment processingEnvironment;
     private ClassMetaData metadata;
@@ -69,6 +71,7 @@ public class RealmProxyClassGenerator {
         imports.add("io.realm.RealmFieldType");
         imports.add("io.realm.exceptions.RealmMigrationNeededException");
         imports.add("io.realm.internal.ColumnInfo");
+        imports.add("io.realm.internal.IdentityRowMap");
         imports.add("io.realm.internal.RealmObjectProxy");
         imports.add("io.realm.internal.Table");
         imports.add("io.realm.internal.TableOrView");
@@ -86,6 +89,12 @@ public class RealmProxyClassGenerator {
         imports.add("org.json.JSONObject");
         imports.add("org.json.JSONException");
         imports.add("org.json.JSONArray");
+        if (!metadata.getCollatedFields().isEmpty()) {
+            imports.add("io.realm.internal.Collation");
+        }
+        if (metadata.hasPrimaryKey()) {
+            imports.add("io.realm.internal.Util");
+        }
 
         Collections.sort(imports);
         writer.emitImports(imports);
@@ -143,6 +152,10 @@ public class RealmProxyClassGenerator {
             writer.emitField("long", columnIndexVarName(variableElement),
                     EnumSet.of(Modifier.PUBLIC, Modifier.FINAL));
         }
+        for (VariableElement variableElement : metadata.getCollatedFields()) {
+            writer.emitField("long", collationKeyIndexVarName(variableElement),
+                    EnumSet.of(Modifier.PUBLIC, Modifier.FINAL));
+        }
         writer.emitEmptyLine();
 
         // constructor
@@ -160,6 +173,58 @@ public class RealmProxyClassGenerator {
             writer.emitEmptyLine();
         }
         writer.emitStatement("setIndicesMap(indicesMap)");
+
+        if (!metadata.getBacklinkFields().isEmpty()) {
+            writer.emitEmptyLine();
+            writer.emitStatement("final Map<String, ColumnInfo.Backlink> backlinksMap = new HashMap<String, ColumnInfo.Backlink>(%s)",
+                    metadata.getBacklinkFields().size());
+            for (VariableElement backlink : metadata.getBacklinkFields()) {
+                writer.emitStatement("backlinksMap.put(\"%s\", new ColumnInfo.Backlink(\"%s\", \"%s\"))",
+                        backlink.getSimpleName().toString(),
+                        Utils.getGenericTypeSimpleName(backlink),
+                        backlink.getAnnotation(LinkingObjects.class).value());
+            }
+            writer.emitStatement("setBacklinksMap(backlinksMap)");
+        }
+
+        if (!metadata.getCollatedFields().isEmpty()) {
+            writer.emitEmptyLine();
+            writer.emitStatement("final Map<String, Long> collationKeysMap = new HashMap<String, Long>(%s)",
+                    metadata.getCollatedFields().size());
+            for (VariableElement field : metadata.getCollatedFields()) {
+                final String fieldName = field.getSimpleName().toString();
+                writer.emitStatement("this.%s = getValidColumnIndex(path, table, \"%s\", \"%s\")",
+                        collationKeyIndexVarName(field), simpleClassName, collationKeyColumnName(field));
+                writer.emitStatement("collationKeysMap.put(\"%s\", this.%s)", fieldName, collationKeyIndexVarName(field));
+            }
+            writer.emitStatement("setCollationKeysMap(collationKeysMap)");
+        }
+
+        List<VariableElement> narrowIntegerFields = new ArrayList<VariableElement>();
+        for (VariableElement field : metadata.getFields()) {
+            if (!integerMaxValue(field).equals("Long.MAX_VALUE")) {
+                narrowIntegerFields.add(field);
+            }
+        }
+        if (!narrowIntegerFields.isEmpty()) {
+            writer.emitEmptyLine();
+            writer.emitStatement("final Map<String, Long> integerMaxValuesMap = new HashMap<String, Long>(%s)",
+                    narrowIntegerFields.size());
+            for (VariableElement field : narrowIntegerFields) {
+                writer.emitStatement("integerMaxValuesMap.put(\"%s\", (long) %s)",
+                        field.getSimpleName().toString(), integerMaxValue(field));
+            }
+            writer.emitStatement("setIntegerMaxValuesMap(integerMaxValuesMap)");
+        }
+
+        if (metadata.getOrderedField() != null) {
+            writer.emitEmptyLine();
+            writer.emitStatement("setOrderedColumnIndex(this.%s)", columnIndexVarName(metadata.getOrderedField()));
+        }
+        if (metadata.isPrimaryKeyAutoIncrement()) {
+            writer.emitEmptyLine();
+            writer.emitStatement("setPrimaryKeyAutoIncrement(%s)", integerMaxValue(metadata.getPrimaryKey()));
+        }
         writer.endConstructor();
 
         writer.endType();
@@ -176,6 +241,10 @@ public class RealmProxyClassGenerator {
                 writer.emitField("RealmList<" + genericType + ">", variableElement.getSimpleName().toString() + "RealmList", EnumSet.of(Modifier.PRIVATE));
             }
         }
+        for (VariableElement backlink : metadata.getBacklinkFields()) {
+            String genericType = Utils.getGenericTypeQualifiedName(backlink);
+            writer.emitField("RealmResults<" + genericType + ">", backlink.getSimpleName().toString() + "Backlinks", EnumSet.of(Modifier.PRIVATE));
+        }
 
         writer.emitField("List<String>", "FIELD_NAMES", EnumSet.of(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL));
         writer.beginInitializer(true);
@@ -198,6 +267,7 @@ public class RealmProxyClassGenerator {
     }
 
     private void emitAccessors(JavaWriter writer) throws IOException {
+        emitBacklinkAccessors(writer);
         for (VariableElement field : metadata.getFields()) {
             String fieldName = field.getSimpleName().toString();
             String fieldTypeCanonicalName = field.asType().toString();
@@ -239,10 +309,14 @@ public class RealmProxyClassGenerator {
                 writer.emitStatement("proxyState.getRealm$realm().checkIfValid()");
                 // Although setting null value for String and bytes[] can be handled by the JNI code, we still generate the same code here.
                 // Compared with getter, null value won't trigger more native calls in setter which is relatively cheaper.
+                String collationLocale = metadata.getCollationLocale(fieldName);
                 if (metadata.isNullable(field)) {
                     writer.beginControlFlow("if (value == null)")
-                        .emitStatement("proxyState.getRow$realm().setNull(%s)", fieldIndexVariableReference(field))
-                        .emitStatement("return")
+                        .emitStatement("proxyState.getRow$realm().setNull(%s)", fieldIndexVariableReference(field));
+                    if (collationLocale != null) {
+                        writer.emitStatement("proxyState.getRow$realm().setNull(%s)", collationKeyIndexVariableReference(field));
+                    }
+                    writer.emitStatement("return")
                     .endControlFlow();
                 } else if (!metadata.isNullable(field) && !Utils.isPrimitiveType(field)) {
                     // Same reason, throw IAE earlier.
@@ -251,9 +325,17 @@ public class RealmProxyClassGenerator {
                             .emitStatement(Constants.STATEMENT_EXCEPTION_ILLEGAL_NULL_VALUE, fieldName)
                         .endControlFlow();
                 }
+                if (field == metadata.getOrderedField()) {
+                    writer.emitStatement("proxyState.getRow$realm().getTable().checkOrder(%s, proxyState.getRow$realm().getIndex(), %s)",
+                            fieldIndexVariableReference(field), orderValue(field, "value"));
+                }
                 writer.emitStatement(
                         "proxyState.getRow$realm().set%s(%s, value)",
                         realmType, fieldIndexVariableReference(field));
+                if (collationLocale != null) {
+                    writer.emitStatement("proxyState.getRow$realm().setString(%s, Collation.getKey(\"%s\", value))",
+                            collationKeyIndexVariableReference(field), collationLocale);
+                }
                 writer.endMethod();
             } else if (Utils.isRealmModel(field)) {
                 /**
@@ -342,6 +424,33 @@ public class RealmProxyClassGenerator {
         writer.emitEmptyLine();
     }
 
+    private void emitBacklinkAccessors(JavaWriter writer) throws IOException {
+        for (VariableElement backlink : metadata.getBacklinkFields()) {
+            String fieldName = backlink.getSimpleName().toString();
+            String fieldTypeCanonicalName = backlink.asType().toString();
+            String genericType = Utils.getGenericTypeQualifiedName(backlink);
+            String cacheFieldName = fieldName + "Backlinks";
+
+            // Getter
+            writer.beginMethod(fieldTypeCanonicalName, metadata.getGetter(fieldName), EnumSet.of(Modifier.PUBLIC));
+            writer.emitStatement("proxyState.getRealm$realm().checkIfValid()");
+            writer.emitSingleLineComment("the results are live, so they only need to be created once");
+            writer.beginControlFlow("if (%s == null)", cacheFieldName);
+                writer.emitStatement("%s = RealmResults.createBacklinkResults(proxyState.getRealm$realm(), proxyState.getRow$realm(), %s.class, \"%s\")",
+                        cacheFieldName, genericType, backlink.getAnnotation(LinkingObjects.class).value());
+            writer.endControlFlow();
+            writer.emitStatement("return %s", cacheFieldName);
+            writer.endMethod();
+            writer.emitEmptyLine();
+
+            // Setter
+            writer.beginMethod("void", metadata.getSetter(fieldName), EnumSet.of(Modifier.PUBLIC), fieldTypeCanonicalName, "value");
+            writer.emitStatement("throw new UnsupportedOperationException(\"Field '%s' is declared with @LinkingObjects and cannot be modified.\")", fieldName);
+            writer.endMethod();
+            writer.emitEmptyLine();
+        }
+    }
+
     private void emitInitTableMethod(JavaWriter writer) throws IOException {
         writer.beginMethod(
                 "Table", // Return type
@@ -384,6 +493,11 @@ public class RealmProxyClassGenerator {
             }
         }
 
+        for (VariableElement field : metadata.getCollatedFields()) {
+            writer.emitStatement("table.addColumn(RealmFieldType.STRING, \"%s\", Table.NULLABLE)",
+                    collationKeyColumnName(field));
+        }
+
         for (VariableElement field : metadata.getIndexedFields()) {
             String fieldName = field.getSimpleName().toString();
             writer.emitStatement("table.addSearchIndex(table.getColumnIndex(\"%s\"))", fieldName);
@@ -413,15 +527,16 @@ public class RealmProxyClassGenerator {
         writer.beginControlFlow("if (sharedRealm.hasTable(\"" + Constants.TABLE_PREFIX + this.simpleClassName + "\"))");
         writer.emitStatement("Table table = sharedRealm.getTable(\"%s%s\")", Constants.TABLE_PREFIX, this.simpleClassName);
 
-        // verify number of columns
-        writer.beginControlFlow("if (table.getColumnCount() != " + metadata.getFields().size() + ")");
+        // verify number of columns, collated fields have an extra column for their collation keys
+        int columnCount = metadata.getFields().size() + metadata.getCollatedFields().size();
+        writer.beginControlFlow("if (table.getColumnCount() != " + columnCount + ")");
         writer.emitStatement("throw new RealmMigrationNeededException(sharedRealm.getPath(), \"Field count does not match - expected %d but was \" + table.getColumnCount())",
-                metadata.getFields().size());
+                columnCount);
         writer.endControlFlow();
 
         // create type dictionary for lookup
         writer.emitStatement("Map<String, RealmFieldType> columnTypes = new HashMap<String, RealmFieldType>()");
-        writer.beginControlFlow("for (long i = 0; i < " + metadata.getFields().size() + "; i++)");
+        writer.beginControlFlow("for (long i = 0; i < " + columnCount + "; i++)");
         writer.emitStatement("columnTypes.put(table.getColumnName(i), table.getColumnType(i))");
         writer.endControlFlow();
         writer.emitEmptyLine();
@@ -559,6 +674,16 @@ public class RealmProxyClassGenerator {
             fieldIndex++;
         }
 
+        for (VariableElement field : metadata.getCollatedFields()) {
+            String fieldName = field.getSimpleName().toString();
+            String keyColumnName = collationKeyColumnName(field);
+            writer.beginControlFlow("if (columnTypes.get(\"%s\") != RealmFieldType.STRING || !table.isColumnNullable(%s))",
+                    keyColumnName, collationKeyIndexVariableReference(field));
+            writer.emitStatement("throw new RealmMigrationNeededException(sharedRealm.getPath(), \"Collation key not defined for field '%s' in existing Realm file. " +
+                    "Either remove @Collated or migrate using RealmObjectSchema.addCollationKey().\")", fieldName);
+            writer.endControlFlow();
+        }
+
         writer.emitStatement("return %s", "columnInfo");
 
         writer.nextControlFlow("else");
@@ -610,6 +735,8 @@ public class RealmProxyClassGenerator {
             if (!metadata.hasPrimaryKey()) {
                 writer.emitStatement("return copy(realm, object, update, cache)");
             } else {
+                // The key is checked by createObject() when the object is copied
+                emitAutoIncrementPrimaryKey(writer, String.format("realm.getTable(%s.class)", qualifiedClassName));
                 writer
                     .emitStatement("%s realmObject = null", qualifiedClassName)
                     .emitStatement("boolean canUpdate = update")
@@ -673,12 +800,27 @@ public class RealmProxyClassGenerator {
         writer.emitEmptyLine();
     }
 
+    // Objects of classes declared with @OrderedBy must keep the order of the field, the value is checked against the
+    // neighbouring objects before it is set
+    private String orderValue(VariableElement field, String value) {
+        return "java.util.Date".equals(field.asType().toString()) ? value + ".getTime()" : value;
+    }
+
+    private void emitOrderCheckIfNeeded(JavaWriter writer, String fieldName, String value) throws IOException {
+        VariableElement orderedField = metadata.getOrderedField();
+        if (orderedField != null && orderedField.getSimpleName().contentEquals(fieldName)) {
+            writer.emitStatement("Table.nativeCheckOrder(tableNativePtr, columnInfo.%sIndex, rowIndex, %s)",
+                    fieldName, orderValue(orderedField, value));
+        }
+    }
+
     private void setTableValues(JavaWriter writer, String fieldType, String fieldName, String interfaceName, String getter, boolean isUpdate) throws IOException {
         if ("long".equals(fieldType)
                 || "int".equals(fieldType)
                 || "short".equals(fieldType)
                 || "byte".equals(fieldType)) {
-            writer.emitStatement("Table.nativeSetLong(tableNativePtr, columnInfo.%sIndex, rowIndex, ((%s)object).%s())", fieldName, interfaceName, getter);
+            emitOrderCheckIfNeeded(writer, fieldName, String.format("((%s)object).%s()", interfaceName, getter));
+            emitNativeSet(writer, isUpdate, "Long", fieldName + "Index", String.format("((%s)object).%s()", interfaceName, getter));
 
         } else if ("java.lang.Long".equals(fieldType)
                 || "java.lang.Integer".equals(fieldType)
@@ -686,87 +828,76 @@ public class RealmProxyClassGenerator {
                 || "java.lang.Byte".equals(fieldType)) {
             writer
                     .emitStatement("Number %s = ((%s)object).%s()", getter, interfaceName, getter)
-                    .beginControlFlow("if (%s != null)", getter)
-                        .emitStatement("Table.nativeSetLong(tableNativePtr, columnInfo.%sIndex, rowIndex, %s.longValue())", fieldName, getter);
-                    if (isUpdate) {
-                        writer.nextControlFlow("else")
-                                .emitStatement("Table.nativeSetNull(tableNativePtr, columnInfo.%sIndex, rowIndex)", fieldName);
-                    }
+                    .beginControlFlow("if (%s != null)", getter);
+                    emitOrderCheckIfNeeded(writer, fieldName, getter + ".longValue()");
+                    emitNativeSet(writer, isUpdate, "Long", fieldName + "Index", getter + ".longValue()");
+                    emitNativeSetNullIfUpdate(writer, isUpdate, fieldName + "Index");
                     writer.endControlFlow();
 
         } else if ("double".equals(fieldType)) {
-            writer.emitStatement("Table.nativeSetDouble(tableNativePtr, columnInfo.%sIndex, rowIndex, ((%s)object).%s())", fieldName, interfaceName, getter);
+            emitNativeSet(writer, isUpdate, "Double", fieldName + "Index", String.format("((%s)object).%s()", interfaceName, getter));
 
         } else if("java.lang.Double".equals(fieldType)) {
             writer
                     .emitStatement("Double %s = ((%s)object).%s()", getter, interfaceName, getter)
-                    .beginControlFlow("if (%s != null)", getter)
-                        .emitStatement("Table.nativeSetDouble(tableNativePtr, columnInfo.%sIndex, rowIndex, %s)", fieldName, getter);
-                    if (isUpdate) {
-                        writer.nextControlFlow("else")
-                                .emitStatement("Table.nativeSetNull(tableNativePtr, columnInfo.%sIndex, rowIndex)", fieldName);
-                    }
+                    .beginControlFlow("if (%s != null)", getter);
+                    emitNativeSet(writer, isUpdate, "Double", fieldName + "Index", getter);
+                    emitNativeSetNullIfUpdate(writer, isUpdate, fieldName + "Index");
                     writer.endControlFlow();
 
         } else if ("float".equals(fieldType)) {
-            writer.emitStatement("Table.nativeSetFloat(tableNativePtr, columnInfo.%sIndex, rowIndex, ((%s)object).%s())", fieldName, interfaceName, getter);
+            emitNativeSet(writer, isUpdate, "Float", fieldName + "Index", String.format("((%s)object).%s()", interfaceName, getter));
 
         } else if ("java.lang.Float".equals(fieldType)) {
             writer
                     .emitStatement("Float %s = ((%s)object).%s()", getter, interfaceName, getter)
-                    .beginControlFlow("if (%s != null)", getter)
-                        .emitStatement("Table.nativeSetFloat(tableNativePtr, columnInfo.%sIndex, rowIndex, %s)", fieldName, getter);
-                    if (isUpdate) {
-                        writer.nextControlFlow("else")
-                                .emitStatement("Table.nativeSetNull(tableNativePtr, columnInfo.%sIndex, rowIndex)", fieldName);
-                    }
+                    .beginControlFlow("if (%s != null)", getter);
+                    emitNativeSet(writer, isUpdate, "Float", fieldName + "Index", getter);
+                    emitNativeSetNullIfUpdate(writer, isUpdate, fieldName + "Index");
                     writer.endControlFlow();
 
         } else if ("boolean".equals(fieldType)) {
-            writer.emitStatement("Table.nativeSetBoolean(tableNativePtr, columnInfo.%sIndex, rowIndex, ((%s)object).%s())", fieldName, interfaceName, getter);
+            emitNativeSet(writer, isUpdate, "Boolean", fieldName + "Index", String.format("((%s)object).%s()", interfaceName, getter));
 
         } else if ("java.lang.Boolean".equals(fieldType)) {
             writer
                     .emitStatement("Boolean %s = ((%s)object).%s()", getter, interfaceName, getter)
-                    .beginControlFlow("if (%s != null)", getter)
-                        .emitStatement("Table.nativeSetBoolean(tableNativePtr, columnInfo.%sIndex, rowIndex, %s)", fieldName, getter);
-                    if (isUpdate) {
-                        writer.nextControlFlow("else")
-                                .emitStatement("Table.nativeSetNull(tableNativePtr, columnInfo.%sIndex, rowIndex)", fieldName);
-                    }
+                    .beginControlFlow("if (%s != null)", getter);
+                    emitNativeSet(writer, isUpdate, "Boolean", fieldName + "Index", getter);
+                    emitNativeSetNullIfUpdate(writer, isUpdate, fieldName + "Index");
                     writer.endControlFlow();
 
         } else if ("byte[]".equals(fieldType)) {
             writer
                     .emitStatement("byte[] %s = ((%s)object).%s()", getter, interfaceName, getter)
-                    .beginControlFlow("if (%s != null)", getter)
-                        .emitStatement("Table.nativeSetByteArray(tableNativePtr, columnInfo.%sIndex, rowIndex, %s)", fieldName, getter);
-                    if (isUpdate) {
-                        writer.nextControlFlow("else")
-                                .emitStatement("Table.nativeSetNull(tableNativePtr, columnInfo.%sIndex, rowIndex)", fieldName);
-                    }
+                    .beginControlFlow("if (%s != null)", getter);
+                    emitNativeSet(writer, isUpdate, "ByteArray", fieldName + "Index", getter);
+                    emitNativeSetNullIfUpdate(writer, isUpdate, fieldName + "Index");
                     writer.endControlFlow();
 
 
         } else if ("java.util.Date".equals(fieldType)) {
             writer
                     .emitStatement("java.util.Date %s = ((%s)object).%s()", getter, interfaceName, getter)
-                    .beginControlFlow("if (%s != null)", getter)
-                        .emitStatement("Table.nativeSetTimestamp(tableNativePtr, columnInfo.%sIndex, rowIndex, %s.getTime())", fieldName, getter);
-                    if (isUpdate) {
-                        writer.nextControlFlow("else")
-                                .emitStatement("Table.nativeSetNull(tableNativePtr, columnInfo.%sIndex, rowIndex)", fieldName);
-                    }
+                    .beginControlFlow("if (%s != null)", getter);
+                    emitOrderCheckIfNeeded(writer, fieldName, getter);
+                    emitNativeSet(writer, isUpdate, "Timestamp", fieldName + "Index", getter + ".getTime()");
+                    emitNativeSetNullIfUpdate(writer, isUpdate, fieldName + "Index");
                     writer.endControlFlow();
 
         } else if ("java.lang.String".equals(fieldType)) {
             writer
                     .emitStatement("String %s = ((%s)object).%s()", getter, interfaceName, getter)
-                    .beginControlFlow("if (%s != null)", getter)
-                        .emitStatement("Table.nativeSetString(tableNativePtr, columnInfo.%sIndex, rowIndex, %s)", fieldName, getter);
-                    if (isUpdate) {
-                        writer.nextControlFlow("else")
-                                .emitStatement("Table.nativeSetNull(tableNativePtr, columnInfo.%sIndex, rowIndex)", fieldName);
+                    .beginControlFlow("if (%s != null)", getter);
+                    emitNativeSet(writer, isUpdate, "String", fieldName + "Index", getter);
+                    String collationLocale = metadata.getCollationLocale(fieldName);
+                    if (collationLocale != null) {
+                        emitNativeSet(writer, isUpdate, "String", fieldName + "CollationKeyIndex",
+                                String.format("Collation.getKey(\"%s\", %s)", collationLocale, getter));
+                    }
+                    emitNativeSetNullIfUpdate(writer, isUpdate, fieldName + "Index");
+                    if (isUpdate && collationLocale != null) {
+                        writer.emitStatement("Table.nativeUpdateNull(tableNativePtr, columnInfo.%sCollationKeyIndex, rowIndex, skipUnchanged)", fieldName);
                     }
                     writer.endControlFlow();
         } else {
@@ -774,12 +905,28 @@ public class RealmProxyClassGenerator {
         }
     }
 
+    // insert() always writes to new rows, insertOrUpdate() uses the setters which can skip unchanged values
+    private void emitNativeSet(JavaWriter writer, boolean isUpdate, String type, String columnIndexField, String value) throws IOException {
+        if (isUpdate) {
+            writer.emitStatement("Table.nativeUpdate%s(tableNativePtr, columnInfo.%s, rowIndex, %s, skipUnchanged)", type, columnIndexField, value);
+        } else {
+            writer.emitStatement("Table.nativeSet%s(tableNativePtr, columnInfo.%s, rowIndex, %s)", type, columnIndexField, value);
+        }
+    }
+
+    private void emitNativeSetNullIfUpdate(JavaWriter writer, boolean isUpdate, String columnIndexField) throws IOException {
+        if (isUpdate) {
+            writer.nextControlFlow("else")
+                    .emitStatement("Table.nativeUpdateNull(tableNativePtr, columnInfo.%s, rowIndex, skipUnchanged)", columnIndexField);
+        }
+    }
+
     private void emitInsertMethod(JavaWriter writer) throws IOException {
         writer.beginMethod(
                 "long", // Return type
                 "insert", // Method name
                 EnumSet.of(Modifier.PUBLIC, Modifier.STATIC), // Modifiers
-                "Realm", "realm", qualifiedClassName, "object", "Map<RealmModel,Long>", "cache" // Argument type & argument name
+                "Realm", "realm", qualifiedClassName, "object", "IdentityRowMap", "cache" // Argument type & argument name
         );
 
         // If object is already in the Realm there is nothing to update
@@ -796,7 +943,9 @@ public class RealmProxyClassGenerator {
         if (metadata.hasPrimaryKey()) {
             writer.emitStatement("long pkColumnIndex = table.getPrimaryKey()");
         }
+        emitAutoIncrementPrimaryKey(writer, "table");
         addPrimaryKeyCheckIfNeeded(metadata, true, writer);
+        emitCachePut(writer, false);
 
         for (VariableElement field : metadata.getFields()) {
             String fieldName = field.getSimpleName().toString();
@@ -808,8 +957,8 @@ public class RealmProxyClassGenerator {
                         .emitEmptyLine()
                         .emitStatement("%s %sObj = ((%s) object).%s()", fieldType, fieldName, interfaceName, getter)
                         .beginControlFlow("if (%sObj != null)", fieldName)
-                            .emitStatement("Long cache%1$s = cache.get(%1$sObj)", fieldName)
-                            .beginControlFlow("if (cache%s == null)", fieldName)
+                            .emitStatement("long cache%1$s = cache.get(%1$sObj)", fieldName)
+                            .beginControlFlow("if (cache%s == TableOrView.NO_MATCH)", fieldName)
                                 .emitStatement("cache%s = %s.insert(realm, %sObj, cache)",
                                         fieldName,
                                         Utils.getProxyClassSimpleName(field),
@@ -826,8 +975,8 @@ public class RealmProxyClassGenerator {
                         .beginControlFlow("if (%sList != null)", fieldName)
                             .emitStatement("long %1$sNativeLinkViewPtr = Table.nativeGetLinkView(tableNativePtr, columnInfo.%1$sIndex, rowIndex)", fieldName)
                             .beginControlFlow("for (%1$s %2$sItem : %2$sList)", genericType, fieldName)
-                                .emitStatement("Long cacheItemIndex%1$s = cache.get(%1$sItem)", fieldName)
-                             .beginControlFlow("if (cacheItemIndex%s == null)", fieldName)
+                                .emitStatement("long cacheItemIndex%1$s = cache.get(%1$sItem)", fieldName)
+                             .beginControlFlow("if (cacheItemIndex%s == TableOrView.NO_MATCH)", fieldName)
                                 .emitStatement("cacheItemIndex%1$s = %2$s.insert(realm, %1$sItem, cache)", fieldName, Utils.getProxyClassSimpleName(field))
                              .endControlFlow()
                              .emitStatement("LinkView.nativeAdd(%1$sNativeLinkViewPtr, cacheItemIndex%1$s)", fieldName)
@@ -853,7 +1002,7 @@ public class RealmProxyClassGenerator {
                 "void", // Return type
                 "insert", // Method name
                 EnumSet.of(Modifier.PUBLIC, Modifier.STATIC), // Modifiers
-                "Realm", "realm", "Iterator<? extends RealmModel>", "objects", "Map<RealmModel,Long>", "cache" // Argument type & argument name
+                "Realm", "realm", "Iterator<? extends RealmModel>", "objects", "IdentityRowMap", "cache" // Argument type & argument name
         );
 
         writer.emitStatement("Table table = realm.getTable(%s.class)", qualifiedClassName);
@@ -865,16 +1014,10 @@ public class RealmProxyClassGenerator {
         }
         writer.emitStatement("%s object = null", qualifiedClassName);
 
-        writer.beginControlFlow("while (objects.hasNext())");
-        writer.emitStatement("object = (%s) objects.next()", qualifiedClassName);
-        writer.beginControlFlow("if(!cache.containsKey(object))");
-
-        writer.beginControlFlow("if (object instanceof RealmObjectProxy && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm() != null && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm().getPath().equals(realm.getPath()))");
-                writer.emitStatement("cache.put(object, ((RealmObjectProxy)object).realmGet$proxyState().getRow$realm().getIndex())")
-                .emitStatement("continue");
-        writer.endControlFlow();
-
+        emitInsertListLoopStart(writer);
+        emitAutoIncrementPrimaryKey(writer, "table");
         addPrimaryKeyCheckIfNeeded(metadata, true, writer);
+        emitCachePut(writer, true);
 
         for (VariableElement field : metadata.getFields()) {
             String fieldName = field.getSimpleName().toString();
@@ -886,8 +1029,8 @@ public class RealmProxyClassGenerator {
                         .emitEmptyLine()
                         .emitStatement("%s %sObj = ((%s) object).%s()", fieldType, fieldName, interfaceName, getter)
                         .beginControlFlow("if (%sObj != null)", fieldName)
-                            .emitStatement("Long cache%1$s = cache.get(%1$sObj)", fieldName)
-                         .beginControlFlow("if (cache%s == null)", fieldName)
+                            .emitStatement("long cache%1$s = cache.get(%1$sObj)", fieldName)
+                         .beginControlFlow("if (cache%s == TableOrView.NO_MATCH)", fieldName)
                                 .emitStatement("cache%s = %s.insert(realm, %sObj, cache)",
                                         fieldName,
                                         Utils.getProxyClassSimpleName(field),
@@ -904,8 +1047,8 @@ public class RealmProxyClassGenerator {
                         .beginControlFlow("if (%sList != null)", fieldName)
                             .emitStatement("long %1$sNativeLinkViewPtr = Table.nativeGetLinkView(tableNativePtr, columnInfo.%1$sIndex, rowIndex)", fieldName)
                           .beginControlFlow("for (%1$s %2$sItem : %2$sList)", genericType, fieldName)
-                                .emitStatement("Long cacheItemIndex%1$s = cache.get(%1$sItem)", fieldName)
-                             .beginControlFlow("if (cacheItemIndex%s == null)", fieldName)
+                                .emitStatement("long cacheItemIndex%1$s = cache.get(%1$sItem)", fieldName)
+                             .beginControlFlow("if (cacheItemIndex%s == TableOrView.NO_MATCH)", fieldName)
                                     .emitStatement("cacheItemIndex%1$s = %2$s.insert(realm, %1$sItem, cache)", fieldName, Utils.getProxyClassSimpleName(field))
                              .endControlFlow()
                         .emitStatement("LinkView.nativeAdd(%1$sNativeLinkViewPtr, cacheItemIndex%1$s)", fieldName)
@@ -921,8 +1064,7 @@ public class RealmProxyClassGenerator {
             }
         }
 
-        writer.endControlFlow();
-        writer.endControlFlow();
+        emitInsertListLoopEnd(writer);
         writer.endMethod();
         writer.emitEmptyLine();
     }
@@ -932,7 +1074,7 @@ public class RealmProxyClassGenerator {
                 "long", // Return type
                 "insertOrUpdate", // Method name
                 EnumSet.of(Modifier.PUBLIC, Modifier.STATIC), // Modifiers
-                "Realm", "realm", qualifiedClassName, "object", "Map<RealmModel,Long>", "cache" // Argument type & argument name
+                "Realm", "realm", qualifiedClassName, "object", "IdentityRowMap", "cache" // Argument type & argument name
         );
 
         // If object is already in the Realm there is nothing to update
@@ -945,59 +1087,17 @@ public class RealmProxyClassGenerator {
         writer.emitStatement("long tableNativePtr = table.getNativeTablePointer()");
         writer.emitStatement("%s columnInfo = (%s) realm.schema.getColumnInfo(%s.class)",
                 columnInfoClassName(), columnInfoClassName(), qualifiedClassName);
+        writer.emitStatement("boolean skipUnchanged = realm.getConfiguration().shouldSkipUnchangedUpdates()");
 
         if (metadata.hasPrimaryKey()) {
             writer.emitStatement("long pkColumnIndex = table.getPrimaryKey()");
         }
+        emitAutoIncrementPrimaryKey(writer, "table");
+        emitFirstNewRowIfNeeded(writer);
         addPrimaryKeyCheckIfNeeded(metadata, false, writer);
+        emitCachePut(writer, false);
 
-        for (VariableElement field : metadata.getFields()) {
-            String fieldName = field.getSimpleName().toString();
-            String fieldType = field.asType().toString();
-            String getter = metadata.getGetter(fieldName);
-
-            if (Utils.isRealmModel(field)) {
-                writer
-                        .emitEmptyLine()
-                        .emitStatement("%s %sObj = ((%s) object).%s()", fieldType, fieldName, interfaceName, getter)
-                        .beginControlFlow("if (%sObj != null)", fieldName)
-                            .emitStatement("Long cache%1$s = cache.get(%1$sObj)", fieldName)
-                            .beginControlFlow("if (cache%s == null)", fieldName)
-                                .emitStatement("cache%1$s = %2$s.insertOrUpdate(realm, %1$sObj, cache)",
-                                        fieldName,
-                                        Utils.getProxyClassSimpleName(field))
-                            .endControlFlow()
-                            .emitStatement("Table.nativeSetLink(tableNativePtr, columnInfo.%1$sIndex, rowIndex, cache%1$s)", fieldName)
-                        .nextControlFlow("else")
-                                // No need to throw exception here if the field is not nullable. A exception will be thrown in setter.
-                            .emitStatement("Table.nativeNullifyLink(tableNativePtr, columnInfo.%sIndex, rowIndex)", fieldName)
-                        .endControlFlow();
-            } else if (Utils.isRealmList(field)) {
-                final String genericType = Utils.getGenericTypeQualifiedName(field);
-                writer
-                        .emitEmptyLine()
-                        .emitStatement("long %1$sNativeLinkViewPtr = Table.nativeGetLinkView(tableNativePtr, columnInfo.%1$sIndex, rowIndex)", fieldName)
-                        .emitStatement("LinkView.nativeClear(%sNativeLinkViewPtr)", fieldName)
-                        .emitStatement("RealmList<%s> %sList = ((%s) object).%s()",
-                                genericType, fieldName, interfaceName, getter)
-                        .beginControlFlow("if (%sList != null)", fieldName)
-                            .beginControlFlow("for (%1$s %2$sItem : %2$sList)", genericType, fieldName)
-                                .emitStatement("Long cacheItemIndex%1$s = cache.get(%1$sItem)", fieldName)
-                                .beginControlFlow("if (cacheItemIndex%s == null)", fieldName)
-                                    .emitStatement("cacheItemIndex%1$s = %2$s.insertOrUpdate(realm, %1$sItem, cache)", fieldName, Utils.getProxyClassSimpleName(field))
-                                .endControlFlow()
-                                .emitStatement("LinkView.nativeAdd(%1$sNativeLinkViewPtr, cacheItemIndex%1$s)", fieldName)
-                            .endControlFlow()
-                        .endControlFlow()
-                        .emitStatement("LinkView.nativeClose(%sNativeLinkViewPtr)", fieldName)
-                        .emitEmptyLine();
-
-            } else {
-                if (metadata.getPrimaryKey() != field) {
-                    setTableValues(writer, fieldType, fieldName, interfaceName, getter, true);
-                }
-            }
-        }
+        emitInsertOrUpdateFields(writer);
 
         writer.emitStatement("return rowIndex");
 
@@ -1010,28 +1110,99 @@ public class RealmProxyClassGenerator {
                 "void", // Return type
                 "insertOrUpdate", // Method name
                 EnumSet.of(Modifier.PUBLIC, Modifier.STATIC), // Modifiers
-                "Realm", "realm", "Iterator<? extends RealmModel>", "objects", "Map<RealmModel,Long>", "cache" // Argument type & argument name
+                "Realm", "realm", "Iterator<? extends RealmModel>", "objects", "IdentityRowMap", "cache" // Argument type & argument name
         );
 
         writer.emitStatement("Table table = realm.getTable(%s.class)", qualifiedClassName);
         writer.emitStatement("long tableNativePtr = table.getNativeTablePointer()");
         writer.emitStatement("%s columnInfo = (%s) realm.schema.getColumnInfo(%s.class)",
                 columnInfoClassName(), columnInfoClassName(), qualifiedClassName);
-        if (metadata.hasPrimaryKey()) {
+        writer.emitStatement("boolean skipUnchanged = realm.getConfiguration().shouldSkipUnchangedUpdates()");
+        // Rows of objects ordered by @OrderedBy cannot be added before their fields are set, as the order is checked
+        // against the neighbouring rows.
+        boolean batchPrimaryKeys = metadata.hasPrimaryKey() && metadata.getOrderedField() == null;
+        if (metadata.hasPrimaryKey() && !batchPrimaryKeys) {
             writer.emitStatement("long pkColumnIndex = table.getPrimaryKey()");
         }
         writer.emitStatement("%s object = null", qualifiedClassName);
 
-        writer.beginControlFlow("while (objects.hasNext())");
-        writer.emitStatement("object = (%s) objects.next()", qualifiedClassName);
-        writer.beginControlFlow("if(!cache.containsKey(object))");
+        if (batchPrimaryKeys) {
+            emitBatchedPrimaryKeyInsertOrUpdate(writer);
+        } else {
+            emitInsertListLoopStart(writer);
+            emitAutoIncrementPrimaryKey(writer, "table");
+            emitFirstNewRowIfNeeded(writer);
+            addPrimaryKeyCheckIfNeeded(metadata, false, writer);
+            emitCachePut(writer, true);
+            emitInsertOrUpdateFields(writer);
+            emitInsertListLoopEnd(writer);
+        }
 
-        writer.beginControlFlow("if (object instanceof RealmObjectProxy && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm() != null && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm().getPath().equals(realm.getPath()))");
-            writer.emitStatement("cache.put(object, ((RealmObjectProxy)object).realmGet$proxyState().getRow$realm().getIndex())")
-                  .emitStatement("continue");
+        writer.endMethod();
+        writer.emitEmptyLine();
+    }
+
+    // Collects the unmanaged objects first and resolves the rows of all their primary keys with a single native call,
+    // which adds the rows of new keys. Only the other fields are set per object.
+    private void emitBatchedPrimaryKeyInsertOrUpdate(JavaWriter writer) throws IOException {
+        VariableElement primaryKeyElement = metadata.getPrimaryKey();
+        String primaryKeyGetter = metadata.getPrimaryKeyGetter();
+
+        writer.emitStatement("List<%1$s> batch = new ArrayList<%1$s>()", qualifiedClassName);
+        emitInsertListLoopStart(writer);
+        emitAutoIncrementPrimaryKey(writer, "table");
+        writer.emitStatement("batch.add(object)");
+        emitInsertListLoopEnd(writer);
+        writer.emitStatement("int batchSize = batch.size()");
+        emitFirstNewRowIfNeeded(writer);
+
+        if (Utils.isString(primaryKeyElement)) {
+            writer
+                    .emitStatement("String[] primaryKeys = new String[batchSize]")
+                    .beginControlFlow("for (int i = 0; i < batchSize; i++)")
+                        .emitStatement("primaryKeys[i] = ((%s) batch.get(i)).%s()", interfaceName, primaryKeyGetter)
+                    .endControlFlow()
+                    .emitStatement("long[] rowIndices = table.findOrAddRowsWithPrimaryKeys(primaryKeys)");
+        } else if (Utils.isPrimitiveType(primaryKeyElement)) {
+            writer
+                    .emitStatement("long[] primaryKeys = new long[batchSize]")
+                    .beginControlFlow("for (int i = 0; i < batchSize; i++)")
+                        .emitStatement("primaryKeys[i] = ((%s) batch.get(i)).%s()", interfaceName, primaryKeyGetter)
+                    .endControlFlow()
+                    .emitStatement("long[] rowIndices = table.findOrAddRowsWithPrimaryKeys(primaryKeys, null)");
+            if (metadata.isPrimaryKeyAutoIncrement()) {
+                writer.emitStatement("table.advanceAutoIncrementPrimaryKey(primaryKeys)");
+            }
+        } else {
+            writer
+                    .emitStatement("long[] primaryKeys = new long[batchSize]")
+                    .emitStatement("boolean[] primaryKeyNulls = new boolean[batchSize]")
+                    .beginControlFlow("for (int i = 0; i < batchSize; i++)")
+                        .emitStatement("Number primaryKeyValue = ((%s) batch.get(i)).%s()", interfaceName, primaryKeyGetter)
+                        .beginControlFlow("if (primaryKeyValue == null)")
+                            .emitStatement("primaryKeyNulls[i] = true")
+                        .nextControlFlow("else")
+                            .emitStatement("primaryKeys[i] = primaryKeyValue.longValue()")
+                        .endControlFlow()
+                    .endControlFlow()
+                    .emitStatement("long[] rowIndices = table.findOrAddRowsWithPrimaryKeys(primaryKeys, primaryKeyNulls)");
+        }
+
+        writer.beginControlFlow("for (int i = 0; i < batchSize; i++)");
+        writer.emitStatement("object = batch.get(i)");
+        if (skipsInsertedObjects()) {
+            // Already set if the object is referenced by an object set before or is in the list twice
+            writer.beginControlFlow("if (cache.containsKey(object))")
+                    .emitStatement("continue")
+                    .endControlFlow();
+        }
+        writer.emitStatement("long rowIndex = rowIndices[i]");
+        emitCachePut(writer, true);
+        emitInsertOrUpdateFields(writer);
         writer.endControlFlow();
-        addPrimaryKeyCheckIfNeeded(metadata, false, writer);
+    }
 
+    private void emitInsertOrUpdateFields(JavaWriter writer) throws IOException {
         for (VariableElement field : metadata.getFields()) {
             String fieldName = field.getSimpleName().toString();
             String fieldType = field.asType().toString();
@@ -1042,48 +1213,129 @@ public class RealmProxyClassGenerator {
                         .emitEmptyLine()
                         .emitStatement("%s %sObj = ((%s) object).%s()", fieldType, fieldName, interfaceName, getter)
                         .beginControlFlow("if (%sObj != null)", fieldName)
-                            .emitStatement("Long cache%1$s = cache.get(%1$sObj)", fieldName)
-                            .beginControlFlow("if (cache%s == null)", fieldName)
+                            .emitStatement("long cache%1$s = cache.get(%1$sObj)", fieldName)
+                            .beginControlFlow("if (cache%s == TableOrView.NO_MATCH)", fieldName)
                                 .emitStatement("cache%1$s = %2$s.insertOrUpdate(realm, %1$sObj, cache)",
                                         fieldName,
                                         Utils.getProxyClassSimpleName(field))
                                     .endControlFlow()
-                            .emitStatement("Table.nativeSetLink(tableNativePtr, columnInfo.%1$sIndex, rowIndex, cache%1$s)", fieldName)
+                            .emitStatement("Table.nativeUpdateLink(tableNativePtr, columnInfo.%1$sIndex, rowIndex, cache%1$s, skipUnchanged)", fieldName)
                         .nextControlFlow("else")
                                 // No need to throw exception here if the field is not nullable. A exception will be thrown in setter.
-                            .emitStatement("Table.nativeNullifyLink(tableNativePtr, columnInfo.%sIndex, rowIndex)", fieldName)
+                            .emitStatement("Table.nativeUpdateNullLink(tableNativePtr, columnInfo.%sIndex, rowIndex, skipUnchanged)", fieldName)
                         .endControlFlow();
             } else if (Utils.isRealmList(field)) {
+                // The rows of all items are resolved first, so the list is replaced with a single native call which
+                // can skip the write if the list did not change.
                 final String genericType = Utils.getGenericTypeQualifiedName(field);
                 writer
                         .emitEmptyLine()
-                        .emitStatement("long %1$sNativeLinkViewPtr = Table.nativeGetLinkView(tableNativePtr, columnInfo.%1$sIndex, rowIndex)", fieldName)
-                        .emitStatement("LinkView.nativeClear(%sNativeLinkViewPtr)", fieldName)
                         .emitStatement("RealmList<%s> %sList = ((%s) object).%s()",
                                 genericType, fieldName, interfaceName, getter)
-                        .beginControlFlow("if (%sList != null)", fieldName)
-                            .beginControlFlow("for (%1$s %2$sItem : %2$sList)", genericType, fieldName)
-                                .emitStatement("Long cacheItemIndex%1$s = cache.get(%1$sItem)", fieldName)
-                            .beginControlFlow("if (cacheItemIndex%s == null)", fieldName)
-                                    .emitStatement("cacheItemIndex%1$s = %2$s.insertOrUpdate(realm, %1$sItem, cache)", fieldName, Utils.getProxyClassSimpleName(field))
-                                .endControlFlow()
-                            .emitStatement("LinkView.nativeAdd(%1$sNativeLinkViewPtr, cacheItemIndex%1$s)", fieldName)
+                        .emitStatement("long[] %1$sRowIndices = new long[(%1$sList == null) ? 0 : %1$sList.size()]", fieldName)
+                        .beginControlFlow("for (int %1$sPosition = 0; %1$sPosition < %1$sRowIndices.length; %1$sPosition++)", fieldName)
+                            .emitStatement("%1$s %2$sItem = %2$sList.get(%2$sPosition)", genericType, fieldName)
+                            .emitStatement("long cacheItemIndex%1$s = cache.get(%1$sItem)", fieldName)
+                            .beginControlFlow("if (cacheItemIndex%s == TableOrView.NO_MATCH)", fieldName)
+                                .emitStatement("cacheItemIndex%1$s = %2$s.insertOrUpdate(realm, %1$sItem, cache)", fieldName, Utils.getProxyClassSimpleName(field))
                             .endControlFlow()
+                            .emitStatement("%1$sRowIndices[%1$sPosition] = cacheItemIndex%1$s", fieldName)
                         .endControlFlow()
+                        .emitStatement("long %1$sNativeLinkViewPtr = Table.nativeGetLinkView(tableNativePtr, columnInfo.%1$sIndex, rowIndex)", fieldName)
+                        .emitStatement("LinkView.nativeSetAll(%1$sNativeLinkViewPtr, %1$sRowIndices, skipUnchanged)", fieldName)
                         .emitStatement("LinkView.nativeClose(%sNativeLinkViewPtr)", fieldName)
                         .emitEmptyLine();
 
+            } else if (metadata.isCounter(field) && metadata.hasPrimaryKey()) {
+                // Existing objects keep their count
+                writer.beginControlFlow("if (rowIndex >= firstNewRow)");
+                setTableValues(writer, fieldType, fieldName, interfaceName, getter, true);
+                writer.endControlFlow();
             } else {
                 if (metadata.getPrimaryKey() != field) {
                     setTableValues(writer, fieldType, fieldName, interfaceName, getter, true);
                 }
             }
         }
+    }
+
+    // Rows for new primary keys are appended, so rows from the current size on are the ones created by the update
+    private void emitFirstNewRowIfNeeded(JavaWriter writer) throws IOException {
+        if (metadata.hasPrimaryKey() && metadata.hasCounters()) {
+            writer.emitStatement("long firstNewRow = table.size()");
+        }
+    }
+
+    // Objects of classes with links are looked up in the cache as they can be referenced by objects inserted
+    // before. Otherwise an object can only be part of the iterated objects and the cache is not used.
+    // The mediator passes a cache to the list methods of classes with links, which record the rows for the objects
+    // referencing them, and of classes with a primary key, which must not insert an object of the list twice.
+    private boolean skipsInsertedObjects() {
+        return metadata.hasLinks() || metadata.hasPrimaryKey();
+    }
+
+    private void emitInsertListLoopStart(JavaWriter writer) throws IOException {
+        boolean skipsInsertedObjects = skipsInsertedObjects();
+        writer.beginControlFlow("while (objects.hasNext())");
+        writer.emitStatement("object = (%s) objects.next()", qualifiedClassName);
+        if (skipsInsertedObjects) {
+            writer.beginControlFlow("if(!cache.containsKey(object))");
+        }
+
+        writer.beginControlFlow("if (object instanceof RealmObjectProxy && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm() != null && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm().getPath().equals(realm.getPath()))");
+        if (skipsInsertedObjects) {
+            writer.emitStatement("cache.put(object, ((RealmObjectProxy)object).realmGet$proxyState().getRow$realm().getIndex())");
+        }
+        writer.emitStatement("continue");
+        writer.endControlFlow();
+    }
+
+    private void emitInsertListLoopEnd(JavaWriter writer) throws IOException {
+        if (skipsInsertedObjects()) {
             writer.endControlFlow();
+        }
         writer.endControlFlow();
+    }
 
-        writer.endMethod();
-        writer.emitEmptyLine();
+    // Records the row of the inserted object. The cache is null if a class without links is inserted on its own or,
+    // without a primary key either, as part of a list. It is only needed by the objects referencing it otherwise.
+    private void emitCachePut(JavaWriter writer, boolean inList) throws IOException {
+        if (metadata.hasLinks() || (inList && skipsInsertedObjects())) {
+            writer.emitStatement("cache.put(object, rowIndex)");
+        } else if (!inList) {
+            writer.beginControlFlow("if (cache != null)")
+                    .emitStatement("cache.put(object, rowIndex)")
+                    .endControlFlow();
+        }
+    }
+
+    // Objects of classes declared with @PrimaryKey(autoIncrement = true) get the next key of the sequence if their
+    // key is 0. Keys set explicitly advance the sequence when their row is added to the table, see
+    // addPrimaryKeyCheckIfNeeded() and emitBatchedPrimaryKeyInsertOrUpdate(). Other classes never touch the sequences.
+    private void emitAutoIncrementPrimaryKey(JavaWriter writer, String table) throws IOException {
+        if (!metadata.isPrimaryKeyAutoIncrement()) {
+            return;
+        }
+        VariableElement primaryKeyElement = metadata.getPrimaryKey();
+        writer
+                .beginControlFlow("if (((%s) object).%s() == 0)", interfaceName, metadata.getPrimaryKeyGetter())
+                    .emitStatement("((%s) object).%s((%s) %s.nextAutoIncrementPrimaryKey(%s))",
+                            interfaceName, metadata.getSetter(primaryKeyElement.getSimpleName().toString()),
+                            primaryKeyElement.asType().toString(), table, integerMaxValue(primaryKeyElement))
+                .endControlFlow();
+    }
+
+    // Values beyond the largest value of a byte, short or int field would wrap around when cast by the proxy
+    private static String integerMaxValue(VariableElement field) {
+        String type = field.asType().toString();
+        if (type.equals("byte") || type.equals("java.lang.Byte")) {
+            return "Byte.MAX_VALUE";
+        } else if (type.equals("short") || type.equals("java.lang.Short")) {
+            return "Short.MAX_VALUE";
+        } else if (type.equals("int") || type.equals("java.lang.Integer")) {
+            return "Integer.MAX_VALUE";
+        }
+        return "Long.MAX_VALUE";
     }
 
     private void addPrimaryKeyCheckIfNeeded(ClassMetaData metadata, boolean throwIfPrimaryKeyDuplicate, JavaWriter writer) throws IOException {
@@ -1129,6 +1381,10 @@ public class RealmProxyClassGenerator {
             } else {
                 writer.emitStatement("rowIndex = table.addEmptyRowWithPrimaryKey(((%s) object).%s(), false)",
                         interfaceName, primaryKeyGetter);
+                if (metadata.isPrimaryKeyAutoIncrement()) {
+                    writer.emitStatement("table.advanceAutoIncrementPrimaryKey(((%s) object).%s())",
+                            interfaceName, primaryKeyGetter);
+                }
             }
 
             if (throwIfPrimaryKeyDuplicate) {
@@ -1137,10 +1393,8 @@ public class RealmProxyClassGenerator {
             }
 
             writer.endControlFlow();
-            writer.emitStatement("cache.put(object, rowIndex)");
         } else {
             writer.emitStatement("long rowIndex = Table.nativeAddEmptyRow(tableNativePtr, 1)");
-            writer.emitStatement("cache.put(object, rowIndex)");
         }
     }
 
@@ -1298,56 +1552,67 @@ public class RealmProxyClassGenerator {
                 EnumSet.of(Modifier.STATIC), // Modifiers
                 "Realm", "realm", qualifiedClassName, "realmObject", qualifiedClassName, "newObject", "Map<RealmModel, RealmObjectProxy>", "cache"); // Argument type & argument name
 
+        writer.emitStatement("boolean skipUnchanged = realm.getConfiguration().shouldSkipUnchangedUpdates()");
         for (VariableElement field : metadata.getFields()) {
             String fieldName = field.getSimpleName().toString();
             String setter = metadata.getSetter(fieldName);
             String getter = metadata.getGetter(fieldName);
             if (Utils.isRealmModel(field)) {
+                String fieldType = Utils.getFieldTypeQualifiedName(field);
                 writer
-                    .emitStatement("%s %sObj = ((%s) newObject).%s()",
-                            Utils.getFieldTypeQualifiedName(field), fieldName, interfaceName, getter)
+                    .emitStatement("%s %sObj = ((%s) newObject).%s()", fieldType, fieldName, interfaceName, getter)
                     .beginControlFlow("if (%sObj != null)", fieldName)
-                        .emitStatement("%s cache%s = (%s) cache.get(%sObj)", Utils.getFieldTypeQualifiedName(field), fieldName, Utils.getFieldTypeQualifiedName(field), fieldName)
-                        .beginControlFlow("if (cache%s != null)", fieldName)
+                        .emitStatement("%s cache%s = (%s) cache.get(%sObj)", fieldType, fieldName, fieldType, fieldName)
+                        .beginControlFlow("if (cache%s == null)", fieldName)
+                            .emitStatement("cache%s = %s.copyOrUpdate(realm, %sObj, true, cache)",
+                                    fieldName, Utils.getProxyClassSimpleName(field), fieldName)
+                        .endControlFlow()
+                        .beginControlFlow("if (!skipUnchanged || !Util.isSameRow(((%s) realmObject).%s(), cache%s))",
+                                interfaceName, getter, fieldName)
                             .emitStatement("((%s) realmObject).%s(cache%s)", interfaceName, setter, fieldName)
-                        .nextControlFlow("else")
-                            .emitStatement("((%s) realmObject).%s(%s.copyOrUpdate(realm, %sObj, true, cache))",
-                                    interfaceName,
-                                    setter,
-                                    Utils.getProxyClassSimpleName(field),
-                                    fieldName
-                            )
                         .endControlFlow()
-                    .nextControlFlow("else")
+                    .nextControlFlow("else if (!skipUnchanged || ((%s) realmObject).%s() != null)", interfaceName, getter)
                         // No need to throw exception here if the field is not nullable. A exception will be thrown in setter.
                         .emitStatement("((%s) realmObject).%s(null)", interfaceName, setter)
                     .endControlFlow();
             } else if (Utils.isRealmList(field)) {
+                // Items are copied before the list is written, so an unchanged list can be compared and skipped
                 final String genericType = Utils.getGenericTypeQualifiedName(field);
                 writer
                     .emitStatement("RealmList<%s> %sList = ((%s) newObject).%s()",
                             genericType, fieldName, interfaceName, getter)
-                    .emitStatement("RealmList<%s> %sRealmList = ((%s) realmObject).%s()",
-                            genericType, fieldName, interfaceName, getter)
-                    .emitStatement("%sRealmList.clear()", fieldName)
+                    .emitStatement("List<%1$s> %2$sManagedList = new ArrayList<%1$s>()", genericType, fieldName)
                     .beginControlFlow("if (%sList != null)", fieldName)
                         .beginControlFlow("for (int i = 0; i < %sList.size(); i++)", fieldName)
                             .emitStatement("%s %sItem = %sList.get(i)", genericType, fieldName, fieldName)
                             .emitStatement("%s cache%s = (%s) cache.get(%sItem)", genericType, fieldName, genericType, fieldName)
                             .beginControlFlow("if (cache%s != null)", fieldName)
-                                .emitStatement("%sRealmList.add(cache%s)", fieldName, fieldName)
+                                .emitStatement("%sManagedList.add(cache%s)", fieldName, fieldName)
                             .nextControlFlow("else")
-                                .emitStatement("%sRealmList.add(%s.copyOrUpdate(realm, %sList.get(i), true, cache))", fieldName, Utils.getProxyClassSimpleName(field), fieldName)
+                                .emitStatement("%sManagedList.add(%s.copyOrUpdate(realm, %sItem, true, cache))", fieldName, Utils.getProxyClassSimpleName(field), fieldName)
                             .endControlFlow()
                         .endControlFlow()
+                    .endControlFlow()
+                    .emitStatement("RealmList<%s> %sRealmList = ((%s) realmObject).%s()",
+                            genericType, fieldName, interfaceName, getter)
+                    .beginControlFlow("if (!skipUnchanged || !Util.isSameRows(%1$sRealmList, %1$sManagedList))", fieldName)
+                        .emitStatement("%sRealmList.clear()", fieldName)
+                        .beginControlFlow("for (%1$s %2$sItem : %2$sManagedList)", genericType, fieldName)
+                            .emitStatement("%1$sRealmList.add(%1$sItem)", fieldName)
+                        .endControlFlow()
                     .endControlFlow();
 
             } else {
-                if (field == metadata.getPrimaryKey()) {
+                if (field == metadata.getPrimaryKey() || metadata.isCounter(field)) {
+                    // Counters are only set when the object is created
                     continue;
                 }
-                writer.emitStatement("((%s) realmObject).%s(((%s) newObject).%s())",
-                        interfaceName, setter, interfaceName, getter);
+                writer
+                    .beginControlFlow("if (!skipUnchanged || !Util.isSameValue(((%s) realmObject).%s(), ((%s) newObject).%s()))",
+                            interfaceName, getter, interfaceName, getter)
+                        .emitStatement("((%s) realmObject).%s(((%s) newObject).%s())",
+                                interfaceName, setter, interfaceName, getter)
+                    .endControlFlow();
             }
         }
 
@@ -1642,4 +1907,17 @@ public class RealmProxyClassGenerator {
     private String fieldIndexVariableReference(VariableElement variableElement) {
         return "columnInfo." + columnIndexVarName(variableElement);
     }
+
+    private String collationKeyIndexVarName(VariableElement variableElement) {
+        return variableElement.getSimpleName().toString() + "CollationKeyIndex";
+    }
+
+    private String collationKeyIndexVariableReference(VariableElement variableElement) {
+        return "columnInfo." + collationKeyIndexVarName(variableElement);
+    }
+
+    // Must match io.realm.internal.Collation.getKeyColumnName()
+    private String collationKeyColumnName(VariableElement variableElement) {
+        return variableElement.getSimpleName().toString() + "$collation";
+    }
 }
@@ -71,6 +71,23 @@ public class RealmProxyInterfaceGenerator {
                         .endMethod();
             }
         }
+        for (VariableElement field : metaData.getBacklinkFields()) {
+            String fieldName = field.getSimpleName().toString();
+            String fieldTypeCanonicalName = field.asType().toString();
+            writer
+                    .beginMethod(
+                            fieldTypeCanonicalName,
+                            metaData.getGetter(fieldName),
+                            EnumSet.of(Modifier.PUBLIC))
+                    .endMethod()
+                    .beginMethod(
+                            "void",
+                            metaData.getSetter(fieldName),
+                            EnumSet.of(Modifier.PUBLIC),
+                            fieldTypeCanonicalName,
+                            "value")
+                    .endMethod();
+        }
         writer.endType();
         writer.close();
     }
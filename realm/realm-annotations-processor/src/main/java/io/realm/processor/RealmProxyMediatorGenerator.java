@@ -40,6 +40,8 @@ public class RealmProxyMediatorGenerator {
     private ProcessingEnvironment processingEnvironment;
     private List<String> qualifiedModelClasses = new ArrayList<String>();
     private List<String> qualifiedProxyClasses = new ArrayList<String>();
+    private List<Boolean> classHasLinks = new ArrayList<Boolean>();
+    private List<Boolean> classSkipsInsertedObjects = new ArrayList<Boolean>();
 
     public RealmProxyMediatorGenerator(ProcessingEnvironment processingEnvironment,
                                        String className, Set<ClassMetaData> classesToValidate) {
@@ -50,6 +52,8 @@ public class RealmProxyMediatorGenerator {
             String simpleName = metadata.getSimpleClassName();
             qualifiedModelClasses.add(metadata.getFullyQualifiedClassName());
             qualifiedProxyClasses.add(REALM_PACKAGE_NAME + "." + getProxyClassName(simpleName));
+            classHasLinks.add(metadata.hasLinks());
+            classSkipsInsertedObjects.add(metadata.hasLinks() || metadata.hasPrimaryKey());
         }
     }
 
@@ -69,11 +73,11 @@ public class RealmProxyMediatorGenerator {
                 "java.util.HashSet",
                 "java.util.List",
                 "java.util.Map",
-                "java.util.IdentityHashMap",
                 "java.util.Set",
                 "java.util.Iterator",
                 "java.util.Collection",
                 "io.realm.internal.ColumnInfo",
+                "io.realm.internal.IdentityRowMap",
                 "io.realm.internal.SharedRealm",
                 "io.realm.internal.RealmObjectProxy",
                 "io.realm.internal.RealmProxyMediator",
@@ -249,7 +253,7 @@ public class RealmProxyMediatorGenerator {
                 "void",
                 "insert",
                 EnumSet.of(Modifier.PUBLIC),
-                "Realm", "realm", "RealmModel", "object", "Map<RealmModel, Long>", "cache");
+                "Realm", "realm", "RealmModel", "object");
         writer.emitSingleLineComment("This cast is correct because obj is either");
         writer.emitSingleLineComment("generated by RealmProxy or the original type extending directly from RealmObject");
         writer.emitStatement("@SuppressWarnings(\"unchecked\") Class<RealmModel> clazz = (Class<RealmModel>) ((object instanceof RealmObjectProxy) ? object.getClass().getSuperclass() : object.getClass())");
@@ -257,7 +261,8 @@ public class RealmProxyMediatorGenerator {
         emitMediatorSwitch(new ProxySwitchStatement() {
             @Override
             public void emitStatement(int i, JavaWriter writer) throws IOException {
-                writer.emitStatement("%s.insert(realm, (%s) object, cache)", qualifiedProxyClasses.get(i), qualifiedModelClasses.get(i));
+                writer.emitStatement("%s.insert(realm, (%s) object, %s)", qualifiedProxyClasses.get(i),
+                        qualifiedModelClasses.get(i), classHasLinks.get(i) ? "new IdentityRowMap()" : "null");
             }
         }, writer, false);
         writer.endMethod();
@@ -270,7 +275,7 @@ public class RealmProxyMediatorGenerator {
                 "void",
                 "insertOrUpdate",
                 EnumSet.of(Modifier.PUBLIC),
-                "Realm", "realm", "RealmModel", "obj", "Map<RealmModel, Long>", "cache");
+                "Realm", "realm", "RealmModel", "obj");
         writer.emitSingleLineComment("This cast is correct because obj is either");
         writer.emitSingleLineComment("generated by RealmProxy or the original type extending directly from RealmObject");
         writer.emitStatement("@SuppressWarnings(\"unchecked\") Class<RealmModel> clazz = (Class<RealmModel>) ((obj instanceof RealmObjectProxy) ? obj.getClass().getSuperclass() : obj.getClass())");
@@ -278,7 +283,8 @@ public class RealmProxyMediatorGenerator {
         emitMediatorSwitch(new ProxySwitchStatement() {
             @Override
             public void emitStatement(int i, JavaWriter writer) throws IOException {
-                writer.emitStatement("%s.insertOrUpdate(realm, (%s) obj, cache)", qualifiedProxyClasses.get(i), qualifiedModelClasses.get(i));
+                writer.emitStatement("%s.insertOrUpdate(realm, (%s) obj, %s)", qualifiedProxyClasses.get(i),
+                        qualifiedModelClasses.get(i), classHasLinks.get(i) ? "new IdentityRowMap()" : "null");
             }
         }, writer, false);
         writer.endMethod();
@@ -295,7 +301,9 @@ public class RealmProxyMediatorGenerator {
 
         writer.emitStatement("Iterator<? extends RealmModel> iterator = objects.iterator()");
         writer.emitStatement("RealmModel object = null");
-        writer.emitStatement("Map<RealmModel, Long> cache = new IdentityHashMap<RealmModel, Long>(objects.size())");
+        writer.emitSingleLineComment("Objects of classes with links can reference objects inserted before, objects of");
+        writer.emitSingleLineComment("classes with a primary key would violate it if the collection holds them twice");
+        writer.emitStatement("IdentityRowMap cache = null");
 
         writer.beginControlFlow("if (iterator.hasNext())")
                 .emitSingleLineComment(" access the first element to figure out the clazz for the routing below")
@@ -308,6 +316,9 @@ public class RealmProxyMediatorGenerator {
         emitMediatorSwitch(new ProxySwitchStatement() {
             @Override
             public void emitStatement(int i, JavaWriter writer) throws IOException {
+                if (classSkipsInsertedObjects.get(i)) {
+                    writer.emitStatement("cache = new IdentityRowMap(objects.size())");
+                }
                 writer.emitStatement("%s.insertOrUpdate(realm, (%s) object, cache)", qualifiedProxyClasses.get(i), qualifiedModelClasses.get(i));
             }
         }, writer, false);
@@ -336,7 +347,9 @@ public class RealmProxyMediatorGenerator {
 
         writer.emitStatement("Iterator<? extends RealmModel> iterator = objects.iterator()");
         writer.emitStatement("RealmModel object = null");
-        writer.emitStatement("Map<RealmModel, Long> cache = new IdentityHashMap<RealmModel, Long>(objects.size())");
+        writer.emitSingleLineComment("Objects of classes with links can reference objects inserted before, objects of");
+        writer.emitSingleLineComment("classes with a primary key would violate it if the collection holds them twice");
+        writer.emitStatement("IdentityRowMap cache = null");
 
         writer.beginControlFlow("if (iterator.hasNext())")
                 .emitSingleLineComment(" access the first element to figure out the clazz for the routing below")
@@ -349,6 +362,9 @@ public class RealmProxyMediatorGenerator {
         emitMediatorSwitch(new ProxySwitchStatement() {
             @Override
             public void emitStatement(int i, JavaWriter writer) throws IOException {
+                if (classSkipsInsertedObjects.get(i)) {
+                    writer.emitStatement("cache = new IdentityRowMap(objects.size())");
+                }
                 writer.emitStatement("%s.insert(realm, (%s) object, cache)", qualifiedProxyClasses.get(i), qualifiedModelClasses.get(i));
             }
         }, writer, false);
@@ -56,6 +56,8 @@ public class RealmProcessorTest {
     private JavaFileObject UseExtendRealmList = JavaFileObjects.forResource("some/test/UseExtendRealmList.java");
     private JavaFileObject SimpleRealmModel = JavaFileObjects.forResource("some/test/SimpleRealmModel.java");
     private JavaFileObject customInterface = JavaFileObjects.forResource("some/test/CustomInterface.java");
+    private JavaFileObject backlinksSource = JavaFileObjects.forResource("some/test/BacklinksSource.java");
+    private JavaFileObject backlinksTarget = JavaFileObjects.forResource("some/test/BacklinksTarget.java");
 
     @Test
     public void compileSimpleFile() {
@@ -460,4 +462,119 @@ public class RealmProcessorTest {
                 .processedWith(new RealmProcessor())
                 .failsToCompile();
     }
+
+    @Test
+    public void compileBacklinks() {
+        ASSERT.about(javaSources())
+                .that(Arrays.asList(backlinksSource, backlinksTarget))
+                .processedWith(new RealmProcessor())
+                .compilesWithoutError();
+    }
+
+    @Test
+    public void compileBacklinksWithMissingField() {
+        ASSERT.about(javaSources())
+                .that(Arrays.asList(JavaFileObjects.forResource("some/test/BacklinksMissingField.java"),
+                        backlinksSource, backlinksTarget))
+                .processedWith(new RealmProcessor())
+                .failsToCompile();
+    }
+
+    @Test
+    public void compileBacklinksWithWrongType() {
+        ASSERT.about(javaSources())
+                .that(Arrays.asList(JavaFileObjects.forResource("some/test/BacklinksWrongType.java"),
+                        backlinksSource, backlinksTarget))
+                .processedWith(new RealmProcessor())
+                .failsToCompile();
+    }
+
+    @Test
+    public void compileBacklinksWithoutRealmModel() {
+        ASSERT.about(javaSources())
+                .that(Arrays.asList(JavaFileObjects.forResource("some/test/BacklinksNotRealmModel.java"),
+                        backlinksSource, backlinksTarget))
+                .processedWith(new RealmProcessor())
+                .failsToCompile();
+    }
+
+    @Test
+    public void compileCollated() {
+        ASSERT.about(javaSource())
+                .that(JavaFileObjects.forResource("some/test/Collated.java"))
+                .processedWith(new RealmProcessor())
+                .compilesWithoutError();
+    }
+
+    @Test
+    public void compileCollatedWithInvalidType() {
+        ASSERT.about(javaSource())
+                .that(JavaFileObjects.forResource("some/test/CollatedInvalidType.java"))
+                .processedWith(new RealmProcessor())
+                .failsToCompile();
+    }
+
+    @Test
+    public void compileOrderedBy() {
+        ASSERT.about(javaSource())
+                .that(JavaFileObjects.forResource("some/test/OrderedByTimestamp.java"))
+                .processedWith(new RealmProcessor())
+                .compilesWithoutError();
+    }
+
+    @Test
+    public void compileOrderedByWithInvalidField() {
+        ASSERT.about(javaSource())
+                .that(JavaFileObjects.forResource("some/test/OrderedByInvalidField.java"))
+                .processedWith(new RealmProcessor())
+                .failsToCompile();
+    }
+
+    @Test
+    public void compileOrderedByWithIndexedField() {
+        ASSERT.about(javaSource())
+                .that(JavaFileObjects.forResource("some/test/OrderedByIndexedField.java"))
+                .processedWith(new RealmProcessor())
+                .failsToCompile();
+    }
+
+    @Test
+    public void compileOrderedByWithNullableField() {
+        ASSERT.about(javaSource())
+                .that(JavaFileObjects.forResource("some/test/OrderedByNullableField.java"))
+                .processedWith(new RealmProcessor())
+                .failsToCompile();
+    }
+
+    @Test
+    public void compileAutoIncrementPrimaryKey() {
+        ASSERT.about(javaSource())
+                .that(JavaFileObjects.forResource("some/test/AutoIncrementPrimaryKey.java"))
+                .processedWith(new RealmProcessor())
+                .compilesWithoutError();
+    }
+
+    @Test
+    public void compileAutoIncrementStringPrimaryKey() {
+        ASSERT.about(javaSource())
+                .that(JavaFileObjects.forResource("some/test/AutoIncrementStringPrimaryKey.java"))
+                .processedWith(new RealmProcessor())
+                .failsToCompile();
+    }
+
+    @Test
+    public void compileCounters() {
+        ASSERT.about(javaSource())
+                .that(JavaFileObjects.forResource("some/test/Counters.java"))
+                .processedWith(new RealmProcessor())
+                .compilesWithoutError();
+    }
+
+    @Test
+    public void compileCounterBoxed() {
+        ASSERT.about(javaSource())
+                .that(JavaFileObjects.forResource("some/test/CounterBoxed.java"))
+                .processedWith(new RealmProcessor())
+                .failsToCompile();
+    }
 }
@@ -8,11 +8,13 @@ import android.util.JsonToken;
 import io.realm.RealmFieldType;
 import io.realm.exceptions.RealmMigrationNeededException;
 import io.realm.internal.ColumnInfo;
+import io.realm.internal.IdentityRowMap;
 import io.realm.internal.LinkView;
 import io.realm.internal.RealmObjectProxy;
 import io.realm.internal.SharedRealm;
 import io.realm.internal.Table;
 import io.realm.internal.TableOrView;
+import io.realm.internal.Util;
 import io.realm.internal.android.JsonUtils;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -674,7 +676,7 @@ public class AllTypesRealmProxy extends some.test.AllTypes
         }
     }
 
-    public static long insert(Realm realm, some.test.AllTypes object, Map<RealmModel,Long> cache) {
+    public static long insert(Realm realm, some.test.AllTypes object, IdentityRowMap cache) {
         if (object instanceof RealmObjectProxy && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm() != null && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm().getPath().equals(realm.getPath())) {
             return ((RealmObjectProxy)object).realmGet$proxyState().getRow$realm().getIndex();
         }
@@ -710,8 +712,8 @@ public class AllTypesRealmProxy extends some.test.AllTypes
 
         some.test.AllTypes columnObjectObj = ((AllTypesRealmProxyInterface) object).realmGet$columnObject();
         if (columnObjectObj != null) {
-            Long cachecolumnObject = cache.get(columnObjectObj);
-            if (cachecolumnObject == null) {
+            long cachecolumnObject = cache.get(columnObjectObj);
+            if (cachecolumnObject == TableOrView.NO_MATCH) {
                 cachecolumnObject = AllTypesRealmProxy.insert(realm, columnObjectObj, cache);
             }
             Table.nativeSetLink(tableNativePtr, columnInfo.columnObjectIndex, rowIndex, cachecolumnObject);
@@ -721,8 +723,8 @@ public class AllTypesRealmProxy extends some.test.AllTypes
         if (columnRealmListList != null) {
             long columnRealmListNativeLinkViewPtr = Table.nativeGetLinkView(tableNativePtr, columnInfo.columnRealmListIndex, rowIndex);
             for (some.test.AllTypes columnRealmListItem : columnRealmListList) {
-                Long cacheItemIndexcolumnRealmList = cache.get(columnRealmListItem);
-                if (cacheItemIndexcolumnRealmList == null) {
+                long cacheItemIndexcolumnRealmList = cache.get(columnRealmListItem);
+                if (cacheItemIndexcolumnRealmList == TableOrView.NO_MATCH) {
                     cacheItemIndexcolumnRealmList = AllTypesRealmProxy.insert(realm, columnRealmListItem, cache);
                 }
                 LinkView.nativeAdd(columnRealmListNativeLinkViewPtr, cacheItemIndexcolumnRealmList);
@@ -733,7 +735,7 @@ public class AllTypesRealmProxy extends some.test.AllTypes
         return rowIndex;
     }
 
-    public static void insert(Realm realm, Iterator<? extends RealmModel> objects, Map<RealmModel,Long> cache) {
+    public static void insert(Realm realm, Iterator<? extends RealmModel> objects, IdentityRowMap cache) {
         Table table = realm.getTable(some.test.AllTypes.class);
         long tableNativePtr = table.getNativeTablePointer();
         AllTypesColumnInfo columnInfo = (AllTypesColumnInfo) realm.schema.getColumnInfo(some.test.AllTypes.class);
@@ -774,8 +776,8 @@ public class AllTypesRealmProxy extends some.test.AllTypes
 
                 some.test.AllTypes columnObjectObj = ((AllTypesRealmProxyInterface) object).realmGet$columnObject();
                 if (columnObjectObj != null) {
-                    Long cachecolumnObject = cache.get(columnObjectObj);
-                    if (cachecolumnObject == null) {
+                    long cachecolumnObject = cache.get(columnObjectObj);
+                    if (cachecolumnObject == TableOrView.NO_MATCH) {
                         cachecolumnObject = AllTypesRealmProxy.insert(realm, columnObjectObj, cache);
                     }
                     table.setLink(columnInfo.columnObjectIndex, rowIndex, cachecolumnObject);
@@ -785,8 +787,8 @@ public class AllTypesRealmProxy extends some.test.AllTypes
                 if (columnRealmListList != null) {
                     long columnRealmListNativeLinkViewPtr = Table.nativeGetLinkView(tableNativePtr, columnInfo.columnRealmListIndex, rowIndex);
                     for (some.test.AllTypes columnRealmListItem : columnRealmListList) {
-                        Long cacheItemIndexcolumnRealmList = cache.get(columnRealmListItem);
-                        if (cacheItemIndexcolumnRealmList == null) {
+                        long cacheItemIndexcolumnRealmList = cache.get(columnRealmListItem);
+                        if (cacheItemIndexcolumnRealmList == TableOrView.NO_MATCH) {
                             cacheItemIndexcolumnRealmList = AllTypesRealmProxy.insert(realm, columnRealmListItem, cache);
                         }
                         LinkView.nativeAdd(columnRealmListNativeLinkViewPtr, cacheItemIndexcolumnRealmList);
@@ -798,13 +800,14 @@ public class AllTypesRealmProxy extends some.test.AllTypes
         }
     }
 
-    public static long insertOrUpdate(Realm realm, some.test.AllTypes object, Map<RealmModel,Long> cache) {
+    public static long insertOrUpdate(Realm realm, some.test.AllTypes object, IdentityRowMap cache) {
         if (object instanceof RealmObjectProxy && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm() != null && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm().getPath().equals(realm.getPath())) {
             return ((RealmObjectProxy)object).realmGet$proxyState().getRow$realm().getIndex();
         }
         Table table = realm.getTable(some.test.AllTypes.class);
         long tableNativePtr = table.getNativeTablePointer();
         AllTypesColumnInfo columnInfo = (AllTypesColumnInfo) realm.schema.getColumnInfo(some.test.AllTypes.class);
+        boolean skipUnchanged = realm.getConfiguration().shouldSkipUnchangedUpdates();
         long pkColumnIndex = table.getPrimaryKey();
         String primaryKeyValue = ((AllTypesRealmProxyInterface) object).realmGet$columnString();
         long rowIndex = TableOrView.NO_MATCH;
@@ -817,57 +820,58 @@ public class AllTypesRealmProxy extends some.test.AllTypes
             rowIndex = table.addEmptyRowWithPrimaryKey(primaryKeyValue, false);
         }
         cache.put(object, rowIndex);
-        Table.nativeSetLong(tableNativePtr, columnInfo.columnLongIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnLong());
-        Table.nativeSetFloat(tableNativePtr, columnInfo.columnFloatIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnFloat());
-        Table.nativeSetDouble(tableNativePtr, columnInfo.columnDoubleIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnDouble());
-        Table.nativeSetBoolean(tableNativePtr, columnInfo.columnBooleanIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnBoolean());
+        Table.nativeUpdateLong(tableNativePtr, columnInfo.columnLongIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnLong(), skipUnchanged);
+        Table.nativeUpdateFloat(tableNativePtr, columnInfo.columnFloatIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnFloat(), skipUnchanged);
+        Table.nativeUpdateDouble(tableNativePtr, columnInfo.columnDoubleIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnDouble(), skipUnchanged);
+        Table.nativeUpdateBoolean(tableNativePtr, columnInfo.columnBooleanIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnBoolean(), skipUnchanged);
         java.util.Date realmGet$columnDate = ((AllTypesRealmProxyInterface)object).realmGet$columnDate();
         if (realmGet$columnDate != null) {
-            Table.nativeSetTimestamp(tableNativePtr, columnInfo.columnDateIndex, rowIndex, realmGet$columnDate.getTime());
+            Table.nativeUpdateTimestamp(tableNativePtr, columnInfo.columnDateIndex, rowIndex, realmGet$columnDate.getTime(), skipUnchanged);
         } else {
-            Table.nativeSetNull(tableNativePtr, columnInfo.columnDateIndex, rowIndex);
+            Table.nativeUpdateNull(tableNativePtr, columnInfo.columnDateIndex, rowIndex, skipUnchanged);
         }
         byte[] realmGet$columnBinary = ((AllTypesRealmProxyInterface)object).realmGet$columnBinary();
         if (realmGet$columnBinary != null) {
-            Table.nativeSetByteArray(tableNativePtr, columnInfo.columnBinaryIndex, rowIndex, realmGet$columnBinary);
+            Table.nativeUpdateByteArray(tableNativePtr, columnInfo.columnBinaryIndex, rowIndex, realmGet$columnBinary, skipUnchanged);
         } else {
-            Table.nativeSetNull(tableNativePtr, columnInfo.columnBinaryIndex, rowIndex);
+            Table.nativeUpdateNull(tableNativePtr, columnInfo.columnBinaryIndex, rowIndex, skipUnchanged);
         }
 
         some.test.AllTypes columnObjectObj = ((AllTypesRealmProxyInterface) object).realmGet$columnObject();
         if (columnObjectObj != null) {
-            Long cachecolumnObject = cache.get(columnObjectObj);
-            if (cachecolumnObject == null) {
+            long cachecolumnObject = cache.get(columnObjectObj);
+            if (cachecolumnObject == TableOrView.NO_MATCH) {
                 cachecolumnObject = AllTypesRealmProxy.insertOrUpdate(realm, columnObjectObj, cache);
             }
-            Table.nativeSetLink(tableNativePtr, columnInfo.columnObjectIndex, rowIndex, cachecolumnObject);
+            Table.nativeUpdateLink(tableNativePtr, columnInfo.columnObjectIndex, rowIndex, cachecolumnObject, skipUnchanged);
         } else {
-            Table.nativeNullifyLink(tableNativePtr, columnInfo.columnObjectIndex, rowIndex);
+            Table.nativeUpdateNullLink(tableNativePtr, columnInfo.columnObjectIndex, rowIndex, skipUnchanged);
         }
 
-        long columnRealmListNativeLinkViewPtr = Table.nativeGetLinkView(tableNativePtr, columnInfo.columnRealmListIndex, rowIndex);
-        LinkView.nativeClear(columnRealmListNativeLinkViewPtr);
         RealmList<some.test.AllTypes> columnRealmListList = ((AllTypesRealmProxyInterface) object).realmGet$columnRealmList();
-        if (columnRealmListList != null) {
-            for (some.test.AllTypes columnRealmListItem : columnRealmListList) {
-                Long cacheItemIndexcolumnRealmList = cache.get(columnRealmListItem);
-                if (cacheItemIndexcolumnRealmList == null) {
-                    cacheItemIndexcolumnRealmList = AllTypesRealmProxy.insertOrUpdate(realm, columnRealmListItem, cache);
-                }
-                LinkView.nativeAdd(columnRealmListNativeLinkViewPtr, cacheItemIndexcolumnRealmList);
-            }
+        long[] columnRealmListRowIndices = new long[(columnRealmListList == null) ? 0 : columnRealmListList.size()];
+        for (int columnRealmListPosition = 0; columnRealmListPosition < columnRealmListRowIndices.length; columnRealmListPosition++) {
+            some.test.AllTypes columnRealmListItem = columnRealmListList.get(columnRealmListPosition);
+            long cacheItemIndexcolumnRealmList = cache.get(columnRealmListItem);
+            if (cacheItemIndexcolumnRealmList == TableOrView.NO_MATCH) {
+                cacheItemIndexcolumnRealmList = AllTypesRealmProxy.insertOrUpdate(realm, columnRealmListItem, cache);
+            }
+            columnRealmListRowIndices[columnRealmListPosition] = cacheItemIndexcolumnRealmList;
         }
+        long columnRealmListNativeLinkViewPtr = Table.nativeGetLinkView(tableNativePtr, columnInfo.columnRealmListIndex, rowIndex);
+        LinkView.nativeSetAll(columnRealmListNativeLinkViewPtr, columnRealmListRowIndices, skipUnchanged);
         LinkView.nativeClose(columnRealmListNativeLinkViewPtr);
 
         return rowIndex;
     }
 
-    public static void insertOrUpdate(Realm realm, Iterator<? extends RealmModel> objects, Map<RealmModel,Long> cache) {
+    public static void insertOrUpdate(Realm realm, Iterator<? extends RealmModel> objects, IdentityRowMap cache) {
         Table table = realm.getTable(some.test.AllTypes.class);
         long tableNativePtr = table.getNativeTablePointer();
         AllTypesColumnInfo columnInfo = (AllTypesColumnInfo) realm.schema.getColumnInfo(some.test.AllTypes.class);
-        long pkColumnIndex = table.getPrimaryKey();
+        boolean skipUnchanged = realm.getConfiguration().shouldSkipUnchangedUpdates();
         some.test.AllTypes object = null;
+        List<some.test.AllTypes> batch = new ArrayList<some.test.AllTypes>();
         while (objects.hasNext()) {
             object = (some.test.AllTypes) objects.next();
             if(!cache.containsKey(object)) {
@@ -875,60 +879,64 @@ public class AllTypesRealmProxy extends some.test.AllTypes
                     cache.put(object, ((RealmObjectProxy)object).realmGet$proxyState().getRow$realm().getIndex());
                     continue;
                 }
-                String primaryKeyValue = ((AllTypesRealmProxyInterface) object).realmGet$columnString();
-                long rowIndex = TableOrView.NO_MATCH;
-                if (primaryKeyValue == null) {
-                    rowIndex = Table.nativeFindFirstNull(tableNativePtr, pkColumnIndex);
-                } else {
-                    rowIndex = Table.nativeFindFirstString(tableNativePtr, pkColumnIndex, primaryKeyValue);
-                }
-                if (rowIndex == TableOrView.NO_MATCH) {
-                    rowIndex = table.addEmptyRowWithPrimaryKey(primaryKeyValue, false);
-                }
-                cache.put(object, rowIndex);
-                Table.nativeSetLong(tableNativePtr, columnInfo.columnLongIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnLong());
-                Table.nativeSetFloat(tableNativePtr, columnInfo.columnFloatIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnFloat());
-                Table.nativeSetDouble(tableNativePtr, columnInfo.columnDoubleIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnDouble());
-                Table.nativeSetBoolean(tableNativePtr, columnInfo.columnBooleanIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnBoolean());
-                java.util.Date realmGet$columnDate = ((AllTypesRealmProxyInterface)object).realmGet$columnDate();
-                if (realmGet$columnDate != null) {
-                    Table.nativeSetTimestamp(tableNativePtr, columnInfo.columnDateIndex, rowIndex, realmGet$columnDate.getTime());
-                } else {
-                    Table.nativeSetNull(tableNativePtr, columnInfo.columnDateIndex, rowIndex);
-                }
-                byte[] realmGet$columnBinary = ((AllTypesRealmProxyInterface)object).realmGet$columnBinary();
-                if (realmGet$columnBinary != null) {
-                    Table.nativeSetByteArray(tableNativePtr, columnInfo.columnBinaryIndex, rowIndex, realmGet$columnBinary);
-                } else {
-                    Table.nativeSetNull(tableNativePtr, columnInfo.columnBinaryIndex, rowIndex);
-                }
+                batch.add(object);
+            }
+        }
+        int batchSize = batch.size();
+        String[] primaryKeys = new String[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            primaryKeys[i] = ((AllTypesRealmProxyInterface) batch.get(i)).realmGet$columnString();
+        }
+        long[] rowIndices = table.findOrAddRowsWithPrimaryKeys(primaryKeys);
+        for (int i = 0; i < batchSize; i++) {
+            object = batch.get(i);
+            if (cache.containsKey(object)) {
+                continue;
+            }
+            long rowIndex = rowIndices[i];
+            cache.put(object, rowIndex);
+            Table.nativeUpdateLong(tableNativePtr, columnInfo.columnLongIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnLong(), skipUnchanged);
+            Table.nativeUpdateFloat(tableNativePtr, columnInfo.columnFloatIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnFloat(), skipUnchanged);
+            Table.nativeUpdateDouble(tableNativePtr, columnInfo.columnDoubleIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnDouble(), skipUnchanged);
+            Table.nativeUpdateBoolean(tableNativePtr, columnInfo.columnBooleanIndex, rowIndex, ((AllTypesRealmProxyInterface)object).realmGet$columnBoolean(), skipUnchanged);
+            java.util.Date realmGet$columnDate = ((AllTypesRealmProxyInterface)object).realmGet$columnDate();
+            if (realmGet$columnDate != null) {
+                Table.nativeUpdateTimestamp(tableNativePtr, columnInfo.columnDateIndex, rowIndex, realmGet$columnDate.getTime(), skipUnchanged);
+            } else {
+                Table.nativeUpdateNull(tableNativePtr, columnInfo.columnDateIndex, rowIndex, skipUnchanged);
+            }
+            byte[] realmGet$columnBinary = ((AllTypesRealmProxyInterface)object).realmGet$columnBinary();
+            if (realmGet$columnBinary != null) {
+                Table.nativeUpdateByteArray(tableNativePtr, columnInfo.columnBinaryIndex, rowIndex, realmGet$columnBinary, skipUnchanged);
+            } else {
+                Table.nativeUpdateNull(tableNativePtr, columnInfo.columnBinaryIndex, rowIndex, skipUnchanged);
+            }
 
-                some.test.AllTypes columnObjectObj = ((AllTypesRealmProxyInterface) object).realmGet$columnObject();
-                if (columnObjectObj != null) {
-                    Long cachecolumnObject = cache.get(columnObjectObj);
-                    if (cachecolumnObject == null) {
-                        cachecolumnObject = AllTypesRealmProxy.insertOrUpdate(realm, columnObjectObj, cache);
-                    }
-                    Table.nativeSetLink(tableNativePtr, columnInfo.columnObjectIndex, rowIndex, cachecolumnObject);
-                } else {
-                    Table.nativeNullifyLink(tableNativePtr, columnInfo.columnObjectIndex, rowIndex);
+            some.test.AllTypes columnObjectObj = ((AllTypesRealmProxyInterface) object).realmGet$columnObject();
+            if (columnObjectObj != null) {
+                long cachecolumnObject = cache.get(columnObjectObj);
+                if (cachecolumnObject == TableOrView.NO_MATCH) {
+                    cachecolumnObject = AllTypesRealmProxy.insertOrUpdate(realm, columnObjectObj, cache);
                 }
+                Table.nativeUpdateLink(tableNativePtr, columnInfo.columnObjectIndex, rowIndex, cachecolumnObject, skipUnchanged);
+            } else {
+                Table.nativeUpdateNullLink(tableNativePtr, columnInfo.columnObjectIndex, rowIndex, skipUnchanged);
+            }
 
-                long columnRealmListNativeLinkViewPtr = Table.nativeGetLinkView(tableNativePtr, columnInfo.columnRealmListIndex, rowIndex);
-                LinkView.nativeClear(columnRealmListNativeLinkViewPtr);
-                RealmList<some.test.AllTypes> columnRealmListList = ((AllTypesRealmProxyInterface) object).realmGet$columnRealmList();
-                if (columnRealmListList != null) {
-                    for (some.test.AllTypes columnRealmListItem : columnRealmListList) {
-                        Long cacheItemIndexcolumnRealmList = cache.get(columnRealmListItem);
-                        if (cacheItemIndexcolumnRealmList == null) {
-                            cacheItemIndexcolumnRealmList = AllTypesRealmProxy.insertOrUpdate(realm, columnRealmListItem, cache);
-                        }
-                        LinkView.nativeAdd(columnRealmListNativeLinkViewPtr, cacheItemIndexcolumnRealmList);
-                    }
+            RealmList<some.test.AllTypes> columnRealmListList = ((AllTypesRealmProxyInterface) object).realmGet$columnRealmList();
+            long[] columnRealmListRowIndices = new long[(columnRealmListList == null) ? 0 : columnRealmListList.size()];
+            for (int columnRealmListPosition = 0; columnRealmListPosition < columnRealmListRowIndices.length; columnRealmListPosition++) {
+                some.test.AllTypes columnRealmListItem = columnRealmListList.get(columnRealmListPosition);
+                long cacheItemIndexcolumnRealmList = cache.get(columnRealmListItem);
+                if (cacheItemIndexcolumnRealmList == TableOrView.NO_MATCH) {
+                    cacheItemIndexcolumnRealmList = AllTypesRealmProxy.insertOrUpdate(realm, columnRealmListItem, cache);
                 }
-                LinkView.nativeClose(columnRealmListNativeLinkViewPtr);
-
+                columnRealmListRowIndices[columnRealmListPosition] = cacheItemIndexcolumnRealmList;
             }
+            long columnRealmListNativeLinkViewPtr = Table.nativeGetLinkView(tableNativePtr, columnInfo.columnRealmListIndex, rowIndex);
+            LinkView.nativeSetAll(columnRealmListNativeLinkViewPtr, columnRealmListRowIndices, skipUnchanged);
+            LinkView.nativeClose(columnRealmListNativeLinkViewPtr);
+
         }
     }
 
@@ -979,37 +987,57 @@ public class AllTypesRealmProxy extends some.test.AllTypes
     }
 
     static some.test.AllTypes update(Realm realm, some.test.AllTypes realmObject, some.test.AllTypes newObject, Map<RealmModel, RealmObjectProxy> cache) {
-        ((AllTypesRealmProxyInterface) realmObject).realmSet$columnLong(((AllTypesRealmProxyInterface) newObject).realmGet$columnLong());
-        ((AllTypesRealmProxyInterface) realmObject).realmSet$columnFloat(((AllTypesRealmProxyInterface) newObject).realmGet$columnFloat());
-        ((AllTypesRealmProxyInterface) realmObject).realmSet$columnDouble(((AllTypesRealmProxyInterface) newObject).realmGet$columnDouble());
-        ((AllTypesRealmProxyInterface) realmObject).realmSet$columnBoolean(((AllTypesRealmProxyInterface) newObject).realmGet$columnBoolean());
-        ((AllTypesRealmProxyInterface) realmObject).realmSet$columnDate(((AllTypesRealmProxyInterface) newObject).realmGet$columnDate());
-        ((AllTypesRealmProxyInterface) realmObject).realmSet$columnBinary(((AllTypesRealmProxyInterface) newObject).realmGet$columnBinary());
+        boolean skipUnchanged = realm.getConfiguration().shouldSkipUnchangedUpdates();
+        if (!skipUnchanged || !Util.isSameValue(((AllTypesRealmProxyInterface) realmObject).realmGet$columnLong(), ((AllTypesRealmProxyInterface) newObject).realmGet$columnLong())) {
+            ((AllTypesRealmProxyInterface) realmObject).realmSet$columnLong(((AllTypesRealmProxyInterface) newObject).realmGet$columnLong());
+        }
+        if (!skipUnchanged || !Util.isSameValue(((AllTypesRealmProxyInterface) realmObject).realmGet$columnFloat(), ((AllTypesRealmProxyInterface) newObject).realmGet$columnFloat())) {
+            ((AllTypesRealmProxyInterface) realmObject).realmSet$columnFloat(((AllTypesRealmProxyInterface) newObject).realmGet$columnFloat());
+        }
+        if (!skipUnchanged || !Util.isSameValue(((AllTypesRealmProxyInterface) realmObject).realmGet$columnDouble(), ((AllTypesRealmProxyInterface) newObject).realmGet$columnDouble())) {
+            ((AllTypesRealmProxyInterface) realmObject).realmSet$columnDouble(((AllTypesRealmProxyInterface) newObject).realmGet$columnDouble());
+        }
+        if (!skipUnchanged || !Util.isSameValue(((AllTypesRealmProxyInterface) realmObject).realmGet$columnBoolean(), ((AllTypesRealmProxyInterface) newObject).realmGet$columnBoolean())) {
+            ((AllTypesRealmProxyInterface) realmObject).realmSet$columnBoolean(((AllTypesRealmProxyInterface) newObject).realmGet$columnBoolean());
+        }
+        if (!skipUnchanged || !Util.isSameValue(((AllTypesRealmProxyInterface) realmObject).realmGet$columnDate(), ((AllTypesRealmProxyInterface) newObject).realmGet$columnDate())) {
+            ((AllTypesRealmProxyInterface) realmObject).realmSet$columnDate(((AllTypesRealmProxyInterface) newObject).realmGet$columnDate());
+        }
+        if (!skipUnchanged || !Util.isSameValue(((AllTypesRealmProxyInterface) realmObject).realmGet$columnBinary(), ((AllTypesRealmProxyInterface) newObject).realmGet$columnBinary())) {
+            ((AllTypesRealmProxyInterface) realmObject).realmSet$columnBinary(((AllTypesRealmProxyInterface) newObject).realmGet$columnBinary());
+        }
         some.test.AllTypes columnObjectObj = ((AllTypesRealmProxyInterface) newObject).realmGet$columnObject();
         if (columnObjectObj != null) {
             some.test.AllTypes cachecolumnObject = (some.test.AllTypes) cache.get(columnObjectObj);
-            if (cachecolumnObject != null) {
+            if (cachecolumnObject == null) {
+                cachecolumnObject = AllTypesRealmProxy.copyOrUpdate(realm, columnObjectObj, true, cache);
+            }
+            if (!skipUnchanged || !Util.isSameRow(((AllTypesRealmProxyInterface) realmObject).realmGet$columnObject(), cachecolumnObject)) {
                 ((AllTypesRealmProxyInterface) realmObject).realmSet$columnObject(cachecolumnObject);
-            } else {
-                ((AllTypesRealmProxyInterface) realmObject).realmSet$columnObject(AllTypesRealmProxy.copyOrUpdate(realm, columnObjectObj, true, cache));
             }
-        } else {
+        } else if (!skipUnchanged || ((AllTypesRealmProxyInterface) realmObject).realmGet$columnObject() != null) {
             ((AllTypesRealmProxyInterface) realmObject).realmSet$columnObject(null);
         }
         RealmList<some.test.AllTypes> columnRealmListList = ((AllTypesRealmProxyInterface) newObject).realmGet$columnRealmList();
-        RealmList<some.test.AllTypes> columnRealmListRealmList = ((AllTypesRealmProxyInterface) realmObject).realmGet$columnRealmList();
-        columnRealmListRealmList.clear();
+        List<some.test.AllTypes> columnRealmListManagedList = new ArrayList<some.test.AllTypes>();
         if (columnRealmListList != null) {
             for (int i = 0; i < columnRealmListList.size(); i++) {
                 some.test.AllTypes columnRealmListItem = columnRealmListList.get(i);
                 some.test.AllTypes cachecolumnRealmList = (some.test.AllTypes) cache.get(columnRealmListItem);
                 if (cachecolumnRealmList != null) {
-                    columnRealmListRealmList.add(cachecolumnRealmList);
+                    columnRealmListManagedList.add(cachecolumnRealmList);
                 } else {
-                    columnRealmListRealmList.add(AllTypesRealmProxy.copyOrUpdate(realm, columnRealmListList.get(i), true, cache));
+                    columnRealmListManagedList.add(AllTypesRealmProxy.copyOrUpdate(realm, columnRealmListItem, true, cache));
                 }
             }
         }
+        RealmList<some.test.AllTypes> columnRealmListRealmList = ((AllTypesRealmProxyInterface) realmObject).realmGet$columnRealmList();
+        if (!skipUnchanged || !Util.isSameRows(columnRealmListRealmList, columnRealmListManagedList)) {
+            columnRealmListRealmList.clear();
+            for (some.test.AllTypes columnRealmListItem : columnRealmListManagedList) {
+                columnRealmListRealmList.add(columnRealmListItem);
+            }
+        }
         return realmObject;
     }
 
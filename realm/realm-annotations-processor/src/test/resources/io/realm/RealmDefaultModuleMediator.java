@@ -3,6 +3,7 @@ package io.realm;
 
 import android.util.JsonReader;
 import io.realm.internal.ColumnInfo;
+import io.realm.internal.IdentityRowMap;
 import io.realm.internal.RealmObjectProxy;
 import io.realm.internal.RealmProxyMediator;
 import io.realm.internal.SharedRealm;
@@ -11,7 +12,6 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -103,13 +103,13 @@ class DefaultRealmModuleMediator extends RealmProxyMediator {
     }
 
     @Override
-    public void insert(Realm realm, RealmModel object, Map<RealmModel, Long> cache) {
+    public void insert(Realm realm, RealmModel object) {
         // This cast is correct because obj is either
         // generated by RealmProxy or the original type extending directly from RealmObject
         @SuppressWarnings("unchecked") Class<RealmModel> clazz = (Class<RealmModel>) ((object instanceof RealmObjectProxy) ? object.getClass().getSuperclass() : object.getClass());
 
         if (clazz.equals(some.test.AllTypes.class)) {
-            io.realm.AllTypesRealmProxy.insert(realm, (some.test.AllTypes) object, cache);
+            io.realm.AllTypesRealmProxy.insert(realm, (some.test.AllTypes) object, new IdentityRowMap());
         } else {
             throw getMissingProxyClassException(clazz);
         }
@@ -119,7 +119,9 @@ class DefaultRealmModuleMediator extends RealmProxyMediator {
     public void insert(Realm realm, Collection<? extends RealmModel> objects) {
         Iterator<? extends RealmModel> iterator = objects.iterator();
         RealmModel object = null;
-        Map<RealmModel, Long> cache = new IdentityHashMap<RealmModel, Long>(objects.size());
+        // Objects of classes with links can reference objects inserted before, objects of
+        // classes with a primary key would violate it if the collection holds them twice
+        IdentityRowMap cache = null;
         if (iterator.hasNext()) {
             //  access the first element to figure out the clazz for the routing below
             object = iterator.next();
@@ -128,6 +130,7 @@ class DefaultRealmModuleMediator extends RealmProxyMediator {
             @SuppressWarnings("unchecked") Class<RealmModel> clazz = (Class<RealmModel>) ((object instanceof RealmObjectProxy) ? object.getClass().getSuperclass() : object.getClass());
 
             if (clazz.equals(some.test.AllTypes.class)) {
+                cache = new IdentityRowMap(objects.size());
                 io.realm.AllTypesRealmProxy.insert(realm, (some.test.AllTypes) object, cache);
             } else {
                 throw getMissingProxyClassException(clazz);
@@ -143,13 +146,13 @@ class DefaultRealmModuleMediator extends RealmProxyMediator {
     }
 
     @Override
-    public void insertOrUpdate(Realm realm, RealmModel obj, Map<RealmModel, Long> cache) {
+    public void insertOrUpdate(Realm realm, RealmModel obj) {
         // This cast is correct because obj is either
         // generated by RealmProxy or the original type extending directly from RealmObject
         @SuppressWarnings("unchecked") Class<RealmModel> clazz = (Class<RealmModel>) ((obj instanceof RealmObjectProxy) ? obj.getClass().getSuperclass() : obj.getClass());
 
         if (clazz.equals(some.test.AllTypes.class)) {
-            io.realm.AllTypesRealmProxy.insertOrUpdate(realm, (some.test.AllTypes) obj, cache);
+            io.realm.AllTypesRealmProxy.insertOrUpdate(realm, (some.test.AllTypes) obj, new IdentityRowMap());
         } else {
             throw getMissingProxyClassException(clazz);
         }
@@ -159,7 +162,9 @@ class DefaultRealmModuleMediator extends RealmProxyMediator {
     public void insertOrUpdate(Realm realm, Collection<? extends RealmModel> objects) {
         Iterator<? extends RealmModel> iterator = objects.iterator();
         RealmModel object = null;
-        Map<RealmModel, Long> cache = new IdentityHashMap<RealmModel, Long>(objects.size());
+        // Objects of classes with links can reference objects inserted before, objects of
+        // classes with a primary key would violate it if the collection holds them twice
+        IdentityRowMap cache = null;
         if (iterator.hasNext()) {
             //  access the first element to figure out the clazz for the routing below
             object = iterator.next();
@@ -168,6 +173,7 @@ class DefaultRealmModuleMediator extends RealmProxyMediator {
             @SuppressWarnings("unchecked") Class<RealmModel> clazz = (Class<RealmModel>) ((object instanceof RealmObjectProxy) ? object.getClass().getSuperclass() : object.getClass());
 
             if (clazz.equals(some.test.AllTypes.class)) {
+                cache = new IdentityRowMap(objects.size());
                 io.realm.AllTypesRealmProxy.insertOrUpdate(realm, (some.test.AllTypes) object, cache);
             } else {
                 throw getMissingProxyClassException(clazz);
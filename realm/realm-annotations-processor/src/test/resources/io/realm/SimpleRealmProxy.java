@@ -8,6 +8,7 @@ import android.util.JsonToken;
 import io.realm.RealmFieldType;
 import io.realm.exceptions.RealmMigrationNeededException;
 import io.realm.internal.ColumnInfo;
+import io.realm.internal.IdentityRowMap;
 import io.realm.internal.LinkView;
 import io.realm.internal.RealmObjectProxy;
 import io.realm.internal.SharedRealm;
@@ -43,6 +44,10 @@ public class SimpleRealmProxy extends some.test.Simple
             indicesMap.put("age", this.ageIndex);
 
             setIndicesMap(indicesMap);
+
+            final Map<String, Long> integerMaxValuesMap = new HashMap<String, Long>(1);
+            integerMaxValuesMap.put("age", (long) Integer.MAX_VALUE);
+            setIntegerMaxValuesMap(integerMaxValuesMap);
         }
     }
 
@@ -223,7 +228,7 @@ public class SimpleRealmProxy extends some.test.Simple
         }
     }
 
-    public static long insert(Realm realm, some.test.Simple object, Map<RealmModel,Long> cache) {
+    public static long insert(Realm realm, some.test.Simple object, IdentityRowMap cache) {
         if (object instanceof RealmObjectProxy && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm() != null && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm().getPath().equals(realm.getPath())) {
             return ((RealmObjectProxy)object).realmGet$proxyState().getRow$realm().getIndex();
         }
@@ -231,7 +236,9 @@ public class SimpleRealmProxy extends some.test.Simple
         long tableNativePtr = table.getNativeTablePointer();
         SimpleColumnInfo columnInfo = (SimpleColumnInfo) realm.schema.getColumnInfo(some.test.Simple.class);
         long rowIndex = Table.nativeAddEmptyRow(tableNativePtr, 1);
-        cache.put(object, rowIndex);
+        if (cache != null) {
+            cache.put(object, rowIndex);
+        }
         String realmGet$name = ((SimpleRealmProxyInterface)object).realmGet$name();
         if (realmGet$name != null) {
             Table.nativeSetString(tableNativePtr, columnInfo.nameIndex, rowIndex, realmGet$name);
@@ -240,70 +247,66 @@ public class SimpleRealmProxy extends some.test.Simple
         return rowIndex;
     }
 
-    public static void insert(Realm realm, Iterator<? extends RealmModel> objects, Map<RealmModel,Long> cache) {
+    public static void insert(Realm realm, Iterator<? extends RealmModel> objects, IdentityRowMap cache) {
         Table table = realm.getTable(some.test.Simple.class);
         long tableNativePtr = table.getNativeTablePointer();
         SimpleColumnInfo columnInfo = (SimpleColumnInfo) realm.schema.getColumnInfo(some.test.Simple.class);
         some.test.Simple object = null;
         while (objects.hasNext()) {
             object = (some.test.Simple) objects.next();
-            if(!cache.containsKey(object)) {
-                if (object instanceof RealmObjectProxy && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm() != null && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm().getPath().equals(realm.getPath())) {
-                    cache.put(object, ((RealmObjectProxy)object).realmGet$proxyState().getRow$realm().getIndex());
-                    continue;
-                }
-                long rowIndex = Table.nativeAddEmptyRow(tableNativePtr, 1);
-                cache.put(object, rowIndex);
-                String realmGet$name = ((SimpleRealmProxyInterface)object).realmGet$name();
-                if (realmGet$name != null) {
-                    Table.nativeSetString(tableNativePtr, columnInfo.nameIndex, rowIndex, realmGet$name);
-                }
-                Table.nativeSetLong(tableNativePtr, columnInfo.ageIndex, rowIndex, ((SimpleRealmProxyInterface)object).realmGet$age());
+            if (object instanceof RealmObjectProxy && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm() != null && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm().getPath().equals(realm.getPath())) {
+                continue;
             }
+            long rowIndex = Table.nativeAddEmptyRow(tableNativePtr, 1);
+            String realmGet$name = ((SimpleRealmProxyInterface)object).realmGet$name();
+            if (realmGet$name != null) {
+                Table.nativeSetString(tableNativePtr, columnInfo.nameIndex, rowIndex, realmGet$name);
+            }
+            Table.nativeSetLong(tableNativePtr, columnInfo.ageIndex, rowIndex, ((SimpleRealmProxyInterface)object).realmGet$age());
         }
     }
 
-    public static long insertOrUpdate(Realm realm, some.test.Simple object, Map<RealmModel,Long> cache) {
+    public static long insertOrUpdate(Realm realm, some.test.Simple object, IdentityRowMap cache) {
         if (object instanceof RealmObjectProxy && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm() != null && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm().getPath().equals(realm.getPath())) {
             return ((RealmObjectProxy)object).realmGet$proxyState().getRow$realm().getIndex();
         }
         Table table = realm.getTable(some.test.Simple.class);
         long tableNativePtr = table.getNativeTablePointer();
         SimpleColumnInfo columnInfo = (SimpleColumnInfo) realm.schema.getColumnInfo(some.test.Simple.class);
+        boolean skipUnchanged = realm.getConfiguration().shouldSkipUnchangedUpdates();
         long rowIndex = Table.nativeAddEmptyRow(tableNativePtr, 1);
-        cache.put(object, rowIndex);
+        if (cache != null) {
+            cache.put(object, rowIndex);
+        }
         String realmGet$name = ((SimpleRealmProxyInterface)object).realmGet$name();
         if (realmGet$name != null) {
-            Table.nativeSetString(tableNativePtr, columnInfo.nameIndex, rowIndex, realmGet$name);
+            Table.nativeUpdateString(tableNativePtr, columnInfo.nameIndex, rowIndex, realmGet$name, skipUnchanged);
         } else {
-            Table.nativeSetNull(tableNativePtr, columnInfo.nameIndex, rowIndex);
+            Table.nativeUpdateNull(tableNativePtr, columnInfo.nameIndex, rowIndex, skipUnchanged);
         }
-        Table.nativeSetLong(tableNativePtr, columnInfo.ageIndex, rowIndex, ((SimpleRealmProxyInterface)object).realmGet$age());
+        Table.nativeUpdateLong(tableNativePtr, columnInfo.ageIndex, rowIndex, ((SimpleRealmProxyInterface)object).realmGet$age(), skipUnchanged);
         return rowIndex;
     }
 
-    public static void insertOrUpdate(Realm realm, Iterator<? extends RealmModel> objects, Map<RealmModel,Long> cache) {
+    public static void insertOrUpdate(Realm realm, Iterator<? extends RealmModel> objects, IdentityRowMap cache) {
         Table table = realm.getTable(some.test.Simple.class);
         long tableNativePtr = table.getNativeTablePointer();
         SimpleColumnInfo columnInfo = (SimpleColumnInfo) realm.schema.getColumnInfo(some.test.Simple.class);
+        boolean skipUnchanged = realm.getConfiguration().shouldSkipUnchangedUpdates();
         some.test.Simple object = null;
         while (objects.hasNext()) {
             object = (some.test.Simple) objects.next();
-            if(!cache.containsKey(object)) {
-                if (object instanceof RealmObjectProxy && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm() != null && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm().getPath().equals(realm.getPath())) {
-                    cache.put(object, ((RealmObjectProxy)object).realmGet$proxyState().getRow$realm().getIndex());
-                    continue;
-                }
-                long rowIndex = Table.nativeAddEmptyRow(tableNativePtr, 1);
-                cache.put(object, rowIndex);
-                String realmGet$name = ((SimpleRealmProxyInterface)object).realmGet$name();
-                if (realmGet$name != null) {
-                    Table.nativeSetString(tableNativePtr, columnInfo.nameIndex, rowIndex, realmGet$name);
-                } else {
-                    Table.nativeSetNull(tableNativePtr, columnInfo.nameIndex, rowIndex);
-                }
-                Table.nativeSetLong(tableNativePtr, columnInfo.ageIndex, rowIndex, ((SimpleRealmProxyInterface)object).realmGet$age());
+            if (object instanceof RealmObjectProxy && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm() != null && ((RealmObjectProxy)object).realmGet$proxyState().getRealm$realm().getPath().equals(realm.getPath())) {
+                continue;
+            }
+            long rowIndex = Table.nativeAddEmptyRow(tableNativePtr, 1);
+            String realmGet$name = ((SimpleRealmProxyInterface)object).realmGet$name();
+            if (realmGet$name != null) {
+                Table.nativeUpdateString(tableNativePtr, columnInfo.nameIndex, rowIndex, realmGet$name, skipUnchanged);
+            } else {
+                Table.nativeUpdateNull(tableNativePtr, columnInfo.nameIndex, rowIndex, skipUnchanged);
             }
+            Table.nativeUpdateLong(tableNativePtr, columnInfo.ageIndex, rowIndex, ((SimpleRealmProxyInterface)object).realmGet$age(), skipUnchanged);
         }
     }
 
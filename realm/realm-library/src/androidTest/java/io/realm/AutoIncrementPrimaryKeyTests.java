@@ -0,0 +1,201 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import io.realm.entities.AutoIncrementBytePrimaryKey;
+import io.realm.entities.AutoIncrementPrimaryKey;
+import io.realm.rule.TestRealmConfigurationFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class AutoIncrementPrimaryKeyTests {
+    @Rule
+    public final TestRealmConfigurationFactory configFactory = new TestRealmConfigurationFactory();
+
+    private RealmConfiguration config;
+    private Realm realm;
+
+    @Before
+    public void setUp() {
+        config = configFactory.createConfiguration();
+        realm = Realm.getInstance(config);
+    }
+
+    @After
+    public void tearDown() {
+        if (realm != null) {
+            realm.close();
+        }
+    }
+
+    @Test
+    public void createObject_assignsNextKey() {
+        realm.beginTransaction();
+        assertEquals(1, realm.createObject(AutoIncrementPrimaryKey.class).getId());
+        assertEquals(2, realm.createObject(AutoIncrementPrimaryKey.class).getId());
+        realm.commitTransaction();
+    }
+
+    @Test
+    public void copyToRealm_assignsKeyOfUnsetObjects() {
+        AutoIncrementPrimaryKey first = new AutoIncrementPrimaryKey("first");
+        AutoIncrementPrimaryKey explicit = new AutoIncrementPrimaryKey("explicit");
+        explicit.setId(10);
+        AutoIncrementPrimaryKey next = new AutoIncrementPrimaryKey("next");
+
+        realm.beginTransaction();
+        assertEquals(1, realm.copyToRealm(first).getId());
+        assertEquals(10, realm.copyToRealm(explicit).getId());
+        // Keys set explicitly advance the sequence
+        assertEquals(11, realm.copyToRealm(next).getId());
+        realm.commitTransaction();
+
+        // The assigned key is set in the copied object
+        assertEquals(1, first.getId());
+        assertEquals(11, next.getId());
+    }
+
+    @Test
+    public void copyToRealmOrUpdate_updatesObjectsWithKey() {
+        realm.beginTransaction();
+        AutoIncrementPrimaryKey object = realm.copyToRealmOrUpdate(new AutoIncrementPrimaryKey("old"));
+        AutoIncrementPrimaryKey update = new AutoIncrementPrimaryKey("new");
+        update.setId(object.getId());
+        realm.copyToRealmOrUpdate(update);
+        realm.copyToRealmOrUpdate(new AutoIncrementPrimaryKey("other"));
+        realm.commitTransaction();
+
+        assertEquals(2, realm.where(AutoIncrementPrimaryKey.class).count());
+        assertEquals("new", object.getName());
+    }
+
+    @Test
+    public void insert_assignsKeys() {
+        AutoIncrementPrimaryKey single = new AutoIncrementPrimaryKey("single");
+        AutoIncrementPrimaryKey explicit = new AutoIncrementPrimaryKey("explicit");
+        explicit.setId(5);
+        AutoIncrementPrimaryKey unset = new AutoIncrementPrimaryKey("unset");
+        AutoIncrementPrimaryKey updated = new AutoIncrementPrimaryKey("updated");
+
+        realm.beginTransaction();
+        realm.insert(single);
+        realm.insert(Arrays.asList(explicit, unset));
+        realm.insertOrUpdate(Arrays.asList(updated));
+        realm.commitTransaction();
+
+        assertEquals(1, single.getId());
+        assertEquals(6, unset.getId());
+        assertEquals(7, updated.getId());
+        assertEquals(4, realm.where(AutoIncrementPrimaryKey.class).count());
+        assertEquals("unset", realm.where(AutoIncrementPrimaryKey.class)
+                .equalTo(AutoIncrementPrimaryKey.FIELD_ID, 6).findFirst().getName());
+    }
+
+    @Test
+    public void sequenceStartsAfterExistingKeys() {
+        // Objects added before the sequence is created are skipped when it starts
+        DynamicRealm dynamicRealm = DynamicRealm.getInstance(config);
+        dynamicRealm.beginTransaction();
+        dynamicRealm.createObject(AutoIncrementPrimaryKey.class.getSimpleName(), 41);
+        dynamicRealm.commitTransaction();
+        dynamicRealm.close();
+
+        realm.beginTransaction();
+        assertEquals(42, realm.createObject(AutoIncrementPrimaryKey.class).getId());
+        realm.commitTransaction();
+    }
+
+    @Test
+    public void dynamicRealm_advancesExistingSequence() {
+        realm.beginTransaction();
+        assertEquals(1, realm.createObject(AutoIncrementPrimaryKey.class).getId());
+        realm.commitTransaction();
+
+        DynamicRealm dynamicRealm = DynamicRealm.getInstance(config);
+        dynamicRealm.beginTransaction();
+        dynamicRealm.createObject(AutoIncrementPrimaryKey.class.getSimpleName(), 41);
+        dynamicRealm.commitTransaction();
+        dynamicRealm.close();
+
+        realm.beginTransaction();
+        assertEquals(42, realm.createObject(AutoIncrementPrimaryKey.class).getId());
+        realm.commitTransaction();
+    }
+
+    @Test
+    public void sequenceOfCancelledTransactionIsDropped() {
+        realm.beginTransaction();
+        assertEquals(1, realm.createObject(AutoIncrementPrimaryKey.class).getId());
+        realm.cancelTransaction();
+
+        AutoIncrementPrimaryKey explicit = new AutoIncrementPrimaryKey("explicit");
+        explicit.setId(10);
+        realm.beginTransaction();
+        realm.insert(explicit);
+        assertEquals(11, realm.createObject(AutoIncrementPrimaryKey.class).getId());
+        realm.createObject(AutoIncrementPrimaryKey.class, 20);
+        assertEquals(21, realm.createObject(AutoIncrementPrimaryKey.class).getId());
+        realm.commitTransaction();
+    }
+
+    @Test
+    public void createObject_throwsBeyondLargestValueOfField() {
+        realm.beginTransaction();
+        realm.createObject(AutoIncrementBytePrimaryKey.class, Byte.MAX_VALUE - 1);
+        assertEquals(Byte.MAX_VALUE, realm.createObject(AutoIncrementBytePrimaryKey.class).getId());
+        try {
+            realm.createObject(AutoIncrementBytePrimaryKey.class);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        try {
+            realm.copyToRealm(new AutoIncrementBytePrimaryKey());
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        realm.cancelTransaction();
+    }
+
+    @Test
+    public void keysAreNotReused() {
+        realm.beginTransaction();
+        realm.createObject(AutoIncrementPrimaryKey.class);
+        realm.createObject(AutoIncrementPrimaryKey.class);
+        realm.delete(AutoIncrementPrimaryKey.class);
+        assertEquals(3, realm.createObject(AutoIncrementPrimaryKey.class).getId());
+        realm.commitTransaction();
+
+        // The sequence is stored in the Realm
+        realm.close();
+        realm = Realm.getInstance(config);
+        realm.beginTransaction();
+        assertEquals(4, realm.createObject(AutoIncrementPrimaryKey.class).getId());
+        realm.commitTransaction();
+    }
+}
@@ -35,6 +35,7 @@ import io.realm.entities.AllJavaTypes;
 import io.realm.entities.AllTypes;
 import io.realm.entities.AllTypesPrimaryKey;
 import io.realm.entities.AnimalModule;
+import io.realm.entities.AnnotationIndexTypes;
 import io.realm.entities.Cat;
 import io.realm.entities.CatOwner;
 import io.realm.entities.CyclicType;
@@ -42,12 +43,16 @@ import io.realm.entities.CyclicTypePrimaryKey;
 import io.realm.entities.Dog;
 import io.realm.entities.DogPrimaryKey;
 import io.realm.entities.HumanModule;
+import io.realm.entities.Measurement;
 import io.realm.entities.NoPrimaryKeyWithPrimaryKeyObjectRelation;
 import io.realm.entities.NullTypes;
+import io.realm.entities.Owner;
+import io.realm.entities.PrimaryKeyAsBoxedLong;
 import io.realm.entities.PrimaryKeyAsBoxedShort;
 import io.realm.entities.PrimaryKeyAsLong;
 import io.realm.entities.PrimaryKeyAsString;
 import io.realm.entities.PrimaryKeyWithNoPrimaryKeyObjectRelation;
+import io.realm.entities.StringOnly;
 import io.realm.entities.pojo.AllTypesRealmModel;
 import io.realm.entities.pojo.InvalidRealmModel;
 import io.realm.exceptions.RealmException;
@@ -318,6 +323,24 @@ public class BulkInsertTests {
         assertEquals("42", primaryKeyAsShort.getName());
     }
 
+    @Test
+    public void insert_sameObjectTwiceInList_primaryKey() {
+        // Classes without links get no cache from the mediator unless they have a primary key
+        PrimaryKeyAsString object = new PrimaryKeyAsString("foo", 1);
+        PrimaryKeyAsLong other = new PrimaryKeyAsLong();
+        other.setId(2);
+        other.setName("bar");
+        realm.beginTransaction();
+        realm.insert(Arrays.asList(object, object));
+        realm.insert(Arrays.asList(other, other));
+        realm.insertOrUpdate(Arrays.asList(other, other));
+        realm.commitTransaction();
+
+        assertEquals(1, realm.where(PrimaryKeyAsString.class).count());
+        assertEquals(1, realm.where(PrimaryKeyAsLong.class).count());
+        assertEquals("bar", realm.where(PrimaryKeyAsLong.class).findFirst().getName());
+    }
+
     @Test
     public void insert_duplicatedPrimaryKeyFails() {
 
@@ -911,4 +934,263 @@ public class BulkInsertTests {
     public void insertOrUpdate_object_notInTransaction() {
         realm.insert(new AllTypes());
     }
+
+    @Test
+    public void insert_collectionWithoutLinks() {
+        List<StringOnly> objects = new ArrayList<StringOnly>();
+        for (int i = 0; i < 100; i++) {
+            StringOnly object = new StringOnly();
+            object.setChars("chars " + i);
+            objects.add(object);
+        }
+
+        realm.beginTransaction();
+        realm.insert(objects);
+        realm.insert(objects.get(0));
+        realm.commitTransaction();
+
+        assertEquals(101, realm.where(StringOnly.class).count());
+        assertEquals(2, realm.where(StringOnly.class).equalTo("chars", "chars 0").count());
+    }
+
+    @Test
+    public void insert_collectionWithSharedLinkedObject() {
+        Cat cat = new Cat();
+        cat.setName("Tom");
+        List<Owner> owners = new ArrayList<Owner>();
+        for (int i = 0; i < 100; i++) {
+            Owner owner = new Owner();
+            owner.setName("Owner " + i);
+            owner.setCat(cat);
+            owners.add(owner);
+        }
+
+        realm.beginTransaction();
+        realm.insert(owners);
+        realm.commitTransaction();
+
+        assertEquals(100, realm.where(Owner.class).count());
+        // The cat is referenced by all owners but only inserted once
+        assertEquals(1, realm.where(Cat.class).count());
+    }
+
+    @Test
+    public void insertOrUpdate_collectionWithExistingAndNewPrimaryKeys() {
+        realm.beginTransaction();
+        for (int i = 0; i < 100; i += 2) {
+            PrimaryKeyAsLong object = realm.createObject(PrimaryKeyAsLong.class, i);
+            object.setName("old " + i);
+        }
+        realm.commitTransaction();
+
+        List<PrimaryKeyAsLong> objects = new ArrayList<PrimaryKeyAsLong>();
+        // Keys in descending order, half of them exist
+        for (int i = 199; i >= 0; i--) {
+            PrimaryKeyAsLong object = new PrimaryKeyAsLong();
+            object.setId(i);
+            object.setName("new " + i);
+            objects.add(object);
+        }
+        realm.beginTransaction();
+        realm.insertOrUpdate(objects);
+        realm.commitTransaction();
+
+        assertEquals(200, realm.where(PrimaryKeyAsLong.class).count());
+        for (int i = 0; i < 200; i++) {
+            assertEquals("new " + i, realm.where(PrimaryKeyAsLong.class).equalTo("id", i).findFirst().getName());
+        }
+    }
+
+    @Test
+    public void insertOrUpdate_collectionWithDuplicatePrimaryKeys() {
+        List<PrimaryKeyAsString> objects = Arrays.asList(
+                new PrimaryKeyAsString("b", 1),
+                new PrimaryKeyAsString("a", 2),
+                new PrimaryKeyAsString("b", 3),
+                new PrimaryKeyAsString("", 4));
+
+        realm.beginTransaction();
+        realm.insertOrUpdate(objects);
+        realm.commitTransaction();
+
+        assertEquals(3, realm.where(PrimaryKeyAsString.class).count());
+        // The last object with a key is set last
+        assertEquals(3, realm.where(PrimaryKeyAsString.class).equalTo("name", "b").findFirst().getId());
+        assertEquals(2, realm.where(PrimaryKeyAsString.class).equalTo("name", "a").findFirst().getId());
+        assertEquals(4, realm.where(PrimaryKeyAsString.class).equalTo("name", "").findFirst().getId());
+    }
+
+    @Test
+    public void insertOrUpdate_collectionWithNullPrimaryKeys() {
+        realm.beginTransaction();
+        realm.insertOrUpdate(Arrays.asList(
+                new PrimaryKeyAsBoxedLong(null, "first"),
+                new PrimaryKeyAsBoxedLong(0L, "zero"),
+                new PrimaryKeyAsBoxedLong(null, "second")));
+        realm.commitTransaction();
+
+        assertEquals(2, realm.where(PrimaryKeyAsBoxedLong.class).count());
+        assertEquals("second", realm.where(PrimaryKeyAsBoxedLong.class).isNull("id").findFirst().getName());
+        assertEquals("zero", realm.where(PrimaryKeyAsBoxedLong.class).equalTo("id", 0L).findFirst().getName());
+    }
+
+    @Test
+    public void insert_columnBatch() {
+        ColumnBatch batch = new ColumnBatch(3)
+                .setStrings(AllTypes.FIELD_STRING, new String[] {"a", "b", "c"})
+                .setLongs(AllTypes.FIELD_LONG, new long[] {1, Long.MIN_VALUE, Long.MAX_VALUE})
+                .setFloats(AllTypes.FIELD_FLOAT, new float[] {1.5f, 2.5f, 3.5f})
+                .setDoubles(AllTypes.FIELD_DOUBLE, new double[] {1.25, 2.25, 3.25})
+                .setBooleans(AllTypes.FIELD_BOOLEAN, new boolean[] {true, false, true})
+                .setDates(AllTypes.FIELD_DATE, new long[] {1000, 2000, 3000});
+        realm.beginTransaction();
+        realm.insert(AllTypes.class, batch);
+        realm.commitTransaction();
+
+        RealmResults<AllTypes> results = realm.where(AllTypes.class).findAll();
+        assertEquals(3, results.size());
+        AllTypes second = results.get(1);
+        assertEquals("b", second.getColumnString());
+        assertEquals(Long.MIN_VALUE, second.getColumnLong());
+        assertEquals(2.5f, second.getColumnFloat(), 0f);
+        assertEquals(2.25, second.getColumnDouble(), 0d);
+        assertFalse(second.isColumnBoolean());
+        assertEquals(new Date(2000), second.getColumnDate());
+        assertEquals(Long.MAX_VALUE, results.get(2).getColumnLong());
+        // Fields without values get the default value of their type
+        assertEquals(0, second.getColumnBinary().length);
+        assertNull(second.getColumnRealmObject());
+        assertEquals(0, second.getColumnRealmList().size());
+    }
+
+    @Test
+    public void insert_columnBatch_nullValues() {
+        ColumnBatch batch = new ColumnBatch(2)
+                .setStrings(Dog.FIELD_NAME, new String[] {null, "Fido"})
+                .setDates(Dog.FIELD_BIRTHDAY, new Date[] {new Date(1000), null});
+        realm.beginTransaction();
+        realm.insert(Dog.class, batch);
+        realm.commitTransaction();
+
+        RealmResults<Dog> dogs = realm.where(Dog.class).findAll();
+        assertNull(dogs.get(0).getName());
+        assertEquals(new Date(1000), dogs.get(0).getBirthday());
+        assertEquals("Fido", dogs.get(1).getName());
+        assertNull(dogs.get(1).getBirthday());
+    }
+
+    @Test
+    public void insert_columnBatch_empty() {
+        realm.beginTransaction();
+        realm.insert(AllTypes.class, new ColumnBatch(0).setLongs(AllTypes.FIELD_LONG, new long[0]));
+        realm.commitTransaction();
+        assertEquals(0, realm.where(AllTypes.class).count());
+    }
+
+    @Test
+    public void insert_columnBatch_invalidValues() {
+        ColumnBatch[] invalidBatches = {
+                new ColumnBatch(1).setLongs("missing", new long[] {1}),
+                new ColumnBatch(1).setDoubles(AllTypes.FIELD_LONG, new double[] {1}),
+                new ColumnBatch(1).setStrings(AllTypes.FIELD_STRING, new String[] {null}),
+                new ColumnBatch(1).setLongs(AllTypes.FIELD_LONG, new long[] {1}, new boolean[] {true}),
+                // The first column is valid, no object may be inserted
+                new ColumnBatch(1).setLongs(AllTypes.FIELD_LONG, new long[] {1}).setLongs("missing", new long[] {1})
+        };
+        realm.beginTransaction();
+        for (ColumnBatch batch : invalidBatches) {
+            try {
+                realm.insert(AllTypes.class, batch);
+                fail();
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        assertEquals(0, realm.where(AllTypes.class).count());
+        try {
+            realm.insert(AllTypesPrimaryKey.class, new ColumnBatch(1).setLongs("columnLong", new long[] {1}));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        realm.cancelTransaction();
+
+        ColumnBatch batch = new ColumnBatch(2);
+        try {
+            batch.setLongs(AllTypes.FIELD_LONG, new long[] {1});
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        batch.setLongs(AllTypes.FIELD_LONG, new long[] {1, 2});
+        try {
+            batch.setLongs(AllTypes.FIELD_LONG, new long[] {1, 2});
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void insert_columnBatch_requiredFieldWithoutNulls() {
+        realm.beginTransaction();
+        realm.insert(AllTypes.class, new ColumnBatch(2)
+                .setLongs(AllTypes.FIELD_LONG, new long[] {1, 2}, new boolean[] {false, false}));
+        realm.commitTransaction();
+        assertEquals(2, realm.where(AllTypes.class).count());
+    }
+
+    @Test
+    public void insert_columnBatch_narrowIntegerFields() {
+        realm.beginTransaction();
+        realm.insert(AnnotationIndexTypes.class, new ColumnBatch(2)
+                .setLongs(AnnotationIndexTypes.FIELD_NOT_INDEX_INT, new long[] {Integer.MIN_VALUE, Integer.MAX_VALUE})
+                .setLongs(AnnotationIndexTypes.FIELD_NOT_INDEX_SHORT, new long[] {Short.MIN_VALUE, Short.MAX_VALUE})
+                .setLongs(AnnotationIndexTypes.FIELD_NOT_INDEX_BYTE, new long[] {Byte.MIN_VALUE, Byte.MAX_VALUE}));
+
+        ColumnBatch[] invalidBatches = {
+                new ColumnBatch(1).setLongs(AnnotationIndexTypes.FIELD_NOT_INDEX_INT, new long[] {Integer.MAX_VALUE + 1L}),
+                new ColumnBatch(1).setLongs(AnnotationIndexTypes.FIELD_NOT_INDEX_SHORT, new long[] {Short.MIN_VALUE - 1}),
+                new ColumnBatch(1).setLongs(AnnotationIndexTypes.FIELD_NOT_INDEX_BYTE, new long[] {Byte.MAX_VALUE + 1})
+        };
+        for (ColumnBatch batch : invalidBatches) {
+            try {
+                realm.insert(AnnotationIndexTypes.class, batch);
+                fail();
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        realm.commitTransaction();
+
+        RealmResults<AnnotationIndexTypes> results = realm.where(AnnotationIndexTypes.class).findAll();
+        assertEquals(2, results.size());
+        assertEquals(Integer.MIN_VALUE, results.get(0).getNotIndexInt());
+        assertEquals(Short.MAX_VALUE, results.get(1).getNotIndexShort());
+        assertEquals(Byte.MIN_VALUE, results.get(0).getNotIndexByte());
+    }
+
+    @Test
+    public void insert_columnBatch_orderedBy() {
+        realm.beginTransaction();
+        realm.insert(Measurement.class, new ColumnBatch(2).setDates(Measurement.FIELD_TIMESTAMP, new long[] {10, 20}));
+        try {
+            realm.insert(Measurement.class, new ColumnBatch(2).setDates(Measurement.FIELD_TIMESTAMP, new long[] {40, 30}));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            realm.insert(Measurement.class, new ColumnBatch(1).setDates(Measurement.FIELD_TIMESTAMP, new long[] {15}));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            realm.insert(Measurement.class, new ColumnBatch(1).setDoubles(Measurement.FIELD_VALUE, new double[] {1}));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        realm.insert(Measurement.class, new ColumnBatch(2).setDates(Measurement.FIELD_TIMESTAMP, new long[] {20, 30}));
+        realm.commitTransaction();
+        assertEquals(4, realm.where(Measurement.class).count());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void insert_columnBatch_notInTransaction() {
+        realm.insert(AllTypes.class, new ColumnBatch(0));
+    }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.realm.entities.Dog;
+import io.realm.rule.TestRealmConfigurationFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class BulkWriteSessionTests {
+    @Rule
+    public final TestRealmConfigurationFactory configFactory = new TestRealmConfigurationFactory();
+
+    private RealmConfiguration config;
+    private Realm realm;
+
+    @Before
+    public void setUp() {
+        config = configFactory.createConfiguration();
+        realm = Realm.getInstance(config);
+    }
+
+    @After
+    public void tearDown() {
+        if (realm != null) {
+            realm.close();
+        }
+    }
+
+    private static Dog dog(long i) {
+        Dog dog = new Dog();
+        dog.setName("Dog " + i);
+        dog.setAge(i);
+        return dog;
+    }
+
+    @Test
+    public void insert_commitsInChunks() {
+        final List<Long> progress = new ArrayList<Long>();
+        BulkWriteSession session = new BulkWriteSession.Builder(config, "dogs")
+                .objectsPerCommit(10)
+                .progressListener(new BulkWriteSession.ProgressListener() {
+                    @Override
+                    public void onCommit(long committedObjects) {
+                        progress.add(committedObjects);
+                    }
+                })
+                .open();
+        assertEquals(0, session.getResumePosition());
+        for (int i = 0; i < 25; i++) {
+            session.insert(dog(i));
+        }
+        assertEquals(20, session.getCommittedObjects());
+        assertEquals(25, session.finish());
+
+        assertEquals(Arrays.asList(10L, 20L, 25L), progress);
+        assertEquals(25, realm.where(Dog.class).count());
+    }
+
+    @Test
+    public void close_resumesAfterLastChunk() {
+        BulkWriteSession session = new BulkWriteSession.Builder(config, "dogs").objectsPerCommit(10).open();
+        for (int i = 0; i < 15; i++) {
+            session.insert(dog(i));
+        }
+        // The objects of the unfinished chunk are discarded
+        session.close();
+        assertEquals(10, realm.where(Dog.class).count());
+
+        session = new BulkWriteSession.Builder(config, "dogs").objectsPerCommit(10).open();
+        assertEquals(10, session.getResumePosition());
+        for (long i = session.getResumePosition(); i < 15; i++) {
+            session.insert(dog(i));
+        }
+        assertEquals(15, session.finish());
+        assertEquals(15, realm.where(Dog.class).count());
+        assertEquals(1, realm.where(Dog.class).equalTo("name", "Dog 14").count());
+
+        // A finished session starts over
+        session = new BulkWriteSession.Builder(config, "dogs").open();
+        assertEquals(0, session.getResumePosition());
+        session.close();
+    }
+
+    @Test
+    public void advance_commitsOnBytes() {
+        final List<Long> progress = new ArrayList<Long>();
+        BulkWriteSession session = new BulkWriteSession.Builder(config, "dogs")
+                .bytesPerCommit(100)
+                .progressListener(new BulkWriteSession.ProgressListener() {
+                    @Override
+                    public void onCommit(long committedObjects) {
+                        progress.add(committedObjects);
+                    }
+                })
+                .open();
+        for (int i = 0; i < 3; i++) {
+            session.getRealm().copyToRealm(dog(i));
+            session.advance(1, 60);
+        }
+        assertEquals(Arrays.asList(2L), progress);
+        session.close();
+        assertEquals(2, realm.where(Dog.class).count());
+    }
+
+    @Test
+    public void compactEveryCommits() {
+        realm.close();
+        realm = null;
+
+        BulkWriteSession session = new BulkWriteSession.Builder(config, "dogs")
+                .objectsPerCommit(5)
+                .compactEveryCommits(1)
+                .open();
+        for (int i = 0; i < 12; i++) {
+            session.insert(dog(i));
+        }
+        assertEquals(12, session.finish());
+
+        realm = Realm.getInstance(config);
+        assertEquals(12, realm.where(Dog.class).count());
+    }
+
+    @Test
+    public void closedSessionThrows() {
+        BulkWriteSession session = new BulkWriteSession.Builder(config, "dogs").open();
+        session.close();
+        // Closing again has no effect
+        session.close();
+        try {
+            session.insert(dog(0));
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        try {
+            session.finish();
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    @Test
+    public void open_withinTransactionThrows() {
+        realm.beginTransaction();
+        try {
+            new BulkWriteSession.Builder(config, "dogs").open();
+            fail();
+        } catch (IllegalStateException ignored) {
+        } finally {
+            realm.cancelTransaction();
+        }
+    }
+
+    @Test
+    public void invalidArgumentsThrows() {
+        try {
+            new BulkWriteSession.Builder(config, "");
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            new BulkWriteSession.Builder(config, "dogs").objectsPerCommit(0);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        BulkWriteSession session = new BulkWriteSession.Builder(config, "dogs").open();
+        try {
+            session.advance(-1, 0);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        } finally {
+            session.close();
+        }
+    }
+}
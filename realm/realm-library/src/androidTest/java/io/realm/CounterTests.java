@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import io.realm.entities.PlayCount;
+import io.realm.rule.TestRealmConfigurationFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class CounterTests {
+    @Rule
+    public final TestRealmConfigurationFactory configFactory = new TestRealmConfigurationFactory();
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private Realm realm;
+
+    @Before
+    public void setUp() {
+        realm = Realm.getInstance(configFactory.createConfiguration());
+        realm.beginTransaction();
+        realm.copyToRealm(new PlayCount("a", "A", 10));
+        realm.copyToRealm(new PlayCount("b", "B", 20));
+        realm.copyToRealm(new PlayCount("c", "C", 30));
+        realm.commitTransaction();
+    }
+
+    @After
+    public void tearDown() {
+        if (realm != null) {
+            realm.close();
+        }
+    }
+
+    private long getPlays(String id) {
+        return realm.where(PlayCount.class).equalTo(PlayCount.FIELD_ID, id).findFirst().getPlays();
+    }
+
+    @Test
+    public void increment() {
+        PlayCount playCount = realm.where(PlayCount.class).equalTo(PlayCount.FIELD_ID, "a").findFirst();
+        realm.beginTransaction();
+        playCount.increment(PlayCount.FIELD_PLAYS, 5);
+        RealmObject.increment(playCount, PlayCount.FIELD_PLAYS, -2);
+        realm.commitTransaction();
+
+        assertEquals(13, playCount.getPlays());
+    }
+
+    @Test
+    public void increment_notInTransactionThrows() {
+        PlayCount playCount = realm.where(PlayCount.class).findFirst();
+        thrown.expect(IllegalStateException.class);
+        playCount.increment(PlayCount.FIELD_PLAYS, 1);
+    }
+
+    @Test
+    public void increment_unmanagedObjectThrows() {
+        thrown.expect(IllegalStateException.class);
+        new PlayCount("d", "D", 0).increment(PlayCount.FIELD_PLAYS, 1);
+    }
+
+    @Test
+    public void increment_invalidFieldsThrow() {
+        PlayCount playCount = realm.where(PlayCount.class).findFirst();
+        realm.beginTransaction();
+        for (String fieldName : Arrays.asList(PlayCount.FIELD_TITLE, "nonExisting")) {
+            try {
+                playCount.increment(fieldName, 1);
+                fail(fieldName);
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        realm.cancelTransaction();
+    }
+
+    @Test
+    public void copyToRealmOrUpdate_keepsCountOfExistingObjects() {
+        realm.beginTransaction();
+        realm.copyToRealmOrUpdate(Arrays.asList(new PlayCount("a", "A2", 0), new PlayCount("d", "D", 40)));
+        realm.commitTransaction();
+
+        assertEquals(10, getPlays("a"));
+        assertEquals("A2", realm.where(PlayCount.class).equalTo(PlayCount.FIELD_ID, "a").findFirst().getTitle());
+        assertEquals(40, getPlays("d"));
+    }
+
+    @Test
+    public void insertOrUpdate_keepsCountOfExistingObjects() {
+        realm.beginTransaction();
+        realm.insertOrUpdate(new PlayCount("a", "A2", 0));
+        realm.insertOrUpdate(Arrays.asList(new PlayCount("b", "B2", 0), new PlayCount("d", "D", 40)));
+        realm.commitTransaction();
+
+        assertEquals(10, getPlays("a"));
+        assertEquals(20, getPlays("b"));
+        assertEquals("B2", realm.where(PlayCount.class).equalTo(PlayCount.FIELD_ID, "b").findFirst().getTitle());
+        assertEquals(40, getPlays("d"));
+    }
+
+    @Test
+    public void setter_resetsCount() {
+        PlayCount playCount = realm.where(PlayCount.class).findFirst();
+        realm.beginTransaction();
+        playCount.setPlays(0);
+        realm.commitTransaction();
+
+        assertEquals(0, playCount.getPlays());
+    }
+
+    @Test
+    public void query_increment() {
+        realm.beginTransaction();
+        realm.where(PlayCount.class).greaterThanOrEqualTo(PlayCount.FIELD_PLAYS, 20).increment(PlayCount.FIELD_PLAYS, 1);
+        realm.commitTransaction();
+
+        assertEquals(10, getPlays("a"));
+        assertEquals(21, getPlays("b"));
+        assertEquals(31, getPlays("c"));
+    }
+
+    @Test
+    public void query_increment_onResults() {
+        RealmResults<PlayCount> results = realm.where(PlayCount.class).lessThan(PlayCount.FIELD_PLAYS, 30).findAll();
+        realm.beginTransaction();
+        results.where().equalTo(PlayCount.FIELD_ID, "b").increment(PlayCount.FIELD_PLAYS, 100);
+        realm.commitTransaction();
+
+        assertEquals(10, getPlays("a"));
+        assertEquals(120, getPlays("b"));
+        assertEquals(30, getPlays("c"));
+    }
+
+    @Test
+    public void query_increment_notInTransactionThrows() {
+        thrown.expect(IllegalStateException.class);
+        realm.where(PlayCount.class).increment(PlayCount.FIELD_PLAYS, 1);
+    }
+
+    @Test
+    public void query_increment_invalidFieldsThrow() {
+        realm.beginTransaction();
+        for (String fieldName : Arrays.asList(PlayCount.FIELD_ID, PlayCount.FIELD_TITLE, "nonExisting")) {
+            try {
+                realm.where(PlayCount.class).increment(fieldName, 1);
+                fail(fieldName);
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        realm.cancelTransaction();
+    }
+}
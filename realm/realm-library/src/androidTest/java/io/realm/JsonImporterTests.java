@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.realm.entities.AllTypesPrimaryKey;
+import io.realm.entities.Dog;
+import io.realm.exceptions.RealmException;
+import io.realm.rule.TestRealmConfigurationFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class JsonImporterTests {
+    @Rule
+    public final TestRealmConfigurationFactory configFactory = new TestRealmConfigurationFactory();
+
+    private Realm realm;
+
+    @Before
+    public void setUp() {
+        realm = Realm.getInstance(configFactory.createConfiguration());
+    }
+
+    @After
+    public void tearDown() {
+        if (realm != null) {
+            realm.close();
+        }
+    }
+
+    private static InputStream dogs(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(",\n");
+            }
+            json.append("{ \"name\" : \"Dog ").append(i).append(" [\\\"x\\\"]\", \"age\" : ").append(i).append(" }");
+        }
+        return TestHelper.stringToStream(json.append("]").toString());
+    }
+
+    @Test
+    public void importFrom() throws IOException, InterruptedException {
+        final List<Long> progress = new ArrayList<Long>();
+        JsonImporter importer = new JsonImporter.Builder(Dog.class)
+                .parserThreads(3)
+                .batchSize(100)
+                .maxPendingBatches(2)
+                .progressListener(new JsonImporter.ProgressListener() {
+                    @Override
+                    public void onProgress(long importedObjects) {
+                        progress.add(importedObjects);
+                    }
+                })
+                .build();
+
+        assertEquals(1050, importer.importFrom(realm, dogs(1050)));
+
+        assertFalse(realm.isInTransaction());
+        assertEquals(1050, realm.where(Dog.class).count());
+        // Batches are written in the order of the array
+        RealmResults<Dog> dogs = realm.where(Dog.class).findAll();
+        for (int i = 0; i < 1050; i++) {
+            assertEquals(i, dogs.get(i).getAge());
+            assertEquals("Dog " + i + " [\"x\"]", dogs.get(i).getName());
+        }
+        assertEquals(11, progress.size());
+        assertEquals(1050, (long) progress.get(10));
+    }
+
+    @Test
+    public void importFrom_emptyArray() throws IOException, InterruptedException {
+        JsonImporter importer = new JsonImporter.Builder(Dog.class).build();
+        assertEquals(0, importer.importFrom(realm, TestHelper.stringToStream("[ ]")));
+    }
+
+    @Test
+    public void importFrom_createOrUpdate() throws IOException, InterruptedException {
+        JsonImporter importer = new JsonImporter.Builder(AllTypesPrimaryKey.class)
+                .parserThreads(2)
+                .batchSize(1)
+                .createOrUpdate(true)
+                .build();
+
+        importer.importFrom(realm, TestHelper.stringToStream("[{ \"columnLong\" : 1, \"columnString\" : \"Foo\" }, "
+                + "{ \"columnLong\" : 1, \"columnString\" : \"Bar\" }]"));
+
+        assertEquals(1, realm.where(AllTypesPrimaryKey.class).count());
+        assertEquals("Bar", realm.where(AllTypesPrimaryKey.class).findFirst().getColumnString());
+    }
+
+    @Test
+    public void importFrom_createOrUpdateNoPrimaryKeyThrows() throws IOException, InterruptedException {
+        JsonImporter importer = new JsonImporter.Builder(Dog.class).createOrUpdate(true).build();
+        try {
+            importer.importFrom(realm, dogs(1));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void importFrom_invalidJsonKeepsWrittenBatches() throws IOException, InterruptedException {
+        JsonImporter importer = new JsonImporter.Builder(Dog.class).batchSize(2).build();
+        try {
+            importer.importFrom(realm, TestHelper.stringToStream(
+                    "[{ \"name\" : \"a\" }, { \"name\" : \"b\" }, { \"name\" : \"c\" } { \"name\" : \"d\" }]"));
+            fail();
+        } catch (RealmException ignored) {
+        }
+        assertFalse(realm.isInTransaction());
+        assertEquals(2, realm.where(Dog.class).count());
+    }
+
+    @Test
+    public void importFrom_withinTransactionThrows() throws IOException, InterruptedException {
+        JsonImporter importer = new JsonImporter.Builder(Dog.class).build();
+        realm.beginTransaction();
+        try {
+            importer.importFrom(realm, dogs(1));
+            fail();
+        } catch (IllegalStateException ignored) {
+        } finally {
+            realm.cancelTransaction();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builder_invalidBatchSizeThrows() {
+        new JsonImporter.Builder(Dog.class).batchSize(0);
+    }
+}
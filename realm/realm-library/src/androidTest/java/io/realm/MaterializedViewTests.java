@@ -0,0 +1,330 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.realm.entities.Dog;
+import io.realm.entities.Owner;
+import io.realm.rule.TestRealmConfigurationFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class MaterializedViewTests {
+
+    @Rule
+    public final TestRealmConfigurationFactory configFactory = new TestRealmConfigurationFactory();
+
+    private static final MaterializedViewDefinition ADULTS_BY_NAME =
+            new MaterializedViewDefinition.Builder("adultsByName", Dog.class)
+                    .filter("age >= $0", 2)
+                    .groupBy(Dog.FIELD_NAME)
+                    .sum(Dog.FIELD_WEIGHT)
+                    .build();
+
+    private static final MaterializedViewDefinition BY_AGE =
+            new MaterializedViewDefinition.Builder("byAge", Dog.class)
+                    .groupBy(Dog.FIELD_AGE)
+                    .build();
+
+    private Realm realm;
+
+    @Before
+    public void setUp() {
+        realm = Realm.getInstance(configFactory.createConfigurationBuilder()
+                .materializedView(ADULTS_BY_NAME)
+                .materializedView(BY_AGE)
+                .build());
+    }
+
+    @After
+    public void tearDown() {
+        if (realm != null) {
+            realm.close();
+        }
+    }
+
+    private Dog createDog(String name, long age, double weight) {
+        Dog dog = realm.createObject(Dog.class);
+        dog.setName(name);
+        dog.setAge(age);
+        dog.setWeight(weight);
+        return dog;
+    }
+
+    @Test
+    public void insert() {
+        realm.beginTransaction();
+        createDog("Fido", 1, 10);
+        createDog("Fido", 3, 20);
+        createDog("Fido", 4, 5);
+        createDog("Rex", 2, 30);
+        createDog(null, 5, 1);
+        realm.commitTransaction();
+
+        MaterializedView view = realm.getMaterializedView(ADULTS_BY_NAME.getName());
+        assertEquals(3, view.size());
+        assertEquals(2, view.getCount("Fido"));
+        assertEquals(25, view.getSum("Fido"), 0);
+        assertEquals(1, view.getCount("Rex"));
+        assertEquals(1, view.getCount((String) null));
+        assertEquals(0, view.getCount("Lassie"));
+        assertEquals(0, view.getSum("Lassie"), 0);
+
+        MaterializedView byAge = realm.getMaterializedView(BY_AGE.getName());
+        assertEquals(5, byAge.size());
+        assertEquals(1, byAge.getCount(1L));
+        assertEquals(0, byAge.getCount(6L));
+    }
+
+    @Test
+    public void update() {
+        realm.beginTransaction();
+        Dog fido = createDog("Fido", 3, 20);
+        Dog rex = createDog("Rex", 1, 30);
+        realm.commitTransaction();
+
+        MaterializedView view = realm.getMaterializedView(ADULTS_BY_NAME.getName());
+        realm.beginTransaction();
+        // Rex starts to match, Fido moves to another group and changes its weight
+        rex.setAge(2);
+        fido.setName("Max");
+        fido.setWeight(15);
+        realm.commitTransaction();
+
+        assertEquals(0, view.getCount("Fido"));
+        assertEquals(1, view.getCount("Max"));
+        assertEquals(15, view.getSum("Max"), 0);
+        assertEquals(1, view.getCount("Rex"));
+        assertEquals(30, view.getSum("Rex"), 0);
+        assertEquals(2, view.size());
+    }
+
+    @Test
+    public void delete() {
+        realm.beginTransaction();
+        createDog("Fido", 3, 20);
+        createDog("Rex", 3, 30);
+        createDog("Fido", 4, 5);
+        realm.commitTransaction();
+
+        MaterializedView view = realm.getMaterializedView(ADULTS_BY_NAME.getName());
+        realm.beginTransaction();
+        // Moves the last object into the deleted row, which must keep its contribution
+        realm.where(Dog.class).equalTo(Dog.FIELD_WEIGHT, 20.0).findFirst().deleteFromRealm();
+        realm.commitTransaction();
+        assertEquals(1, view.getCount("Fido"));
+        assertEquals(5, view.getSum("Fido"), 0);
+        assertEquals(1, view.getCount("Rex"));
+
+        realm.beginTransaction();
+        Dog dog = createDog("Rex", 5, 1);
+        dog.deleteFromRealm();
+        realm.commitTransaction();
+        assertEquals(1, view.getCount("Rex"));
+
+        realm.beginTransaction();
+        realm.delete(Dog.class);
+        realm.commitTransaction();
+        assertEquals(0, view.size());
+        assertEquals(0, realm.getMaterializedView(BY_AGE.getName()).size());
+    }
+
+    @Test
+    public void cancelTransaction() {
+        realm.beginTransaction();
+        createDog("Fido", 3, 20);
+        realm.commitTransaction();
+
+        realm.beginTransaction();
+        createDog("Fido", 3, 20);
+        realm.cancelTransaction();
+
+        realm.beginTransaction();
+        createDog("Fido", 3, 1);
+        realm.commitTransaction();
+
+        MaterializedView view = realm.getMaterializedView(ADULTS_BY_NAME.getName());
+        assertEquals(2, view.getCount("Fido"));
+        assertEquals(21, view.getSum("Fido"), 0);
+    }
+
+    @Test
+    public void builtWhenOpened() {
+        RealmConfiguration withoutViews = configFactory.createConfiguration("views.realm");
+        Realm plain = Realm.getInstance(withoutViews);
+        plain.beginTransaction();
+        Dog dog = plain.createObject(Dog.class);
+        dog.setName("Fido");
+        dog.setAge(3);
+        plain.commitTransaction();
+        plain.close();
+
+        Realm withViews = Realm.getInstance(configFactory.createConfigurationBuilder()
+                .name("views.realm")
+                .materializedView(ADULTS_BY_NAME)
+                .build());
+        try {
+            assertEquals(1, withViews.getMaterializedView(ADULTS_BY_NAME.getName()).getCount("Fido"));
+        } finally {
+            withViews.close();
+        }
+    }
+
+    @Test
+    public void rebuiltWhenDefinitionChanges() {
+        realm.beginTransaction();
+        createDog("Fido", 1, 10);
+        createDog("Fido", 3, 20);
+        realm.commitTransaction();
+        RealmConfiguration configuration = realm.getConfiguration();
+        realm.close();
+
+        MaterializedViewDefinition allByName = new MaterializedViewDefinition.Builder(ADULTS_BY_NAME.getName(), Dog.class)
+                .groupBy(Dog.FIELD_NAME)
+                .build();
+        realm = Realm.getInstance(configFactory.createConfigurationBuilder()
+                .name(configuration.getRealmFileName())
+                .materializedView(allByName)
+                .build());
+        assertEquals(2, realm.getMaterializedView(allByName.getName()).getCount("Fido"));
+    }
+
+    @Test
+    public void rebuiltAfterCommitWithoutViews() {
+        realm.beginTransaction();
+        createDog("Fido", 3, 20);
+        realm.commitTransaction();
+        RealmConfiguration configuration = realm.getConfiguration();
+        realm.close();
+
+        // Commits to the same file without maintaining the views
+        Realm plain = Realm.getInstance(configFactory.createConfigurationBuilder()
+                .name(configuration.getRealmFileName())
+                .build());
+        plain.beginTransaction();
+        plain.where(Dog.class).findFirst().setName("Rex");
+        plain.commitTransaction();
+        plain.close();
+
+        realm = Realm.getInstance(configuration);
+        MaterializedView view = realm.getMaterializedView(ADULTS_BY_NAME.getName());
+        assertEquals(0, view.getCount("Fido"));
+        assertEquals(1, view.getCount("Rex"));
+
+        realm.beginTransaction();
+        createDog("Rex", 4, 5);
+        realm.commitTransaction();
+        assertEquals(2, view.getCount("Rex"));
+        assertEquals(25, view.getSum("Rex"), 0);
+    }
+
+    @Test
+    public void conditionOnLinkedObject() {
+        realm.close();
+        MaterializedViewDefinition byOwner = new MaterializedViewDefinition.Builder("ownedBy", Dog.class)
+                .filter("owner.name == $0", "Alice")
+                .groupBy(Dog.FIELD_NAME)
+                .build();
+        realm = Realm.getInstance(configFactory.createConfigurationBuilder()
+                .name("links.realm")
+                .materializedView(byOwner)
+                .build());
+
+        realm.beginTransaction();
+        Owner owner = realm.createObject(Owner.class);
+        owner.setName("Alice");
+        Dog dog = realm.createObject(Dog.class);
+        dog.setName("Fido");
+        dog.setOwner(owner);
+        realm.commitTransaction();
+        MaterializedView view = realm.getMaterializedView(byOwner.getName());
+        assertEquals(1, view.getCount("Fido"));
+
+        // Only the owner changes
+        realm.beginTransaction();
+        owner.setName("Bob");
+        realm.commitTransaction();
+        assertEquals(0, view.getCount("Fido"));
+    }
+
+    @Test
+    public void getMaterializedView_invalidArguments() {
+        try {
+            realm.getMaterializedView("missing");
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        MaterializedView byAge = realm.getMaterializedView(BY_AGE.getName());
+        try {
+            byAge.getCount("Fido");
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            byAge.getSum(1L);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    @Test
+    public void invalidDefinitions() {
+        for (String name : new String[] {null, "", "has space", "name-with-dash"}) {
+            try {
+                new MaterializedViewDefinition.Builder(name, Dog.class);
+                fail(name);
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        try {
+            new MaterializedViewDefinition.Builder("noGroup", Dog.class).build();
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        try {
+            configFactory.createConfigurationBuilder().materializedView(BY_AGE).materializedView(BY_AGE);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        // Fields are checked when the Realm is opened
+        MaterializedViewDefinition[] invalid = {
+                new MaterializedViewDefinition.Builder("missingField", Dog.class).groupBy("missing").build(),
+                new MaterializedViewDefinition.Builder("dateField", Dog.class).groupBy(Dog.FIELD_BIRTHDAY).build(),
+                new MaterializedViewDefinition.Builder("sumString", Dog.class).groupBy(Dog.FIELD_AGE)
+                        .sum(Dog.FIELD_NAME).build()};
+        for (MaterializedViewDefinition definition : invalid) {
+            try {
+                Realm.getInstance(configFactory.createConfigurationBuilder()
+                        .name(definition.getName() + ".realm")
+                        .materializedView(definition)
+                        .build()).close();
+                fail(definition.getName());
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+    }
+}
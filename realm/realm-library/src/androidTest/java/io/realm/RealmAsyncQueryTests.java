@@ -1042,6 +1042,46 @@ public class RealmAsyncQueryTests {
     }
 
 
+    // The top objects are found again when a commit changes them
+    @Test
+    @RunTestInLooperThread
+    public void findTopKAsync() throws Throwable {
+        final AtomicInteger numberOfNotifications = new AtomicInteger(0);
+        final Realm realm = looperThread.realm;
+        populateTestRealm(realm, 10);
+
+        final RealmResults<AllTypes> results = realm.where(AllTypes.class)
+                .findTopKAsync(AllTypes.FIELD_LONG, Sort.DESCENDING, 3);
+
+        assertFalse(results.isLoaded());
+        assertEquals(0, results.size());
+
+        looperThread.keepStrongReference.add(results);
+        results.addChangeListener(new RealmChangeListener<RealmResults<AllTypes>>() {
+            @Override
+            public void onChange(RealmResults<AllTypes> object) {
+                assertTrue(results.isLoaded());
+                assertEquals(3, results.size());
+                switch (numberOfNotifications.incrementAndGet()) {
+                    case 1:
+                        assertEquals(9, results.get(0).getColumnLong());
+                        assertEquals(7, results.get(2).getColumnLong());
+                        realm.beginTransaction();
+                        realm.createObject(AllTypes.class).setColumnLong(100);
+                        realm.where(AllTypes.class).equalTo(AllTypes.FIELD_LONG, 8).findFirst().deleteFromRealm();
+                        realm.commitTransaction();
+                        break;
+                    case 2:
+                        assertEquals(100, results.get(0).getColumnLong());
+                        assertEquals(9, results.get(1).getColumnLong());
+                        assertEquals(7, results.get(2).getColumnLong());
+                        looperThread.testComplete();
+                        break;
+                }
+            }
+        });
+    }
+
     // finding elements [4-8] asynchronously then wait for the promise to be loaded
     // using a callback to be notified when the data is loaded
     @Test
@@ -1623,6 +1663,69 @@ public class RealmAsyncQueryTests {
         });
     }
 
+    @Test
+    @RunTestInLooperThread
+    public void distinctAsync_multiArgs() throws Throwable {
+        Realm realm = looperThread.realm;
+        final long numberOfBlocks = 25;
+        final long numberOfObjects = 10; // must be greater than 1
+        populateForDistinct(realm, numberOfBlocks, numberOfObjects, false);
+
+        final RealmResults<AnnotationIndexTypes> distinctMulti = realm.where(AnnotationIndexTypes.class)
+                .distinctAsync(AnnotationIndexTypes.FIELD_INDEX_BOOL, AnnotationIndexTypes.INDEX_FIELDS);
+        assertFalse(distinctMulti.isLoaded());
+        assertTrue(distinctMulti.isEmpty());
+
+        looperThread.keepStrongReference.add(distinctMulti);
+        distinctMulti.addChangeListener(new RealmChangeListener<RealmResults<AnnotationIndexTypes>>() {
+            @Override
+            public void onChange(RealmResults<AnnotationIndexTypes> object) {
+                assertEquals(numberOfBlocks, distinctMulti.size());
+                looperThread.testComplete();
+            }
+        });
+    }
+
+    // The sorted and distinct results are kept up to date after a commit
+    @Test
+    @RunTestInLooperThread
+    public void findAllSortedDistinctAsync() throws Throwable {
+        final AtomicInteger numberOfNotifications = new AtomicInteger(0);
+        final Realm realm = looperThread.realm;
+        final long numberOfBlocks = 25;
+        final long numberOfObjects = 10; // must be greater than 1
+        populateForDistinct(realm, numberOfBlocks, numberOfObjects, false);
+
+        final RealmResults<AnnotationIndexTypes> results = realm.where(AnnotationIndexTypes.class)
+                .findAllSortedDistinctAsync(new String[]{AnnotationIndexTypes.FIELD_INDEX_LONG},
+                        new Sort[]{Sort.DESCENDING}, new String[]{AnnotationIndexTypes.FIELD_INDEX_BOOL});
+        assertFalse(results.isLoaded());
+
+        looperThread.keepStrongReference.add(results);
+        results.addChangeListener(new RealmChangeListener<RealmResults<AnnotationIndexTypes>>() {
+            @Override
+            public void onChange(RealmResults<AnnotationIndexTypes> object) {
+                assertEquals(2, results.size());
+                switch (numberOfNotifications.incrementAndGet()) {
+                    case 1:
+                        assertEquals(numberOfBlocks - 1, results.get(0).getIndexLong());
+                        assertEquals(numberOfBlocks - 2, results.get(1).getIndexLong());
+                        realm.beginTransaction();
+                        AnnotationIndexTypes obj = realm.createObject(AnnotationIndexTypes.class);
+                        obj.setIndexLong(100);
+                        obj.setIndexBoolean(true);
+                        realm.commitTransaction();
+                        break;
+                    case 2:
+                        assertEquals(100, results.get(0).getIndexLong());
+                        assertEquals(numberOfBlocks - 2, results.get(1).getIndexLong());
+                        looperThread.testComplete();
+                        break;
+                }
+            }
+        });
+    }
+
     @Test
     @RunTestInLooperThread
     public void distinctAsync_notIndexedFields() throws Throwable {
@@ -2167,6 +2270,120 @@ public class RealmAsyncQueryTests {
         looperThread.keepStrongReference.add(results);
     }
 
+    @Test
+    @RunTestInLooperThread
+    public void aggregateByIntervalAsync() {
+        final Realm realm = looperThread.realm;
+        realm.beginTransaction();
+        for (int i = 0; i < 4; i++) {
+            AllTypes allTypes = realm.createObject(AllTypes.class);
+            allTypes.setColumnDate(new Date(i * 500));
+            allTypes.setColumnLong(i);
+        }
+        realm.commitTransaction();
+
+        final AtomicInteger updates = new AtomicInteger(0);
+        final RealmAsyncTask[] task = new RealmAsyncTask[1];
+        task[0] = realm.where(AllTypes.class).aggregateByIntervalAsync(AllTypes.FIELD_DATE, AllTypes.FIELD_LONG, 1000,
+                new RealmChangeListener<TimeSeries>() {
+                    @Override
+                    public void onChange(TimeSeries series) {
+                        List<TimeSeries.Bucket> buckets = series.getBuckets();
+                        switch (updates.incrementAndGet()) {
+                            case 1:
+                                assertEquals(2, buckets.size());
+                                assertEquals(1, buckets.get(0).getSum(), 0);
+                                assertEquals(5, buckets.get(1).getSum(), 0);
+
+                                // Appends to the last bucket and starts a new one
+                                realm.beginTransaction();
+                                AllTypes allTypes = realm.createObject(AllTypes.class);
+                                allTypes.setColumnDate(new Date(1999));
+                                allTypes.setColumnLong(10);
+                                allTypes = realm.createObject(AllTypes.class);
+                                allTypes.setColumnDate(new Date(3000));
+                                allTypes.setColumnLong(20);
+                                realm.commitTransaction();
+                                break;
+                            case 2:
+                                assertEquals(3, buckets.size());
+                                assertEquals(1, buckets.get(0).getSum(), 0);
+                                assertEquals(15, buckets.get(1).getSum(), 0);
+                                assertEquals(10, buckets.get(1).getLast(), 0);
+                                assertEquals(new Date(3000), buckets.get(2).getStart());
+
+                                // Changing an earlier bucket recomputes all of them
+                                realm.beginTransaction();
+                                realm.where(AllTypes.class).equalTo(AllTypes.FIELD_LONG, 0).findFirst()
+                                        .setColumnLong(100);
+                                realm.commitTransaction();
+                                break;
+                            case 3:
+                                assertEquals(3, buckets.size());
+                                assertEquals(101, buckets.get(0).getSum(), 0);
+                                assertEquals(100, buckets.get(0).getFirst(), 0);
+                                task[0].cancel();
+                                assertTrue(task[0].isCancelled());
+                                looperThread.testComplete();
+                                break;
+                            default:
+                                fail("Unexpected update after cancel");
+                        }
+                    }
+                });
+    }
+
+    @Test
+    @RunTestInLooperThread
+    public void aggregateByIntervalAsync_moveBetweenEarlierBuckets() {
+        final Realm realm = looperThread.realm;
+        realm.beginTransaction();
+        for (int i = 0; i < 5; i++) {
+            AllTypes allTypes = realm.createObject(AllTypes.class);
+            allTypes.setColumnDate(new Date(i * 500));
+            allTypes.setColumnLong(i + 1);
+        }
+        realm.commitTransaction();
+
+        final AtomicInteger updates = new AtomicInteger(0);
+        final RealmAsyncTask[] task = new RealmAsyncTask[1];
+        task[0] = realm.where(AllTypes.class).aggregateByIntervalAsync(AllTypes.FIELD_DATE, AllTypes.FIELD_LONG, 1000,
+                new RealmChangeListener<TimeSeries>() {
+                    @Override
+                    public void onChange(TimeSeries series) {
+                        List<TimeSeries.Bucket> buckets = series.getBuckets();
+                        switch (updates.incrementAndGet()) {
+                            case 1:
+                                assertEquals(3, buckets.size());
+                                assertEquals(3, buckets.get(0).getSum(), 0);
+                                assertEquals(7, buckets.get(1).getSum(), 0);
+
+                                // Swaps two objects between the earlier buckets, which keeps their total count and
+                                // sum
+                                realm.beginTransaction();
+                                realm.where(AllTypes.class).equalTo(AllTypes.FIELD_LONG, 1).findFirst()
+                                        .setColumnDate(new Date(1200));
+                                realm.where(AllTypes.class).equalTo(AllTypes.FIELD_LONG, 4).findFirst()
+                                        .setColumnDate(new Date(200));
+                                realm.commitTransaction();
+                                break;
+                            case 2:
+                                assertEquals(3, buckets.size());
+                                assertEquals(6, buckets.get(0).getSum(), 0);
+                                assertEquals(2, buckets.get(0).getMin(), 0);
+                                assertEquals(4, buckets.get(1).getSum(), 0);
+                                assertEquals(1, buckets.get(1).getMin(), 0);
+                                assertEquals(5, buckets.get(2).getSum(), 0);
+                                task[0].cancel();
+                                looperThread.testComplete();
+                                break;
+                            default:
+                                fail("Unexpected update after cancel");
+                        }
+                    }
+                });
+    }
+
     // *** Helper methods ***
 
     private void populateTestRealm(final Realm testRealm, int objects) {
@@ -739,6 +739,45 @@ public class RealmJsonTests {
         assertAllTypesPrimaryKeyUpdated();
     }
 
+    @Test
+    public void createOrUpdateAllFromJson_streamInChunks() throws IOException {
+        realm.createOrUpdateAllFromJson(AllTypesPrimaryKey.class,
+                TestHelper.loadJsonFromAssets(context, "list_alltypes_primarykey.json"), 1);
+
+        assertFalse(realm.isInTransaction());
+        assertAllTypesPrimaryKeyUpdated();
+    }
+
+    @Test
+    public void createOrUpdateAllFromJson_streamInChunksKeepsCommittedChunks() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 25; i++) {
+            json.append("{ \"columnLong\" : ").append(i).append(", \"columnString\" : \"").append(i).append("\" },");
+        }
+        json.append("{ \"columnString\" : \"no primary key\" }]");
+
+        try {
+            realm.createOrUpdateAllFromJson(AllTypesPrimaryKey.class, TestHelper.stringToStream(json.toString()), 10);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        assertFalse(realm.isInTransaction());
+        // The objects of the last transaction are discarded
+        assertEquals(20, realm.where(AllTypesPrimaryKey.class).count());
+    }
+
+    @Test
+    public void createOrUpdateAllFromJson_streamInChunksWithinTransactionThrows() throws IOException {
+        realm.beginTransaction();
+        try {
+            realm.createOrUpdateAllFromJson(AllTypesPrimaryKey.class, TestHelper.stringToStream("[]"), 10);
+            fail();
+        } catch (IllegalStateException ignored) {
+        } finally {
+            realm.cancelTransaction();
+        }
+    }
+
     @Test
     public void createOrUpdateObjectFromJson_inputStream() throws IOException {
         realm.beginTransaction();
@@ -27,12 +27,16 @@ import org.junit.runner.RunWith;
 import java.util.Date;
 
 import io.realm.entities.AllTypes;
+import io.realm.entities.BacklinksSource;
+import io.realm.entities.BacklinksTarget;
 import io.realm.entities.Cat;
 import io.realm.entities.Dog;
 import io.realm.entities.Owner;
 import io.realm.rule.TestRealmConfigurationFactory;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
 @RunWith(AndroidJUnit4.class)
@@ -558,4 +562,129 @@ public class RealmLinkTests {
         } catch (IllegalArgumentException ignored) {
         }
     }
+
+    // Creates targets 1 and 2. Source "A" links to target 1, "B" and "C" link to target 2 and "C" has both targets
+    // in its list.
+    private void populateBacklinks() {
+        testRealm.beginTransaction();
+        BacklinksTarget target1 = testRealm.createObject(BacklinksTarget.class);
+        target1.setId(1);
+        BacklinksTarget target2 = testRealm.createObject(BacklinksTarget.class);
+        target2.setId(2);
+
+        BacklinksSource a = testRealm.createObject(BacklinksSource.class);
+        a.setName("A");
+        a.setChild(target1);
+        BacklinksSource b = testRealm.createObject(BacklinksSource.class);
+        b.setName("B");
+        b.setChild(target2);
+        BacklinksSource c = testRealm.createObject(BacklinksSource.class);
+        c.setName("C");
+        c.setChild(target2);
+        c.getChildren().add(target1);
+        c.getChildren().add(target2);
+        testRealm.commitTransaction();
+    }
+
+    @Test
+    public void linkingObjects() {
+        populateBacklinks();
+        BacklinksTarget target1 = testRealm.where(BacklinksTarget.class).equalTo(BacklinksTarget.FIELD_ID, 1).findFirst();
+        BacklinksTarget target2 = testRealm.where(BacklinksTarget.class).equalTo(BacklinksTarget.FIELD_ID, 2).findFirst();
+
+        assertEquals(1, target1.getParents().size());
+        assertEquals("A", target1.getParents().first().getName());
+        assertEquals(2, target2.getParents().size());
+        assertEquals(1, target1.getListParents().size());
+        assertEquals("C", target1.getListParents().first().getName());
+    }
+
+    @Test
+    public void linkingObjects_isLive() {
+        populateBacklinks();
+        BacklinksTarget target1 = testRealm.where(BacklinksTarget.class).equalTo(BacklinksTarget.FIELD_ID, 1).findFirst();
+        RealmResults<BacklinksSource> parents = target1.getParents();
+        assertEquals(1, parents.size());
+
+        testRealm.beginTransaction();
+        BacklinksSource d = testRealm.createObject(BacklinksSource.class);
+        d.setName("D");
+        d.setChild(target1);
+        testRealm.where(BacklinksSource.class).equalTo(BacklinksSource.FIELD_NAME, "A").findFirst().setChild(null);
+        testRealm.commitTransaction();
+
+        assertEquals(1, parents.size());
+        assertEquals("D", parents.first().getName());
+    }
+
+    @Test
+    public void linkingObjects_unmanagedIsNull() {
+        assertNull(new BacklinksTarget().getParents());
+    }
+
+    @Test
+    public void linkingObjects_setterThrows() {
+        populateBacklinks();
+        BacklinksTarget target1 = testRealm.where(BacklinksTarget.class).findFirst();
+        testRealm.beginTransaction();
+        try {
+            target1.setParents(null);
+            fail();
+        } catch (UnsupportedOperationException ignored) {
+        } finally {
+            testRealm.cancelTransaction();
+        }
+    }
+
+    @Test
+    public void linkingObjects_query() {
+        populateBacklinks();
+        RealmResults<BacklinksTarget> targets = testRealm.where(BacklinksTarget.class)
+                .equalTo(BacklinksTarget.FIELD_PARENTS + "." + BacklinksSource.FIELD_NAME, "B")
+                .findAll();
+        assertEquals(1, targets.size());
+        assertEquals(2, targets.first().getId());
+
+        targets = testRealm.where(BacklinksTarget.class)
+                .equalTo(BacklinksTarget.FIELD_LIST_PARENTS + "." + BacklinksSource.FIELD_NAME, "C")
+                .findAllSorted(BacklinksTarget.FIELD_ID);
+        assertEquals(2, targets.size());
+
+        targets = testRealm.where(BacklinksTarget.class)
+                .equalTo(BacklinksTarget.FIELD_LIST_PARENTS + "." + BacklinksSource.FIELD_NAME, "A")
+                .findAll();
+        assertEquals(0, targets.size());
+    }
+
+    @Test
+    public void linkingObjects_queryThroughLinkAndBacklink() {
+        populateBacklinks();
+        // All sources sharing a target with "B"
+        RealmResults<BacklinksSource> sources = testRealm.where(BacklinksSource.class)
+                .equalTo(BacklinksSource.FIELD_CHILD + "." + BacklinksTarget.FIELD_PARENTS + "." + BacklinksSource.FIELD_NAME, "B")
+                .findAllSorted(BacklinksSource.FIELD_NAME);
+        assertEquals(2, sources.size());
+        assertEquals("B", sources.get(0).getName());
+        assertEquals("C", sources.get(1).getName());
+    }
+
+    @Test
+    public void linkingObjects_explain() {
+        populateBacklinks();
+        QueryPlan plan = testRealm.where(BacklinksTarget.class)
+                .equalTo(BacklinksTarget.FIELD_PARENTS + "." + BacklinksSource.FIELD_NAME, "B")
+                .explain();
+        assertEquals(1, plan.getConditions().size());
+        assertEquals("@links(BacklinksSource.child).name", plan.getConditions().get(0).getFieldName());
+        assertFalse(plan.usesIndex());
+    }
+
+    @Test
+    public void linkingObjects_invalidQueryPathThrows() {
+        try {
+            testRealm.where(BacklinksTarget.class).equalTo(BacklinksTarget.FIELD_PARENTS + ".foo", "B");
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
 }
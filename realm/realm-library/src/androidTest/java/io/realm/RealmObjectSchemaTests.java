@@ -29,8 +29,10 @@ import java.util.Date;
 import java.util.Set;
 
 import io.realm.entities.AllJavaTypes;
+import io.realm.internal.Collation;
 import io.realm.rule.TestRealmConfigurationFactory;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -435,6 +437,37 @@ public class RealmObjectSchemaTests {
         }
     }
 
+    @Test
+    public void addCollationKey() {
+        String fieldName = "name";
+        schema.addField(fieldName, String.class);
+        DynamicRealmObject object = realm.createObject("NewClass");
+        object.setString(fieldName, "foo");
+
+        schema.addCollationKey(fieldName, "ru");
+        String keyColumnName = Collation.getKeyColumnName(fieldName);
+        assertTrue(schema.hasField(keyColumnName));
+        assertEquals(Collation.getKey("ru", "foo"), object.getString(keyColumnName));
+
+        schema.removeCollationKey(fieldName);
+        assertFalse(schema.hasField(keyColumnName));
+    }
+
+    @Test
+    public void addCollationKey_illegalFieldTypeThrows() {
+        schema.addField("foo", int.class);
+        thrown.expect(IllegalArgumentException.class);
+        schema.addCollationKey("foo", "");
+    }
+
+    @Test
+    public void addCollationKey_alreadyDefinedThrows() {
+        schema.addField("foo", String.class);
+        schema.addCollationKey("foo", "");
+        thrown.expect(IllegalStateException.class);
+        schema.addCollationKey("foo", "");
+    }
+
     @Test
     public void setRemoveNullable() {
         for (FieldType fieldType : FieldType.values()) {
@@ -582,6 +615,48 @@ public class RealmObjectSchemaTests {
         schema.removeField(fieldName);
     }
 
+    @Test
+    public void getColumnIndices_linkPath() {
+        long[] columnIndices = DOG_SCHEMA.getColumnIndices("owner.name", RealmFieldType.STRING);
+        assertEquals(2, columnIndices.length);
+
+        // The returned arrays are copies of the cached path
+        columnIndices[0] = -1;
+        assertArrayEquals(DOG_SCHEMA.getColumnIndices("owner.name"), DOG_SCHEMA.getColumnIndices("owner.name"));
+        assertTrue(DOG_SCHEMA.getColumnIndices("owner.name")[0] >= 0);
+    }
+
+    @Test
+    public void getColumnIndices_cachedTypeMismatchThrows() {
+        schema.addField("foo", String.class);
+        schema.getColumnIndices("foo", RealmFieldType.STRING);
+
+        thrown.expect(IllegalArgumentException.class);
+        schema.getColumnIndices("foo", RealmFieldType.INTEGER);
+    }
+
+    @Test
+    public void getColumnIndices_invalidatedBySchemaChange() {
+        schema.addField("a", int.class);
+        schema.addField("b", String.class);
+        assertArrayEquals(new long[] {1}, schema.getColumnIndices("b"));
+        assertEquals(0, realm.where("NewClass").equalTo("b", "foo").count());
+
+        schema.removeField("a");
+        assertArrayEquals(new long[] {0}, schema.getColumnIndices("b"));
+        // Other schema objects for the same class see the change as well
+        realm.createObject("NewClass").setString("b", "foo");
+        assertEquals(1, realm.where("NewClass").equalTo("b", "foo").count());
+
+        schema.renameField("b", "c");
+        try {
+            schema.getColumnIndices("b");
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        assertArrayEquals(new long[] {0}, schema.getColumnIndices("c"));
+    }
+
     @Test
     public void renameField() {
         String oldFieldName = "old";
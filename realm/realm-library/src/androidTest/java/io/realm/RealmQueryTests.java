@@ -42,6 +42,7 @@ import io.realm.entities.AnnotationIndexTypes;
 import io.realm.entities.Cat;
 import io.realm.entities.CatOwner;
 import io.realm.entities.Dog;
+import io.realm.entities.Measurement;
 import io.realm.entities.NoPrimaryKeyNullTypes;
 import io.realm.entities.NonLatinFieldNames;
 import io.realm.entities.NullTypes;
@@ -52,12 +53,15 @@ import io.realm.entities.PrimaryKeyAsBoxedLong;
 import io.realm.entities.PrimaryKeyAsBoxedShort;
 import io.realm.entities.PrimaryKeyAsString;
 import io.realm.entities.StringOnly;
+import io.realm.log.LogLevel;
+import io.realm.log.RealmLog;
 import io.realm.rule.RunInLooperThread;
 import io.realm.rule.RunTestInLooperThread;
 import io.realm.rule.TestRealmConfigurationFactory;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -966,6 +970,645 @@ public class RealmQueryTests {
         assertEquals(0, sortedList.last().getColumnLong());
     }
 
+    @Test
+    public void findTopK() {
+        populateTestRealm();
+        RealmResults<AllTypes> top = realm.where(AllTypes.class).findTopK(AllTypes.FIELD_LONG, Sort.DESCENDING, 3);
+        assertEquals(3, top.size());
+        assertEquals(TEST_DATA_SIZE - 1, top.get(0).getColumnLong());
+        assertEquals(TEST_DATA_SIZE - 2, top.get(1).getColumnLong());
+        assertEquals(TEST_DATA_SIZE - 3, top.get(2).getColumnLong());
+
+        RealmResults<AllTypes> bottom = realm.where(AllTypes.class)
+                .greaterThan(AllTypes.FIELD_LONG, 4)
+                .findTopK(AllTypes.FIELD_FLOAT, Sort.ASCENDING, 2);
+        assertEquals(2, bottom.size());
+        assertEquals(5, bottom.get(0).getColumnLong());
+        assertEquals(6, bottom.get(1).getColumnLong());
+    }
+
+    @Test
+    public void findTopK_date() {
+        populateTestRealm();
+        RealmResults<AllTypes> top = realm.where(AllTypes.class).findTopK(AllTypes.FIELD_DATE, Sort.ASCENDING, 2);
+        assertEquals(2, top.size());
+        assertEquals(0, top.get(0).getColumnLong());
+        assertEquals(1, top.get(1).getColumnLong());
+    }
+
+    @Test
+    public void findTopK_includesTies() {
+        realm.beginTransaction();
+        for (int i = 0; i < TEST_DATA_SIZE; i++) {
+            AllTypes allTypes = realm.createObject(AllTypes.class);
+            allTypes.setColumnLong(i % 5);
+        }
+        realm.commitTransaction();
+
+        RealmResults<AllTypes> top = realm.where(AllTypes.class).findTopK(AllTypes.FIELD_LONG, Sort.DESCENDING, 1);
+        assertEquals(TEST_DATA_SIZE / 5, top.size());
+        for (AllTypes allTypes : top) {
+            assertEquals(4, allTypes.getColumnLong());
+        }
+    }
+
+    @Test
+    public void findTopK_kLargerThanResults() {
+        populateTestRealm();
+        RealmResults<AllTypes> top = realm.where(AllTypes.class)
+                .lessThan(AllTypes.FIELD_LONG, 3)
+                .findTopK(AllTypes.FIELD_LONG, Sort.DESCENDING, 10);
+        assertEquals(3, top.size());
+        assertEquals(2, top.first().getColumnLong());
+        assertEquals(0, top.last().getColumnLong());
+
+        assertEquals(0, realm.where(AllTypes.class).findTopK(AllTypes.FIELD_LONG, Sort.DESCENDING, 0).size());
+    }
+
+    @Test
+    public void findTopK_excludesNull() {
+        populateNoPrimaryKeyNullTypesRows();
+        RealmResults<NoPrimaryKeyNullTypes> top = realm.where(NoPrimaryKeyNullTypes.class)
+                .findTopK(NoPrimaryKeyNullTypes.FIELD_INTEGER_NULL, Sort.ASCENDING, TEST_NO_PRIMARY_KEY_NULL_TYPES_SIZE);
+        assertEquals(realm.where(NoPrimaryKeyNullTypes.class)
+                .isNotNull(NoPrimaryKeyNullTypes.FIELD_INTEGER_NULL).count(), top.size());
+        for (NoPrimaryKeyNullTypes obj : top) {
+            assertNotNull(obj.getFieldIntegerNull());
+        }
+    }
+
+    @Test
+    public void findTopK_invalidArguments() {
+        populateTestRealm();
+        RealmQuery<AllTypes> query = realm.where(AllTypes.class);
+        try {
+            query.findTopK(AllTypes.FIELD_STRING, Sort.ASCENDING, 1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            query.findTopK(AllTypes.FIELD_LONG, Sort.ASCENDING, -1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            query.findTopK("missing", Sort.ASCENDING, 1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void findTopK_topLevelOrThrows() {
+        populateTestRealm();
+        try {
+            realm.where(AllTypes.class)
+                    .equalTo(AllTypes.FIELD_LONG, 1).or().equalTo(AllTypes.FIELD_LONG, 2)
+                    .findTopK(AllTypes.FIELD_LONG, Sort.DESCENDING, 1);
+            fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+
+        RealmResults<AllTypes> top = realm.where(AllTypes.class)
+                .beginGroup().equalTo(AllTypes.FIELD_LONG, 1).or().equalTo(AllTypes.FIELD_LONG, 2).endGroup()
+                .findTopK(AllTypes.FIELD_LONG, Sort.DESCENDING, 1);
+        assertEquals(1, top.size());
+        assertEquals(2, top.first().getColumnLong());
+    }
+
+    @Test
+    public void linkListAggregates() {
+        TestHelper.populateOwnersWithDogs(realm);
+
+        RealmResults<Owner> owners = realm.where(Owner.class).greaterThan("dogs.@sum.age", 6).findAll();
+        assertEquals(1, owners.size());
+        assertEquals("B", owners.first().getName());
+
+        owners = realm.where(Owner.class).greaterThan("dogs.@count", 1).findAll();
+        assertEquals(1, owners.size());
+        assertEquals("A", owners.first().getName());
+
+        owners = realm.where(Owner.class).equalTo("dogs.@count", 0).findAll();
+        assertEquals(1, owners.size());
+        assertEquals("C", owners.first().getName());
+
+        owners = realm.where(Owner.class).lessThan("dogs.@max.weight", 1.0).findAll();
+        assertEquals(1, owners.size());
+        assertEquals("B", owners.first().getName());
+
+        owners = realm.where(Owner.class).equalTo("dogs.@avg.age", 2.0).findAll();
+        assertEquals(1, owners.size());
+        assertEquals("A", owners.first().getName());
+
+        // The minimum of an empty list never matches
+        assertEquals(2, realm.where(Owner.class).greaterThanOrEqualTo("dogs.@min.age", 0).count());
+
+        // Aggregates can be combined with other conditions and used at the end of link paths
+        assertEquals(0, realm.where(Owner.class).equalTo("name", "A").lessThan("dogs.@sum.weight", 6.0).count());
+        assertEquals(3, realm.where(Dog.class).equalTo("owner.dogs.@count", 3).count());
+    }
+
+    @Test
+    public void linkListAggregates_invalidPaths() {
+        TestHelper.populateOwnersWithDogs(realm);
+        String[] invalidPaths = {"dogs.@sum.name", "dogs.@median.age", "name.@count", "dogs.@count.age", "dogs.@sum",
+                "@count", "dogs.@sum.missing"};
+        for (String path : invalidPaths) {
+            try {
+                realm.where(Owner.class).greaterThan(path, 1);
+                fail(path);
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        // The sum of an integer field is an integer
+        try {
+            realm.where(Owner.class).greaterThan("dogs.@sum.age", 1.0);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            realm.where(Owner.class).isNull("dogs.@max.age");
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void subqueries() {
+        TestHelper.populateOwnersWithDogs(realm);
+
+        assertEquals(2, realm.where(Owner.class).any("dogs", realm.where(Dog.class).greaterThan("age", 2)).count());
+        // Owner C has no dogs, so all of them match
+        assertEquals(2, realm.where(Owner.class).all("dogs", realm.where(Dog.class).lessThan("age", 5)).count());
+        assertEquals(2, realm.where(Owner.class).none("dogs", realm.where(Dog.class).greaterThan("age", 5)).count());
+
+        RealmResults<Owner> owners = realm.where(Owner.class)
+                .subqueryCountGreaterThan("dogs", realm.where(Dog.class).greaterThan("age", 1), 1).findAll();
+        assertEquals(1, owners.size());
+        assertEquals("A", owners.first().getName());
+        assertEquals(1, realm.where(Owner.class)
+                .subqueryCountEqualTo("dogs", realm.where(Dog.class).equalTo("age", 10), 1).count());
+        assertEquals(2, realm.where(Owner.class)
+                .subqueryCountLessThan("dogs", realm.where(Dog.class).lessThan("weight", 1.0), 1).count());
+
+        // Subqueries can be combined with other conditions and follow links
+        assertEquals(0, realm.where(Owner.class).equalTo("name", "A")
+                .all("dogs", realm.where(Dog.class).greaterThan("age", 1)).count());
+        assertEquals(1, realm.where(Dog.class)
+                .any("owner.dogs", realm.where(Dog.class).equalTo("age", 10)).count());
+    }
+
+    @Test
+    public void subqueries_invalidArguments() {
+        TestHelper.populateOwnersWithDogs(realm);
+        RealmQuery<Owner> query = realm.where(Owner.class);
+        try {
+            query.any("dogs", realm.where(Owner.class));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            query.any("name", realm.where(Dog.class));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            query.any("dogs", realm.where(Dog.class).findAll().where());
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            query.any("dogs", null);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void filter() {
+        TestHelper.populateOwnersWithDogs(realm);
+
+        assertEquals(2, realm.where(Dog.class).filter("age > $0 AND weight < $1", 1, 3.0).count());
+        assertEquals(2, realm.where(Dog.class).filter("age == 1 OR age == 10").count());
+        assertEquals(2, realm.where(Dog.class).filter("NOT (age < 3)").count());
+        assertEquals(1, realm.where(Dog.class).filter("!(age < 3) && weight >= 3").count());
+        assertEquals(2, realm.where(Dog.class).filter("age BETWEEN {2, 3}").count());
+        assertEquals(1, realm.where(Dog.class).filter("owner.name == 'B'").count());
+        // Conditions from the predicate are combined with the other conditions
+        assertEquals(1, realm.where(Dog.class).greaterThan("age", 2).filter("age < 5 OR weight < 0").count());
+
+        assertEquals(1, realm.where(Owner.class).filter("name BEGINSWITH[c] 'a'").count());
+        assertEquals(0, realm.where(Owner.class).filter("name BEGINSWITH 'a'").count());
+        assertEquals(1, realm.where(Owner.class).filter("name == $0", "B").count());
+        assertEquals(2, realm.where(Owner.class).filter("name != \"A\"").count());
+        assertEquals(1, realm.where(Owner.class).filter("dogs.@count > 1").count());
+        assertEquals(3, realm.where(Owner.class).filter("cat == null").count());
+    }
+
+    @Test
+    public void filter_parsedPredicateIsCached() {
+        RealmObjectSchema schema = realm.schema.getSchemaForClass(Dog.class);
+        QueryPredicate predicate = schema.getPredicate("age > $0");
+        assertTrue(predicate == schema.getPredicate("age > $0"));
+        assertFalse(predicate == schema.getPredicate("age < $0"));
+    }
+
+    @Test
+    public void filter_invalidPredicates() {
+        TestHelper.populateOwnersWithDogs(realm);
+        String[] invalidPredicates = {"", "age >", "age > 1 AND", "(age > 1", "age > 1)", "age ~ 1", "missing == 1",
+                "name > 'a'", "age BEGINSWITH 1", "age == 'a'", "age == 1.5", "age ==[c] 1", "name == 'a",
+                "age < null", "age BETWEEN {1}", "dogs.@sum.age == null"};
+        for (String predicate : invalidPredicates) {
+            try {
+                realm.where(Dog.class).filter(predicate);
+                fail(predicate);
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        // Missing or mismatching arguments
+        try {
+            realm.where(Dog.class).filter("age > $0 AND name == $1", 1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            realm.where(Dog.class).filter("age > $0", "1");
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void filter_invalidArgumentLeavesQueryUnchanged() {
+        TestHelper.populateOwnersWithDogs(realm);
+        long expected = realm.where(Dog.class).greaterThan("age", 2).count();
+
+        RealmQuery<Dog> query = realm.where(Dog.class);
+        try {
+            // The first placeholder is valid, the second only fails after the group and NOT would have been added
+            query.filter("NOT (age > $0 OR name == $1)", 1, 2);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            query.filter("age > $0 AND age BETWEEN {$1, $2}", 1, 2, null);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        assertEquals(expected, query.greaterThan("age", 2).count());
+
+        expected = realm.where(Owner.class).equalTo("name", "A").count();
+        RealmQuery<Owner> ownerQuery = realm.where(Owner.class);
+        try {
+            ownerQuery.filter("NOT (name == $0 OR dogs.@sum.age == $1)", "B", null);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        assertEquals(expected, ownerQuery.equalTo("name", "A").count());
+    }
+
+    private void populateTimeSeries(Realm realm, long[] dates, long[] values) {
+        realm.beginTransaction();
+        for (int i = 0; i < dates.length; i++) {
+            AllTypes allTypes = realm.createObject(AllTypes.class);
+            allTypes.setColumnDate(new Date(dates[i]));
+            allTypes.setColumnLong(values[i]);
+            allTypes.setColumnDouble(values[i] / 2.0);
+        }
+        realm.commitTransaction();
+    }
+
+    @Test
+    public void aggregateByInterval() {
+        populateTimeSeries(realm, new long[] {999, 0, 500, 1000, 2500, -1},
+                new long[] {3, 1, 2, 10, 20, 7});
+
+        TimeSeries series = realm.where(AllTypes.class)
+                .aggregateByInterval(AllTypes.FIELD_DATE, AllTypes.FIELD_LONG, 1000);
+        assertEquals(1000, series.getInterval());
+        List<TimeSeries.Bucket> buckets = series.getBuckets();
+        assertEquals(4, buckets.size());
+
+        // Buckets are aligned to the epoch, also for dates before it
+        assertEquals(new Date(-1000), buckets.get(0).getStart());
+        assertEquals(1, buckets.get(0).getCount());
+        assertEquals(7, buckets.get(0).getFirst(), 0);
+
+        TimeSeries.Bucket bucket = buckets.get(1);
+        assertEquals(new Date(0), bucket.getStart());
+        assertEquals(3, bucket.getCount());
+        assertEquals(1, bucket.getMin(), 0);
+        assertEquals(3, bucket.getMax(), 0);
+        assertEquals(6, bucket.getSum(), 0);
+        assertEquals(2, bucket.getAverage(), 0);
+        // First and last are ordered by date, not by insertion
+        assertEquals(1, bucket.getFirst(), 0);
+        assertEquals(3, bucket.getLast(), 0);
+
+        assertEquals(new Date(1000), buckets.get(2).getStart());
+        assertEquals(10, buckets.get(2).getSum(), 0);
+        // Empty intervals are skipped
+        assertEquals(new Date(2000), buckets.get(3).getStart());
+        assertEquals(20, buckets.get(3).getMax(), 0);
+
+        // Query conditions and floating point values
+        series = realm.where(AllTypes.class).greaterThanOrEqualTo(AllTypes.FIELD_DATE, new Date(0))
+                .aggregateByInterval(AllTypes.FIELD_DATE, AllTypes.FIELD_DOUBLE, 2000);
+        buckets = series.getBuckets();
+        assertEquals(2, buckets.size());
+        assertEquals(4, buckets.get(0).getCount());
+        assertEquals(8, buckets.get(0).getSum(), 0);
+        assertEquals(10, buckets.get(1).getAverage(), 0);
+
+        // No matches
+        assertTrue(realm.where(AllTypes.class).equalTo(AllTypes.FIELD_LONG, 42)
+                .aggregateByInterval(AllTypes.FIELD_DATE, AllTypes.FIELD_LONG, 1000).getBuckets().isEmpty());
+    }
+
+    @Test
+    public void aggregateByInterval_invalidArguments() {
+        populateTimeSeries(realm, new long[] {0}, new long[] {1});
+        String[][] invalidFields = {
+                {"missing", AllTypes.FIELD_LONG},
+                {AllTypes.FIELD_LONG, AllTypes.FIELD_LONG},
+                {AllTypes.FIELD_DATE, "missing"},
+                {AllTypes.FIELD_DATE, AllTypes.FIELD_STRING},
+                {AllTypes.FIELD_DATE, AllTypes.FIELD_DATE}};
+        for (String[] fields : invalidFields) {
+            try {
+                realm.where(AllTypes.class).aggregateByInterval(fields[0], fields[1], 1000);
+                fail(fields[0] + ", " + fields[1]);
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        for (long interval : new long[] {0, -1000}) {
+            try {
+                realm.where(AllTypes.class).aggregateByInterval(AllTypes.FIELD_DATE, AllTypes.FIELD_LONG, interval);
+                fail();
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+    }
+
+    private void populateMeasurements(Realm realm, long... timestamps) {
+        realm.beginTransaction();
+        for (int i = 0; i < timestamps.length; i++) {
+            realm.copyToRealm(new Measurement(timestamps[i], i));
+        }
+        realm.commitTransaction();
+    }
+
+    @Test
+    public void orderedBy_rangeQueries() {
+        populateMeasurements(realm, 0, 10, 10, 20, 30, 40);
+
+        assertEquals(4, realm.where(Measurement.class)
+                .greaterThanOrEqualTo(Measurement.FIELD_TIMESTAMP, new Date(10)).count());
+        assertEquals(3, realm.where(Measurement.class)
+                .greaterThan(Measurement.FIELD_TIMESTAMP, new Date(10)).count());
+        assertEquals(3, realm.where(Measurement.class)
+                .lessThan(Measurement.FIELD_TIMESTAMP, new Date(20)).count());
+        assertEquals(4, realm.where(Measurement.class)
+                .lessThanOrEqualTo(Measurement.FIELD_TIMESTAMP, new Date(20)).count());
+        assertEquals(2, realm.where(Measurement.class)
+                .equalTo(Measurement.FIELD_TIMESTAMP, new Date(10)).count());
+        assertEquals(0, realm.where(Measurement.class)
+                .between(Measurement.FIELD_TIMESTAMP, new Date(41), new Date(50)).count());
+
+        RealmResults<Measurement> results = realm.where(Measurement.class)
+                .between(Measurement.FIELD_TIMESTAMP, new Date(10), new Date(30))
+                .greaterThan(Measurement.FIELD_VALUE, 1.0)
+                .findAll();
+        assertEquals(3, results.size());
+        assertEquals(2.0, results.first().getValue(), 0);
+        assertEquals(4.0, results.last().getValue(), 0);
+
+        Measurement first = realm.where(Measurement.class)
+                .greaterThan(Measurement.FIELD_TIMESTAMP, new Date(15)).findFirst();
+        assertEquals(new Date(20), first.getTimestamp());
+
+        // Conditions combined with or() must not be narrowed
+        assertEquals(3, realm.where(Measurement.class)
+                .lessThan(Measurement.FIELD_TIMESTAMP, new Date(10))
+                .or()
+                .greaterThan(Measurement.FIELD_TIMESTAMP, new Date(20))
+                .count());
+        assertEquals(3, realm.where(Measurement.class)
+                .not().lessThan(Measurement.FIELD_TIMESTAMP, new Date(20)).count());
+    }
+
+    @Test
+    public void orderedBy_resultsAreUpdatedWithAppendedObjects() {
+        populateMeasurements(realm, 0, 10, 20);
+        RealmResults<Measurement> results = realm.where(Measurement.class)
+                .greaterThanOrEqualTo(Measurement.FIELD_TIMESTAMP, new Date(10))
+                .findAll();
+        assertEquals(2, results.size());
+
+        realm.beginTransaction();
+        realm.copyToRealm(new Measurement(30, 3));
+        realm.deleteBefore(Measurement.class, new Date(15));
+        realm.commitTransaction();
+
+        assertEquals(2, results.size());
+        assertEquals(new Date(20), results.first().getTimestamp());
+        assertEquals(new Date(30), results.last().getTimestamp());
+    }
+
+    @Test
+    public void orderedBy_rangeFoundWhenQueryRuns() {
+        populateMeasurements(realm, 0, 10, 20, 30);
+        RealmQuery<Measurement> query = realm.where(Measurement.class)
+                .greaterThanOrEqualTo(Measurement.FIELD_TIMESTAMP, new Date(20));
+
+        realm.beginTransaction();
+        realm.deleteBefore(Measurement.class, new Date(15));
+        realm.commitTransaction();
+
+        assertEquals(2, query.count());
+        assertEquals(new Date(20), query.findFirst().getTimestamp());
+        RealmResults<Measurement> results = query.findAll();
+        assertEquals(2, results.size());
+        assertEquals(new Date(30), results.sort(Measurement.FIELD_VALUE, Sort.DESCENDING).first().getTimestamp());
+
+        realm.beginTransaction();
+        assertEquals(2, query.deleteAll());
+        realm.commitTransaction();
+        assertEquals(0, realm.where(Measurement.class).count());
+    }
+
+    @Test
+    public void orderedBy_resultsFindRangeAgainWhenUpdated() {
+        populateMeasurements(realm, 0, 10, 20);
+        RealmResults<Measurement> results = realm.where(Measurement.class)
+                .lessThan(Measurement.FIELD_TIMESTAMP, new Date(25))
+                .findAll();
+        assertEquals(3, results.size());
+
+        realm.beginTransaction();
+        realm.copyToRealm(new Measurement(22, 3));
+        realm.copyToRealm(new Measurement(25, 4));
+        realm.commitTransaction();
+        assertEquals(4, results.size());
+        assertEquals(new Date(22), results.last().getTimestamp());
+
+        realm.beginTransaction();
+        realm.deleteBefore(Measurement.class, new Date(15));
+        realm.commitTransaction();
+        assertEquals(2, results.size());
+        assertEquals(new Date(20), results.first().getTimestamp());
+    }
+
+    @Test
+    public void orderedBy_outOfOrderThrows() {
+        populateMeasurements(realm, 10, 20, 30);
+
+        realm.beginTransaction();
+        try {
+            realm.copyToRealm(new Measurement(25, 0));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        Measurement middle = realm.where(Measurement.class)
+                .equalTo(Measurement.FIELD_TIMESTAMP, new Date(20)).findFirst();
+        try {
+            middle.setTimestamp(new Date(31));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        // Values between the neighbours and equal to them are allowed
+        middle.setTimestamp(new Date(10));
+        middle.setTimestamp(new Date(30));
+        realm.cancelTransaction();
+    }
+
+    @Test
+    public void orderedBy_deleteBefore() {
+        populateMeasurements(realm, 0, 10, 10, 20, 30);
+        Measurement last = realm.where(Measurement.class)
+                .equalTo(Measurement.FIELD_TIMESTAMP, new Date(30)).findFirst();
+
+        realm.beginTransaction();
+        assertEquals(0, realm.deleteBefore(Measurement.class, new Date(-1)));
+        assertEquals(3, realm.deleteBefore(Measurement.class, new Date(20)));
+        realm.commitTransaction();
+
+        RealmResults<Measurement> results = realm.where(Measurement.class).findAll();
+        assertEquals(2, results.size());
+        assertEquals(new Date(20), results.get(0).getTimestamp());
+        assertEquals(new Date(30), results.get(1).getTimestamp());
+        // Objects which are kept still refer to the same data after the rows were moved
+        assertTrue(last.isValid());
+        assertEquals(4.0, last.getValue(), 0);
+    }
+
+    @Test
+    public void orderedBy_deleteBefore_invalidArguments() {
+        populateMeasurements(realm, 0);
+        try {
+            realm.deleteBefore(Measurement.class, new Date(10));
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+
+        realm.beginTransaction();
+        try {
+            realm.deleteBefore(AllTypes.class, 10);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            realm.deleteBefore(Measurement.class, 10);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        realm.cancelTransaction();
+    }
+
+    @Test
+    public void orderedBy_deleteKeepsOrder() {
+        populateMeasurements(realm, 0, 10, 20, 30, 40, 50);
+
+        realm.beginTransaction();
+        realm.where(Measurement.class).equalTo(Measurement.FIELD_TIMESTAMP, new Date(10)).findFirst()
+                .deleteFromRealm();
+        realm.where(Measurement.class).between(Measurement.FIELD_TIMESTAMP, new Date(20), new Date(30)).findAll()
+                .deleteAllFromRealm();
+        realm.where(Measurement.class).findAll().deleteFirstFromRealm();
+        realm.commitTransaction();
+
+        RealmResults<Measurement> results = realm.where(Measurement.class).findAll();
+        assertEquals(2, results.size());
+        assertEquals(new Date(40), results.get(0).getTimestamp());
+        assertEquals(new Date(50), results.get(1).getTimestamp());
+        assertEquals(1, realm.where(Measurement.class)
+                .greaterThan(Measurement.FIELD_TIMESTAMP, new Date(40)).count());
+    }
+
+    @Test
+    public void orderedBy_deleteAllKeepsOrder() {
+        populateMeasurements(realm, 0, 10, 20, 30, 40, 50);
+
+        realm.beginTransaction();
+        assertEquals(2, realm.where(Measurement.class)
+                .between(Measurement.FIELD_TIMESTAMP, new Date(10), new Date(20)).deleteAll());
+        realm.commitTransaction();
+
+        RealmResults<Measurement> results = realm.where(Measurement.class).findAll();
+        assertEquals(4, results.size());
+        assertEquals(new Date(0), results.get(0).getTimestamp());
+        assertEquals(new Date(30), results.get(1).getTimestamp());
+        assertEquals(new Date(40), results.get(2).getTimestamp());
+        assertEquals(new Date(50), results.get(3).getTimestamp());
+    }
+
+    @Test
+    public void deleteAll() {
+        populateTestRealm();
+
+        realm.beginTransaction();
+        assertEquals(5, realm.where(AllTypes.class).lessThan(AllTypes.FIELD_LONG, 5).deleteAll());
+        assertEquals(0, realm.where(AllTypes.class).equalTo(AllTypes.FIELD_LONG, 100).deleteAll());
+        realm.commitTransaction();
+
+        assertEquals(TEST_DATA_SIZE - 5, realm.where(AllTypes.class).count());
+        assertEquals(TEST_DATA_SIZE - 5, realm.where(AllTypes.class).greaterThanOrEqualTo(AllTypes.FIELD_LONG, 5)
+                .count());
+    }
+
+    @Test
+    public void deleteAll_everyRow() {
+        populateTestRealm();
+
+        realm.beginTransaction();
+        assertEquals(TEST_DATA_SIZE, realm.where(AllTypes.class).deleteAll());
+        realm.commitTransaction();
+
+        assertEquals(0, realm.where(AllTypes.class).count());
+    }
+
+    @Test
+    public void deleteAll_onResults() {
+        populateTestRealm();
+        RealmResults<AllTypes> results = realm.where(AllTypes.class).lessThan(AllTypes.FIELD_LONG, 5).findAll();
+
+        realm.beginTransaction();
+        // Only the objects of the results are deleted, even though more objects match the condition
+        assertEquals(2, results.where().greaterThan(AllTypes.FIELD_LONG, 2).deleteAll());
+        realm.commitTransaction();
+
+        assertEquals(TEST_DATA_SIZE - 2, realm.where(AllTypes.class).count());
+        assertEquals(0, realm.where(AllTypes.class).between(AllTypes.FIELD_LONG, 3, 4).count());
+    }
+
+    @Test
+    public void deleteAll_notInTransactionThrows() {
+        populateTestRealm();
+        thrown.expect(IllegalStateException.class);
+        realm.where(AllTypes.class).deleteAll();
+    }
+
     @Test
     public void subQueryScope() {
         populateTestRealm();
@@ -2971,6 +3614,44 @@ public class RealmQueryTests {
         assertEquals(numberOfBlocks, distinctMulti.size());
     }
 
+    @Test
+    public void findAllSortedDistinct() {
+        final long numberOfBlocks = 25;
+        final long numberOfObjects = 10; // must be greater than 1
+        populateForDistinct(realm, numberOfBlocks, numberOfObjects, false);
+
+        RealmResults<AnnotationIndexTypes> results = realm.where(AnnotationIndexTypes.class)
+                .findAllSortedDistinct(new String[]{AnnotationIndexTypes.FIELD_INDEX_LONG},
+                        new Sort[]{Sort.DESCENDING}, new String[]{AnnotationIndexTypes.FIELD_INDEX_BOOL});
+        // The first object in sort order is kept for each value and the results stay sorted
+        assertEquals(2, results.size());
+        assertEquals(numberOfBlocks - 1, results.get(0).getIndexLong());
+        assertEquals(numberOfBlocks - 2, results.get(1).getIndexLong());
+    }
+
+    @Test
+    public void findAllSortedDistinct_invalidArguments() {
+        populateForDistinct(realm, 5, 2, false);
+        RealmQuery<AnnotationIndexTypes> query = realm.where(AnnotationIndexTypes.class);
+        String[] sortFields = new String[]{AnnotationIndexTypes.FIELD_INDEX_LONG};
+        Sort[] sortOrders = new Sort[]{Sort.ASCENDING};
+        try {
+            query.findAllSortedDistinct(sortFields, sortOrders, new String[0]);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            query.findAllSortedDistinct(sortFields, sortOrders, new String[]{AnnotationIndexTypes.FIELD_NOT_INDEX_LONG});
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            query.findAllSortedDistinct(sortFields, new Sort[0], new String[]{AnnotationIndexTypes.FIELD_INDEX_LONG});
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
     @Test
     public void distinctMultiArgs_switchedFieldsOrder() {
         final long numberOfBlocks = 25;
@@ -3123,4 +3804,145 @@ public class RealmQueryTests {
         } catch (IllegalArgumentException ignored) {
         }
     }
+
+    @Test
+    public void explain_indexedEqualityUsesIndex() {
+        populateForDistinct(realm, 2, 5, false);
+
+        QueryPlan plan = realm.where(AnnotationIndexTypes.class)
+                .equalTo(AnnotationIndexTypes.FIELD_INDEX_STRING, "Test 1")
+                .greaterThan(AnnotationIndexTypes.FIELD_NOT_INDEX_LONG, 0)
+                .explain();
+
+        assertEquals(AnnotationIndexTypes.CLASS_NAME, plan.getClassName());
+        assertEquals(20, plan.getSourceSize());
+        assertTrue(plan.usesIndex());
+        assertEquals(2, plan.getConditions().size());
+
+        QueryPlan.Condition indexed = plan.getConditions().get(0);
+        assertEquals(AnnotationIndexTypes.FIELD_INDEX_STRING, indexed.getFieldName());
+        assertEquals("==", indexed.getOperator());
+        assertTrue(indexed.isIndexed());
+        assertTrue(indexed.usesIndex());
+
+        QueryPlan.Condition notIndexed = plan.getConditions().get(1);
+        assertEquals(AnnotationIndexTypes.FIELD_NOT_INDEX_LONG, notIndexed.getFieldName());
+        assertEquals(">", notIndexed.getOperator());
+        assertFalse(notIndexed.isIndexed());
+        assertFalse(notIndexed.usesIndex());
+    }
+
+    @Test
+    public void explain_fullScan() {
+        populateForDistinct(realm, 2, 5, false);
+
+        // Not indexed
+        assertFalse(realm.where(AnnotationIndexTypes.class)
+                .equalTo(AnnotationIndexTypes.FIELD_NOT_INDEX_STRING, "Test 1").explain().usesIndex());
+        // Indexed, but case insensitive
+        assertFalse(realm.where(AnnotationIndexTypes.class)
+                .equalTo(AnnotationIndexTypes.FIELD_INDEX_STRING, "Test 1", Case.INSENSITIVE).explain().usesIndex());
+        // Indexed, but negated
+        assertFalse(realm.where(AnnotationIndexTypes.class)
+                .not().equalTo(AnnotationIndexTypes.FIELD_INDEX_STRING, "Test 1").explain().usesIndex());
+        // Indexed, but not an equality
+        assertFalse(realm.where(AnnotationIndexTypes.class)
+                .beginsWith(AnnotationIndexTypes.FIELD_INDEX_STRING, "Test").explain().usesIndex());
+        // Indexed, but in a linked object
+        QueryPlan linkPlan = realm.where(AnnotationIndexTypes.class)
+                .equalTo(AnnotationIndexTypes.INDEX_LINKED_FIELD_STRING, "Test 1").explain();
+        assertFalse(linkPlan.usesIndex());
+        assertEquals(AnnotationIndexTypes.INDEX_LINKED_FIELD_STRING, linkPlan.getConditions().get(0).getFieldName());
+        // Or
+        assertFalse(realm.where(AnnotationIndexTypes.class)
+                .equalTo(AnnotationIndexTypes.FIELD_INDEX_STRING, "Test 1")
+                .or()
+                .equalTo(AnnotationIndexTypes.FIELD_NOT_INDEX_STRING, "Test 1")
+                .explain().usesIndex());
+    }
+
+    @Test
+    public void explain_fromResults() {
+        populateTestRealm();
+        RealmResults<AllTypes> results = realm.where(AllTypes.class).lessThan(AllTypes.FIELD_LONG, 5).findAll();
+
+        QueryPlan plan = results.where().equalTo(AllTypes.FIELD_BOOLEAN, true).explain();
+        assertEquals(5, plan.getSourceSize());
+        assertFalse(plan.usesIndex());
+    }
+
+    @Test
+    public void profile() {
+        populateForDistinct(realm, 2, 5, false);
+
+        RealmQuery<AnnotationIndexTypes> query = realm.where(AnnotationIndexTypes.class)
+                .equalTo(AnnotationIndexTypes.FIELD_NOT_INDEX_STRING, "Test 1");
+        QueryProfile profile = query.profile();
+
+        assertEquals(1, profile.getStages().size());
+        QueryProfile.Stage filter = profile.getStage(QueryProfile.STAGE_FILTER);
+        assertEquals(20, filter.getInputRows());
+        assertEquals(10, filter.getOutputRows());
+        assertTrue(filter.getDurationNanos() >= 0);
+        assertEquals(20, profile.getRowsScanned());
+        assertEquals(10, profile.getResultSize());
+        assertNull(profile.getStage(QueryProfile.STAGE_SORT));
+
+        // The query can still be used
+        assertEquals(10, query.findAll().size());
+    }
+
+    @Test
+    public void profile_sortAndDistinct() {
+        populateForDistinct(realm, 2, 5, false);
+
+        QueryProfile profile = realm.where(AnnotationIndexTypes.class)
+                .equalTo(AnnotationIndexTypes.FIELD_INDEX_BOOL, true)
+                .profile(new String[] {AnnotationIndexTypes.FIELD_INDEX_LONG}, new Sort[] {Sort.DESCENDING},
+                        AnnotationIndexTypes.FIELD_INDEX_STRING);
+
+        assertEquals(3, profile.getStages().size());
+        assertEquals(QueryProfile.STAGE_FILTER, profile.getStages().get(0).getName());
+        assertEquals(QueryProfile.STAGE_SORT, profile.getStages().get(1).getName());
+        assertEquals(QueryProfile.STAGE_DISTINCT, profile.getStages().get(2).getName());
+
+        assertEquals(10, profile.getRowsScanned());
+        assertEquals(10, profile.getStage(QueryProfile.STAGE_SORT).getOutputRows());
+        assertEquals(1, profile.getStage(QueryProfile.STAGE_DISTINCT).getOutputRows());
+        assertEquals(1, profile.getResultSize());
+    }
+
+    @Test
+    public void profile_invalidFieldsThrows() {
+        RealmQuery<AnnotationIndexTypes> query = realm.where(AnnotationIndexTypes.class);
+        try {
+            query.profile(new String[] {"foo"}, new Sort[] {Sort.ASCENDING});
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            query.profile(null, null, AnnotationIndexTypes.FIELD_NOT_INDEX_STRING);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void queryScanWarningThreshold() {
+        realm.close();
+        realm = Realm.getInstance(configFactory.createConfigurationBuilder().queryScanWarningThreshold(5).build());
+        populateForDistinct(realm, 2, 5, false);
+
+        TestHelper.TestLogger testLogger = new TestHelper.TestLogger(LogLevel.WARN);
+        RealmLog.add(testLogger);
+        try {
+            realm.where(AnnotationIndexTypes.class).equalTo(AnnotationIndexTypes.FIELD_INDEX_STRING, "Test 1").findAll();
+            assertNull(testLogger.message);
+
+            realm.where(AnnotationIndexTypes.class).equalTo(AnnotationIndexTypes.FIELD_NOT_INDEX_STRING, "Test 1").findAll();
+            assertTrue(testLogger.message.startsWith("Query scans 20 objects without using a search index"));
+        } finally {
+            RealmLog.remove(testLogger);
+        }
+    }
 }
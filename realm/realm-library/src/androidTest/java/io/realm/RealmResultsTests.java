@@ -27,6 +27,7 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -763,6 +764,50 @@ public class RealmResultsTests extends CollectionTests {
         }
     }
 
+    @Test
+    public void aggregate_linkList() {
+        TestHelper.populateOwnersWithDogs(realm);
+        RealmResults<Owner> owners = realm.where(Owner.class).findAllSorted(Owner.FIELD_NAME);
+
+        assertEquals(Arrays.<Number>asList(6L, 10L, 0L), owners.aggregate("dogs.@sum.age"));
+        assertEquals(Arrays.<Number>asList(3L, 1L, 0L), owners.aggregate("dogs.@count"));
+        assertEquals(Arrays.<Number>asList(1L, 10L, null), owners.aggregate("dogs.@min.age"));
+        assertEquals(Arrays.<Number>asList(3.0D, 0.5D, null), owners.aggregate("dogs.@max.weight"));
+        assertEquals(Arrays.<Number>asList(2.0D, 10.0D, null), owners.aggregate("dogs.@avg.age"));
+        assertEquals(Arrays.<Number>asList(0.0F, 0.0F, null), owners.aggregate("dogs.@max.height"));
+    }
+
+    @Test
+    public void aggregate_invalidPaths() {
+        TestHelper.populateOwnersWithDogs(realm);
+        RealmResults<Owner> owners = realm.where(Owner.class).findAll();
+        for (String path : new String[] {Owner.FIELD_NAME, "dogs.age", "dogs.@sum.name", "cat.@count"}) {
+            try {
+                owners.aggregate(path);
+                fail(path);
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void sortByAggregate() {
+        TestHelper.populateOwnersWithDogs(realm);
+        RealmResults<Owner> owners = realm.where(Owner.class).findAll();
+
+        List<Owner> sorted = owners.sortByAggregate("dogs.@sum.weight", Sort.DESCENDING);
+        assertEquals(3, sorted.size());
+        assertEquals("A", sorted.get(0).getName());
+        assertEquals("B", sorted.get(1).getName());
+        assertEquals("C", sorted.get(2).getName());
+
+        // Empty lists have no minimum and are sorted first
+        sorted = owners.sortByAggregate("dogs.@min.age", Sort.ASCENDING);
+        assertEquals("C", sorted.get(0).getName());
+        assertEquals("A", sorted.get(1).getName());
+        assertEquals("B", sorted.get(2).getName());
+    }
+
     private RealmResults<Dog> populateRealmResultsOnDeletedLinkView() {
         realm.beginTransaction();
         Owner owner = realm.createObject(Owner.class);
@@ -1037,4 +1082,99 @@ public class RealmResultsTests extends CollectionTests {
 
         assertEquals(0, realm.where(StringOnly.class).findAll().size());
     }
+
+    @Test
+    public void setValue() {
+        RealmResults<AllTypes> results = realm.where(AllTypes.class).lessThan(AllTypes.FIELD_LONG, 100).findAll();
+
+        realm.beginTransaction();
+        results.setValue(AllTypes.FIELD_STRING, "bulk");
+        results.setValue(AllTypes.FIELD_BOOLEAN, true);
+        results.setValue(AllTypes.FIELD_FLOAT, 1);
+        results.setValue(AllTypes.FIELD_DATE, new Date(0));
+        realm.where(Dog.class).findAll().setValue("name", null);
+        realm.commitTransaction();
+
+        assertEquals(100, realm.where(AllTypes.class).equalTo(AllTypes.FIELD_STRING, "bulk").count());
+        assertEquals(100, realm.where(AllTypes.class).equalTo(AllTypes.FIELD_STRING, "bulk")
+                .equalTo(AllTypes.FIELD_BOOLEAN, true)
+                .equalTo(AllTypes.FIELD_FLOAT, 1F)
+                .equalTo(AllTypes.FIELD_DATE, new Date(0))
+                .count());
+        assertEquals("test data 100", realm.where(AllTypes.class).equalTo(AllTypes.FIELD_LONG, 100).findFirst()
+                .getColumnString());
+        assertEquals(TEST_DATA_SIZE, realm.where(Dog.class).isNull("name").count());
+    }
+
+    @Test
+    public void incrementAndDecrement() {
+        RealmResults<AllTypes> results = realm.where(AllTypes.class).lessThan(AllTypes.FIELD_LONG, 10).findAll();
+
+        realm.beginTransaction();
+        results.increment(AllTypes.FIELD_DOUBLE, 0.5);
+        results.decrement(AllTypes.FIELD_LONG, 1000);
+        realm.commitTransaction();
+
+        RealmResults<AllTypes> decremented = realm.where(AllTypes.class).lessThan(AllTypes.FIELD_LONG, 0)
+                .findAllSorted(AllTypes.FIELD_LONG);
+        assertEquals(10, decremented.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i - 1000, decremented.get(i).getColumnLong());
+            assertEquals(3.1415 + i + 0.5, decremented.get(i).getColumnDouble(), 0.0000001);
+        }
+    }
+
+    @Test
+    public void setValue_invalidArgumentsThrows() {
+        RealmResults<AllTypes> results = realm.where(AllTypes.class).findAll();
+        realm.beginTransaction();
+        try {
+            results.setValue(AllTypes.FIELD_LONG, "1");
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            results.setValue("unknown", 1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            results.setValue(AllTypes.FIELD_REALMOBJECT, null);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            results.increment(AllTypes.FIELD_LONG, 1.5);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            results.increment(AllTypes.FIELD_STRING, 1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        realm.cancelTransaction();
+    }
+
+    @Test
+    public void setValue_primaryKeyThrows() {
+        realm.beginTransaction();
+        realm.createObject(AllJavaTypes.class, 1);
+        try {
+            realm.where(AllJavaTypes.class).findAll().setValue(AllJavaTypes.FIELD_LONG, 2);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        } finally {
+            realm.cancelTransaction();
+        }
+    }
+
+    @Test
+    public void setValue_notInTransactionThrows() {
+        try {
+            realm.where(AllTypes.class).findAll().setValue(AllTypes.FIELD_BOOLEAN, true);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+    }
 }
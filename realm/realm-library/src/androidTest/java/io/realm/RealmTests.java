@@ -717,6 +717,62 @@ public class RealmTests {
         }
     }
 
+    @Test
+    public void deleteByPrimaryKeys_long() {
+        realm.beginTransaction();
+        for (int i = 0; i < 10; i++) {
+            PrimaryKeyAsLong obj = realm.createObject(PrimaryKeyAsLong.class, i);
+            obj.setName("obj " + i);
+        }
+        // Missing and duplicate keys are ignored
+        assertEquals(3, realm.deleteByPrimaryKeys(PrimaryKeyAsLong.class, 9, 0, 42, 4, 0));
+        realm.commitTransaction();
+
+        assertEquals(7, realm.where(PrimaryKeyAsLong.class).count());
+        assertEquals(0, realm.where(PrimaryKeyAsLong.class).in("id", new Long[] {0L, 4L, 9L}).count());
+        assertEquals("obj 8", realm.where(PrimaryKeyAsLong.class).equalTo("id", 8).findFirst().getName());
+    }
+
+    @Test
+    public void deleteByPrimaryKeys_string() {
+        realm.beginTransaction();
+        realm.copyToRealm(new PrimaryKeyAsString("a", 1));
+        realm.copyToRealm(new PrimaryKeyAsString("b", 2));
+        realm.copyToRealm(new PrimaryKeyAsString(null, 3));
+        assertEquals(2, realm.deleteByPrimaryKeys(PrimaryKeyAsString.class, null, "b", "c"));
+        realm.commitTransaction();
+
+        assertEquals(1, realm.where(PrimaryKeyAsString.class).count());
+        assertEquals(1, realm.where(PrimaryKeyAsString.class).findFirst().getId());
+    }
+
+    @Test
+    public void deleteByPrimaryKeys_invalidArgumentsThrows() {
+        try {
+            realm.deleteByPrimaryKeys(PrimaryKeyAsLong.class, 1);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+
+        realm.beginTransaction();
+        try {
+            realm.deleteByPrimaryKeys(AllTypes.class, 1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            realm.deleteByPrimaryKeys(PrimaryKeyAsLong.class, "1");
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            realm.deleteByPrimaryKeys(PrimaryKeyAsString.class, 1);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        realm.cancelTransaction();
+    }
+
     private void createAndTestFilename(String language, String fileName) {
         RealmConfiguration realmConfig = configFactory.createConfiguration(fileName);
         Realm realm1 = Realm.getInstance(realmConfig);
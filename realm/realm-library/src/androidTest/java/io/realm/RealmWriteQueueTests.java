@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.realm.entities.Dog;
+import io.realm.rule.TestRealmConfigurationFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class RealmWriteQueueTests {
+    @Rule
+    public final TestRealmConfigurationFactory configFactory = new TestRealmConfigurationFactory();
+
+    private RealmConfiguration config;
+    private Realm realm;
+    private RealmWriteQueue queue;
+
+    @Before
+    public void setUp() {
+        config = configFactory.createConfiguration();
+        realm = Realm.getInstance(config);
+        queue = new RealmWriteQueue.Builder(config)
+                .maxBatchSize(50)
+                .maxLatency(20, TimeUnit.MILLISECONDS)
+                .start();
+    }
+
+    @After
+    public void tearDown() {
+        queue.close();
+        if (realm != null) {
+            realm.close();
+        }
+    }
+
+    private static Dog dog(long i) {
+        Dog dog = new Dog();
+        dog.setName("Dog " + i);
+        dog.setAge(i);
+        return dog;
+    }
+
+    @Test
+    public void insert_fromManyThreads() throws Exception {
+        final int threads = 8;
+        final int dogsPerThread = 100;
+        final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        List<Thread> producers = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            final int offset = t * dogsPerThread;
+            Thread producer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < dogsPerThread; i++) {
+                        Future<Void> future = queue.insert(dog(offset + i));
+                        synchronized (futures) {
+                            futures.add(future);
+                        }
+                    }
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        for (Future<Void> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        realm.sharedRealm.refresh();
+        assertEquals(threads * dogsPerThread, realm.where(Dog.class).count());
+    }
+
+    @Test
+    public void submit_failedWriteIsRolledBackAlone() throws Exception {
+        final RuntimeException error = new RuntimeException("Boom");
+        Future<Void> before = queue.insert(dog(1));
+        Future<Void> failing = queue.submit(new Realm.Transaction() {
+            @Override
+            public void execute(Realm realm) {
+                realm.insert(dog(2));
+                throw error;
+            }
+        });
+        Future<Void> after = queue.insert(dog(3));
+
+        before.get(10, TimeUnit.SECONDS);
+        after.get(10, TimeUnit.SECONDS);
+        try {
+            failing.get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertSame(error, e.getCause());
+        }
+
+        queue.close();
+        realm.sharedRealm.refresh();
+        assertEquals(2, realm.where(Dog.class).count());
+        assertEquals(0, realm.where(Dog.class).equalTo(Dog.FIELD_AGE, 2).count());
+    }
+
+    @Test
+    public void close_writesQueuedItems() throws Exception {
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(queue.insert(dog(i)));
+        }
+        queue.close();
+
+        for (Future<Void> future : futures) {
+            assertTrue(future.isDone());
+        }
+        realm.sharedRealm.refresh();
+        assertEquals(200, realm.where(Dog.class).count());
+    }
+
+    @Test
+    public void submit_afterCloseThrows() {
+        queue.close();
+        assertTrue(queue.isClosed());
+        try {
+            queue.insert(dog(1));
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    @Test
+    public void submit_nullArgumentsThrow() {
+        try {
+            queue.submit(null);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            queue.insertOrUpdate(null);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void builder_invalidArgumentsThrow() {
+        RealmWriteQueue.Builder builder = new RealmWriteQueue.Builder(config);
+        try {
+            builder.maxBatchSize(0);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            builder.maxLatency(-1, TimeUnit.MILLISECONDS);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+}
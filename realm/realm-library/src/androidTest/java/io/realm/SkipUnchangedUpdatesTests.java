@@ -0,0 +1,195 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Date;
+
+import io.realm.entities.AllJavaTypes;
+import io.realm.internal.SharedRealm;
+import io.realm.rule.TestRealmConfigurationFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class SkipUnchangedUpdatesTests {
+    @Rule
+    public final TestRealmConfigurationFactory configFactory = new TestRealmConfigurationFactory();
+
+    private Realm realm;
+
+    @Before
+    public void setUp() {
+        RealmConfiguration config = configFactory.createConfigurationBuilder()
+                .skipUnchangedUpdates()
+                .build();
+        realm = Realm.getInstance(config);
+    }
+
+    @After
+    public void tearDown() {
+        if (realm != null) {
+            realm.close();
+        }
+    }
+
+    // Creates an object linking to two others, both through a link and a list
+    private static AllJavaTypes createObjectGraph() {
+        AllJavaTypes parent = new AllJavaTypes(1);
+        parent.setFieldString("parent");
+        parent.setFieldDate(new Date(1000));
+        parent.setFieldBinary(new byte[] {1, 2, 3});
+        AllJavaTypes child1 = new AllJavaTypes(2);
+        child1.setFieldString("child1");
+        AllJavaTypes child2 = new AllJavaTypes(3);
+        child2.setFieldString("child2");
+        parent.setFieldObject(child1);
+        parent.setFieldList(new RealmList<AllJavaTypes>(child1, child2));
+        return parent;
+    }
+
+    @Test
+    public void configuration_skipUnchangedUpdates() {
+        assertTrue(realm.getConfiguration().shouldSkipUnchangedUpdates());
+        assertFalse(configFactory.createConfiguration("other").shouldSkipUnchangedUpdates());
+    }
+
+    @Test
+    public void insertOrUpdate_unchangedObjectsCreateNoVersion() {
+        realm.beginTransaction();
+        realm.insertOrUpdate(createObjectGraph());
+        realm.commitTransaction();
+        SharedRealm.VersionID version = realm.sharedRealm.getVersionID();
+
+        realm.beginTransaction();
+        realm.insertOrUpdate(createObjectGraph());
+        realm.commitTransaction();
+
+        assertEquals(version, realm.sharedRealm.getVersionID());
+        assertEquals(3, realm.where(AllJavaTypes.class).count());
+    }
+
+    @Test
+    public void copyToRealmOrUpdate_unchangedObjectsCreateNoVersion() {
+        realm.beginTransaction();
+        realm.copyToRealmOrUpdate(createObjectGraph());
+        realm.commitTransaction();
+        SharedRealm.VersionID version = realm.sharedRealm.getVersionID();
+
+        realm.beginTransaction();
+        realm.copyToRealmOrUpdate(createObjectGraph());
+        realm.commitTransaction();
+
+        assertEquals(version, realm.sharedRealm.getVersionID());
+    }
+
+    @Test
+    public void insertOrUpdate_writesChangedFields() {
+        realm.beginTransaction();
+        realm.insertOrUpdate(createObjectGraph());
+        realm.commitTransaction();
+        SharedRealm.VersionID version = realm.sharedRealm.getVersionID();
+
+        AllJavaTypes parent = createObjectGraph();
+        parent.setFieldString("changed");
+        parent.setFieldBinary(null);
+        realm.beginTransaction();
+        realm.insertOrUpdate(parent);
+        realm.commitTransaction();
+
+        assertNotEquals(version, realm.sharedRealm.getVersionID());
+        AllJavaTypes managedParent = realm.where(AllJavaTypes.class).equalTo(AllJavaTypes.FIELD_LONG, 1).findFirst();
+        assertEquals("changed", managedParent.getFieldString());
+        assertEquals(null, managedParent.getFieldBinary());
+        assertEquals(new Date(1000), managedParent.getFieldDate());
+    }
+
+    @Test
+    public void insertOrUpdate_writesSignOfZero() {
+        AllJavaTypes object = new AllJavaTypes(1);
+        object.setFieldFloat(0.0f);
+        object.setFieldDouble(0.0);
+        realm.beginTransaction();
+        realm.insertOrUpdate(object);
+        realm.commitTransaction();
+
+        object.setFieldFloat(-0.0f);
+        object.setFieldDouble(-0.0);
+        realm.beginTransaction();
+        realm.insertOrUpdate(object);
+        realm.commitTransaction();
+
+        AllJavaTypes managedObject = realm.where(AllJavaTypes.class).findFirst();
+        assertEquals(Float.floatToRawIntBits(-0.0f), Float.floatToRawIntBits(managedObject.getFieldFloat()));
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(managedObject.getFieldDouble()));
+    }
+
+    @Test
+    public void insertOrUpdate_writesReorderedList() {
+        realm.beginTransaction();
+        realm.insertOrUpdate(createObjectGraph());
+        realm.commitTransaction();
+
+        AllJavaTypes parent = createObjectGraph();
+        RealmList<AllJavaTypes> list = parent.getFieldList();
+        list.add(list.remove(0));
+        realm.beginTransaction();
+        realm.insertOrUpdate(parent);
+        realm.commitTransaction();
+
+        RealmList<AllJavaTypes> managedList = realm.where(AllJavaTypes.class)
+                .equalTo(AllJavaTypes.FIELD_LONG, 1).findFirst().getFieldList();
+        assertEquals(2, managedList.size());
+        assertEquals(3, managedList.get(0).getFieldLong());
+        assertEquals(2, managedList.get(1).getFieldLong());
+    }
+
+    @Test
+    public void copyToRealmOrUpdate_writesChangedLink() {
+        realm.beginTransaction();
+        realm.copyToRealmOrUpdate(createObjectGraph());
+        realm.commitTransaction();
+
+        AllJavaTypes parent = createObjectGraph();
+        parent.setFieldObject(parent.getFieldList().get(1));
+        realm.beginTransaction();
+        AllJavaTypes managedParent = realm.copyToRealmOrUpdate(parent);
+        realm.commitTransaction();
+
+        assertEquals(3, managedParent.getFieldObject().getFieldLong());
+    }
+
+    @Test
+    public void commitTransaction_emptyTransactionCreatesNoVersion() {
+        SharedRealm.VersionID version = realm.sharedRealm.getVersionID();
+        realm.beginTransaction();
+        realm.commitTransaction();
+
+        assertEquals(version, realm.sharedRealm.getVersionID());
+        assertFalse(realm.isInTransaction());
+    }
+}
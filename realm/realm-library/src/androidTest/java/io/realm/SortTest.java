@@ -26,16 +26,26 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import io.realm.entities.AllTypes;
+import io.realm.entities.CollatedNames;
+import io.realm.internal.Collation;
+import io.realm.internal.RealmObjectProxy;
+import io.realm.internal.Table;
 import io.realm.internal.TableView;
 import io.realm.rule.RunInLooperThread;
 import io.realm.rule.RunTestInLooperThread;
 import io.realm.rule.TestRealmConfigurationFactory;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 @RunWith(AndroidJUnit4.class)
@@ -517,4 +527,126 @@ public class SortTest {
         allTypes.setColumnDate(new Date(TEST_SIZE));
         realm.commitTransaction();
     }
+
+    // Cyrillic words in the Russian alphabetical order, mixing cases and the letter "ё"
+    private static final List<String> RUSSIAN_WORDS = Arrays.asList(
+            "\u0410\u043f\u0435\u043b\u044c\u0441\u0438\u043d", // Апельсин
+            "\u0431\u0430\u043d\u0430\u043d", // банан
+            "\u0451\u0436", // ёж
+            "\u0415\u043b\u044c", // Ель
+            "\u044f\u0431\u043b\u043e\u043a\u043e" // яблоко
+    );
+
+    private void populateCollatedNames(Realm realm) {
+        realm.beginTransaction();
+        // Reversed so the insertion order is not accidentally sorted
+        for (int i = RUSSIAN_WORDS.size() - 1; i >= 0; i--) {
+            realm.copyToRealm(new CollatedNames(RUSSIAN_WORDS.get(i)));
+        }
+        realm.commitTransaction();
+    }
+
+    private static List<String> getNames(RealmResults<CollatedNames> results) {
+        List<String> names = new ArrayList<String>();
+        for (CollatedNames object : results) {
+            names.add(object.getNameRu());
+        }
+        return names;
+    }
+
+    @Test
+    public void sortByCollatedField() {
+        populateCollatedNames(realm);
+
+        RealmResults<CollatedNames> ascending = realm.where(CollatedNames.class)
+                .findAllSorted(CollatedNames.FIELD_NAME_RU);
+        assertEquals(RUSSIAN_WORDS, getNames(ascending));
+
+        List<String> reversed = new ArrayList<String>(RUSSIAN_WORDS);
+        Collections.reverse(reversed);
+        RealmResults<CollatedNames> descending = realm.where(CollatedNames.class).findAll()
+                .sort(CollatedNames.FIELD_NAME_RU, Sort.DESCENDING);
+        assertEquals(reversed, getNames(descending));
+    }
+
+    @Test
+    public void sortByCollatedField_multipleFields() {
+        populateCollatedNames(realm);
+        RealmResults<CollatedNames> results = realm.where(CollatedNames.class).findAllSorted(
+                new String[] {CollatedNames.FIELD_NAME, CollatedNames.FIELD_NAME_RU},
+                new Sort[] {Sort.ASCENDING, Sort.ASCENDING});
+        assertEquals(RUSSIAN_WORDS, getNames(results));
+    }
+
+    @Test
+    public void sortByCollatedField_updatedValue() {
+        populateCollatedNames(realm);
+        realm.beginTransaction();
+        // Moves "яблоко" to the front
+        CollatedNames last = realm.where(CollatedNames.class).equalTo(CollatedNames.FIELD_NAME_RU, RUSSIAN_WORDS.get(4)).findFirst();
+        last.setNameRu("\u0430"); // а
+        realm.commitTransaction();
+
+        RealmResults<CollatedNames> results = realm.where(CollatedNames.class).findAllSorted(CollatedNames.FIELD_NAME_RU);
+        assertEquals("\u0430", results.first().getNameRu());
+        assertEquals(RUSSIAN_WORDS.get(3), results.last().getNameRu());
+    }
+
+    @Test
+    public void sortByCollatedField_insert() {
+        List<CollatedNames> objects = new ArrayList<CollatedNames>();
+        for (int i = RUSSIAN_WORDS.size() - 1; i >= 0; i--) {
+            objects.add(new CollatedNames(RUSSIAN_WORDS.get(i)));
+        }
+        realm.beginTransaction();
+        realm.insert(objects);
+        realm.commitTransaction();
+
+        assertEquals(RUSSIAN_WORDS, getNames(realm.where(CollatedNames.class).findAllSorted(CollatedNames.FIELD_NAME_RU)));
+    }
+
+    @Test
+    @RunTestInLooperThread
+    public void sortByCollatedField_async() {
+        Realm realm = looperThread.realm;
+        populateCollatedNames(realm);
+        final RealmResults<CollatedNames> results = realm.where(CollatedNames.class)
+                .findAllSortedAsync(CollatedNames.FIELD_NAME_RU);
+        looperThread.keepStrongReference.add(results);
+        results.addChangeListener(new RealmChangeListener<RealmResults<CollatedNames>>() {
+            @Override
+            public void onChange(RealmResults<CollatedNames> element) {
+                assertEquals(RUSSIAN_WORDS, getNames(element));
+                looperThread.testComplete();
+            }
+        });
+    }
+
+    @Test
+    public void collationKeys() {
+        String[] keys = new String[RUSSIAN_WORDS.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = Collation.getKey("ru", RUSSIAN_WORDS.get(i));
+            if (i > 0) {
+                assertTrue(keys[i - 1].compareTo(keys[i]) < 0);
+            }
+        }
+        assertNull(Collation.getKey("ru", null));
+    }
+
+    @Test
+    public void collationKeyColumn() {
+        populateCollatedNames(realm);
+        Table table = realm.getTable(CollatedNames.class);
+        long keyColumnIndex = table.getColumnIndex(Collation.getKeyColumnName(CollatedNames.FIELD_NAME_RU));
+        assertTrue(keyColumnIndex >= 0);
+        CollatedNames object = realm.where(CollatedNames.class).findFirst();
+        long rowIndex = ((RealmObjectProxy) object).realmGet$proxyState().getRow$realm().getIndex();
+        assertEquals(Collation.getKey("ru", object.getNameRu()), table.getString(keyColumnIndex, rowIndex));
+
+        realm.beginTransaction();
+        object.setNameRu(null);
+        realm.commitTransaction();
+        assertNull(table.getString(keyColumnIndex, rowIndex));
+    }
 }
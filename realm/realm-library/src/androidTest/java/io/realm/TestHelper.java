@@ -47,7 +47,9 @@ import java.util.concurrent.atomic.AtomicReference;
 import io.realm.entities.AllTypes;
 import io.realm.entities.AllTypesPrimaryKey;
 import io.realm.entities.AnnotationIndexTypes;
+import io.realm.entities.Dog;
 import io.realm.entities.NullTypes;
+import io.realm.entities.Owner;
 import io.realm.entities.PrimaryKeyAsBoxedByte;
 import io.realm.entities.PrimaryKeyAsBoxedInteger;
 import io.realm.entities.PrimaryKeyAsBoxedLong;
@@ -808,6 +810,39 @@ public class TestHelper {
         realm.commitTransaction();
     }
 
+    /*
+     * Owners with dogs for testing aggregates over lists:
+     *
+     * Owner : dogs (age / weight)
+     * A     : 1 / 1.0, 2 / 2.0, 3 / 3.0
+     * B     : 10 / 0.5
+     * C     : no dogs
+     */
+    public static void populateOwnersWithDogs(Realm realm) {
+        realm.beginTransaction();
+        realm.delete(Owner.class);
+        realm.delete(Dog.class);
+        Owner ownerA = realm.createObject(Owner.class);
+        ownerA.setName("A");
+        for (int i = 1; i <= 3; i++) {
+            Dog dog = realm.createObject(Dog.class);
+            dog.setAge(i);
+            dog.setWeight(i);
+            dog.setOwner(ownerA);
+            ownerA.getDogs().add(dog);
+        }
+        Owner ownerB = realm.createObject(Owner.class);
+        ownerB.setName("B");
+        Dog dog = realm.createObject(Dog.class);
+        dog.setAge(10);
+        dog.setWeight(0.5);
+        dog.setOwner(ownerB);
+        ownerB.getDogs().add(dog);
+        Owner ownerC = realm.createObject(Owner.class);
+        ownerC.setName("C");
+        realm.commitTransaction();
+    }
+
     public static void populateSimpleAllTypesPrimaryKey(Realm realm) {
         realm.beginTransaction();
         AllTypesPrimaryKey obj = new AllTypesPrimaryKey();
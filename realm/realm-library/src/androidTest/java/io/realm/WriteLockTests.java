@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.realm.entities.Dog;
+import io.realm.rule.TestRealmConfigurationFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class WriteLockTests {
+    @Rule
+    public final TestRealmConfigurationFactory configFactory = new TestRealmConfigurationFactory();
+
+    private RealmConfiguration config;
+    private Realm realm;
+
+    @Before
+    public void setUp() {
+        config = configFactory.createConfiguration();
+        realm = Realm.getInstance(config);
+        Realm.getWriteLockMetrics(config).reset();
+    }
+
+    @After
+    public void tearDown() {
+        if (realm != null) {
+            realm.close();
+        }
+    }
+
+    // Holds a transaction on another thread until the returned latch is counted down
+    private CountDownLatch holdWriteLockOnOtherThread() throws InterruptedException {
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Realm bgRealm = Realm.getInstance(config);
+                bgRealm.beginTransaction();
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+                bgRealm.cancelTransaction();
+                bgRealm.close();
+            }
+        }).start();
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+        return release;
+    }
+
+    @Test
+    public void tryBeginTransaction() {
+        assertTrue(realm.tryBeginTransaction(0, TimeUnit.MILLISECONDS));
+        assertTrue(realm.isInTransaction());
+        realm.createObject(Dog.class);
+        realm.commitTransaction();
+
+        assertEquals(1, realm.where(Dog.class).count());
+    }
+
+    @Test
+    public void tryBeginTransaction_timesOutWhileOtherThreadWrites() throws InterruptedException {
+        CountDownLatch release = holdWriteLockOnOtherThread();
+        try {
+            assertFalse(realm.tryBeginTransaction(50, TimeUnit.MILLISECONDS));
+            assertFalse(realm.isInTransaction());
+        } finally {
+            release.countDown();
+        }
+
+        assertTrue(realm.tryBeginTransaction(10, TimeUnit.SECONDS));
+        realm.cancelTransaction();
+        assertEquals(1, Realm.getWriteLockMetrics(config).getTimeoutCount());
+    }
+
+    @Test
+    public void metrics_recordWaitAndHoldTime() throws InterruptedException {
+        realm.beginTransaction();
+        Thread.sleep(20);
+        realm.commitTransaction();
+
+        WriteLockMetrics metrics = Realm.getWriteLockMetrics(config);
+        assertEquals(1, metrics.getTransactionCount());
+        assertTrue(metrics.getTotalHoldTime(TimeUnit.MILLISECONDS) >= 20);
+        assertTrue(metrics.getMaxHoldTime(TimeUnit.MILLISECONDS) >= 20);
+
+        CountDownLatch release = holdWriteLockOnOtherThread();
+        Thread.sleep(20);
+        release.countDown();
+        realm.beginTransaction();
+        realm.cancelTransaction();
+
+        assertEquals(3, metrics.getTransactionCount());
+        assertTrue(metrics.getMaxWaitTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    public void metrics_sharedByDynamicRealm() {
+        DynamicRealm dynamicRealm = DynamicRealm.getInstance(config);
+        dynamicRealm.beginTransaction();
+        dynamicRealm.cancelTransaction();
+        dynamicRealm.close();
+
+        assertEquals(1, Realm.getWriteLockMetrics(config).getTransactionCount());
+    }
+
+    @Test
+    public void close_releasesWriteLock() throws InterruptedException {
+        final CountDownLatch begun = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        final CountDownLatch canClose = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Realm bgRealm = Realm.getInstance(config);
+                bgRealm.beginTransaction();
+                begun.countDown();
+                try {
+                    canClose.await();
+                } catch (InterruptedException ignored) {
+                }
+                bgRealm.close();
+                closed.countDown();
+            }
+        }).start();
+        assertTrue(begun.await(10, TimeUnit.SECONDS));
+        canClose.countDown();
+        assertTrue(closed.await(10, TimeUnit.SECONDS));
+
+        assertTrue(realm.tryBeginTransaction(0, TimeUnit.MILLISECONDS));
+        realm.cancelTransaction();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm.entities;
+
+import io.realm.RealmObject;
+import io.realm.annotations.Collated;
+
+public class CollatedNames extends RealmObject {
+
+    public static final String CLASS_NAME = "CollatedNames";
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_NAME_RU = "nameRu";
+
+    @Collated
+    private String name;
+
+    @Collated("ru")
+    private String nameRu;
+
+    public CollatedNames() {
+    }
+
+    public CollatedNames(String name) {
+        this.name = name;
+        this.nameRu = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getNameRu() {
+        return nameRu;
+    }
+
+    public void setNameRu(String nameRu) {
+        this.nameRu = nameRu;
+    }
+}
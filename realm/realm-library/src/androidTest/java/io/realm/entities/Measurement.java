@@ -0,0 +1,60 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm.entities;
+
+import java.util.Date;
+
+import io.realm.RealmObject;
+import io.realm.annotations.OrderedBy;
+import io.realm.annotations.Required;
+
+@OrderedBy("timestamp")
+public class Measurement extends RealmObject {
+
+    public static final String CLASS_NAME = "Measurement";
+    public static final String FIELD_TIMESTAMP = "timestamp";
+    public static final String FIELD_VALUE = "value";
+
+    @Required
+    private Date timestamp;
+
+    private double value;
+
+    public Measurement() {
+    }
+
+    public Measurement(long timestamp, double value) {
+        this.timestamp = new Date(timestamp);
+        this.value = value;
+    }
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public void setValue(double value) {
+        this.value = value;
+    }
+}
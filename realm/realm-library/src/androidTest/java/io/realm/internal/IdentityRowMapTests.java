@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm.internal;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class IdentityRowMapTests {
+
+    @Test
+    public void putAndGet() {
+        IdentityRowMap map = new IdentityRowMap(2);
+        Object[] keys = new Object[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new Object();
+            map.put(keys[i], i);
+        }
+        assertEquals(keys.length, map.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertTrue(map.containsKey(keys[i]));
+            assertEquals(i, map.get(keys[i]));
+        }
+        assertFalse(map.containsKey(new Object()));
+        assertEquals(TableOrView.NO_MATCH, map.get(new Object()));
+        assertEquals(TableOrView.NO_MATCH, map.get(null));
+    }
+
+    @Test
+    public void put_replacesRow() {
+        IdentityRowMap map = new IdentityRowMap();
+        Object key = new Object();
+        map.put(key, 1);
+        map.put(key, 2);
+        assertEquals(1, map.size());
+        assertEquals(2, map.get(key));
+    }
+
+    @Test
+    public void comparesByIdentity() {
+        IdentityRowMap map = new IdentityRowMap();
+        String key = new String("key");
+        map.put(key, 1);
+        assertFalse(map.containsKey(new String("key")));
+        assertEquals(1, map.get(key));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void put_nullKey() {
+        new IdentityRowMap().put(null, 1);
+    }
+}
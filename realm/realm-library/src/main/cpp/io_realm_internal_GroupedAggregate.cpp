@@ -0,0 +1,438 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#include <set>
+#include <vector>
+#include <realm.hpp>
+#include <realm/group.hpp>
+#include <realm/replication.hpp>
+#include <realm/impl/input_stream.hpp>
+#include <realm/impl/transact_log.hpp>
+#include <shared_realm.hpp>
+#include "util.hpp"
+#include "io_realm_internal_GroupedAggregate.h"
+
+using namespace realm;
+
+namespace {
+
+// Tables of materialized views, see Table.VIEW_TABLE_PREFIX. Changes to them never affect a view.
+const char* const VIEW_TABLE_PREFIX = "view_";
+
+// Columns of the groups table, see GroupedAggregate.java
+const size_t GROUP_KEY = 0;
+const size_t GROUP_COUNT = 1;
+const size_t GROUP_SUM = 2;
+
+// Columns of the rows table, which has a row for each row of the source table
+const size_t ROW_MATCHED = 0;
+const size_t ROW_KEY = 1;
+const size_t ROW_VALUE = 2;
+
+// A change to the rows of the source table, in the order they were made in the transaction
+struct RowChange {
+    enum class Kind { Insert, Erase, MoveLastOver, Modify };
+    Kind kind;
+    size_t row;
+    size_t count; // Insert and Erase: number of rows, MoveLastOver: index of the last row
+};
+
+// Collects the changes to the source table from the transaction log. Changes that cannot be applied row by row set
+// needs_rebuild.
+class ChangeCollector : public _impl::NullInstructionObserver {
+public:
+    std::vector<RowChange> changes;
+    bool needs_rebuild = false;
+    bool other_tables_changed = false;
+
+    ChangeCollector(const Group& group, size_t source_ndx)
+        : m_group(group)
+        , m_source_ndx(source_ndx)
+    {
+    }
+
+    bool select_table(size_t group_level_ndx, int levels, const size_t*)
+    {
+        if (levels == 0 && group_level_ndx == m_source_ndx) {
+            m_selected = Selected::Source;
+        }
+        else if (levels == 0 && group_level_ndx < m_group.size() &&
+                 m_group.get_table_name(group_level_ndx).begins_with(VIEW_TABLE_PREFIX)) {
+            m_selected = Selected::View;
+        }
+        else {
+            m_selected = Selected::Other;
+        }
+        return true;
+    }
+
+    bool insert_group_level_table(size_t table_ndx, size_t, StringData)
+    {
+        // New tables are appended, anything else shifts the index of the source table
+        if (table_ndx <= m_source_ndx) {
+            needs_rebuild = true;
+        }
+        return true;
+    }
+
+    template <class... Args> bool erase_group_level_table(Args...) { return rebuild(); }
+    template <class... Args> bool move_group_level_table(Args...) { return rebuild(); }
+
+    template <class... Args> bool insert_column(Args...) { return schema_changed(); }
+    template <class... Args> bool insert_link_column(Args...) { return schema_changed(); }
+    template <class... Args> bool erase_column(Args...) { return schema_changed(); }
+    template <class... Args> bool erase_link_column(Args...) { return schema_changed(); }
+    template <class... Args> bool move_column(Args...) { return schema_changed(); }
+
+    bool insert_empty_rows(size_t row_ndx, size_t num_rows, size_t prior_num_rows, bool unordered)
+    {
+        if (m_selected == Selected::Source) {
+            if (unordered && row_ndx != prior_num_rows) {
+                // Moves the rows at row_ndx to the end
+                needs_rebuild = true;
+            }
+            else {
+                changes.push_back({RowChange::Kind::Insert, row_ndx, num_rows});
+            }
+        }
+        return other_changed();
+    }
+
+    bool erase_rows(size_t row_ndx, size_t num_rows, size_t prior_num_rows, bool unordered)
+    {
+        if (m_selected == Selected::Source) {
+            if (!unordered) {
+                changes.push_back({RowChange::Kind::Erase, row_ndx, num_rows});
+            }
+            else if (num_rows == 1) {
+                changes.push_back({RowChange::Kind::MoveLastOver, row_ndx, prior_num_rows - 1});
+            }
+            else {
+                needs_rebuild = true;
+            }
+        }
+        return other_changed();
+    }
+
+    template <class... Args> bool add_row_with_key(Args...) { return source_rebuild(); }
+    template <class... Args> bool swap_rows(Args...) { return source_rebuild(); }
+    template <class... Args> bool move_row(Args...) { return source_rebuild(); }
+    template <class... Args> bool merge_rows(Args...) { return source_rebuild(); }
+    template <class... Args> bool clear_table(Args...) { return source_rebuild(); }
+
+    template <class... Args> bool set_int(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool add_int(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_int_unique(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_bool(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_float(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_double(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_string(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_string_unique(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_binary(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_olddatetime(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_timestamp(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_table(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_mixed(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_link(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_null(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool nullify_link(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool insert_substring(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool erase_substring(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool select_link_list(size_t, size_t row, Args...) { return modified(row); }
+
+    template <class... Args> bool link_list_set(Args...) { return other_changed(); }
+    template <class... Args> bool link_list_insert(Args...) { return other_changed(); }
+    template <class... Args> bool link_list_move(Args...) { return other_changed(); }
+    template <class... Args> bool link_list_swap(Args...) { return other_changed(); }
+    template <class... Args> bool link_list_erase(Args...) { return other_changed(); }
+    template <class... Args> bool link_list_nullify(Args...) { return other_changed(); }
+    template <class... Args> bool link_list_clear(Args...) { return other_changed(); }
+
+private:
+    enum class Selected { None, Source, View, Other };
+
+    const Group& m_group;
+    const size_t m_source_ndx;
+    Selected m_selected = Selected::None;
+
+    bool rebuild()
+    {
+        needs_rebuild = true;
+        return true;
+    }
+
+    bool source_rebuild()
+    {
+        if (m_selected == Selected::Source) {
+            needs_rebuild = true;
+        }
+        return other_changed();
+    }
+
+    bool schema_changed()
+    {
+        // Columns of the view tables are created in the same transaction as the view is built
+        return m_selected == Selected::View ? true : rebuild();
+    }
+
+    bool modified(size_t row)
+    {
+        if (m_selected == Selected::Source) {
+            changes.push_back({RowChange::Kind::Modify, row, 1});
+        }
+        return other_changed();
+    }
+
+    bool other_changed()
+    {
+        if (m_selected == Selected::Other) {
+            other_tables_changed = true;
+        }
+        return true;
+    }
+};
+
+// Adds and removes the contributions of single rows of the source table to their groups
+class Aggregator {
+public:
+    Aggregator(Query& query, size_t key_col, size_t value_col, Table& groups, Table& rows)
+        : m_query(query)
+        , m_source(*query.get_table())
+        , m_key_col(key_col)
+        , m_value_col(value_col)
+        , m_string_key(m_source.get_column_type(key_col) == type_String)
+        , m_groups(groups)
+        , m_rows(rows)
+    {
+    }
+
+    void rebuild()
+    {
+        m_groups.clear();
+        m_rows.clear();
+        m_rows.add_empty_row(m_source.size());
+        TableView matches = m_query.find_all();
+        for (size_t i = 0; i < matches.size(); ++i) {
+            add(matches.get_source_ndx(i));
+        }
+    }
+
+    // Applies the changes in order to the rows table, then evaluates the changed rows. Returns false if the rows
+    // table is out of sync with the source table and the view must be rebuilt.
+    bool apply(const std::vector<RowChange>& changes)
+    {
+        std::set<size_t> dirty;
+        for (const RowChange& change : changes) {
+            switch (change.kind) {
+                case RowChange::Kind::Insert:
+                    if (change.row > m_rows.size()) {
+                        return false;
+                    }
+                    m_rows.insert_empty_row(change.row, change.count);
+                    shift(dirty, change.row, change.count, true);
+                    for (size_t i = 0; i < change.count; ++i) {
+                        dirty.insert(change.row + i);
+                    }
+                    break;
+                case RowChange::Kind::Erase:
+                    if (change.row + change.count > m_rows.size()) {
+                        return false;
+                    }
+                    for (size_t i = 0; i < change.count; ++i) {
+                        subtract(change.row);
+                        m_rows.remove(change.row);
+                        dirty.erase(change.row);
+                        shift(dirty, change.row, 1, false);
+                    }
+                    break;
+                case RowChange::Kind::MoveLastOver:
+                    if (change.count + 1 != m_rows.size() || change.row > change.count) {
+                        return false;
+                    }
+                    subtract(change.row);
+                    m_rows.move_last_over(change.row);
+                    dirty.erase(change.row);
+                    if (change.row != change.count && dirty.erase(change.count) > 0) {
+                        dirty.insert(change.row);
+                    }
+                    break;
+                case RowChange::Kind::Modify:
+                    if (change.row >= m_rows.size()) {
+                        return false;
+                    }
+                    dirty.insert(change.row);
+                    break;
+            }
+        }
+        if (m_rows.size() != m_source.size()) {
+            return false;
+        }
+        for (size_t row : dirty) {
+            subtract(row);
+            if (m_query.count(row, row + 1, 1) == 1) {
+                add(row);
+            }
+        }
+        return true;
+    }
+
+private:
+    Query& m_query;
+    Table& m_source;
+    const size_t m_key_col;
+    const size_t m_value_col;
+    const bool m_string_key;
+    Table& m_groups;
+    Table& m_rows;
+
+    // Moves the dirty rows from row on by count rows up or down
+    static void shift(std::set<size_t>& dirty, size_t row, size_t count, bool up)
+    {
+        auto first = dirty.lower_bound(up ? row : row + 1);
+        if (first == dirty.end()) {
+            return;
+        }
+        std::vector<size_t> moved(first, dirty.end());
+        dirty.erase(first, dirty.end());
+        for (size_t index : moved) {
+            dirty.insert(up ? index + count : index - count);
+        }
+    }
+
+    double value(size_t row) const
+    {
+        if (m_value_col == realm::npos || m_source.is_null(m_value_col, row)) {
+            return 0;
+        }
+        switch (m_source.get_column_type(m_value_col)) {
+            case type_Int:
+                return static_cast<double>(m_source.get_int(m_value_col, row));
+            case type_Float:
+                return m_source.get_float(m_value_col, row);
+            case type_Double:
+                return m_source.get_double(m_value_col, row);
+            default:
+                return 0;
+        }
+    }
+
+    // Records the key and value of a matching row and adds them to its group
+    void add(size_t row)
+    {
+        if (m_source.is_null(m_key_col, row)) {
+            m_rows.set_null(ROW_KEY, row);
+        }
+        else if (m_string_key) {
+            m_rows.set_string(ROW_KEY, row, m_source.get_string(m_key_col, row));
+        }
+        else {
+            m_rows.set_int(ROW_KEY, row, m_source.get_int(m_key_col, row));
+        }
+        double row_value = value(row);
+        m_rows.set_double(ROW_VALUE, row, row_value);
+        m_rows.set_bool(ROW_MATCHED, row, true);
+        adjust_group(row, 1, row_value);
+    }
+
+    // Removes what a row added to its group when it was last evaluated
+    void subtract(size_t row)
+    {
+        if (m_rows.get_bool(ROW_MATCHED, row)) {
+            adjust_group(row, -1, -m_rows.get_double(ROW_VALUE, row));
+            m_rows.set_bool(ROW_MATCHED, row, false);
+        }
+    }
+
+    size_t find_group(size_t row)
+    {
+        if (m_rows.is_null(ROW_KEY, row)) {
+            return m_groups.where().equal(GROUP_KEY, null()).find();
+        }
+        if (m_string_key) {
+            return m_groups.find_first_string(GROUP_KEY, m_rows.get_string(ROW_KEY, row));
+        }
+        return m_groups.find_first_int(GROUP_KEY, m_rows.get_int(ROW_KEY, row));
+    }
+
+    void adjust_group(size_t row, int_fast64_t count, double sum)
+    {
+        size_t group = find_group(row);
+        if (group == realm::not_found) {
+            group = m_groups.add_empty_row();
+            if (m_rows.is_null(ROW_KEY, row)) {
+                m_groups.set_null(GROUP_KEY, group);
+            }
+            else if (m_string_key) {
+                m_groups.set_string(GROUP_KEY, group, m_rows.get_string(ROW_KEY, row));
+            }
+            else {
+                m_groups.set_int(GROUP_KEY, group, m_rows.get_int(ROW_KEY, row));
+            }
+        }
+        int_fast64_t new_count = m_groups.get_int(GROUP_COUNT, group) + count;
+        if (new_count <= 0) {
+            // The order of the groups doesn't matter
+            m_groups.move_last_over(group);
+            return;
+        }
+        m_groups.set_int(GROUP_COUNT, group, new_count);
+        m_groups.set_double(GROUP_SUM, group, m_groups.get_double(GROUP_SUM, group) + sum);
+    }
+};
+
+} // anonymous namespace
+
+JNIEXPORT void JNICALL Java_io_realm_internal_GroupedAggregate_nativeUpdate(
+    JNIEnv* env, jclass, jlong sharedRealmPtr, jlong queryPtr, jlong keyColumnIndex, jlong valueColumnIndex,
+    jlong groupsPtr, jlong rowsPtr, jboolean dependsOnOtherTables, jboolean rebuild)
+{
+    TR_ENTER(env)
+    Query* pQuery = Q(queryPtr);
+    if (!QUERY_VALID(env, pQuery) ||
+        !TBL_AND_COL_INDEX_VALID(env, pQuery->get_table().get(), keyColumnIndex) ||
+        !TABLE_VALID(env, TBL(groupsPtr)) ||
+        !TABLE_VALID(env, TBL(rowsPtr))) {
+        return;
+    }
+    try {
+        size_t value_col = valueColumnIndex < 0 ? realm::npos : S(valueColumnIndex);
+        Aggregator aggregator(*pQuery, S(keyColumnIndex), value_col, *TBL(groupsPtr), *TBL(rowsPtr));
+        if (rebuild) {
+            aggregator.rebuild();
+            return;
+        }
+
+        auto shared_realm = *(reinterpret_cast<SharedRealm*>(sharedRealmPtr));
+        Group& group = shared_realm->read_group();
+        Replication* replication = _impl::GroupFriend::get_replication(group);
+        if (!replication) {
+            aggregator.rebuild();
+            return;
+        }
+
+        // The changes are collected before anything is written, as writing appends to the log being parsed
+        ChangeCollector collector(group, pQuery->get_table()->get_index_in_group());
+        BinaryData log = replication->get_uncommitted_changes();
+        _impl::SimpleInputStream in(log.data(), log.size());
+        _impl::TransactLogParser parser;
+        parser.parse(in, collector);
+
+        if (collector.needs_rebuild || (dependsOnOtherTables && collector.other_tables_changed) ||
+            !aggregator.apply(collector.changes)) {
+            aggregator.rebuild();
+        }
+    } CATCH_STD()
+}
@@ -144,6 +144,35 @@ JNIEXPORT void JNICALL Java_io_realm_internal_LinkView_nativeClear
 }
 
 
+// Replaces the links with the given rows. With skipUnchanged a list which already links the same rows in the same
+// order is not written at all.
+JNIEXPORT void JNICALL Java_io_realm_internal_LinkView_nativeSetAll
+  (JNIEnv* env, jclass, jlong nativeLinkViewPtr, jlongArray rowIndices, jboolean skipUnchanged)
+{
+    TR_ENTER_PTR(env, nativeLinkViewPtr)
+    try {
+        LinkViewRef lvr = *LV(nativeLinkViewPtr);
+        JniLongArray rows(env, rowIndices);
+        if (skipUnchanged && lvr->size() == S(rows.len())) {
+            bool unchanged = true;
+            for (jsize i = 0; i < rows.len(); ++i) {
+                if (lvr->get(S(i)).get_index() != S(rows[i])) {
+                    unchanged = false;
+                    break;
+                }
+            }
+            if (unchanged) {
+                return;
+            }
+        }
+        lvr->clear();
+        for (jsize i = 0; i < rows.len(); ++i) {
+            lvr->add(S(rows[i]));
+        }
+    } CATCH_STD()
+}
+
+
 JNIEXPORT jlong JNICALL Java_io_realm_internal_LinkView_nativeSize
   (JNIEnv* env, jobject, jlong nativeLinkViewPtr)
 {
@@ -1,5 +1,7 @@
 #include "io_realm_internal_SharedRealm.h"
 
+#include <realm/replication.hpp>
+
 #include "object_store.hpp"
 #include "shared_realm.hpp"
 
@@ -112,6 +114,24 @@ Java_io_realm_internal_SharedRealm_nativeCancelTransaction(JNIEnv *env, jclass,
 }
 
 
+JNIEXPORT jboolean JNICALL
+Java_io_realm_internal_SharedRealm_nativeHasUncommittedChanges(JNIEnv* env, jclass, jlong shared_realm_ptr)
+{
+    TR_ENTER_PTR(env, shared_realm_ptr)
+
+    auto shared_realm = *(reinterpret_cast<SharedRealm*>(shared_realm_ptr));
+    try {
+        Replication* replication = _impl::GroupFriend::get_replication(shared_realm->read_group());
+        // Without a history every transaction is assumed to change something
+        if (!replication) {
+            return JNI_TRUE;
+        }
+        return static_cast<jboolean>(replication->get_uncommitted_changes().size() > 0);
+    } CATCH_STD()
+
+    return JNI_TRUE;
+}
+
 JNIEXPORT jboolean JNICALL
 Java_io_realm_internal_SharedRealm_nativeIsInTransaction(JNIEnv* env, jclass, jlong shared_realm_ptr)
 {
@@ -214,6 +234,50 @@ Java_io_realm_internal_SharedRealm_nativeGetVersionID(JNIEnv *env, jclass, jlong
     return NULL;
 }
 
+JNIEXPORT jlongArray JNICALL
+Java_io_realm_internal_SharedRealm_nativePinVersion(JNIEnv *env, jclass, jlong shared_realm_ptr)
+{
+    TR_ENTER_PTR(env, shared_realm_ptr)
+
+    auto shared_realm = *(reinterpret_cast<SharedRealm*>(shared_realm_ptr));
+    try {
+        using rf = realm::_impl::RealmFriend;
+        // Takes a read lock on the version which is only released by unpin_version()
+        SharedGroup::VersionID version_id = rf::get_shared_group(*shared_realm).pin_version();
+
+        jlong version_array[2];
+        version_array[0] = static_cast<jlong>(version_id.version);
+        version_array[1] = static_cast<jlong>(version_id.index);
+
+        jlongArray version_data = env->NewLongArray(2);
+        if (version_data == NULL) {
+            rf::get_shared_group(*shared_realm).unpin_version(version_id);
+            ThrowException(env, OutOfMemory, "Could not allocate memory to return versionID.");
+            return NULL;
+        }
+        env->SetLongArrayRegion(version_data, 0, 2, version_array);
+
+        return version_data;
+    } CATCH_STD ()
+
+    return NULL;
+}
+
+JNIEXPORT void JNICALL
+Java_io_realm_internal_SharedRealm_nativeUnpinVersion(JNIEnv *env, jclass, jlong shared_realm_ptr, jlong version,
+        jlong index)
+{
+    TR_ENTER_PTR(env, shared_realm_ptr)
+
+    auto shared_realm = *(reinterpret_cast<SharedRealm*>(shared_realm_ptr));
+    SharedGroup::VersionID version_id(static_cast<SharedGroup::version_type>(version),
+                                     static_cast<uint32_t>(index));
+    try {
+        using rf = realm::_impl::RealmFriend;
+        rf::get_shared_group(*shared_realm).unpin_version(version_id);
+    } CATCH_STD()
+}
+
 JNIEXPORT jboolean JNICALL
 Java_io_realm_internal_SharedRealm_nativeIsClosed(JNIEnv* env, jclass, jlong shared_realm_ptr)
 {
@@ -14,7 +14,12 @@
  * limitations under the License.
  */
 
+#include <algorithm>
+#include <cmath>
+#include <cstring>
 #include <sstream>
+#include <string>
+#include <vector>
 
 #include "util.hpp"
 #include "io_realm_internal_Table.h"
@@ -638,6 +643,17 @@ JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeSetLong(
     } CATCH_STD()
 }
 
+// add_int() is logged as an addition, so concurrent increments are merged instead of the last write winning
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeIncrementLong(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong rowIndex, jlong delta)
+{
+    if (!TBL_AND_INDEX_AND_TYPE_VALID(env, TBL(nativeTablePtr), columnIndex, rowIndex, type_Int))
+        return;
+    try {
+        TBL(nativeTablePtr)->add_int(S(columnIndex), S(rowIndex), delta);
+    } CATCH_STD()
+}
+
 JNIEXPORT void JNICALL
 Java_io_realm_internal_Table_nativeSetLongUnique(JNIEnv *env, jclass, jlong nativeTablePtr, jlong columnIndex,
                                                  jlong rowIndex, jlong value)
@@ -765,6 +781,544 @@ JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeSetNull(
     } CATCH_STD()
 }
 
+// Setters used by the generated insertOrUpdate() methods. With skipUnchanged the new value is compared with the
+// stored one first and an equal value is not written, so nothing is recorded in the transaction log.
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeUpdateLong(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong rowIndex, jlong value, jboolean skipUnchanged)
+{
+    Table* pTable = TBL(nativeTablePtr);
+    if (!TBL_AND_INDEX_AND_TYPE_VALID(env, pTable, columnIndex, rowIndex, type_Int))
+        return;
+    try {
+        if (skipUnchanged && !pTable->is_null(S(columnIndex), S(rowIndex))
+                && pTable->get_int(S(columnIndex), S(rowIndex)) == value) {
+            return;
+        }
+        pTable->set_int(S(columnIndex), S(rowIndex), value);
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeUpdateBoolean(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong rowIndex, jboolean value,
+    jboolean skipUnchanged)
+{
+    Table* pTable = TBL(nativeTablePtr);
+    if (!TBL_AND_INDEX_AND_TYPE_VALID(env, pTable, columnIndex, rowIndex, type_Bool))
+        return;
+    try {
+        bool bool_value = value == JNI_TRUE;
+        if (skipUnchanged && !pTable->is_null(S(columnIndex), S(rowIndex))
+                && pTable->get_bool(S(columnIndex), S(rowIndex)) == bool_value) {
+            return;
+        }
+        pTable->set_bool(S(columnIndex), S(rowIndex), bool_value);
+    } CATCH_STD()
+}
+
+// Same equality as Float.equals() and Double.equals(): 0.0 and -0.0 differ and NaN equals NaN
+template <typename T>
+static bool same_floating_point(T a, T b)
+{
+    if (std::isnan(a) || std::isnan(b)) {
+        return std::isnan(a) && std::isnan(b);
+    }
+    return std::memcmp(&a, &b, sizeof(T)) == 0;
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeUpdateFloat(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong rowIndex, jfloat value, jboolean skipUnchanged)
+{
+    Table* pTable = TBL(nativeTablePtr);
+    if (!TBL_AND_INDEX_AND_TYPE_VALID(env, pTable, columnIndex, rowIndex, type_Float))
+        return;
+    try {
+        if (skipUnchanged && !pTable->is_null(S(columnIndex), S(rowIndex))
+                && same_floating_point(pTable->get_float(S(columnIndex), S(rowIndex)), value)) {
+            return;
+        }
+        pTable->set_float(S(columnIndex), S(rowIndex), value);
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeUpdateDouble(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong rowIndex, jdouble value,
+    jboolean skipUnchanged)
+{
+    Table* pTable = TBL(nativeTablePtr);
+    if (!TBL_AND_INDEX_AND_TYPE_VALID(env, pTable, columnIndex, rowIndex, type_Double))
+        return;
+    try {
+        if (skipUnchanged && !pTable->is_null(S(columnIndex), S(rowIndex))
+                && same_floating_point(pTable->get_double(S(columnIndex), S(rowIndex)), value)) {
+            return;
+        }
+        pTable->set_double(S(columnIndex), S(rowIndex), value);
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeUpdateTimestamp(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong rowIndex, jlong timestampValue,
+    jboolean skipUnchanged)
+{
+    Table* pTable = TBL(nativeTablePtr);
+    if (!TBL_AND_INDEX_AND_TYPE_VALID(env, pTable, columnIndex, rowIndex, type_Timestamp))
+        return;
+    try {
+        Timestamp timestamp = from_milliseconds(timestampValue);
+        if (skipUnchanged && !pTable->is_null(S(columnIndex), S(rowIndex))
+                && pTable->get_timestamp(S(columnIndex), S(rowIndex)) == timestamp) {
+            return;
+        }
+        pTable->set_timestamp(S(columnIndex), S(rowIndex), timestamp);
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeUpdateString(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong rowIndex, jstring value,
+    jboolean skipUnchanged)
+{
+    Table* pTable = TBL(nativeTablePtr);
+    if (!TBL_AND_INDEX_AND_TYPE_VALID(env, pTable, columnIndex, rowIndex, type_String))
+        return;
+    try {
+        if (value == NULL && !TBL_AND_COL_NULLABLE(env, pTable, columnIndex)) {
+            return;
+        }
+        JStringAccessor value2(env, value); // throws
+        StringData string_value(value2);
+        // StringData compares null and empty strings as different
+        if (skipUnchanged && pTable->get_string(S(columnIndex), S(rowIndex)) == string_value) {
+            return;
+        }
+        pTable->set_string(S(columnIndex), S(rowIndex), string_value);
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeUpdateByteArray(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong rowIndex, jbyteArray dataArray,
+    jboolean skipUnchanged)
+{
+    Table* pTable = TBL(nativeTablePtr);
+    if (!TBL_AND_INDEX_AND_TYPE_VALID(env, pTable, columnIndex, rowIndex, type_Binary))
+        return;
+    try {
+        if (dataArray == NULL && !TBL_AND_COL_NULLABLE(env, pTable, columnIndex)) {
+            return;
+        }
+        JniByteArray byteAccessor(env, dataArray);
+        BinaryData binary_value(byteAccessor);
+        if (skipUnchanged && pTable->get_binary(S(columnIndex), S(rowIndex)) == binary_value) {
+            return;
+        }
+        pTable->set_binary(S(columnIndex), S(rowIndex), binary_value);
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeUpdateNull(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong rowIndex, jboolean skipUnchanged)
+{
+    Table* pTable = TBL(nativeTablePtr);
+    if (!TBL_AND_COL_INDEX_VALID(env, pTable, columnIndex))
+        return;
+    if (!TBL_AND_ROW_INDEX_VALID(env, pTable, rowIndex))
+        return;
+    if (!TBL_AND_COL_NULLABLE(env, pTable, columnIndex))
+        return;
+    try {
+        if (skipUnchanged && pTable->is_null(S(columnIndex), S(rowIndex))) {
+            return;
+        }
+        pTable->set_null(S(columnIndex), S(rowIndex));
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeUpdateLink(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong rowIndex, jlong targetRowIndex,
+    jboolean skipUnchanged)
+{
+    Table* pTable = TBL(nativeTablePtr);
+    if (!TBL_AND_INDEX_AND_TYPE_INSERT_VALID(env, pTable, columnIndex, rowIndex, type_Link))
+        return;
+    try {
+        if (skipUnchanged && !pTable->is_null_link(S(columnIndex), S(rowIndex))
+                && pTable->get_link(S(columnIndex), S(rowIndex)) == S(targetRowIndex)) {
+            return;
+        }
+        pTable->set_link(S(columnIndex), S(rowIndex), S(targetRowIndex));
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeUpdateNullLink(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong rowIndex, jboolean skipUnchanged)
+{
+    Table* pTable = TBL(nativeTablePtr);
+    if (!TBL_AND_INDEX_AND_TYPE_VALID(env, pTable, columnIndex, rowIndex, type_Link))
+        return;
+    try {
+        if (skipUnchanged && pTable->is_null_link(S(columnIndex), S(rowIndex))) {
+            return;
+        }
+        pTable->nullify_link(S(columnIndex), S(rowIndex));
+    } CATCH_STD()
+}
+
+// Bulk setters used by columnar inserts. They set consecutive rows of a column starting at startRow, so the values
+// of a whole column are transferred with a single JNI call. Rows flagged in the optional nulls array are set to null.
+
+static bool bulk_set_valid(JNIEnv* env, Table* table, jlong columnIndex, jlong startRow, jsize count,
+                           jbooleanArray nulls, DataType type)
+{
+    if (!TBL_AND_COL_INDEX_AND_TYPE_VALID(env, table, columnIndex, type)) {
+        return false;
+    }
+    if (startRow < 0 || S(startRow) + count > table->size()) {
+        ThrowException(env, IndexOutOfBounds, "Rows to set are out of range.");
+        return false;
+    }
+    if (nulls != NULL) {
+        if (!TBL_AND_COL_NULLABLE(env, table, columnIndex)) {
+            return false;
+        }
+        if (env->GetArrayLength(nulls) != count) {
+            ThrowException(env, IllegalArgument, "The number of null flags must match the number of values.");
+            return false;
+        }
+    }
+    return true;
+}
+
+template <typename T, typename Setter>
+static void bulk_set(JNIEnv* env, Table* table, jlong columnIndex, jlong startRow, const std::vector<T>& values,
+                     jbooleanArray nulls, Setter set)
+{
+    std::vector<jboolean> is_null;
+    if (nulls != NULL) {
+        is_null.resize(values.size());
+        env->GetBooleanArrayRegion(nulls, 0, static_cast<jsize>(values.size()), is_null.data());
+    }
+    size_t col = S(columnIndex);
+    size_t row = S(startRow);
+    for (size_t i = 0; i < values.size(); ++i, ++row) {
+        if (!is_null.empty() && is_null[i]) {
+            table->set_null(col, row);
+        }
+        else {
+            set(col, row, values[i]);
+        }
+    }
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeSetLongs(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong startRow, jlongArray values,
+    jbooleanArray nulls)
+{
+    Table* table = TBL(nativeTablePtr);
+    jsize count = env->GetArrayLength(values);
+    if (!bulk_set_valid(env, table, columnIndex, startRow, count, nulls, type_Int))
+        return;
+    try {
+        std::vector<jlong> buffer(S(count));
+        env->GetLongArrayRegion(values, 0, count, buffer.data());
+        bulk_set(env, table, columnIndex, startRow, buffer, nulls, [table](size_t col, size_t row, jlong value) {
+            table->set_int(col, row, value);
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeSetBooleans(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong startRow, jbooleanArray values,
+    jbooleanArray nulls)
+{
+    Table* table = TBL(nativeTablePtr);
+    jsize count = env->GetArrayLength(values);
+    if (!bulk_set_valid(env, table, columnIndex, startRow, count, nulls, type_Bool))
+        return;
+    try {
+        std::vector<jboolean> buffer(S(count));
+        env->GetBooleanArrayRegion(values, 0, count, buffer.data());
+        bulk_set(env, table, columnIndex, startRow, buffer, nulls, [table](size_t col, size_t row, jboolean value) {
+            table->set_bool(col, row, value == JNI_TRUE);
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeSetFloats(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong startRow, jfloatArray values,
+    jbooleanArray nulls)
+{
+    Table* table = TBL(nativeTablePtr);
+    jsize count = env->GetArrayLength(values);
+    if (!bulk_set_valid(env, table, columnIndex, startRow, count, nulls, type_Float))
+        return;
+    try {
+        std::vector<jfloat> buffer(S(count));
+        env->GetFloatArrayRegion(values, 0, count, buffer.data());
+        bulk_set(env, table, columnIndex, startRow, buffer, nulls, [table](size_t col, size_t row, jfloat value) {
+            table->set_float(col, row, value);
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeSetDoubles(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong startRow, jdoubleArray values,
+    jbooleanArray nulls)
+{
+    Table* table = TBL(nativeTablePtr);
+    jsize count = env->GetArrayLength(values);
+    if (!bulk_set_valid(env, table, columnIndex, startRow, count, nulls, type_Double))
+        return;
+    try {
+        std::vector<jdouble> buffer(S(count));
+        env->GetDoubleArrayRegion(values, 0, count, buffer.data());
+        bulk_set(env, table, columnIndex, startRow, buffer, nulls, [table](size_t col, size_t row, jdouble value) {
+            table->set_double(col, row, value);
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeSetTimestamps(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong startRow, jlongArray values,
+    jbooleanArray nulls)
+{
+    Table* table = TBL(nativeTablePtr);
+    jsize count = env->GetArrayLength(values);
+    if (!bulk_set_valid(env, table, columnIndex, startRow, count, nulls, type_Timestamp))
+        return;
+    try {
+        std::vector<jlong> buffer(S(count));
+        env->GetLongArrayRegion(values, 0, count, buffer.data());
+        bulk_set(env, table, columnIndex, startRow, buffer, nulls, [table](size_t col, size_t row, jlong value) {
+            table->set_timestamp(col, row, from_milliseconds(value));
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeSetStrings(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong startRow, jobjectArray values)
+{
+    Table* table = TBL(nativeTablePtr);
+    jsize count = env->GetArrayLength(values);
+    if (!bulk_set_valid(env, table, columnIndex, startRow, count, NULL, type_String))
+        return;
+    try {
+        size_t col = S(columnIndex);
+        bool nullable = table->is_nullable(col);
+        for (jsize i = 0; i < count; ++i) {
+            jstring value = static_cast<jstring>(env->GetObjectArrayElement(values, i));
+            if (value == NULL && !nullable) {
+                ThrowException(env, IllegalArgument, "Trying to set a non-nullable field to null.");
+                return;
+            }
+            JStringAccessor accessor(env, value); // throws
+            table->set_string(col, S(startRow) + i, accessor);
+            env->DeleteLocalRef(value);
+        }
+    } CATCH_STD()
+}
+
+// Batched primary key lookup used by insertOrUpdate() of a collection. The keys are resolved in sorted order, so the
+// lookups walk the search index of the primary key column in order and equal keys share a row. A row is added for
+// every key not found. Rows are added one by one as empty rows would otherwise share the default key and violate
+// its uniqueness. The row of every key is returned in the order of the keys.
+
+template <typename Key, typename Find, typename SetUnique>
+static jlongArray find_or_add_rows(JNIEnv* env, Table* table, size_t col, const std::vector<Key>& keys,
+                                   const std::vector<jboolean>& is_null, Find find, SetUnique set_unique)
+{
+    size_t count = keys.size();
+    auto null_at = [&is_null](size_t i) {
+        return !is_null.empty() && is_null[i];
+    };
+    auto equal = [&](size_t a, size_t b) {
+        return (null_at(a) || null_at(b)) ? null_at(a) && null_at(b) : keys[a] == keys[b];
+    };
+    std::vector<size_t> order(count);
+    for (size_t i = 0; i < count; ++i) {
+        order[i] = i;
+    }
+    std::sort(order.begin(), order.end(), [&](size_t a, size_t b) {
+        if (null_at(a) || null_at(b)) {
+            return null_at(a) && !null_at(b);
+        }
+        return keys[a] < keys[b];
+    });
+
+    std::vector<jlong> rows(count);
+    size_t begin = 0;
+    while (begin < count) {
+        size_t first = order[begin];
+        size_t end = begin + 1;
+        while (end < count && equal(first, order[end])) {
+            ++end;
+        }
+        size_t row = null_at(first) ? table->find_first_null(col) : find(keys[first]);
+        if (row == realm::not_found) {
+            row = table->add_empty_row();
+            if (null_at(first)) {
+                table->set_null(col, row);
+            }
+            else {
+                set_unique(row, keys[first]);
+            }
+        }
+        for (size_t i = begin; i < end; ++i) {
+            rows[order[i]] = static_cast<jlong>(row);
+        }
+        begin = end;
+    }
+
+    jlongArray result = env->NewLongArray(static_cast<jsize>(count));
+    if (result == NULL) {
+        ThrowException(env, OutOfMemory, "Could not allocate the row indices.");
+        return NULL;
+    }
+    env->SetLongArrayRegion(result, 0, static_cast<jsize>(count), rows.data());
+    return result;
+}
+
+JNIEXPORT jlongArray JNICALL Java_io_realm_internal_Table_nativeFindOrAddRowsWithLongPrimaryKeys(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlongArray keys, jbooleanArray nulls)
+{
+    Table* table = TBL(nativeTablePtr);
+    if (!TBL_AND_COL_INDEX_AND_TYPE_VALID(env, table, columnIndex, type_Int))
+        return NULL;
+    jsize count = env->GetArrayLength(keys);
+    if (nulls != NULL && env->GetArrayLength(nulls) != count) {
+        ThrowException(env, IllegalArgument, "The number of null flags must match the number of keys.");
+        return NULL;
+    }
+    try {
+        std::vector<jlong> buffer(S(count));
+        env->GetLongArrayRegion(keys, 0, count, buffer.data());
+        std::vector<jboolean> is_null;
+        if (nulls != NULL) {
+            is_null.resize(S(count));
+            env->GetBooleanArrayRegion(nulls, 0, count, is_null.data());
+            if (std::find(is_null.begin(), is_null.end(), JNI_TRUE) != is_null.end()
+                    && !TBL_AND_COL_NULLABLE(env, table, columnIndex)) {
+                return NULL;
+            }
+        }
+        size_t col = S(columnIndex);
+        return find_or_add_rows(env, table, col, buffer, is_null,
+            [table, col](jlong key) {
+                return table->find_first_int(col, key);
+            },
+            [table, col](size_t row, jlong key) {
+                table->set_int_unique(col, row, key);
+            });
+    } CATCH_STD()
+    return NULL;
+}
+
+JNIEXPORT jlongArray JNICALL Java_io_realm_internal_Table_nativeFindOrAddRowsWithStringPrimaryKeys(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jobjectArray keys)
+{
+    Table* table = TBL(nativeTablePtr);
+    if (!TBL_AND_COL_INDEX_AND_TYPE_VALID(env, table, columnIndex, type_String))
+        return NULL;
+    try {
+        jsize count = env->GetArrayLength(keys);
+        std::vector<std::string> buffer(S(count));
+        std::vector<jboolean> is_null;
+        for (jsize i = 0; i < count; ++i) {
+            jstring key = static_cast<jstring>(env->GetObjectArrayElement(keys, i));
+            if (key == NULL) {
+                if (!TBL_AND_COL_NULLABLE(env, table, columnIndex)) {
+                    return NULL;
+                }
+                if (is_null.empty()) {
+                    is_null.resize(S(count), JNI_FALSE);
+                }
+                is_null[S(i)] = JNI_TRUE;
+            }
+            else {
+                buffer[S(i)] = JStringAccessor(env, key); // throws
+                env->DeleteLocalRef(key);
+            }
+        }
+        size_t col = S(columnIndex);
+        return find_or_add_rows(env, table, col, buffer, is_null,
+            [table, col](const std::string& key) {
+                return table->find_first_string(col, StringData(key));
+            },
+            [table, col](size_t row, const std::string& key) {
+                table->set_string_unique(col, row, StringData(key));
+            });
+    } CATCH_STD()
+    return NULL;
+}
+
+// Removes the row of every given primary key found in the table. The keys are looked up one at a time right before
+// their row is removed, as removing a row can move another one. Returns the number of rows removed.
+
+template <typename Find>
+static jlong remove_rows(Table* table, size_t count, bool ordered, Find find)
+{
+    jlong removed = 0;
+    for (size_t i = 0; i < count; ++i) {
+        size_t row = find(i);
+        if (row == realm::not_found) {
+            continue;
+        }
+        if (ordered) {
+            table->remove(row);
+        }
+        else {
+            table->move_last_over(row);
+        }
+        ++removed;
+    }
+    return removed;
+}
+
+JNIEXPORT jlong JNICALL Java_io_realm_internal_Table_nativeRemoveRowsWithLongPrimaryKeys(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlongArray keys, jboolean ordered)
+{
+    Table* table = TBL(nativeTablePtr);
+    if (!TBL_AND_COL_INDEX_AND_TYPE_VALID(env, table, columnIndex, type_Int))
+        return 0;
+    try {
+        jsize count = env->GetArrayLength(keys);
+        std::vector<jlong> buffer(S(count));
+        env->GetLongArrayRegion(keys, 0, count, buffer.data());
+        size_t col = S(columnIndex);
+        return remove_rows(table, buffer.size(), ordered == JNI_TRUE, [table, col, &buffer](size_t i) {
+            return table->find_first_int(col, buffer[i]);
+        });
+    } CATCH_STD()
+    return 0;
+}
+
+JNIEXPORT jlong JNICALL Java_io_realm_internal_Table_nativeRemoveRowsWithStringPrimaryKeys(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jobjectArray keys, jboolean ordered)
+{
+    Table* table = TBL(nativeTablePtr);
+    if (!TBL_AND_COL_INDEX_AND_TYPE_VALID(env, table, columnIndex, type_String))
+        return 0;
+    try {
+        jsize count = env->GetArrayLength(keys);
+        std::vector<std::string> buffer(S(count));
+        std::vector<bool> is_null(S(count), false);
+        for (jsize i = 0; i < count; ++i) {
+            jstring key = static_cast<jstring>(env->GetObjectArrayElement(keys, i));
+            if (key == NULL) {
+                is_null[S(i)] = true;
+            }
+            else {
+                buffer[S(i)] = JStringAccessor(env, key); // throws
+                env->DeleteLocalRef(key);
+            }
+        }
+        size_t col = S(columnIndex);
+        return remove_rows(table, buffer.size(), ordered == JNI_TRUE, [table, col, &buffer, &is_null](size_t i) {
+            return is_null[i] ? table->find_first_null(col) : table->find_first_string(col, StringData(buffer[i]));
+        });
+    } CATCH_STD()
+    return 0;
+}
+
 JNIEXPORT jlong JNICALL Java_io_realm_internal_Table_nativeGetRowPtr
   (JNIEnv* env, jobject, jlong nativeTablePtr, jlong index)
 {
@@ -1259,6 +1813,97 @@ JNIEXPORT jlong JNICALL Java_io_realm_internal_Table_nativeUpperBoundInt(
     return 0;
 }
 
+// Columns named by @OrderedBy hold non-decreasing values, which makes binary search possible. Timestamps are
+// compared in milliseconds as that is the precision of java.util.Date.
+
+static jlong ordered_value(const Table& table, size_t col, size_t row)
+{
+    if (table.get_column_type(col) == type_Timestamp) {
+        return to_milliseconds(table.get_timestamp(col, row));
+    }
+    return table.get_int(col, row);
+}
+
+// Index of the first row with a value greater than (upper) or not less than (!upper) the given value
+static size_t ordered_bound(const Table& table, size_t col, jlong value, bool upper)
+{
+    size_t low = 0;
+    size_t high = table.size();
+    while (low < high) {
+        size_t middle = low + (high - low) / 2;
+        jlong current = ordered_value(table, col, middle);
+        if (upper ? current <= value : current < value) {
+            low = middle + 1;
+        }
+        else {
+            high = middle;
+        }
+    }
+    return low;
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeCheckOrder(
+    JNIEnv* env, jclass, jlong nativeTablePtr, jlong columnIndex, jlong rowIndex, jlong value)
+{
+    Table* table = TBL(nativeTablePtr);
+    if (!TBL_AND_INDEX_VALID(env, table, columnIndex, rowIndex))
+        return;
+    try {
+        size_t col = S(columnIndex);
+        size_t row = S(rowIndex);
+        if (row > 0 && value < ordered_value(*table, col, row - 1)) {
+            std::ostringstream ss;
+            ss << "Field '" << table->get_column_name(col) << "' must be ordered: " << value
+               << " is less than " << ordered_value(*table, col, row - 1) << " of the previous object.";
+            ThrowException(env, IllegalArgument, ss.str());
+            return;
+        }
+        if (row + 1 < table->size() && value > ordered_value(*table, col, row + 1)) {
+            std::ostringstream ss;
+            ss << "Field '" << table->get_column_name(col) << "' must be ordered: " << value
+               << " is greater than " << ordered_value(*table, col, row + 1) << " of the next object.";
+            ThrowException(env, IllegalArgument, ss.str());
+        }
+    } CATCH_STD()
+}
+
+JNIEXPORT jlong JNICALL Java_io_realm_internal_Table_nativeFindOrderedBound(
+    JNIEnv* env, jobject, jlong nativeTablePtr, jlong columnIndex, jlong value, jboolean upper)
+{
+    Table* table = TBL(nativeTablePtr);
+    if (!TBL_AND_COL_INDEX_VALID(env, table, columnIndex))
+        return 0;
+    try {
+        return static_cast<jlong>(ordered_bound(*table, S(columnIndex), value, upper != 0));
+    } CATCH_STD()
+    return 0;
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_Table_nativeRemoveFirstRows(
+    JNIEnv* env, jobject, jlong nativeTablePtr, jlong count)
+{
+    Table* table = TBL(nativeTablePtr);
+    if (!TABLE_VALID(env, table))
+        return;
+    try {
+        if (S(count) >= table->size()) {
+            table->clear();
+            return;
+        }
+        // Core has no ordered removal of a range, and removing each row in order shifts all rows after it. Instead
+        // every remaining row is swapped into place, which moves the removed rows to the end of the table where they
+        // are removed without shifting anything. The remaining rows keep their order.
+        size_t removed = S(count);
+        size_t size = table->size();
+        for (size_t row = 0; row + removed < size; ++row) {
+            table->swap_rows(row, row + removed);
+        }
+        for (size_t row = size; row > size - removed; --row) {
+            table->remove(row - 1);
+        }
+    } CATCH_STD()
+}
+
 //
 
 JNIEXPORT jlong JNICALL Java_io_realm_internal_Table_nativeGetDistinctView(
@@ -1289,6 +1934,30 @@ JNIEXPORT jlong JNICALL Java_io_realm_internal_Table_nativeGetDistinctView(
     return 0;
 }
 
+JNIEXPORT jlong JNICALL Java_io_realm_internal_Table_nativeGetBacklinkView(
+    JNIEnv* env, jobject, jlong nativeTablePtr, jlong rowIndex, jlong srcTablePtr, jlong srcColumnIndex)
+{
+    Table* pTable = TBL(nativeTablePtr);
+    Table* pSrcTable = TBL(srcTablePtr);
+    if (!TBL_AND_ROW_INDEX_VALID(env, pTable, rowIndex) || !TBL_AND_COL_INDEX_VALID(env, pSrcTable, srcColumnIndex)) {
+        return 0;
+    }
+    DataType type = pSrcTable->get_column_type(S(srcColumnIndex));
+    if (type != type_Link && type != type_LinkList) {
+        ThrowException(env, IllegalArgument, "Backlinks can only be followed for Object or List fields.");
+        return 0;
+    }
+    if (pSrcTable->get_link_target(S(srcColumnIndex)).get() != pTable) {
+        ThrowException(env, IllegalArgument, "The field does not link to this class.");
+        return 0;
+    }
+    try {
+        TableView* pTableView = new TableView(pTable->get_backlink_view(S(rowIndex), pSrcTable, S(srcColumnIndex)));
+        return reinterpret_cast<jlong>(pTableView);
+    } CATCH_STD()
+    return 0;
+}
+
 
 JNIEXPORT jlong JNICALL Java_io_realm_internal_Table_nativeGetSortedViewMulti(
    JNIEnv *env, jobject, jlong nativeTablePtr, jlongArray columnIndices, jbooleanArray ascending)
@@ -1356,6 +2025,18 @@ JNIEXPORT jstring JNICALL Java_io_realm_internal_Table_nativeGetName(
     return NULL;
 }
 
+JNIEXPORT jlong JNICALL Java_io_realm_internal_Table_nativeGetIndexInGroup(
+    JNIEnv *env, jobject, jlong nativeTablePtr)
+{
+    try {
+        Table* table = TBL(nativeTablePtr);
+        if (!TABLE_VALID(env, table))
+            return 0;
+        return static_cast<jlong>(table->get_index_in_group());
+    } CATCH_STD()
+    return 0;
+}
+
 
 JNIEXPORT jstring JNICALL Java_io_realm_internal_Table_nativeToJson(
     JNIEnv *env, jobject, jlong nativeTablePtr)
@@ -14,8 +14,18 @@
  * limitations under the License.
  */
 
+#include <algorithm>
+#include <cmath>
+#include <cstring>
+#include <limits>
+#include <map>
+#include <stdexcept>
+#include <vector>
+
 #include <realm.hpp>
 #include <realm/group_shared.hpp>
+#include <realm/lang_bind_helper.hpp>
+#include <realm/impl/transact_log.hpp>
 #include <shared_realm.hpp>
 #include <object_store.hpp>
 #include "util.hpp"
@@ -65,12 +75,56 @@ JNIEXPORT jstring JNICALL Java_io_realm_internal_TableQuery_nativeValidateQuery
 
 // helper functions
 
+// Must match TableQuery.BACKLINK_PATH_ELEMENT. A backlink is encoded as the marker followed by the
+// index in the group of the table holding the links and the link column index in that table.
+static const jlong BACKLINK_PATH_ELEMENT = -2;
+
+// Resolves the table holding the links of a backlink path element in the group of the queried table
+static TableRef getBacklinkOriginTable(const Table& table, jlong origin_table_ndx) {
+    Group* group = _impl::TableFriend::get_parent_group(table);
+    if (!group) {
+        throw std::logic_error("Backlinks can only be queried on tables of a group.");
+    }
+    return group->get_table(size_t(origin_table_ndx));
+}
+
+// Must match TableQuery.AGGREGATE_PATH_ELEMENT and the TableQuery.AGGREGATE_* kinds. An aggregate over a list ends
+// the path and is encoded as the marker followed by the kind, the list column index and, except for counts, the
+// column index of the aggregated field in the target table.
+static const jlong AGGREGATE_PATH_ELEMENT = -3;
+static const jlong AGGREGATE_SUM = 0;
+static const jlong AGGREGATE_MIN = 1;
+static const jlong AGGREGATE_MAX = 2;
+static const jlong AGGREGATE_AVERAGE = 3;
+static const jlong AGGREGATE_COUNT = 4;
+
+// Return the position of the aggregate marker in the path or -1 if the path has no aggregate
+static jsize findAggregatePathElement(JniLongArray& indicesArray) {
+    jsize len = indicesArray.len();
+    for (jsize i = 0; i < len; i++) {
+        if (indicesArray[i] == BACKLINK_PATH_ELEMENT) {
+            i += 2;
+        }
+        else if (indicesArray[i] == AGGREGATE_PATH_ELEMENT) {
+            return i;
+        }
+    }
+    return -1;
+}
+
 // Return TableRef used for build link queries
 static TableRef getTableForLinkQuery(jlong nativeQueryPtr, JniLongArray& indicesArray) {
     TableRef table_ref = Q(nativeQueryPtr)->get_table();
-    jsize link_element_count = indicesArray.len() - 1;
+    jsize aggregate_pos = findAggregatePathElement(indicesArray);
+    jsize link_element_count = aggregate_pos < 0 ? indicesArray.len() - 1 : aggregate_pos;
     for (int i = 0; i < link_element_count; i++) {
-        table_ref->link(size_t(indicesArray[i]));
+        if (indicesArray[i] == BACKLINK_PATH_ELEMENT) {
+            table_ref->backlink(*getBacklinkOriginTable(*table_ref, indicesArray[i + 1]), size_t(indicesArray[i + 2]));
+            i += 2;
+        }
+        else {
+            table_ref->link(size_t(indicesArray[i]));
+        }
     }
     return table_ref;
 }
@@ -78,9 +132,16 @@ static TableRef getTableForLinkQuery(jlong nativeQueryPtr, JniLongArray& indices
 // Return TableRef point to original table or the link table
 static TableRef getTableByArray(jlong nativeQueryPtr, JniLongArray& indicesArray) {
     TableRef table_ref = Q(nativeQueryPtr)->get_table();
-    jsize link_element_count = indicesArray.len() - 1;
+    jsize aggregate_pos = findAggregatePathElement(indicesArray);
+    jsize link_element_count = aggregate_pos < 0 ? indicesArray.len() - 1 : aggregate_pos;
     for (int i = 0; i < link_element_count; i++) {
-        table_ref = table_ref->get_link_target(size_t(indicesArray[i]));
+        if (indicesArray[i] == BACKLINK_PATH_ELEMENT) {
+            table_ref = getBacklinkOriginTable(*table_ref, indicesArray[i + 1]);
+            i += 2;
+        }
+        else {
+            table_ref = table_ref->get_link_target(size_t(indicesArray[i]));
+        }
     }
     return table_ref;
 }
@@ -234,6 +295,551 @@ static jlong findAllMultiSortedWithHandover
     return reinterpret_cast<jlong>(handover.release());
 }
 
+// Sorts the results by the (possibly empty) sort columns and then removes duplicates of the distinct columns, keeping
+// the first object of each combination in sort order.
+static jlong findAllSortedDistinctWithHandover
+        (JNIEnv *env, jlong bgSharedRealmPtr, std::unique_ptr<Query> query, jlongArray sortColumnIndices,
+         jbooleanArray ascending, jlongArray distinctColumnIndices)
+{
+    JniLongArray sort_arr(env, sortColumnIndices);
+    JniBooleanArray asc_arr(env, ascending);
+    JniLongArray distinct_arr(env, distinctColumnIndices);
+    jsize sort_len = sort_arr.len();
+    jsize distinct_len = distinct_arr.len();
+
+    if (distinct_len == 0) {
+        ThrowException(env, IllegalArgument, "You must provide at least one field name.");
+        return 0;
+    }
+    if (sort_len != asc_arr.len()) {
+        ThrowException(env, IllegalArgument, "Number of fields and sort orders do not match.");
+        return 0;
+    }
+
+    TableRef table = query->get_table();
+    if (!QUERY_VALID(env, query.get())) {
+        return 0;
+    }
+
+    std::vector<std::vector<size_t>> sort_columns;
+    std::vector<bool> sort_ascendings;
+    for (int i = 0; i < sort_len; ++i) {
+        if (!COL_INDEX_VALID(env, table.get(), sort_arr[i])) {
+            return 0;
+        }
+        switch (table->get_column_type(S(sort_arr[i]))) {
+            case type_Bool:
+            case type_Int:
+            case type_Float:
+            case type_Double:
+            case type_String:
+            case type_Timestamp:
+                sort_columns.push_back(std::vector<size_t> { S(sort_arr[i]) });
+                sort_ascendings.push_back(B(asc_arr[i]));
+                break;
+            default:
+                ThrowException(env, IllegalArgument, ERR_SORT_NOT_SUPPORTED);
+                return 0;
+        }
+    }
+
+    std::vector<std::vector<size_t>> distinct_columns;
+    std::vector<bool> distinct_ascendings;
+    for (int i = 0; i < distinct_len; ++i) {
+        if (!COL_INDEX_VALID(env, table.get(), distinct_arr[i])) {
+            return 0;
+        }
+        if (!table->has_search_index(S(distinct_arr[i]))) {
+            ThrowException(env, IllegalArgument, "The field must be indexed before distinct(...) can be used.");
+            return 0;
+        }
+        switch (table->get_column_type(S(distinct_arr[i]))) {
+            case type_Bool:
+            case type_Int:
+            case type_String:
+            case type_Timestamp:
+                distinct_columns.push_back(std::vector<size_t> { S(distinct_arr[i]) });
+                distinct_ascendings.push_back(true);
+                break;
+            default:
+                ThrowException(env, IllegalArgument, "Invalid type - Only String, Date, boolean, byte, short, int, long and their boxed variants are supported.");
+                return 0;
+        }
+    }
+
+    // run the query, sort and distinct in one pass on this thread
+    TableView tableView(query->find_all());
+    if (!sort_columns.empty()) {
+        tableView.sort(SortDescriptor(*table, sort_columns, sort_ascendings));
+    }
+    tableView.distinct(SortDescriptor(*table, distinct_columns, distinct_ascendings));
+
+    // handover the result
+    auto sharedRealm = *(reinterpret_cast<SharedRealm*>(bgSharedRealmPtr));
+    using rf = realm::_impl::RealmFriend;
+    auto handover = rf::get_shared_group(*sharedRealm).export_for_handover(tableView, MutableSourcePayload::Move);
+    return reinterpret_cast<jlong>(handover.release());
+}
+
+// Top-k support. The k first rows of a sorted query are found by selecting the k-th value of the sort column with
+// std::nth_element, which is linear in the number of matches, and narrowing the query to the rows on the right
+// side of that value before sorting. Only the narrowed rows are sorted and a re-run of the view only returns them.
+// Rows with a null value are never part of the top k.
+//
+// The threshold of the previous run can be passed as a hint. If at least k rows are on the right side of it, the
+// top k are among them, so only those rows need to be examined. This is the common case when a commit only inserted
+// rows, as the threshold can then only have moved in one direction.
+
+template <typename T> static T topk_get(const Table& table, size_t col, size_t row);
+template <> int64_t topk_get<int64_t>(const Table& table, size_t col, size_t row) { return table.get_int(col, row); }
+template <> float topk_get<float>(const Table& table, size_t col, size_t row) { return table.get_float(col, row); }
+template <> double topk_get<double>(const Table& table, size_t col, size_t row) { return table.get_double(col, row); }
+template <> Timestamp topk_get<Timestamp>(const Table& table, size_t col, size_t row) { return table.get_timestamp(col, row); }
+
+// Thresholds are passed to and from Java as opaque bits in a jlong, Timestamps as milliseconds
+template <typename T> static jlong topk_encode(T value)
+{
+    static_assert(sizeof(T) <= sizeof(jlong), "Value does not fit in a jlong");
+    jlong bits = 0;
+    std::memcpy(&bits, &value, sizeof(T));
+    return bits;
+}
+template <> jlong topk_encode<Timestamp>(Timestamp value) { return to_milliseconds(value); }
+
+template <typename T> static T topk_decode(jlong bits)
+{
+    T value;
+    std::memcpy(&value, &bits, sizeof(T));
+    return value;
+}
+template <> Timestamp topk_decode<Timestamp>(jlong bits) { return from_milliseconds(bits); }
+
+template <typename T>
+static Query topk_narrow(const Query& query, size_t col, bool ascending, T threshold)
+{
+    Query narrowed(query);
+    if (ascending) {
+        narrowed.less_equal(col, threshold);
+    }
+    else {
+        narrowed.greater_equal(col, threshold);
+    }
+    return narrowed;
+}
+
+template <typename T>
+static TableView topk_find(Query& query, size_t col, bool ascending, size_t k, jlong* hint, bool* has_hint)
+{
+    const Table& table = *query.get_table();
+    TableView candidates;
+    if (*has_hint) {
+        candidates = topk_narrow(query, col, ascending, topk_decode<T>(*hint)).find_all();
+    }
+    if (!*has_hint || candidates.size() < k) {
+        candidates = query.find_all();
+    }
+
+    std::vector<T> values;
+    values.reserve(candidates.size());
+    for (size_t i = 0; i < candidates.size(); ++i) {
+        size_t row = candidates.get_source_ndx(i);
+        if (!table.is_null(col, row)) {
+            values.push_back(topk_get<T>(table, col, row));
+        }
+    }
+    if (values.empty() || k == 0) {
+        *has_hint = false;
+        return query.find_all(0, 0, 0);
+    }
+
+    size_t nth = std::min(k, values.size()) - 1;
+    if (ascending) {
+        std::nth_element(values.begin(), values.begin() + nth, values.end());
+    }
+    else {
+        std::nth_element(values.begin(), values.begin() + nth, values.end(), std::greater<T>());
+    }
+    T threshold = values[nth];
+    if (values.size() <= k) {
+        // All rows qualify, so the threshold is the last value in sort order
+        threshold = ascending ? *std::max_element(values.begin(), values.end())
+                              : *std::min_element(values.begin(), values.end());
+    }
+    *hint = topk_encode<T>(threshold);
+    *has_hint = true;
+
+    TableView tableView(topk_narrow(query, col, ascending, threshold).find_all());
+    tableView.sort(col, ascending);
+    return tableView;
+}
+
+// Returns the sorted view of the k first rows, ties at the k-th value included. hint is in/out, see above.
+static TableView findTopK(JNIEnv* env, Query* query, jlong columnIndex, jboolean ascending, jlong k,
+                          jlong* hint, bool* has_hint)
+{
+    TableRef table = query->get_table();
+    if (k < 0) {
+        ThrowException(env, IllegalArgument, "'k' must not be negative.");
+        return TableView();
+    }
+    size_t col = S(columnIndex);
+    bool asc = ascending != 0;
+    switch (table->get_column_type(col)) {
+        case type_Int:
+            return topk_find<int64_t>(*query, col, asc, S(k), hint, has_hint);
+        case type_Float:
+            return topk_find<float>(*query, col, asc, S(k), hint, has_hint);
+        case type_Double:
+            return topk_find<double>(*query, col, asc, S(k), hint, has_hint);
+        case type_Timestamp:
+            return topk_find<Timestamp>(*query, col, asc, S(k), hint, has_hint);
+        default:
+            ThrowException(env, IllegalArgument, "Top-k queries are only supported on integer, float, double and date fields.");
+            return TableView();
+    }
+}
+
+static jlong findTopKWithHandover(JNIEnv* env, jlong bgSharedRealmPtr, std::unique_ptr<Query> query,
+                                  jlong columnIndex, jboolean ascending, jlong k, jlong* hint, bool* has_hint)
+{
+    TableRef table = query->get_table();
+    if (!QUERY_VALID(env, query.get()) || !TBL_AND_COL_INDEX_VALID(env, table.get(), columnIndex)) {
+        return 0;
+    }
+
+    TableView tableView(findTopK(env, query.get(), columnIndex, ascending, k, hint, has_hint));
+    if (env->ExceptionCheck()) {
+        return 0;
+    }
+
+    // handover the result
+    auto sharedRealm = *(reinterpret_cast<SharedRealm*>(bgSharedRealmPtr));
+    using rf = realm::_impl::RealmFriend;
+    auto handover = rf::get_shared_group(*sharedRealm).export_for_handover(tableView, MutableSourcePayload::Move);
+    return reinterpret_cast<jlong>(handover.release());
+}
+
+// Aggregation by date interval. A bucket holds the rows whose date falls in [start, start + interval), where start
+// is a multiple of the interval since the epoch. first and last are the values of the rows with the earliest and
+// latest date in the bucket, the table order decides on ties.
+struct IntervalBucket {
+    jlong count;
+    double min;
+    double max;
+    double sum;
+    double first;
+    double last;
+    jlong first_ms;
+    jlong last_ms;
+};
+
+static double interval_value(const Table& table, size_t col, DataType type, size_t row)
+{
+    switch (type) {
+        case type_Int:
+            return double(table.get_int(col, row));
+        case type_Float:
+            return double(table.get_float(col, row));
+        default:
+            return table.get_double(col, row);
+    }
+}
+
+static jlong interval_bits(double value)
+{
+    jlong bits;
+    std::memcpy(&bits, &value, sizeof(bits));
+    return bits;
+}
+
+// Only the buckets starting at fromMillis or later are computed, unless it is Long.MIN_VALUE. The result is [first
+// bucket start computed or Long.MIN_VALUE, followed by start, count, min, max, sum, first and last for each bucket in
+// date order]. Values are returned as double bits.
+static jlongArray aggregateByInterval(JNIEnv* env, Query* query, jlong dateColumnIndex, jlong valueColumnIndex,
+                                      jlong intervalMillis, jlong fromMillis)
+{
+    TableRef table = query->get_table();
+    if (!QUERY_VALID(env, query) ||
+        !COL_INDEX_AND_TYPE_VALID(env, table.get(), dateColumnIndex, type_Timestamp) ||
+        !TBL_AND_COL_INDEX_VALID(env, table.get(), valueColumnIndex)) {
+        return nullptr;
+    }
+    size_t date_col = S(dateColumnIndex);
+    size_t value_col = S(valueColumnIndex);
+    DataType value_type = table->get_column_type(value_col);
+    if (value_type != type_Int && value_type != type_Float && value_type != type_Double) {
+        ThrowException(env, IllegalArgument, "Only integer, float and double fields can be aggregated by interval.");
+        return nullptr;
+    }
+    if (intervalMillis <= 0) {
+        ThrowException(env, IllegalArgument, "The interval must be positive.");
+        return nullptr;
+    }
+
+    Query rows(*query);
+    if (fromMillis != std::numeric_limits<jlong>::min()) {
+        rows.greater_equal(date_col, from_milliseconds(fromMillis));
+    }
+
+    TableView view(rows.find_all());
+    std::map<jlong, IntervalBucket> buckets;
+    for (size_t i = 0; i < view.size(); ++i) {
+        size_t row = view.get_source_ndx(i);
+        if (table->is_null(date_col, row) || table->is_null(value_col, row)) {
+            continue;
+        }
+        jlong millis = to_milliseconds(table->get_timestamp(date_col, row));
+        double value = interval_value(*table, value_col, value_type, row);
+        jlong key = millis / intervalMillis;
+        if (millis % intervalMillis != 0 && millis < 0) {
+            --key;
+        }
+        auto it = buckets.find(key);
+        if (it == buckets.end()) {
+            buckets.emplace(key, IntervalBucket{1, value, value, value, value, value, millis, millis});
+            continue;
+        }
+        IntervalBucket& bucket = it->second;
+        ++bucket.count;
+        bucket.min = std::min(bucket.min, value);
+        bucket.max = std::max(bucket.max, value);
+        bucket.sum += value;
+        if (millis < bucket.first_ms) {
+            bucket.first_ms = millis;
+            bucket.first = value;
+        }
+        if (millis >= bucket.last_ms) {
+            bucket.last_ms = millis;
+            bucket.last = value;
+        }
+    }
+
+    const size_t stride = 7;
+    std::vector<jlong> result;
+    result.reserve(1 + buckets.size() * stride);
+    result.push_back(fromMillis);
+    for (auto& entry : buckets) {
+        const IntervalBucket& bucket = entry.second;
+        result.push_back(entry.first * intervalMillis);
+        result.push_back(bucket.count);
+        result.push_back(interval_bits(bucket.min));
+        result.push_back(interval_bits(bucket.max));
+        result.push_back(interval_bits(bucket.sum));
+        result.push_back(interval_bits(bucket.first));
+        result.push_back(interval_bits(bucket.last));
+    }
+
+    jlongArray array = env->NewLongArray(static_cast<jsize>(result.size()));
+    if (array == nullptr) {
+        ThrowException(env, OutOfMemory, "Could not allocate memory to return the aggregated buckets.");
+        return nullptr;
+    }
+    env->SetLongArrayRegion(array, 0, static_cast<jsize>(result.size()), result.data());
+    return array;
+}
+
+// Tables of materialized views, see Table.VIEW_TABLE_PREFIX. Changes to them never affect a query.
+static const char* const VIEW_TABLE_PREFIX = "view_";
+
+// Collects the changes to the source table of an interval aggregation between the version the buckets were computed
+// at and the current one. The buckets before fromMillis can only be reused if no row dated before it was inserted,
+// modified or removed. As the log doesn't hold the previous values, this is decided conservatively: only appending
+// rows and modifying rows which were dated fromMillis or later is allowed, and both must leave the rows dated
+// fromMillis or later.
+class IntervalChangeCollector : public _impl::NullInstructionObserver {
+public:
+    bool needs_rebuild = false;
+    bool other_tables_changed = false;
+
+    // Must be created at the version the buckets were computed at
+    IntervalChangeCollector(Group& group, size_t source_ndx, size_t date_col, jlong from_millis)
+        : m_group(group)
+        , m_source_ndx(source_ndx)
+        , m_date_col(date_col)
+        , m_from(from_milliseconds(from_millis))
+    {
+        if (source_ndx >= group.size()) {
+            needs_rebuild = true;
+            return;
+        }
+        TableRef table = group.get_table(source_ndx);
+        if (date_col >= table->get_column_count() || table->get_column_type(date_col) != type_Timestamp) {
+            needs_rebuild = true;
+            return;
+        }
+        m_old_size = table->size();
+        TableView tail(table->where().greater_equal(date_col, m_from).find_all());
+        m_tail_rows.reserve(tail.size());
+        for (size_t i = 0; i < tail.size(); ++i) {
+            m_tail_rows.push_back(tail.get_source_ndx(i));
+        }
+        std::sort(m_tail_rows.begin(), m_tail_rows.end());
+    }
+
+    // Checks the rows which were appended or modified, must be called at the current version
+    bool can_reuse_earlier_buckets(const Table& table, bool depends_on_other_tables) const
+    {
+        if (needs_rebuild || (depends_on_other_tables && other_tables_changed)) {
+            return false;
+        }
+        for (size_t row : m_modified_rows) {
+            if (dated_before(table, row)) {
+                return false;
+            }
+        }
+        for (size_t row = m_old_size; row < table.size(); ++row) {
+            if (dated_before(table, row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    bool select_table(size_t group_level_ndx, int levels, const size_t*)
+    {
+        if (levels == 0 && group_level_ndx == m_source_ndx) {
+            m_selected = Selected::Source;
+        }
+        else if (levels == 0 && group_level_ndx < m_group.size() &&
+                 m_group.get_table_name(group_level_ndx).begins_with(VIEW_TABLE_PREFIX)) {
+            m_selected = Selected::View;
+        }
+        else {
+            m_selected = Selected::Other;
+        }
+        return true;
+    }
+
+    bool insert_group_level_table(size_t table_ndx, size_t, StringData)
+    {
+        // New tables are appended, anything else shifts the index of the source table
+        if (table_ndx <= m_source_ndx) {
+            needs_rebuild = true;
+        }
+        return true;
+    }
+
+    template <class... Args> bool erase_group_level_table(Args...) { return rebuild(); }
+    template <class... Args> bool move_group_level_table(Args...) { return rebuild(); }
+
+    template <class... Args> bool insert_column(Args...) { return schema_changed(); }
+    template <class... Args> bool insert_link_column(Args...) { return schema_changed(); }
+    template <class... Args> bool erase_column(Args...) { return schema_changed(); }
+    template <class... Args> bool erase_link_column(Args...) { return schema_changed(); }
+    template <class... Args> bool move_column(Args...) { return schema_changed(); }
+
+    bool insert_empty_rows(size_t row_ndx, size_t, size_t prior_num_rows, bool)
+    {
+        // Inserting anywhere but at the end moves existing rows
+        if (m_selected == Selected::Source && row_ndx != prior_num_rows) {
+            needs_rebuild = true;
+        }
+        return other_changed();
+    }
+
+    bool erase_rows(size_t row_ndx, size_t, size_t, bool)
+    {
+        // Only rows appended since are at m_old_size or later, and removing them only moves other appended rows
+        if (m_selected == Selected::Source && row_ndx < m_old_size) {
+            needs_rebuild = true;
+        }
+        return other_changed();
+    }
+
+    template <class... Args> bool add_row_with_key(Args...) { return source_rebuild(); }
+    template <class... Args> bool swap_rows(Args...) { return source_rebuild(); }
+    template <class... Args> bool move_row(Args...) { return source_rebuild(); }
+    template <class... Args> bool merge_rows(Args...) { return source_rebuild(); }
+    template <class... Args> bool clear_table(Args...) { return source_rebuild(); }
+
+    template <class... Args> bool set_int(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool add_int(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_int_unique(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_bool(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_float(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_double(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_string(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_string_unique(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_binary(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_olddatetime(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_timestamp(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_table(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_mixed(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_link(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool set_null(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool nullify_link(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool insert_substring(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool erase_substring(size_t, size_t row, Args...) { return modified(row); }
+    template <class... Args> bool select_link_list(size_t, size_t row, Args...) { return modified(row); }
+
+    template <class... Args> bool link_list_set(Args...) { return other_changed(); }
+    template <class... Args> bool link_list_insert(Args...) { return other_changed(); }
+    template <class... Args> bool link_list_move(Args...) { return other_changed(); }
+    template <class... Args> bool link_list_swap(Args...) { return other_changed(); }
+    template <class... Args> bool link_list_erase(Args...) { return other_changed(); }
+    template <class... Args> bool link_list_nullify(Args...) { return other_changed(); }
+    template <class... Args> bool link_list_clear(Args...) { return other_changed(); }
+
+private:
+    enum class Selected { None, Source, View, Other };
+
+    Group& m_group;
+    const size_t m_source_ndx;
+    const size_t m_date_col;
+    const Timestamp m_from;
+    size_t m_old_size = 0;
+    // Rows dated fromMillis or later when the buckets were computed, sorted
+    std::vector<size_t> m_tail_rows;
+    // Rows of m_tail_rows modified since
+    std::vector<size_t> m_modified_rows;
+    Selected m_selected = Selected::None;
+
+    bool dated_before(const Table& table, size_t row) const
+    {
+        return !table.is_null(m_date_col, row) && table.get_timestamp(m_date_col, row) < m_from;
+    }
+
+    bool rebuild()
+    {
+        needs_rebuild = true;
+        return true;
+    }
+
+    bool source_rebuild()
+    {
+        if (m_selected == Selected::Source) {
+            needs_rebuild = true;
+        }
+        return other_changed();
+    }
+
+    bool schema_changed()
+    {
+        return m_selected == Selected::View ? true : rebuild();
+    }
+
+    bool modified(size_t row)
+    {
+        if (m_selected == Selected::Source && row < m_old_size) {
+            if (std::binary_search(m_tail_rows.begin(), m_tail_rows.end(), row)) {
+                m_modified_rows.push_back(row);
+            }
+            else {
+                needs_rebuild = true;
+            }
+        }
+        return other_changed();
+    }
+
+    bool other_changed()
+    {
+        if (m_selected == Selected::Other) {
+            other_tables_changed = true;
+        }
+        return true;
+    }
+};
+
 template <typename coretype, typename cpptype, typename javatype>
 Query numeric_link_equal(TableRef tbl, jlong columnIndex, javatype value) {
     return tbl->column<coretype>(size_t(columnIndex)) == cpptype(value);
@@ -264,6 +870,70 @@ Query numeric_link_lessequal(TableRef tbl, jlong columnIndex, javatype value) {
     return tbl->column<coretype>(size_t(columnIndex)) <= cpptype(value);
 }
 
+struct LinkEqual {
+    template <typename L, typename R> Query operator()(const L& left, R right) const { return left == right; }
+};
+struct LinkNotEqual {
+    template <typename L, typename R> Query operator()(const L& left, R right) const { return left != right; }
+};
+struct LinkGreater {
+    template <typename L, typename R> Query operator()(const L& left, R right) const { return left > right; }
+};
+struct LinkGreaterEqual {
+    template <typename L, typename R> Query operator()(const L& left, R right) const { return left >= right; }
+};
+struct LinkLess {
+    template <typename L, typename R> Query operator()(const L& left, R right) const { return left < right; }
+};
+struct LinkLessEqual {
+    template <typename L, typename R> Query operator()(const L& left, R right) const { return left <= right; }
+};
+
+template <typename coretype, typename cpptype, typename Op>
+Query link_list_aggregate(Columns<Link> list, size_t childColumnIndex, jlong kind, cpptype value, Op op) {
+    SubColumns<coretype> children = list.column<coretype>(childColumnIndex);
+    switch (kind) {
+        case AGGREGATE_SUM:
+            return op(children.sum(), value);
+        case AGGREGATE_MIN:
+            return op(children.min(), value);
+        case AGGREGATE_MAX:
+            return op(children.max(), value);
+        case AGGREGATE_AVERAGE:
+            return op(children.average(), value);
+        default:
+            throw std::invalid_argument("Unknown aggregate");
+    }
+}
+
+// Builds the condition for a numeric field at the end of a link path. The path may end with an aggregate over a
+// list, e.g. the sum of a field of all objects in the list, which is evaluated by the query engine for every row.
+template <typename coretype, typename cpptype, typename Op>
+Query numeric_link_compare(jlong nativeQueryPtr, TableRef tbl, JniLongArray& arr, cpptype value, Op op) {
+    jsize aggregate_pos = findAggregatePathElement(arr);
+    if (aggregate_pos < 0) {
+        return op(tbl->column<coretype>(S(arr[arr.len() - 1])), value);
+    }
+    jlong kind = arr[aggregate_pos + 1];
+    size_t list_col = S(arr[aggregate_pos + 2]);
+    Columns<Link> list = tbl->column<Link>(list_col);
+    if (kind == AGGREGATE_COUNT) {
+        return op(list.count(), value);
+    }
+    size_t child_col = S(arr[aggregate_pos + 3]);
+    TableRef target = getTableByArray(nativeQueryPtr, arr)->get_link_target(list_col);
+    switch (target->get_column_type(child_col)) {
+        case type_Int:
+            return link_list_aggregate<Int>(list, child_col, kind, value, op);
+        case type_Float:
+            return link_list_aggregate<Float>(list, child_col, kind, value, op);
+        case type_Double:
+            return link_list_aggregate<Double>(list, child_col, kind, value, op);
+        default:
+            throw std::invalid_argument("Aggregates are only supported on integer, float and double fields.");
+    }
+}
+
 
 // Integer
 
@@ -281,7 +951,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeEqual__J_3JJ(
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_equal<Int, int64_t, jlong>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Int>(nativeQueryPtr, table_ref, arr, int64_t(value), LinkEqual()));
         }
     } CATCH_STD()
 }
@@ -300,7 +970,7 @@ JNIEXPORT void JNICALL JNICALL Java_io_realm_internal_TableQuery_nativeNotEqual_
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_notequal<Int, int64_t, jlong>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Int>(nativeQueryPtr, table_ref, arr, int64_t(value), LinkNotEqual()));
         }
     } CATCH_STD()
 }
@@ -319,7 +989,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeGreater__J_3JJ(
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_greater<Int, int64_t, jlong>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Int>(nativeQueryPtr, table_ref, arr, int64_t(value), LinkGreater()));
         }
     } CATCH_STD()
 }
@@ -338,7 +1008,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeGreaterEqual__J_3
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_greaterequal<Int, int64_t, jlong>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Int>(nativeQueryPtr, table_ref, arr, int64_t(value), LinkGreaterEqual()));
         }
     } CATCH_STD()
 }
@@ -357,7 +1027,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeLess__J_3JJ(
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_less<Int, int64_t, jlong>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Int>(nativeQueryPtr, table_ref, arr, int64_t(value), LinkLess()));
         }
     } CATCH_STD()
 }
@@ -376,7 +1046,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeLessEqual__J_3JJ(
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_lessequal<Int, int64_t, jlong>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Int>(nativeQueryPtr, table_ref, arr, int64_t(value), LinkLessEqual()));
         }
     } CATCH_STD()
 }
@@ -415,7 +1085,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeEqual__J_3JF(
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_equal<Float, float, jfloat>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Float>(nativeQueryPtr, table_ref, arr, float(value), LinkEqual()));
         }
     } CATCH_STD()
 }
@@ -434,7 +1104,7 @@ JNIEXPORT void JNICALL JNICALL Java_io_realm_internal_TableQuery_nativeNotEqual_
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_notequal<Float, float, jfloat>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Float>(nativeQueryPtr, table_ref, arr, float(value), LinkNotEqual()));
         }
     } CATCH_STD()
 }
@@ -453,7 +1123,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeGreater__J_3JF(
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_greater<Float, float, jfloat>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Float>(nativeQueryPtr, table_ref, arr, float(value), LinkGreater()));
         }
     } CATCH_STD()
 }
@@ -472,7 +1142,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeGreaterEqual__J_3
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_greaterequal<Float, float, jfloat>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Float>(nativeQueryPtr, table_ref, arr, float(value), LinkGreaterEqual()));
         }
     } CATCH_STD()
 }
@@ -491,7 +1161,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeLess__J_3JF(
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_less<Float, float, jfloat>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Float>(nativeQueryPtr, table_ref, arr, float(value), LinkLess()));
         }
     } CATCH_STD()
 }
@@ -510,7 +1180,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeLessEqual__J_3JF(
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_lessequal<Float, float, jfloat>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Float>(nativeQueryPtr, table_ref, arr, float(value), LinkLessEqual()));
         }
     } CATCH_STD()
 }
@@ -550,7 +1220,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeEqual__J_3JD(
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_equal<Double, double, jdouble>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Double>(nativeQueryPtr, table_ref, arr, double(value), LinkEqual()));
         }
     } CATCH_STD()
 }
@@ -569,7 +1239,7 @@ JNIEXPORT void JNICALL JNICALL Java_io_realm_internal_TableQuery_nativeNotEqual_
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_notequal<Double, double, jdouble>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Double>(nativeQueryPtr, table_ref, arr, double(value), LinkNotEqual()));
         }
     } CATCH_STD()
 }
@@ -588,7 +1258,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeGreater__J_3JD(
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_greater<Double, double, jdouble>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Double>(nativeQueryPtr, table_ref, arr, double(value), LinkGreater()));
         }
     } CATCH_STD()
 }
@@ -607,7 +1277,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeGreaterEqual__J_3
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_greaterequal<Double, double, jdouble>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Double>(nativeQueryPtr, table_ref, arr, double(value), LinkGreaterEqual()));
         }
     } CATCH_STD()
 }
@@ -626,7 +1296,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeLess__J_3JD(
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_less<Double, double, jdouble>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Double>(nativeQueryPtr, table_ref, arr, double(value), LinkLess()));
         }
     } CATCH_STD()
 }
@@ -645,7 +1315,7 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeLessEqual__J_3JD(
         }
         else {
             TableRef table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
-            Q(nativeQueryPtr)->and_query(numeric_link_lessequal<Double, double, jdouble>(table_ref, arr[arr_len-1], value));
+            Q(nativeQueryPtr)->and_query(numeric_link_compare<Double>(nativeQueryPtr, table_ref, arr, double(value), LinkLessEqual()));
         }
     } CATCH_STD()
 }
@@ -1163,7 +1833,7 @@ JNIEXPORT jlong JNICALL Java_io_realm_internal_TableQuery_nativeFindAllWithHando
 
 
 // Should match the values in Java ArgumentsHolder class
-enum query_type {QUERY_TYPE_FIND_ALL = 0, QUERY_TYPE_DISTINCT = 4, QUERY_TYPE_FIND_ALL_SORTED = 1, QUERY_TYPE_FIND_ALL_MULTI_SORTED = 2};
+enum query_type {QUERY_TYPE_FIND_ALL = 0, QUERY_TYPE_DISTINCT = 4, QUERY_TYPE_FIND_ALL_SORTED = 1, QUERY_TYPE_FIND_ALL_MULTI_SORTED = 2, QUERY_TYPE_FIND_TOP_K = 5, QUERY_TYPE_FIND_ALL_SORTED_DISTINCT = 6};
 
 // batch update of async queries
 JNIEXPORT jlongArray JNICALL Java_io_realm_internal_TableQuery_nativeBatchUpdateQueries
@@ -1171,7 +1841,8 @@ JNIEXPORT jlongArray JNICALL Java_io_realm_internal_TableQuery_nativeBatchUpdate
          jlongArray  handover_queries_array /*list of handover queries*/,
          jobjectArray  query_param_matrix /*type & params of the query to be updated*/,
          jobjectArray  multi_sorted_indices_matrix,
-         jobjectArray  multi_sorted_order_matrix)
+         jobjectArray  multi_sorted_order_matrix,
+         jobjectArray  distinct_indices_matrix)
 {
     TR_ENTER(env)
     try {
@@ -1266,6 +1937,42 @@ JNIEXPORT jlongArray JNICALL Java_io_realm_internal_TableQuery_nativeBatchUpdate
                                      column_order_array/*ascending orders*/);
                     break;
                 }
+                case QUERY_TYPE_FIND_TOP_K: {// nativeFindTopKWithHandover
+                    // The threshold hint is read from and written back to the parameters
+                    bool has_hint = query_param_array[4] == 1;
+                    jlong hint = query_param_array[5];
+                    exported_handover_tableview_array[i] =
+                            findTopKWithHandover
+                                    (env,
+                                     bgSharedRealmPtr,
+                                     std::move(queries[i]),
+                                     query_param_array[1]/*columnIndex*/,
+                                     query_param_array[2] == 1/*ascending order*/,
+                                     query_param_array[3]/*k*/,
+                                     &hint,
+                                     &has_hint);
+                    query_param_array[4] = has_hint ? 1 : 0;
+                    query_param_array[5] = hint;
+                    query_param_array.updateOnRelease();
+                    break;
+                }
+                case QUERY_TYPE_FIND_ALL_SORTED_DISTINCT: {// nativeFindAllSortedDistinctWithHandover
+                    JniLocalRef<jlongArray> sort_indices_array(env, (jlongArray) env->GetObjectArrayElement(
+                            multi_sorted_indices_matrix, i));
+                    JniLocalRef<jbooleanArray> sort_order_array(env, (jbooleanArray) env->GetObjectArrayElement(
+                            multi_sorted_order_matrix, i));
+                    JniLocalRef<jlongArray> distinct_indices_array(env, (jlongArray) env->GetObjectArrayElement(
+                            distinct_indices_matrix, i));
+                    exported_handover_tableview_array[i] =
+                            findAllSortedDistinctWithHandover
+                                    (env,
+                                     bgSharedRealmPtr,
+                                     std::move(queries[i]),
+                                     sort_indices_array/*sort columnIndices*/,
+                                     sort_order_array/*ascending orders*/,
+                                     distinct_indices_array/*distinct columnIndices*/);
+                    break;
+                }
                 default:
                     ThrowException(env, FatalError, "Unknown type of query.");
                     return NULL;
@@ -1320,6 +2027,117 @@ JNIEXPORT jlong JNICALL Java_io_realm_internal_TableQuery_nativeFindAllMultiSort
       return 0;
   }
 
+JNIEXPORT jlong JNICALL Java_io_realm_internal_TableQuery_nativeFindTopK(
+    JNIEnv* env, jobject, jlong nativeQueryPtr, jlong columnIndex, jboolean ascending, jlong k)
+{
+    TR_ENTER(env)
+    Query* query = Q(nativeQueryPtr);
+    TableRef table = query->get_table();
+    if (!QUERY_VALID(env, query) || !TBL_AND_COL_INDEX_VALID(env, table.get(), columnIndex))
+        return -1;
+    try {
+        jlong hint = 0;
+        bool has_hint = false;
+        TableView* tableView = new TableView(findTopK(env, query, columnIndex, ascending, k, &hint, &has_hint));
+        if (env->ExceptionCheck()) {
+            delete tableView;
+            return -1;
+        }
+        return reinterpret_cast<jlong>(tableView);
+    } CATCH_STD()
+    return -1;
+}
+
+JNIEXPORT jlong JNICALL Java_io_realm_internal_TableQuery_nativeFindTopKWithHandover
+  (JNIEnv *env, jclass, jlong bgSharedRealmPtr, jlong queryPtr, jlong columnIndex, jboolean ascending, jlong k,
+   jlongArray thresholdArray)
+  {
+      TR_ENTER(env)
+      try {
+          std::unique_ptr<Query> query = handoverQueryToWorker(bgSharedRealmPtr, queryPtr, true); // throws
+          // The threshold found is written back as {has threshold, threshold} to seed the updates of the results
+          JniLongArray threshold(env, thresholdArray);
+          jlong hint = 0;
+          bool has_hint = false;
+          jlong handover = findTopKWithHandover(env, bgSharedRealmPtr, std::move(query), columnIndex, ascending, k,
+                                                &hint, &has_hint);
+          threshold[0] = has_hint ? 1 : 0;
+          threshold[1] = hint;
+          threshold.updateOnRelease();
+          return handover;
+      } CATCH_STD()
+      return 0;
+  }
+
+JNIEXPORT jlong JNICALL Java_io_realm_internal_TableQuery_nativeFindAllSortedDistinctWithHandover
+  (JNIEnv *env, jclass, jlong bgSharedRealmPtr, jlong queryPtr, jlongArray sortColumnIndices, jbooleanArray ascending,
+   jlongArray distinctColumnIndices)
+  {
+      TR_ENTER(env)
+      try {
+          std::unique_ptr<Query> query = handoverQueryToWorker(bgSharedRealmPtr, queryPtr, true); // throws
+          return findAllSortedDistinctWithHandover(env, bgSharedRealmPtr, std::move(query), sortColumnIndices,
+                                                   ascending, distinctColumnIndices);
+      } CATCH_STD()
+      return 0;
+  }
+
+JNIEXPORT jlongArray JNICALL Java_io_realm_internal_TableQuery_nativeAggregateByInterval
+  (JNIEnv *env, jobject, jlong nativeQueryPtr, jlong dateColumnIndex, jlong valueColumnIndex, jlong intervalMillis)
+  {
+      TR_ENTER(env)
+      try {
+          return aggregateByInterval(env, Q(nativeQueryPtr), dateColumnIndex, valueColumnIndex, intervalMillis,
+                                     std::numeric_limits<jlong>::min());
+      } CATCH_STD()
+      return nullptr;
+  }
+
+// Computes the buckets at toVersion. If the previous buckets were computed at fromVersion, the transaction log in
+// between decides if the buckets before fromMillis can be reused. Both versions must be pinned by the caller.
+JNIEXPORT jlongArray JNICALL Java_io_realm_internal_TableQuery_nativeAggregateByIntervalWithHandover
+  (JNIEnv *env, jclass, jlong bgSharedRealmPtr, jlong queryPtr, jlong sourceTableIndex, jlong dateColumnIndex,
+   jlong valueColumnIndex, jlong intervalMillis, jlong fromMillis, jlong fromVersion, jlong fromIndex,
+   jlong toVersion, jlong toIndex, jboolean dependsOnOtherTables)
+  {
+      TR_ENTER(env)
+      try {
+          std::unique_ptr<SharedGroup::Handover<Query>> handoverQuery(HO(Query, queryPtr));
+          auto sharedRealm = *(reinterpret_cast<SharedRealm*>(bgSharedRealmPtr));
+          using rf = realm::_impl::RealmFriend;
+          auto& shared_group = rf::get_shared_group(*sharedRealm);
+          SharedGroup::VersionID to_version(static_cast<SharedGroup::version_type>(toVersion),
+                                            static_cast<uint32_t>(toIndex));
+
+          const jlong all = std::numeric_limits<jlong>::min();
+          std::unique_ptr<Query> query;
+          // The query can only be imported at its own version, which must not be older than the previous buckets
+          if (fromMillis != all && fromVersion >= 0 &&
+              static_cast<SharedGroup::version_type>(fromVersion) <= handoverQuery->version.version) {
+              SharedGroup::VersionID from_version(static_cast<SharedGroup::version_type>(fromVersion),
+                                                  static_cast<uint32_t>(fromIndex));
+              rf::read_group_to(*sharedRealm, from_version);
+              IntervalChangeCollector collector(sharedRealm->read_group(), S(sourceTableIndex), S(dateColumnIndex),
+                                                fromMillis);
+              LangBindHelper::advance_read(shared_group, collector, handoverQuery->version);
+              query = shared_group.import_from_handover(std::move(handoverQuery));
+              LangBindHelper::advance_read(shared_group, collector, to_version);
+              if (!collector.can_reuse_earlier_buckets(*query->get_table(), dependsOnOtherTables)) {
+                  fromMillis = all;
+              }
+          }
+          else {
+              rf::read_group_to(*sharedRealm, handoverQuery->version);
+              query = shared_group.import_from_handover(std::move(handoverQuery));
+              LangBindHelper::advance_read(shared_group, to_version);
+              fromMillis = all;
+          }
+          return aggregateByInterval(env, query.get(), dateColumnIndex, valueColumnIndex, intervalMillis,
+                                     fromMillis);
+      } CATCH_STD()
+      return nullptr;
+  }
+
 // Integer Aggregates
 
 JNIEXPORT jlong JNICALL Java_io_realm_internal_TableQuery_nativeSumInt(
@@ -1623,6 +2441,67 @@ JNIEXPORT jlong JNICALL Java_io_realm_internal_TableQuery_nativeRemove(
     return 0;
 }
 
+// Removes the matching rows while scanning, instead of collecting them in a TableView first. A removed row is
+// replaced by the last row (or by the next one if ordered), so the scan continues at the same index.
+JNIEXPORT jlong JNICALL Java_io_realm_internal_TableQuery_nativeRemoveInRange(
+    JNIEnv* env, jobject, jlong nativeQueryPtr, jlong start, jlong end, jboolean ordered)
+{
+    Query* query = Q(nativeQueryPtr);
+    if (!QUERY_VALID(env, query))
+        return 0;
+    TableRef table = query->get_table();
+    if (!ROW_INDEXES_VALID(env, table.get(), start, end, -1))
+        return 0;
+    try {
+        size_t end_row = (end == -1) ? table->size() : std::min(S(end), table->size());
+        jlong removed = 0;
+        size_t row = (S(start) < end_row) ? query->find(S(start)) : realm::not_found;
+        while (row != realm::not_found && row < end_row) {
+            if (ordered) {
+                table->remove(row);
+            }
+            else {
+                table->move_last_over(row);
+            }
+            ++removed;
+            --end_row;
+            row = (row < end_row) ? query->find(row) : realm::not_found;
+        }
+        return removed;
+    } CATCH_STD()
+    return 0;
+}
+
+// Adds to an integer column of the matching rows while scanning. Incrementing does not move rows, so the scan
+// continues after each match even if the condition is on the incremented column.
+JNIEXPORT jlong JNICALL Java_io_realm_internal_TableQuery_nativeIncrementLongInRange(
+    JNIEnv* env, jobject, jlong nativeQueryPtr, jlong start, jlong end, jlong columnIndex, jlong delta)
+{
+    Query* query = Q(nativeQueryPtr);
+    if (!QUERY_VALID(env, query))
+        return 0;
+    TableRef table = query->get_table();
+    if (!ROW_INDEXES_VALID(env, table.get(), start, end, -1) ||
+        !TBL_AND_COL_INDEX_AND_TYPE_VALID(env, table.get(), columnIndex, type_Int))
+        return 0;
+    try {
+        size_t end_row = (end == -1) ? table->size() : std::min(S(end), table->size());
+        size_t col = S(columnIndex);
+        jlong incremented = 0;
+        size_t row = (S(start) < end_row) ? query->find(S(start)) : realm::not_found;
+        while (row != realm::not_found && row < end_row) {
+            // Null values are left unchanged, like RealmResults.increment()
+            if (!table->is_null(col, row)) {
+                table->add_int(col, row, delta);
+                ++incremented;
+            }
+            row = (row + 1 < end_row) ? query->find(row + 1) : realm::not_found;
+        }
+        return incremented;
+    } CATCH_STD()
+    return 0;
+}
+
 // isNull and isNotNull
 
 JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeIsNull(
@@ -1911,3 +2790,66 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeIsEmpty
         }
     } CATCH_STD()
 }
+
+// Must match TableQuery.SUBQUERY_*
+static const jint SUBQUERY_ANY = 0;
+static const jint SUBQUERY_ALL = 1;
+static const jint SUBQUERY_NONE = 2;
+static const jint SUBQUERY_COUNT_EQUAL = 3;
+static const jint SUBQUERY_COUNT_GREATER = 4;
+static const jint SUBQUERY_COUNT_LESS = 5;
+
+JNIEXPORT void JNICALL Java_io_realm_internal_TableQuery_nativeSubquery
+    (JNIEnv *env, jobject, jlong nativeQueryPtr, jlongArray columnIndexes, jlong nativeSubqueryPtr, jint predicate,
+     jlong count) {
+
+    JniLongArray arr(env, columnIndexes);
+    jsize arr_len = arr.len();
+    Query* pQuery = Q(nativeQueryPtr);
+    try {
+        if (!QUERY_VALID(env, pQuery) || !QUERY_VALID(env, Q(nativeSubqueryPtr))) {
+            return;
+        }
+        size_t list_col = S(arr[arr_len - 1]);
+        TableRef table_ref = getTableByArray(nativeQueryPtr, arr);
+        if (table_ref->get_column_type(list_col) != type_LinkList) {
+            ThrowException(env, IllegalArgument, "Subqueries only work on RealmList fields.");
+            return;
+        }
+        if (Q(nativeSubqueryPtr)->get_table().get() != table_ref->get_link_target(list_col).get()) {
+            ThrowException(env, IllegalArgument, "The subquery must be on the class of the objects in the list.");
+            return;
+        }
+
+        // The subquery is evaluated against the list of every row and only the number of matches is compared,
+        // so the whole condition is answered in the same scan as the rest of the query.
+        TableRef src_table_ref = getTableForLinkQuery(nativeQueryPtr, arr);
+        auto matches = src_table_ref->column<Link>(list_col, Query(*Q(nativeSubqueryPtr))).count();
+        switch (predicate) {
+            case SUBQUERY_ANY:
+                pQuery->and_query(matches > int64_t(0));
+                break;
+            case SUBQUERY_ALL: {
+                // getTableForLinkQuery() must be called again as building a column consumes the link chain
+                auto size = getTableForLinkQuery(nativeQueryPtr, arr)->column<Link>(list_col).count();
+                pQuery->and_query(matches == size);
+                break;
+            }
+            case SUBQUERY_NONE:
+                pQuery->and_query(matches == int64_t(0));
+                break;
+            case SUBQUERY_COUNT_EQUAL:
+                pQuery->and_query(matches == int64_t(count));
+                break;
+            case SUBQUERY_COUNT_GREATER:
+                pQuery->and_query(matches > int64_t(count));
+                break;
+            case SUBQUERY_COUNT_LESS:
+                pQuery->and_query(matches < int64_t(count));
+                break;
+            default:
+                ThrowException(env, IllegalArgument, "Unknown subquery predicate.");
+                return;
+        }
+    } CATCH_STD()
+}
@@ -18,6 +18,8 @@
 #include "tablebase_tpl.hpp"
 #include "io_realm_internal_TableView.h"
 #include "realm/array.hpp"
+#include <algorithm>
+#include <cstring>
 #include <ostream>
 
 using namespace realm;
@@ -437,24 +439,163 @@ JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeNullifyLink
     } CATCH_STD()
 }
 
+// Bulk updates of a column in every row of the view with a single JNI call, used by RealmResults.setValue() and
+// increment(). Rows of the view which have been deleted are skipped.
+
+template <typename Setter>
+static void set_for_all(JNIEnv* env, jlong nativeViewPtr, jlong columnIndex, DataType type, Setter set)
+{
+    if (!VIEW_VALID_AND_IN_SYNC(env, nativeViewPtr) ||
+        !COL_INDEX_AND_TYPE_VALID(env, TV(nativeViewPtr), columnIndex, type))
+        return;
+    TableView* tv = TV(nativeViewPtr);
+    Table& table = tv->get_parent();
+    size_t col = S(columnIndex);
+    for (size_t i = 0; i < tv->size(); ++i) {
+        if (tv->is_row_attached(i)) {
+            set(table, col, tv->get_source_ndx(i));
+        }
+    }
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeSetLongForAll(
+    JNIEnv* env, jobject, jlong nativeViewPtr, jlong columnIndex, jlong value)
+{
+    try {
+        set_for_all(env, nativeViewPtr, columnIndex, type_Int, [value](Table& table, size_t col, size_t row) {
+            table.set_int(col, row, value);
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeSetBooleanForAll(
+    JNIEnv* env, jobject, jlong nativeViewPtr, jlong columnIndex, jboolean value)
+{
+    try {
+        set_for_all(env, nativeViewPtr, columnIndex, type_Bool, [value](Table& table, size_t col, size_t row) {
+            table.set_bool(col, row, value == JNI_TRUE);
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeSetFloatForAll(
+    JNIEnv* env, jobject, jlong nativeViewPtr, jlong columnIndex, jfloat value)
+{
+    try {
+        set_for_all(env, nativeViewPtr, columnIndex, type_Float, [value](Table& table, size_t col, size_t row) {
+            table.set_float(col, row, value);
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeSetDoubleForAll(
+    JNIEnv* env, jobject, jlong nativeViewPtr, jlong columnIndex, jdouble value)
+{
+    try {
+        set_for_all(env, nativeViewPtr, columnIndex, type_Double, [value](Table& table, size_t col, size_t row) {
+            table.set_double(col, row, value);
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeSetTimestampForAll(
+    JNIEnv* env, jobject, jlong nativeViewPtr, jlong columnIndex, jlong value)
+{
+    try {
+        Timestamp timestamp = from_milliseconds(value);
+        set_for_all(env, nativeViewPtr, columnIndex, type_Timestamp, [&timestamp](Table& table, size_t col, size_t row) {
+            table.set_timestamp(col, row, timestamp);
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeSetStringForAll(
+    JNIEnv* env, jobject, jlong nativeViewPtr, jlong columnIndex, jstring value)
+{
+    try {
+        JStringAccessor value2(env, value); // throws
+        StringData data = value2;
+        set_for_all(env, nativeViewPtr, columnIndex, type_String, [data](Table& table, size_t col, size_t row) {
+            table.set_string(col, row, data);
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeSetNullForAll(
+    JNIEnv* env, jobject, jlong nativeViewPtr, jlong columnIndex)
+{
+    try {
+        if (!VIEW_VALID_AND_IN_SYNC(env, nativeViewPtr))
+            return;
+        TableView* tv = TV(nativeViewPtr);
+        if (!COL_INDEX_VALID(env, tv, columnIndex))
+            return;
+        if (!tv->get_parent().is_nullable(S(columnIndex))) {
+            ThrowNullValueException(env, &(tv->get_parent()), S(columnIndex));
+            return;
+        }
+        set_for_all(env, nativeViewPtr, columnIndex, tv->get_column_type(S(columnIndex)),
+                    [](Table& table, size_t col, size_t row) {
+            table.set_null(col, row);
+        });
+    } CATCH_STD()
+}
+
+// Null values are left null
+JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeIncrementLongForAll(
+    JNIEnv* env, jobject, jlong nativeViewPtr, jlong columnIndex, jlong delta)
+{
+    try {
+        set_for_all(env, nativeViewPtr, columnIndex, type_Int, [delta](Table& table, size_t col, size_t row) {
+            if (!table.is_null(col, row)) {
+                table.add_int(col, row, delta);
+            }
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeIncrementFloatForAll(
+    JNIEnv* env, jobject, jlong nativeViewPtr, jlong columnIndex, jdouble delta)
+{
+    try {
+        set_for_all(env, nativeViewPtr, columnIndex, type_Float, [delta](Table& table, size_t col, size_t row) {
+            if (!table.is_null(col, row)) {
+                table.set_float(col, row, static_cast<float>(table.get_float(col, row) + delta));
+            }
+        });
+    } CATCH_STD()
+}
+
+JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeIncrementDoubleForAll(
+    JNIEnv* env, jobject, jlong nativeViewPtr, jlong columnIndex, jdouble delta)
+{
+    try {
+        set_for_all(env, nativeViewPtr, columnIndex, type_Double, [delta](Table& table, size_t col, size_t row) {
+            if (!table.is_null(col, row)) {
+                table.set_double(col, row, table.get_double(col, row) + delta);
+            }
+        });
+    } CATCH_STD()
+}
+
 JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeClear(
-    JNIEnv* env, jobject, jlong nativeViewPtr)
+    JNIEnv* env, jobject, jlong nativeViewPtr, jboolean ordered)
 {
     try {
         if (!VIEW_VALID_AND_IN_SYNC(env, nativeViewPtr))
             return;
-        TV(nativeViewPtr)->clear(RemoveMode::unordered);
+        TV(nativeViewPtr)->clear(ordered ? RemoveMode::ordered : RemoveMode::unordered);
     } CATCH_STD()
 }
 
 JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeRemoveRow(
-    JNIEnv* env, jobject, jlong nativeViewPtr, jlong rowIndex)
+    JNIEnv* env, jobject, jlong nativeViewPtr, jlong rowIndex, jboolean ordered)
 {
     try {
         if (!VIEW_VALID_AND_IN_SYNC(env, nativeViewPtr) ||
             !ROW_INDEX_VALID(env, TV(nativeViewPtr), rowIndex))
             return;
-        TV(nativeViewPtr)->remove( S(rowIndex), RemoveMode::unordered);
+        TV(nativeViewPtr)->remove( S(rowIndex), ordered ? RemoveMode::ordered : RemoveMode::unordered);
     } CATCH_STD()
 }
 
@@ -836,6 +977,146 @@ JNIEXPORT jobject JNICALL Java_io_realm_internal_TableView_nativeMinimumTimestam
 }
 
 // sort
+// Must match the TableQuery.AGGREGATE_* kinds
+static const jint AGGREGATE_SUM = 0;
+static const jint AGGREGATE_MIN = 1;
+static const jint AGGREGATE_MAX = 2;
+static const jint AGGREGATE_AVERAGE = 3;
+static const jint AGGREGATE_COUNT = 4;
+
+template <typename T> T get_aggregate_value(const Table& table, size_t col, size_t row);
+template <> int64_t get_aggregate_value<int64_t>(const Table& table, size_t col, size_t row)
+{
+    return table.get_int(col, row);
+}
+template <> float get_aggregate_value<float>(const Table& table, size_t col, size_t row)
+{
+    return table.get_float(col, row);
+}
+template <> double get_aggregate_value<double>(const Table& table, size_t col, size_t row)
+{
+    return table.get_double(col, row);
+}
+
+// Integer results are returned as is, floating point results as the bits of a double
+static jlong encode_aggregate_value(int64_t value)
+{
+    return value;
+}
+static jlong encode_aggregate_value(double value)
+{
+    jlong bits;
+    std::memcpy(&bits, &value, sizeof(bits));
+    return bits;
+}
+
+// Aggregates a column over the objects in a list. Null values are ignored like in Table::sum() etc, so minimum,
+// maximum and average are null if the list contains no values.
+template <typename T, typename R>
+static void aggregate_link_view(const Table& target, const LinkViewRef& links, size_t col, jint kind,
+                                jlong& result, jboolean& is_null)
+{
+    R sum = 0;
+    R min = 0;
+    R max = 0;
+    size_t count = 0;
+    size_t size = links->size();
+    for (size_t i = 0; i < size; ++i) {
+        size_t row = links->get(i).get_index();
+        if (target.is_null(col, row)) {
+            continue;
+        }
+        R value = R(get_aggregate_value<T>(target, col, row));
+        if (count == 0 || value < min) {
+            min = value;
+        }
+        if (count == 0 || value > max) {
+            max = value;
+        }
+        sum += value;
+        ++count;
+    }
+
+    is_null = (kind != AGGREGATE_SUM && count == 0) ? JNI_TRUE : JNI_FALSE;
+    switch (kind) {
+        case AGGREGATE_SUM:
+            result = encode_aggregate_value(sum);
+            break;
+        case AGGREGATE_MIN:
+            result = encode_aggregate_value(min);
+            break;
+        case AGGREGATE_MAX:
+            result = encode_aggregate_value(max);
+            break;
+        default:
+            result = encode_aggregate_value(count == 0 ? 0.0 : double(sum) / count);
+            break;
+    }
+}
+
+// Computes an aggregate over a list for every row of the view in one pass, without creating any Java objects
+// for the rows or the objects in their lists.
+JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeAggregateLinkList(
+    JNIEnv* env, jobject, jlong nativeViewPtr, jlong listColumnIndex, jlong columnIndex, jint kind,
+    jlongArray values, jbooleanArray nulls)
+{
+    try {
+        if (!VIEW_VALID_AND_IN_SYNC(env, nativeViewPtr) ||
+            !COL_INDEX_AND_TYPE_VALID(env, TV(nativeViewPtr), listColumnIndex, type_LinkList))
+            return;
+
+        TableView* tv = TV(nativeViewPtr);
+        Table& parent = tv->get_parent();
+        size_t list_col = S(listColumnIndex);
+        TableRef target = parent.get_link_target(list_col);
+        DataType type = type_Int;
+        if (kind != AGGREGATE_COUNT) {
+            if (columnIndex < 0 || S(columnIndex) >= target->get_column_count()) {
+                ThrowException(env, IllegalArgument, "Column index is out of range.");
+                return;
+            }
+            type = target->get_column_type(S(columnIndex));
+            if (type != type_Int && type != type_Float && type != type_Double) {
+                ThrowException(env, IllegalArgument,
+                               "Aggregates are only supported on integer, float and double fields.");
+                return;
+            }
+        }
+
+        JniLongArray values_arr(env, values);
+        JniBooleanArray nulls_arr(env, nulls);
+        size_t size = std::min(tv->size(), size_t(std::min(values_arr.len(), nulls_arr.len())));
+        for (size_t i = 0; i < size; ++i) {
+            jlong& result = values_arr[i];
+            jboolean& is_null = nulls_arr[i];
+            if (!tv->is_row_attached(i)) {
+                result = 0;
+                is_null = JNI_TRUE;
+                continue;
+            }
+            LinkViewRef links = parent.get_linklist(list_col, tv->get_source_ndx(i));
+            if (kind == AGGREGATE_COUNT) {
+                result = static_cast<jlong>(links->size());
+                is_null = JNI_FALSE;
+                continue;
+            }
+            switch (type) {
+                case type_Int:
+                    aggregate_link_view<int64_t, int64_t>(*target, links, S(columnIndex), kind, result, is_null);
+                    break;
+                case type_Float:
+                    aggregate_link_view<float, double>(*target, links, S(columnIndex), kind, result, is_null);
+                    break;
+                default:
+                    aggregate_link_view<double, double>(*target, links, S(columnIndex), kind, result, is_null);
+                    break;
+            }
+        }
+        values_arr.updateOnRelease();
+        nulls_arr.updateOnRelease();
+    } CATCH_STD()
+}
+
 JNIEXPORT void JNICALL Java_io_realm_internal_TableView_nativeSort(
     JNIEnv* env, jobject, jlong nativeViewPtr, jlong columnIndex, jboolean ascending)
 {
@@ -961,6 +1242,19 @@ JNIEXPORT jlong JNICALL Java_io_realm_internal_TableView_nativeSyncIfNeeded(
     return 0;
 }
 
+JNIEXPORT jboolean JNICALL Java_io_realm_internal_TableView_nativeIsInSync(
+    JNIEnv* env, jobject, jlong nativeViewPtr)
+{
+    if (TV(nativeViewPtr) != NULL && !TV(nativeViewPtr)->is_attached()) {
+        ThrowException(env, IllegalState, "The Realm has been closed and is no longer accessible.");
+        return JNI_FALSE;
+    }
+    try {
+        return TV(nativeViewPtr)->is_in_sync() ? JNI_TRUE : JNI_FALSE;
+    } CATCH_STD()
+    return JNI_FALSE;
+}
+
 JNIEXPORT jlong JNICALL Java_io_realm_internal_TableView_nativeFindBySourceNdx
         (JNIEnv *env, jobject, jlong nativeViewPtr, jlong sourceIndex)
 {
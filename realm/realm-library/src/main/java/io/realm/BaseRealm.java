@@ -23,8 +23,12 @@ import android.util.Log;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.realm.exceptions.RealmFileException;
@@ -65,7 +69,14 @@ abstract class BaseRealm implements Closeable {
     protected SharedRealm sharedRealm;
 
     RealmSchema schema;
+    // Null if the configuration has no materialized views
+    final MaterializedViews materializedViews;
+    // Running aggregateByIntervalAsync() observers, which pin versions that must be released before closing
+    final Set<TimeSeriesObserver> timeSeriesObservers = new LinkedHashSet<TimeSeriesObserver>();
     HandlerController handlerController;
+    private final WriteLock writeLock;
+    // System.nanoTime() when this instance got the write lock, -1 while it does not hold it
+    private long writeLockAcquiredAt = -1;
 
     static {
         //noinspection ConstantConditions
@@ -75,10 +86,13 @@ abstract class BaseRealm implements Closeable {
     protected BaseRealm(RealmConfiguration configuration) {
         this.threadId = Thread.currentThread().getId();
         this.configuration = configuration;
+        this.writeLock = WriteLock.forPath(configuration.getPath());
 
         this.handlerController = new HandlerController(this);
         this.sharedRealm = SharedRealm.getInstance(configuration, new AndroidNotifier(this.handlerController));
         this.schema = new RealmSchema(this);
+        List<MaterializedViewDefinition> viewDefinitions = configuration.getMaterializedViews();
+        this.materializedViews = viewDefinitions.isEmpty() ? null : new MaterializedViews(this, viewDefinitions);
 
         if (handlerController.isAutoRefreshAvailable()) {
             setAutoRefresh(true);
@@ -311,7 +325,59 @@ abstract class BaseRealm implements Closeable {
      */
     public void beginTransaction() {
         checkIfValid();
-        sharedRealm.beginTransaction();
+        long start = System.nanoTime();
+        writeLock.lock();
+        beginTransactionLocked(start);
+    }
+
+    /**
+     * Starts a transaction like {@link #beginTransaction()}, unless another thread of this process holds the write
+     * lock for longer than the given timeout. This makes it possible to give up writing instead of blocking e.g. the
+     * UI thread while a background thread imports data.
+     * <p>
+     * Notice: the timeout only applies to transactions of this process. A transaction of another process holding the
+     * lock still blocks until it ends.
+     *
+     * @param timeout the maximum time to wait for the write lock, {@code 0} to not wait at all.
+     * @param unit the unit of {@code timeout}.
+     * @return {@code true} if the transaction was started, {@code false} if the lock was not released in time or the
+     * thread was interrupted while waiting.
+     * @throws IllegalArgumentException if {@code unit} is {@code null}.
+     * @see Realm#getWriteLockMetrics(RealmConfiguration)
+     */
+    public boolean tryBeginTransaction(long timeout, TimeUnit unit) {
+        checkIfValid();
+        if (unit == null) {
+            throw new IllegalArgumentException("Non-null 'unit' required.");
+        }
+        long start = System.nanoTime();
+        if (!writeLock.tryLock(timeout, unit)) {
+            writeLock.metrics.recordTimeout(System.nanoTime() - start);
+            return false;
+        }
+        beginTransactionLocked(start);
+        return true;
+    }
+
+    private void beginTransactionLocked(long start) {
+        try {
+            sharedRealm.beginTransaction();
+        } catch (RuntimeException e) {
+            writeLock.unlock();
+            throw e;
+        }
+        writeLockAcquiredAt = System.nanoTime();
+        writeLock.metrics.recordWait(writeLockAcquiredAt - start);
+    }
+
+    // Called once the transaction has ended, or the Realm is closed
+    private void releaseWriteLock() {
+        if (writeLockAcquiredAt == -1) {
+            return;
+        }
+        writeLock.metrics.recordHold(System.nanoTime() - writeLockAcquiredAt);
+        writeLockAcquiredAt = -1;
+        writeLock.unlock();
     }
 
     /**
@@ -332,7 +398,28 @@ abstract class BaseRealm implements Closeable {
      */
     void commitTransaction(boolean notifyLocalThread) {
         checkIfValid();
-        sharedRealm.commitTransaction();
+        // Views only need updating if something was written, or if they are outdated
+        boolean skip = configuration.shouldSkipUnchangedUpdates() && !sharedRealm.hasUncommittedChanges()
+                && (materializedViews == null || !materializedViews.isOutdated());
+        if (materializedViews != null && !skip) {
+            // Schema changes in a DynamicRealm can make a definition invalid until the migration is complete
+            materializedViews.update(this instanceof Realm);
+        }
+        if (skip) {
+            // Ending a transaction which wrote nothing without committing it creates no new version, so no thread is
+            // notified about it
+            try {
+                sharedRealm.cancelTransaction();
+            } finally {
+                releaseWriteLockIfEnded();
+            }
+            return;
+        }
+        try {
+            sharedRealm.commitTransaction();
+        } finally {
+            releaseWriteLockIfEnded();
+        }
 
         // Sometimes we don't want to notify the local thread about commits, e.g. creating a completely new Realm
         // file will make a commit in order to create the schema. Users should not be notified about that.
@@ -351,7 +438,17 @@ abstract class BaseRealm implements Closeable {
      */
     public void cancelTransaction() {
         checkIfValid();
-        sharedRealm.cancelTransaction();
+        try {
+            sharedRealm.cancelTransaction();
+        } finally {
+            releaseWriteLockIfEnded();
+        }
+    }
+
+    private void releaseWriteLockIfEnded() {
+        if (!sharedRealm.isInTransaction()) {
+            releaseWriteLock();
+        }
     }
 
     /**
@@ -432,9 +529,14 @@ abstract class BaseRealm implements Closeable {
      * Closes the Realm instances and all its resources without checking the {@link RealmCache}.
      */
     void doClose() {
+        for (TimeSeriesObserver observer : new ArrayList<TimeSeriesObserver>(timeSeriesObservers)) {
+            observer.cancel();
+        }
         if (sharedRealm != null) {
+            // Closing the Realm rolls back a transaction in progress
             sharedRealm.close();
             sharedRealm = null;
+            releaseWriteLock();
         }
     }
 
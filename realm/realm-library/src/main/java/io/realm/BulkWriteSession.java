@@ -0,0 +1,349 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import java.io.Closeable;
+
+import io.realm.internal.Table;
+
+/**
+ * Writes a large number of objects in chunks, committing a transaction every given number of objects or bytes.
+ * Committing in chunks bounds the memory used by the version being written and lets other threads and processes see
+ * the progress, unlike a single transaction holding all changes.
+ * <p>
+ * A session is named and records the number of objects committed in the same transaction as the objects. If the
+ * process dies during the session, a new session with the same name starts at {@link #getResumePosition()}, so the
+ * caller can skip the input already written:
+ * <pre>
+ * {@code
+ * BulkWriteSession session = new BulkWriteSession.Builder(configuration, "import-2016-10")
+ *         .objectsPerCommit(10000)
+ *         .open();
+ * try {
+ *     for (long i = session.getResumePosition(); i < events.size(); i++) {
+ *         session.insert(events.get(i));
+ *     }
+ *     session.finish();
+ * } finally {
+ *     session.close();
+ * }
+ * }
+ * </pre>
+ * The session opens its own {@link Realm} on the calling thread and always has a transaction in progress until it
+ * is finished or closed. Objects written through {@link #getRealm()} are reported with {@link #advance(long, long)}.
+ * A session is confined to the thread which opened it.
+ */
+public final class BulkWriteSession implements Closeable {
+
+    /**
+     * Notified after each chunk is committed.
+     */
+    public interface ProgressListener {
+        /**
+         * @param committedObjects the number of objects committed so far, including those of earlier sessions with
+         * the same name.
+         */
+        void onCommit(long committedObjects);
+    }
+
+    private static final long NAME_COLUMN = 0;
+    private static final long COMMITTED_COLUMN = 1;
+
+    private final RealmConfiguration configuration;
+    private final String name;
+    private final long objectsPerCommit;
+    private final long bytesPerCommit;
+    private final int compactEveryCommits;
+    private final ProgressListener progressListener;
+    private final long resumePosition;
+
+    private Realm realm;
+    private long committedObjects;
+    private long pendingObjects;
+    private long pendingBytes;
+    private int commitsSinceCompaction;
+
+    private BulkWriteSession(Builder builder) {
+        this.configuration = builder.configuration;
+        this.name = builder.name;
+        this.objectsPerCommit = builder.objectsPerCommit;
+        this.bytesPerCommit = builder.bytesPerCommit;
+        this.compactEveryCommits = builder.compactEveryCommits;
+        this.progressListener = builder.progressListener;
+
+        realm = Realm.getInstance(configuration);
+        if (realm.isInTransaction()) {
+            realm.close();
+            throw new IllegalStateException("A bulk write session cannot be opened within a transaction.");
+        }
+        resumePosition = readCheckpoint();
+        committedObjects = resumePosition;
+        realm.beginTransaction();
+    }
+
+    /**
+     * Returns the Realm the session writes to. A transaction is always in progress. The instance changes if the
+     * file is compacted between chunks, so neither the Realm nor objects read from it should be kept across calls
+     * which can commit.
+     *
+     * @return the Realm of the current chunk.
+     * @throws IllegalStateException if the session was finished or closed.
+     */
+    public Realm getRealm() {
+        checkOpen();
+        return realm;
+    }
+
+    /**
+     * Returns the number of objects committed by earlier sessions with the same name which were not finished, i.e.
+     * the position in the input to continue at.
+     *
+     * @return the number of objects committed before this session was opened, {@code 0} for a new session.
+     */
+    public long getResumePosition() {
+        return resumePosition;
+    }
+
+    /**
+     * Returns the number of objects committed so far, including those of earlier sessions with the same name.
+     *
+     * @return the number of committed objects.
+     */
+    public long getCommittedObjects() {
+        return committedObjects;
+    }
+
+    /**
+     * Inserts an object like {@link Realm#insert(RealmModel)} and commits the chunk if it is full.
+     *
+     * @param object the object to insert.
+     * @throws IllegalStateException if the session was finished or closed.
+     */
+    public void insert(RealmModel object) {
+        checkOpen();
+        realm.insert(object);
+        advance(1, 0);
+    }
+
+    /**
+     * Inserts or updates an object like {@link Realm#insertOrUpdate(RealmModel)} and commits the chunk if it is full.
+     *
+     * @param object the object to insert or update.
+     * @throws IllegalStateException if the session was finished or closed.
+     */
+    public void insertOrUpdate(RealmModel object) {
+        checkOpen();
+        realm.insertOrUpdate(object);
+        advance(1, 0);
+    }
+
+    /**
+     * Reports objects written through {@link #getRealm()} and commits the chunk if it is full.
+     *
+     * @param objects the number of objects written, counted towards the resume position.
+     * @param bytes an estimate of the size of the data written, only used to decide when to commit.
+     * @throws IllegalArgumentException if a value is negative.
+     * @throws IllegalStateException if the session was finished or closed.
+     */
+    public void advance(long objects, long bytes) {
+        checkOpen();
+        if (objects < 0 || bytes < 0) {
+            throw new IllegalArgumentException(String.format("Non-negative values required: %d objects, %d bytes.",
+                    objects, bytes));
+        }
+        pendingObjects += objects;
+        pendingBytes += bytes;
+        if (pendingObjects >= objectsPerCommit || (bytesPerCommit > 0 && pendingBytes >= bytesPerCommit)) {
+            commitChunk();
+            realm.beginTransaction();
+        }
+    }
+
+    /**
+     * Commits the objects written since the last chunk and removes the progress of the session, so a new session
+     * with the same name starts from the beginning. The session is closed afterwards.
+     *
+     * @return the number of objects committed, including those of earlier sessions with the same name.
+     * @throws IllegalStateException if the session was finished or closed.
+     */
+    public long finish() {
+        checkOpen();
+        Table checkpoints = getCheckpointTable();
+        long row = checkpoints.findFirstString(NAME_COLUMN, name);
+        if (row != Table.NO_MATCH) {
+            checkpoints.moveLastOver(row);
+        }
+        committedObjects += pendingObjects;
+        realm.commitTransaction();
+        pendingObjects = 0;
+        pendingBytes = 0;
+        if (progressListener != null) {
+            progressListener.onCommit(committedObjects);
+        }
+        close();
+        return committedObjects;
+    }
+
+    /**
+     * Cancels the objects written since the last chunk and closes the Realm of the session. The committed chunks
+     * are kept and a new session with the same name resumes after them. Closing a closed session has no effect.
+     */
+    @Override
+    public void close() {
+        if (realm == null) {
+            return;
+        }
+        if (realm.isInTransaction()) {
+            realm.cancelTransaction();
+        }
+        realm.close();
+        realm = null;
+    }
+
+    private void commitChunk() {
+        committedObjects += pendingObjects;
+        Table checkpoints = getCheckpointTable();
+        long row = checkpoints.findFirstString(NAME_COLUMN, name);
+        if (row == Table.NO_MATCH) {
+            row = checkpoints.addEmptyRow();
+            checkpoints.setString(NAME_COLUMN, row, name);
+        }
+        checkpoints.setLong(COMMITTED_COLUMN, row, committedObjects);
+        realm.commitTransaction();
+        pendingObjects = 0;
+        pendingBytes = 0;
+        if (progressListener != null) {
+            progressListener.onCommit(committedObjects);
+        }
+
+        if (compactEveryCommits > 0 && ++commitsSinceCompaction >= compactEveryCommits) {
+            commitsSinceCompaction = 0;
+            // Compacting fails without changing the file if it is open anywhere else, the next chunk is written
+            // regardless.
+            realm.close();
+            realm = null;
+            Realm.compactRealm(configuration);
+            realm = Realm.getInstance(configuration);
+        }
+    }
+
+    private long readCheckpoint() {
+        if (!realm.sharedRealm.hasTable(Table.BULK_WRITE_TABLE_NAME)) {
+            return 0;
+        }
+        Table checkpoints = realm.sharedRealm.getTable(Table.BULK_WRITE_TABLE_NAME);
+        long row = checkpoints.findFirstString(NAME_COLUMN, name);
+        return (row == Table.NO_MATCH) ? 0 : checkpoints.getLong(COMMITTED_COLUMN, row);
+    }
+
+    private Table getCheckpointTable() {
+        Table checkpoints = realm.sharedRealm.getTable(Table.BULK_WRITE_TABLE_NAME);
+        if (checkpoints.getColumnCount() == 0) {
+            checkpoints.addColumn(RealmFieldType.STRING, "name");
+            checkpoints.addColumn(RealmFieldType.INTEGER, "committed");
+        }
+        return checkpoints;
+    }
+
+    private void checkOpen() {
+        if (realm == null) {
+            throw new IllegalStateException("The bulk write session '" + name + "' was finished or closed.");
+        }
+    }
+
+    /**
+     * Configures and opens a {@link BulkWriteSession}.
+     */
+    public static final class Builder {
+        private final RealmConfiguration configuration;
+        private final String name;
+        private long objectsPerCommit = 10000;
+        private long bytesPerCommit;
+        private int compactEveryCommits;
+        private ProgressListener progressListener;
+
+        /**
+         * @param configuration the configuration of the Realm to write to.
+         * @param name identifies the session, a session with the name of an unfinished one resumes it.
+         */
+        public Builder(RealmConfiguration configuration, String name) {
+            if (configuration == null) {
+                throw new IllegalArgumentException("Non-null 'configuration' required.");
+            }
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Non-empty 'name' required.");
+            }
+            this.configuration = configuration;
+            this.name = name;
+        }
+
+        /**
+         * Sets the number of objects committed together. The default is 10000.
+         */
+        public Builder objectsPerCommit(long objectsPerCommit) {
+            if (objectsPerCommit < 1) {
+                throw new IllegalArgumentException("'objectsPerCommit' must be > 0: " + objectsPerCommit);
+            }
+            this.objectsPerCommit = objectsPerCommit;
+            return this;
+        }
+
+        /**
+         * Also commits a chunk once the bytes reported with {@link BulkWriteSession#advance(long, long)} reach the
+         * given size. By default chunks are only limited by the number of objects.
+         */
+        public Builder bytesPerCommit(long bytesPerCommit) {
+            if (bytesPerCommit < 1) {
+                throw new IllegalArgumentException("'bytesPerCommit' must be > 0: " + bytesPerCommit);
+            }
+            this.bytesPerCommit = bytesPerCommit;
+            return this;
+        }
+
+        /**
+         * Compacts the Realm file after every given number of chunks, like {@link Realm#compactRealm(RealmConfiguration)}.
+         * The file is only compacted if no other instance of it is open. By default the file is not compacted.
+         *
+         * @throws IllegalArgumentException if the Realm is encrypted.
+         */
+        public Builder compactEveryCommits(int compactEveryCommits) {
+            if (compactEveryCommits < 1) {
+                throw new IllegalArgumentException("'compactEveryCommits' must be > 0: " + compactEveryCommits);
+            }
+            if (configuration.getEncryptionKey() != null) {
+                throw new IllegalArgumentException("Cannot currently compact an encrypted Realm.");
+            }
+            this.compactEveryCommits = compactEveryCommits;
+            return this;
+        }
+
+        public Builder progressListener(ProgressListener progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        /**
+         * Opens the Realm of the configuration on the calling thread and begins the first chunk.
+         *
+         * @return the session, which must be finished or closed on the calling thread.
+         * @throws IllegalStateException if the Realm is in a transaction on the calling thread.
+         */
+        public BulkWriteSession open() {
+            return new BulkWriteSession(this);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.realm.internal.Table;
+
+/**
+ * A batch of objects given as one array of values per field, inserted with
+ * {@link Realm#insert(Class, ColumnBatch)}. The values of a field are written with a single native call, which makes
+ * it the fastest way to import a large number of objects of a class without links, e.g. analytics events:
+ * <pre>
+ * {@code
+ * ColumnBatch batch = new ColumnBatch(timestamps.length)
+ *         .setLongs("timestamp", timestamps)
+ *         .setDoubles("value", values)
+ *         .setStrings("source", sources);
+ * realm.beginTransaction();
+ * realm.insert(Event.class, batch);
+ * realm.commitTransaction();
+ * }
+ * </pre>
+ * Integer fields of all sizes are set with {@link #setLongs(String, long[])}, the values must fit in the type of the
+ * field. Fields without values are set to {@code null} if they are nullable and to the default value of their type
+ * otherwise, field initializers and constructors of the model class are not run. Link and list fields are left empty.
+ */
+public final class ColumnBatch {
+
+    private static final class Column {
+        final RealmFieldType type;
+        final Object values;
+        final boolean[] nulls;
+
+        Column(RealmFieldType type, Object values, boolean[] nulls) {
+            this.type = type;
+            this.values = values;
+            this.nulls = nulls;
+        }
+    }
+
+    private final int size;
+    private final Map<String, Column> columns = new LinkedHashMap<String, Column>();
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param size the number of objects in the batch. The array of every field must have this length.
+     * @throws IllegalArgumentException if {@code size} is negative.
+     */
+    public ColumnBatch(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The size of a batch cannot be negative: " + size);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of objects in the batch.
+     *
+     * @return the size given when the batch was created.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets the values of an integer field.
+     *
+     * @param fieldName the name of the field.
+     * @param values a value per object.
+     * @return the batch.
+     * @throws IllegalArgumentException if the field already has values or the length of the array does not match.
+     */
+    public ColumnBatch setLongs(String fieldName, long[] values) {
+        return setLongs(fieldName, values, null);
+    }
+
+    /**
+     * Sets the values of a nullable integer field.
+     *
+     * @param fieldName the name of the field.
+     * @param values a value per object.
+     * @param nulls {@code true} for the objects to set the field to {@code null} for, can be {@code null} if no
+     * value is {@code null}.
+     * @return the batch.
+     * @throws IllegalArgumentException if the field already has values or the length of an array does not match.
+     */
+    public ColumnBatch setLongs(String fieldName, long[] values, boolean[] nulls) {
+        return addColumn(fieldName, RealmFieldType.INTEGER, values, (values == null) ? 0 : values.length, nulls);
+    }
+
+    /**
+     * Sets the values of a boolean field.
+     *
+     * @see #setLongs(String, long[])
+     */
+    public ColumnBatch setBooleans(String fieldName, boolean[] values) {
+        return setBooleans(fieldName, values, null);
+    }
+
+    /**
+     * Sets the values of a nullable boolean field.
+     *
+     * @see #setLongs(String, long[], boolean[])
+     */
+    public ColumnBatch setBooleans(String fieldName, boolean[] values, boolean[] nulls) {
+        return addColumn(fieldName, RealmFieldType.BOOLEAN, values, (values == null) ? 0 : values.length, nulls);
+    }
+
+    /**
+     * Sets the values of a float field.
+     *
+     * @see #setLongs(String, long[])
+     */
+    public ColumnBatch setFloats(String fieldName, float[] values) {
+        return setFloats(fieldName, values, null);
+    }
+
+    /**
+     * Sets the values of a nullable float field.
+     *
+     * @see #setLongs(String, long[], boolean[])
+     */
+    public ColumnBatch setFloats(String fieldName, float[] values, boolean[] nulls) {
+        return addColumn(fieldName, RealmFieldType.FLOAT, values, (values == null) ? 0 : values.length, nulls);
+    }
+
+    /**
+     * Sets the values of a double field.
+     *
+     * @see #setLongs(String, long[])
+     */
+    public ColumnBatch setDoubles(String fieldName, double[] values) {
+        return setDoubles(fieldName, values, null);
+    }
+
+    /**
+     * Sets the values of a nullable double field.
+     *
+     * @see #setLongs(String, long[], boolean[])
+     */
+    public ColumnBatch setDoubles(String fieldName, double[] values, boolean[] nulls) {
+        return addColumn(fieldName, RealmFieldType.DOUBLE, values, (values == null) ? 0 : values.length, nulls);
+    }
+
+    /**
+     * Sets the values of a date field given in milliseconds since the epoch.
+     *
+     * @see #setLongs(String, long[])
+     */
+    public ColumnBatch setDates(String fieldName, long[] values) {
+        return setDates(fieldName, values, null);
+    }
+
+    /**
+     * Sets the values of a nullable date field given in milliseconds since the epoch.
+     *
+     * @see #setLongs(String, long[], boolean[])
+     */
+    public ColumnBatch setDates(String fieldName, long[] values, boolean[] nulls) {
+        return addColumn(fieldName, RealmFieldType.DATE, values, (values == null) ? 0 : values.length, nulls);
+    }
+
+    /**
+     * Sets the values of a date field. {@code null} elements are only allowed for nullable fields.
+     *
+     * @see #setLongs(String, long[])
+     */
+    public ColumnBatch setDates(String fieldName, Date[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Non-null 'values' required.");
+        }
+        long[] milliseconds = new long[values.length];
+        boolean[] nulls = null;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                if (nulls == null) {
+                    nulls = new boolean[values.length];
+                }
+                nulls[i] = true;
+            } else {
+                milliseconds[i] = values[i].getTime();
+            }
+        }
+        return setDates(fieldName, milliseconds, nulls);
+    }
+
+    /**
+     * Sets the values of a String field. {@code null} elements are only allowed for nullable fields.
+     *
+     * @see #setLongs(String, long[])
+     */
+    public ColumnBatch setStrings(String fieldName, String[] values) {
+        return addColumn(fieldName, RealmFieldType.STRING, values, (values == null) ? 0 : values.length, null);
+    }
+
+    private ColumnBatch addColumn(String fieldName, RealmFieldType type, Object values, int length, boolean[] nulls) {
+        if (fieldName == null || fieldName.isEmpty()) {
+            throw new IllegalArgumentException("Non-empty fieldname required.");
+        }
+        if (values == null) {
+            throw new IllegalArgumentException("Non-null 'values' required.");
+        }
+        if (length != size || (nulls != null && nulls.length != size)) {
+            throw new IllegalArgumentException(String.format("The values of '%s' must have the size of the batch: %d",
+                    fieldName, size));
+        }
+        if (columns.containsKey(fieldName)) {
+            throw new IllegalArgumentException("Values were already set for field: " + fieldName);
+        }
+        // Arrays without a null flag are dropped, as required fields reject any flags in native code
+        columns.put(fieldName, new Column(type, values, hasTrue(nulls) ? nulls : null));
+        return this;
+    }
+
+    private static boolean hasTrue(boolean[] flags) {
+        if (flags != null) {
+            for (boolean flag : flags) {
+                if (flag) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends the objects of the batch to the table of the given class. All fields are checked before any object is
+     * added, so an exception leaves the table unchanged.
+     */
+    void insert(BaseRealm realm, Class<? extends RealmModel> clazz) {
+        Table table = realm.schema.getTable(clazz);
+        if (table.hasPrimaryKey()) {
+            throw new IllegalArgumentException(clazz.getSimpleName()
+                    + " has a primary key, use insert() or insertOrUpdate() instead.");
+        }
+        long[] columnIndices = new long[columns.size()];
+        int i = 0;
+        for (Map.Entry<String, Column> entry : columns.entrySet()) {
+            columnIndices[i++] = checkColumn(realm, clazz, table, entry.getKey(), entry.getValue());
+        }
+        long orderedColumnIndex = realm.schema.getOrderedColumnIndex(clazz);
+        if (orderedColumnIndex >= 0) {
+            checkOrder(table, orderedColumnIndex);
+        }
+        if (size == 0) {
+            return;
+        }
+
+        long startRow = table.addEmptyRows(size);
+        i = 0;
+        for (Column column : columns.values()) {
+            long columnIndex = columnIndices[i++];
+            switch (column.type) {
+                case INTEGER:
+                    table.setLongs(columnIndex, startRow, (long[]) column.values, column.nulls);
+                    break;
+                case BOOLEAN:
+                    table.setBooleans(columnIndex, startRow, (boolean[]) column.values, column.nulls);
+                    break;
+                case FLOAT:
+                    table.setFloats(columnIndex, startRow, (float[]) column.values, column.nulls);
+                    break;
+                case DOUBLE:
+                    table.setDoubles(columnIndex, startRow, (double[]) column.values, column.nulls);
+                    break;
+                case DATE:
+                    table.setDates(columnIndex, startRow, (long[]) column.values, column.nulls);
+                    break;
+                case STRING:
+                    table.setStrings(columnIndex, startRow, (String[]) column.values);
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported type: " + column.type);
+            }
+        }
+    }
+
+    private long checkColumn(BaseRealm realm, Class<? extends RealmModel> clazz, Table table, String fieldName,
+                             Column column) {
+        long columnIndex = table.getColumnIndex(fieldName);
+        if (columnIndex == Table.NO_MATCH) {
+            throw new IllegalArgumentException(String.format("Field '%s' does not exist in %s.",
+                    fieldName, clazz.getSimpleName()));
+        }
+        RealmFieldType type = table.getColumnType(columnIndex);
+        if (type != column.type) {
+            throw new IllegalArgumentException(String.format("Field '%s' is of type %s, not %s.",
+                    fieldName, type, column.type));
+        }
+        if (realm.schema.getCollationKeyColumnIndex(clazz, fieldName) != null) {
+            throw new IllegalArgumentException("Collated fields cannot be inserted by column: " + fieldName);
+        }
+        if (!table.isColumnNullable(columnIndex) && hasNull(column)) {
+            throw new IllegalArgumentException("Field '" + fieldName + "' is required and cannot be null.");
+        }
+        if (column.type == RealmFieldType.INTEGER) {
+            Long maxValue = realm.schema.getIntegerMaxValue(clazz, fieldName);
+            if (maxValue != null) {
+                checkRange(fieldName, column, maxValue);
+            }
+        }
+        return columnIndex;
+    }
+
+    private static boolean hasNull(Column column) {
+        if (column.nulls != null) {
+            return true;
+        }
+        if (column.type == RealmFieldType.STRING) {
+            for (String value : (String[]) column.values) {
+                if (value == null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Values of byte, short and int fields are stored as long and would wrap around when read
+    private static void checkRange(String fieldName, Column column, long maxValue) {
+        long[] values = (long[]) column.values;
+        for (int i = 0; i < values.length; i++) {
+            if ((column.nulls == null || !column.nulls[i]) && (values[i] > maxValue || values[i] < -maxValue - 1)) {
+                throw new IllegalArgumentException(String.format(
+                        "Field '%s' cannot hold the value %d, it must be between %d and %d.",
+                        fieldName, values[i], -maxValue - 1, maxValue));
+            }
+        }
+    }
+
+    // Objects of a class declared with @OrderedBy must be appended in order
+    private void checkOrder(Table table, long columnIndex) {
+        String fieldName = table.getColumnName(columnIndex);
+        Column column = columns.get(fieldName);
+        if (column == null) {
+            throw new IllegalArgumentException("Values are required for the ordered field: " + fieldName);
+        }
+        long[] values = (long[]) column.values;
+        long previous = Long.MIN_VALUE;
+        long lastRow = table.size() - 1;
+        if (lastRow >= 0) {
+            previous = (column.type == RealmFieldType.DATE)
+                    ? table.getDate(columnIndex, lastRow).getTime()
+                    : table.getLong(columnIndex, lastRow);
+        }
+        for (long value : values) {
+            if (value < previous) {
+                throw new IllegalArgumentException(String.format(
+                        "Field '%s' must be ordered: %d is less than the previous value %d.", fieldName, value, previous));
+            }
+            previous = value;
+        }
+    }
+}
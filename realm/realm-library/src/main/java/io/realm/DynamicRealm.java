@@ -100,6 +100,11 @@ public final class DynamicRealm extends BaseRealm {
     public DynamicRealmObject createObject(String className, Object primaryKeyValue) {
         Table table = schema.getTable(className);
         long index = table.addEmptyRowWithPrimaryKey(primaryKeyValue);
+        // The schema doesn't tell which keys are auto-increment, the table only advances a sequence that exists
+        long primaryKeyColumnIndex = table.getPrimaryKey();
+        if (primaryKeyValue != null && table.getColumnType(primaryKeyColumnIndex) == RealmFieldType.INTEGER) {
+            table.advanceAutoIncrementPrimaryKey(table.getLong(primaryKeyColumnIndex, index));
+        }
         DynamicRealmObject dynamicRealmObject = new DynamicRealmObject(this, table.getCheckedRow(index));
         return dynamicRealmObject;
     }
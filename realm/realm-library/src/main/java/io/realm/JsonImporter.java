@@ -0,0 +1,406 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import io.realm.exceptions.RealmException;
+import io.realm.internal.RealmProxyMediator;
+
+/**
+ * Imports a JSON array of objects of a class, parsing the JSON on several threads while the calling thread writes
+ * the parsed objects to the Realm. The write transaction is only held to write objects, not while the JSON is
+ * tokenized, and parsing scales with the number of cores.
+ * <p>
+ * The array is split into batches of objects which are parsed by a pool of threads. The batches are written in the
+ * order of the array, each in its own transaction. The number of batches parsed ahead of the writer is bounded, so
+ * memory use does not depend on the size of the input.
+ * <pre>
+ * {@code
+ * JsonImporter importer = new JsonImporter.Builder(Person.class)
+ *         .parserThreads(4)
+ *         .batchSize(1000)
+ *         .createOrUpdate(true)
+ *         .build();
+ * long imported = importer.importFrom(realm, inputStream);
+ * }
+ * </pre>
+ * If an object cannot be parsed or written, the import stops and the transaction of its batch is cancelled. The
+ * batches written before are kept.
+ */
+public final class JsonImporter {
+
+    /**
+     * Notified on the writing thread after each batch is committed.
+     */
+    public interface ProgressListener {
+        /**
+         * @param importedObjects the number of objects written so far.
+         */
+        void onProgress(long importedObjects);
+    }
+
+    private static final FutureTask<List<JSONObject>> END_OF_ARRAY = new FutureTask<List<JSONObject>>(
+            new Callable<List<JSONObject>>() {
+                @Override
+                public List<JSONObject> call() {
+                    return null;
+                }
+            });
+
+    private final Class<? extends RealmModel> clazz;
+    private final int parserThreads;
+    private final int batchSize;
+    private final int maxPendingBatches;
+    private final boolean update;
+    private final ProgressListener progressListener;
+
+    private JsonImporter(Builder builder) {
+        this.clazz = builder.clazz;
+        this.parserThreads = builder.parserThreads;
+        this.batchSize = builder.batchSize;
+        this.maxPendingBatches = (builder.maxPendingBatches > 0) ? builder.maxPendingBatches : 2 * parserThreads;
+        this.update = builder.update;
+        this.progressListener = builder.progressListener;
+    }
+
+    /**
+     * Imports the objects of a JSON array. Must be called outside a transaction, the objects are committed in
+     * batches on the calling thread. The stream is not closed.
+     *
+     * @param realm the Realm to write the objects to.
+     * @param in the JSON array in UTF-8.
+     * @return the number of objects imported.
+     * @throws IllegalArgumentException if updating a class without a {@link io.realm.annotations.PrimaryKey}.
+     * @throws IllegalStateException if called within a transaction.
+     * @throws RealmException if the JSON could not be parsed or mapped to the class.
+     * @throws IOException if the stream could not be read.
+     * @throws InterruptedException if the calling thread was interrupted while waiting for a batch.
+     */
+    public long importFrom(Realm realm, InputStream in) throws IOException, InterruptedException {
+        if (realm == null || in == null) {
+            throw new IllegalArgumentException("Non-null 'realm' and 'in' required.");
+        }
+        realm.checkIfValid();
+        if (realm.isInTransaction()) {
+            throw new IllegalStateException("JSON cannot be imported within a transaction.");
+        }
+        if (update && !realm.schema.getTable(clazz).hasPrimaryKey()) {
+            throw new IllegalArgumentException("A RealmObject with no @PrimaryKey cannot be updated: " + clazz);
+        }
+
+        BlockingQueue<Future<List<JSONObject>>> batches =
+                new ArrayBlockingQueue<Future<List<JSONObject>>>(maxPendingBatches);
+        // One more thread splits the array into batches
+        ExecutorService executor = Executors.newFixedThreadPool(parserThreads + 1);
+        try {
+            executor.execute(new Splitter(new InputStreamReader(in, "UTF-8"), batches, executor));
+            return write(realm, batches);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long write(Realm realm, BlockingQueue<Future<List<JSONObject>>> batches)
+            throws IOException, InterruptedException {
+        RealmProxyMediator mediator = realm.getConfiguration().getSchemaMediator();
+        long importedObjects = 0;
+        while (true) {
+            Future<List<JSONObject>> batch = batches.take();
+            if (batch == END_OF_ARRAY) {
+                return importedObjects;
+            }
+            List<JSONObject> objects = getBatch(batch);
+            realm.beginTransaction();
+            try {
+                for (JSONObject json : objects) {
+                    mediator.createOrUpdateUsingJsonObject(clazz, realm, json, update);
+                }
+                realm.commitTransaction();
+            } catch (JSONException e) {
+                realm.cancelTransaction();
+                throw new RealmException("Could not map JSON", e);
+            } catch (RuntimeException e) {
+                realm.cancelTransaction();
+                throw e;
+            }
+            importedObjects += objects.size();
+            if (progressListener != null) {
+                progressListener.onProgress(importedObjects);
+            }
+        }
+    }
+
+    private static List<JSONObject> getBatch(Future<List<JSONObject>> batch) throws IOException, InterruptedException {
+        try {
+            return batch.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RealmException("Failed to read JSON", cause);
+        }
+    }
+
+    // Splits the array into the source text of its elements and queues a parsing task per batch. Only nesting and
+    // strings are tracked, which is much cheaper than tokenizing the elements.
+    private final class Splitter implements Runnable {
+        private final Reader reader;
+        private final BlockingQueue<Future<List<JSONObject>>> batches;
+        private final ExecutorService executor;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+
+        Splitter(Reader reader, BlockingQueue<Future<List<JSONObject>>> batches, ExecutorService executor) {
+            this.reader = reader;
+            this.batches = batches;
+            this.executor = executor;
+        }
+
+        @Override
+        public void run() {
+            try {
+                split();
+                batches.put(END_OF_ARRAY);
+            } catch (InterruptedException ignored) {
+                // The writer stopped
+            } catch (final Exception e) {
+                FutureTask<List<JSONObject>> failure = new FutureTask<List<JSONObject>>(
+                        new Callable<List<JSONObject>>() {
+                            @Override
+                            public List<JSONObject> call() throws Exception {
+                                throw e;
+                            }
+                        });
+                failure.run();
+                try {
+                    batches.put(failure);
+                } catch (InterruptedException ignored) {
+                    // The writer stopped
+                }
+            }
+        }
+
+        private void split() throws IOException, JSONException, InterruptedException {
+            if (nextNonWhitespace() != '[') {
+                throw new JSONException("Expected a JSON array.");
+            }
+            List<String> elements = new ArrayList<String>(batchSize);
+            int c = nextNonWhitespace();
+            if (c != ']') {
+                while (true) {
+                    c = readElement(c, elements);
+                    if (elements.size() == batchSize) {
+                        queue(elements);
+                        elements = new ArrayList<String>(batchSize);
+                    }
+                    if (c == ']') {
+                        break;
+                    }
+                    if (c != ',') {
+                        throw new JSONException("Expected ',' or ']' after element but was: " + describe(c));
+                    }
+                    c = nextNonWhitespace();
+                }
+            }
+            if (!elements.isEmpty()) {
+                queue(elements);
+            }
+        }
+
+        private void queue(final List<String> elements) throws InterruptedException {
+            FutureTask<List<JSONObject>> batch = new FutureTask<List<JSONObject>>(new Callable<List<JSONObject>>() {
+                @Override
+                public List<JSONObject> call() throws JSONException {
+                    List<JSONObject> objects = new ArrayList<JSONObject>(elements.size());
+                    for (String element : elements) {
+                        objects.add(new JSONObject(element));
+                    }
+                    return objects;
+                }
+            });
+            // Blocks while the writer is behind, before the batch is parsed
+            batches.put(batch);
+            executor.execute(batch);
+        }
+
+        // Reads an element starting with the given character and returns the first non-whitespace character after it
+        private int readElement(int c, List<String> elements) throws IOException, JSONException {
+            StringBuilder element = new StringBuilder();
+            int depth = 0;
+            boolean inString = false;
+            while (true) {
+                if (c == -1) {
+                    throw new JSONException("Unterminated JSON array.");
+                }
+                if (inString) {
+                    if (c == '\\') {
+                        element.append((char) c);
+                        c = read();
+                        if (c == -1) {
+                            throw new JSONException("Unterminated JSON string.");
+                        }
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    if (depth == 0) {
+                        break;
+                    }
+                    depth--;
+                } else if (c == ',' && depth == 0) {
+                    break;
+                }
+                element.append((char) c);
+                c = read();
+                if (depth == 0 && !inString && Character.isWhitespace(c)) {
+                    c = nextNonWhitespace();
+                    if (c != ',' && c != ']') {
+                        throw new JSONException("Expected ',' or ']' after element but was: " + describe(c));
+                    }
+                    break;
+                }
+            }
+            elements.add(element.toString());
+            return c;
+        }
+
+        private int nextNonWhitespace() throws IOException {
+            int c = read();
+            while (c != -1 && Character.isWhitespace(c)) {
+                c = read();
+            }
+            return c;
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+
+        private String describe(int c) {
+            return (c == -1) ? "end of input" : String.valueOf((char) c);
+        }
+    }
+
+    /**
+     * Builds a {@link JsonImporter}.
+     */
+    public static final class Builder {
+        private final Class<? extends RealmModel> clazz;
+        private int parserThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        private int batchSize = 500;
+        private int maxPendingBatches;
+        private boolean update;
+        private ProgressListener progressListener;
+
+        /**
+         * @param clazz the class of the objects in the JSON array.
+         */
+        public Builder(Class<? extends RealmModel> clazz) {
+            if (clazz == null) {
+                throw new IllegalArgumentException("Non-null 'clazz' required.");
+            }
+            this.clazz = clazz;
+        }
+
+        /**
+         * Sets the number of threads parsing JSON. The default is one less than the number of cores, as the calling
+         * thread writes the objects.
+         */
+        public Builder parserThreads(int parserThreads) {
+            if (parserThreads < 1) {
+                throw new IllegalArgumentException("'parserThreads' must be > 0: " + parserThreads);
+            }
+            this.parserThreads = parserThreads;
+            return this;
+        }
+
+        /**
+         * Sets the number of objects parsed together and written in a transaction. The default is 500.
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("'batchSize' must be > 0: " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of batches which can be split or parsed but not written yet. The default is twice the
+         * number of parser threads.
+         */
+        public Builder maxPendingBatches(int maxPendingBatches) {
+            if (maxPendingBatches < 1) {
+                throw new IllegalArgumentException("'maxPendingBatches' must be > 0: " + maxPendingBatches);
+            }
+            this.maxPendingBatches = maxPendingBatches;
+            return this;
+        }
+
+        /**
+         * Sets whether existing objects are updated like {@link Realm#createOrUpdateAllFromJson(Class, InputStream)}
+         * instead of created like {@link Realm#createAllFromJson(Class, InputStream)}. The default is {@code false}.
+         */
+        public Builder createOrUpdate(boolean update) {
+            this.update = update;
+            return this;
+        }
+
+        public Builder progressListener(ProgressListener progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        public JsonImporter build() {
+            return new JsonImporter(this);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import io.realm.internal.GroupedAggregate;
+import io.realm.internal.Table;
+
+/**
+ * The number of objects and the sum of a field per group, as described by a {@link MaterializedViewDefinition}.
+ * <p>
+ * A view is stored in the Realm and updated as part of every {@link Realm#commitTransaction()} with the objects
+ * inserted, changed and deleted in the transaction, instead of running the query again. Reading a value is a lookup
+ * by the key of the group. Like {@link RealmObject}s, a view is live: it always reflects the current version of the
+ * Realm, so a {@link RealmChangeListener} registered on the Realm can read the new values.
+ * <p>
+ * Views are only updated by commits of Realms opened with a configuration containing their definition. If a condition
+ * of the predicate refers to linked objects, changing objects of other classes builds the view again.
+ *
+ * @see Realm#getMaterializedView(String)
+ */
+public final class MaterializedView {
+
+    private final BaseRealm realm;
+    private final MaterializedViewDefinition definition;
+    private final Table groups;
+
+    MaterializedView(BaseRealm realm, MaterializedViewDefinition definition, Table groups) {
+        this.realm = realm;
+        this.definition = definition;
+        this.groups = groups;
+    }
+
+    /**
+     * Returns the name of the view.
+     *
+     * @return the name given to the {@link MaterializedViewDefinition}.
+     */
+    public String getName() {
+        return definition.getName();
+    }
+
+    /**
+     * Returns the number of groups, i.e. the number of different values of the group-by field among the objects in
+     * the view.
+     *
+     * @return the number of groups.
+     */
+    public long size() {
+        realm.checkIfValid();
+        return groups.size();
+    }
+
+    /**
+     * Returns the number of objects in the group of a {@code String} key.
+     *
+     * @param key the value of the group-by field, can be {@code null}.
+     * @return the number of objects or {@code 0} if no object has this value.
+     * @throws IllegalArgumentException if the view is not grouped by a {@code String} field.
+     */
+    public long getCount(String key) {
+        long row = findGroup(key, RealmFieldType.STRING);
+        return (row == Table.NO_MATCH) ? 0 : groups.getLong(GroupedAggregate.GROUP_COUNT_COLUMN, row);
+    }
+
+    /**
+     * Returns the number of objects in the group of an integer key.
+     *
+     * @param key the value of the group-by field, can be {@code null}.
+     * @return the number of objects or {@code 0} if no object has this value.
+     * @throws IllegalArgumentException if the view is not grouped by an integer field.
+     */
+    public long getCount(Long key) {
+        long row = findGroup(key, RealmFieldType.INTEGER);
+        return (row == Table.NO_MATCH) ? 0 : groups.getLong(GroupedAggregate.GROUP_COUNT_COLUMN, row);
+    }
+
+    /**
+     * Returns the sum of the summed field in the group of a {@code String} key.
+     *
+     * @param key the value of the group-by field, can be {@code null}.
+     * @return the sum or {@code 0} if no object has this value.
+     * @throws IllegalArgumentException if the view is not grouped by a {@code String} field.
+     * @throws IllegalStateException if the definition has no field to sum.
+     */
+    public double getSum(String key) {
+        checkSumField();
+        long row = findGroup(key, RealmFieldType.STRING);
+        return (row == Table.NO_MATCH) ? 0 : groups.getDouble(GroupedAggregate.GROUP_SUM_COLUMN, row);
+    }
+
+    /**
+     * Returns the sum of the summed field in the group of an integer key.
+     *
+     * @param key the value of the group-by field, can be {@code null}.
+     * @return the sum or {@code 0} if no object has this value.
+     * @throws IllegalArgumentException if the view is not grouped by an integer field.
+     * @throws IllegalStateException if the definition has no field to sum.
+     */
+    public double getSum(Long key) {
+        checkSumField();
+        long row = findGroup(key, RealmFieldType.INTEGER);
+        return (row == Table.NO_MATCH) ? 0 : groups.getDouble(GroupedAggregate.GROUP_SUM_COLUMN, row);
+    }
+
+    private void checkSumField() {
+        if (definition.getSumField() == null) {
+            throw new IllegalStateException("Materialized view '" + definition.getName() + "' has no field to sum.");
+        }
+    }
+
+    private long findGroup(Object key, RealmFieldType keyType) {
+        realm.checkIfValid();
+        if (groups.getColumnCount() == 0) {
+            // Emptied as the definition does not match the schema
+            return Table.NO_MATCH;
+        }
+        if (groups.getColumnType(GroupedAggregate.GROUP_KEY_COLUMN) != keyType) {
+            throw new IllegalArgumentException(String.format("Materialized view '%s' is not grouped by a %s field.",
+                    definition.getName(), keyType));
+        }
+        if (key == null) {
+            return groups.findFirstNull(GroupedAggregate.GROUP_KEY_COLUMN);
+        }
+        if (keyType == RealmFieldType.STRING) {
+            return groups.findFirstString(GroupedAggregate.GROUP_KEY_COLUMN, (String) key);
+        }
+        return groups.findFirstLong(GroupedAggregate.GROUP_KEY_COLUMN, (Long) key);
+    }
+
+    @Override
+    public String toString() {
+        return "MaterializedView{name=" + definition.getName() + "}";
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import java.util.Arrays;
+
+/**
+ * Describes a {@link MaterializedView}: the objects of a class matching a predicate, grouped by the value of a field,
+ * with the number of objects and optionally the sum of another field per group. Definitions are added to a
+ * {@link RealmConfiguration} with {@link RealmConfiguration.Builder#materializedView(MaterializedViewDefinition)}.
+ * <pre>
+ * {@code
+ * MaterializedViewDefinition unreadPerFolder = new MaterializedViewDefinition.Builder("unreadPerFolder", Message.class)
+ *         .filter("read == false")
+ *         .groupBy("folderId")
+ *         .build();
+ * }
+ * </pre>
+ */
+public final class MaterializedViewDefinition {
+
+    // Keeps the names of the tables holding the view below the maximum length of a table name
+    private static final int MAX_NAME_LENGTH = 40;
+
+    private final String name;
+    private final Class<? extends RealmModel> clazz;
+    private final String predicate;
+    private final Object[] arguments;
+    private final String groupByField;
+    private final String sumField;
+
+    private MaterializedViewDefinition(Builder builder) {
+        this.name = builder.name;
+        this.clazz = builder.clazz;
+        this.predicate = builder.predicate;
+        this.arguments = builder.arguments;
+        this.groupByField = builder.groupByField;
+        this.sumField = builder.sumField;
+    }
+
+    /**
+     * Returns the name used to read the view with {@link Realm#getMaterializedView(String)}.
+     *
+     * @return the name of the view.
+     */
+    public String getName() {
+        return name;
+    }
+
+    Class<? extends RealmModel> getModelClass() {
+        return clazz;
+    }
+
+    String getPredicate() {
+        return predicate;
+    }
+
+    Object[] getArguments() {
+        return arguments;
+    }
+
+    String getGroupByField() {
+        return groupByField;
+    }
+
+    String getSumField() {
+        return sumField;
+    }
+
+    // Describes everything the content of the view depends on. A view stored with a different description is built
+    // again.
+    String getDescription(String className) {
+        return className + "|" + predicate + "|" + Arrays.deepToString(arguments) + "|" + groupByField + "|" + sumField;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        MaterializedViewDefinition that = (MaterializedViewDefinition) obj;
+        if (!name.equals(that.name)) return false;
+        if (!clazz.equals(that.clazz)) return false;
+        if (predicate != null ? !predicate.equals(that.predicate) : that.predicate != null) return false;
+        if (!Arrays.deepEquals(arguments, that.arguments)) return false;
+        if (!groupByField.equals(that.groupByField)) return false;
+        return sumField != null ? sumField.equals(that.sumField) : that.sumField == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name.hashCode();
+        result = 31 * result + clazz.hashCode();
+        result = 31 * result + (predicate != null ? predicate.hashCode() : 0);
+        result = 31 * result + Arrays.deepHashCode(arguments);
+        result = 31 * result + groupByField.hashCode();
+        result = 31 * result + (sumField != null ? sumField.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "MaterializedViewDefinition{name=" + name + ", " + getDescription(clazz.getSimpleName()) + "}";
+    }
+
+    /**
+     * Builder used to construct a {@link MaterializedViewDefinition}.
+     */
+    public static final class Builder {
+        private final String name;
+        private final Class<? extends RealmModel> clazz;
+        private String predicate;
+        private Object[] arguments = new Object[0];
+        private String groupByField;
+        private String sumField;
+
+        /**
+         * Creates a builder for a view of the objects of the given class.
+         *
+         * @param name the name of the view, consisting of letters, digits and underscores.
+         * @param clazz the class of the objects in the view.
+         * @throws IllegalArgumentException if the name is invalid or the class is {@code null}.
+         */
+        public Builder(String name, Class<? extends RealmModel> clazz) {
+            if (name == null || name.isEmpty() || name.length() > MAX_NAME_LENGTH || !name.matches("\\w+")) {
+                throw new IllegalArgumentException("The name of a materialized view must consist of 1 to "
+                        + MAX_NAME_LENGTH + " letters, digits and underscores: " + name);
+            }
+            if (clazz == null) {
+                throw new IllegalArgumentException("A non-null class must be provided");
+            }
+            this.name = name;
+            this.clazz = clazz;
+        }
+
+        /**
+         * Only includes the objects matching the given predicate, see {@link RealmQuery#filter(String, Object...)}.
+         * By default all objects of the class are included.
+         *
+         * @param predicate the predicate string.
+         * @param arguments the values for the placeholders in the predicate.
+         */
+        public Builder filter(String predicate, Object... arguments) {
+            if (predicate == null || predicate.trim().isEmpty()) {
+                throw new IllegalArgumentException("Non-empty predicate required.");
+            }
+            this.predicate = predicate;
+            this.arguments = (arguments == null) ? new Object[0] : arguments.clone();
+            return this;
+        }
+
+        /**
+         * Groups the objects by the value of the given field, which must be a {@code String} or an integer field.
+         * Objects with a {@code null} value form a group of their own.
+         *
+         * @param fieldName the name of the field.
+         */
+        public Builder groupBy(String fieldName) {
+            if (fieldName == null || fieldName.isEmpty()) {
+                throw new IllegalArgumentException("Non-empty fieldname required.");
+            }
+            this.groupByField = fieldName;
+            return this;
+        }
+
+        /**
+         * Also sums the values of the given numeric field per group. {@code null} values are not added.
+         *
+         * @param fieldName the name of the field.
+         */
+        public Builder sum(String fieldName) {
+            if (fieldName == null || fieldName.isEmpty()) {
+                throw new IllegalArgumentException("Non-empty fieldname required.");
+            }
+            this.sumField = fieldName;
+            return this;
+        }
+
+        /**
+         * Creates the definition. The fields are checked against the schema when the Realm is opened.
+         *
+         * @return the created {@link MaterializedViewDefinition}.
+         * @throws IllegalStateException if no field to group by was set.
+         */
+        public MaterializedViewDefinition build() {
+            if (groupByField == null) {
+                throw new IllegalStateException("A materialized view must be grouped by a field, see groupBy().");
+            }
+            return new MaterializedViewDefinition(this);
+        }
+    }
+}
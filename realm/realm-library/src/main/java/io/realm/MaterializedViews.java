@@ -0,0 +1,202 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import java.util.List;
+
+import io.realm.internal.GroupedAggregate;
+import io.realm.internal.Table;
+import io.realm.internal.TableQuery;
+
+/**
+ * Keeps the materialized views of a configuration up to date. Each view is stored in two tables of the Realm, see
+ * {@link GroupedAggregate}, and updated before every commit with the changes made in the transaction. A metadata
+ * table records the definition each view was built for and the version created by the commit which last updated it.
+ * Views are built again if the definition changed, or if another version was committed in the meantime by a Realm
+ * which does not maintain the view, e.g. one with another configuration or in another process.
+ */
+final class MaterializedViews {
+
+    private static final String METADATA_TABLE_NAME = Table.VIEW_TABLE_PREFIX + "metadata";
+    private static final String GROUPS_TABLE_PREFIX = Table.VIEW_TABLE_PREFIX + "groups_";
+    private static final String ROWS_TABLE_PREFIX = Table.VIEW_TABLE_PREFIX + "rows_";
+    private static final long METADATA_NAME_COLUMN = 0;
+    private static final long METADATA_DESCRIPTION_COLUMN = 1;
+    private static final long METADATA_VERSION_COLUMN = 2;
+
+    private final BaseRealm realm;
+    private final List<MaterializedViewDefinition> definitions;
+
+    MaterializedViews(BaseRealm realm, List<MaterializedViewDefinition> definitions) {
+        this.realm = realm;
+        this.definitions = definitions;
+    }
+
+    /**
+     * Checks if a view has not been built for its current definition yet, or was not updated by the last commit. Must
+     * be called in a write transaction, which must be committed to build the views.
+     */
+    boolean isOutdated() {
+        if (!realm.sharedRealm.hasTable(METADATA_TABLE_NAME)) {
+            return true;
+        }
+        Table metadata = realm.sharedRealm.getTable(METADATA_TABLE_NAME);
+        if (metadata.getColumnCount() <= METADATA_VERSION_COLUMN) {
+            return true;
+        }
+        long version = realm.sharedRealm.getTransactionVersion();
+        for (MaterializedViewDefinition definition : definitions) {
+            long row = metadata.findFirstString(METADATA_NAME_COLUMN, definition.getName());
+            if (row == Table.NO_MATCH || isOutdated(definition, getClassName(definition), metadata, row, version)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOutdated(MaterializedViewDefinition definition, String className, Table metadata,
+                                      long row, long version) {
+        return !metadata.getString(METADATA_DESCRIPTION_COLUMN, row).equals(definition.getDescription(className))
+                || metadata.getLong(METADATA_VERSION_COLUMN, row) != version;
+    }
+
+    /**
+     * Updates all views with the changes made in the current write transaction.
+     *
+     * @param strict {@code true} to throw if a definition does not match the schema. Otherwise the view is emptied
+     * and built once the schema matches, e.g. after a migration.
+     * @throws IllegalArgumentException if {@code strict} and a definition does not match the schema.
+     */
+    void update(boolean strict) {
+        Table metadata = getMetadataTable();
+        long version = realm.sharedRealm.getTransactionVersion();
+        for (MaterializedViewDefinition definition : definitions) {
+            try {
+                update(definition, metadata, version);
+            } catch (IllegalArgumentException e) {
+                if (strict) {
+                    throw new IllegalArgumentException(
+                            "Materialized view '" + definition.getName() + "' does not match the schema: "
+                                    + e.getMessage(), e);
+                }
+                drop(definition, metadata);
+            }
+        }
+    }
+
+    // The view must have been updated by the commit which created the version the transaction started from, otherwise
+    // changes were committed without updating it
+    private void update(MaterializedViewDefinition definition, Table metadata, long version) {
+        String className = getClassName(definition);
+        RealmObjectSchema source = realm.schema.getSchemaForClass(className);
+        long keyColumnIndex = source.getAndCheckFieldIndex(definition.getGroupByField());
+        RealmFieldType keyType = source.table.getColumnType(keyColumnIndex);
+        if (keyType != RealmFieldType.INTEGER && keyType != RealmFieldType.STRING) {
+            throw new IllegalArgumentException("Only String and integer fields can be grouped by: "
+                    + definition.getGroupByField());
+        }
+        long valueColumnIndex = -1;
+        if (definition.getSumField() != null) {
+            valueColumnIndex = source.getAndCheckFieldIndex(definition.getSumField());
+            RealmFieldType valueType = source.table.getColumnType(valueColumnIndex);
+            if (valueType != RealmFieldType.INTEGER && valueType != RealmFieldType.FLOAT
+                    && valueType != RealmFieldType.DOUBLE) {
+                throw new IllegalArgumentException("Only numeric fields can be summed: " + definition.getSumField());
+            }
+        }
+        TableQuery query = source.table.where();
+        boolean dependsOnOtherTables = false;
+        if (definition.getPredicate() != null) {
+            QueryPredicate predicate = source.getPredicate(definition.getPredicate());
+            predicate.apply(query, definition.getArguments());
+            dependsOnOtherTables = predicate.dependsOnOtherTables();
+        }
+
+        String description = definition.getDescription(className);
+        long metadataRow = metadata.findFirstString(METADATA_NAME_COLUMN, definition.getName());
+        boolean rebuild = metadataRow == Table.NO_MATCH
+                || isOutdated(definition, className, metadata, metadataRow, version);
+        Table groups = realm.sharedRealm.getTable(GROUPS_TABLE_PREFIX + definition.getName());
+        Table rows = realm.sharedRealm.getTable(ROWS_TABLE_PREFIX + definition.getName());
+        if (rebuild && (groups.getColumnCount() == 0
+                || groups.getColumnType(GroupedAggregate.GROUP_KEY_COLUMN) != keyType)) {
+            GroupedAggregate.createTables(groups, rows, keyType);
+        }
+        GroupedAggregate.update(realm.sharedRealm, query, keyColumnIndex, valueColumnIndex, groups, rows,
+                dependsOnOtherTables, rebuild);
+
+        if (metadataRow == Table.NO_MATCH) {
+            metadataRow = metadata.addEmptyRow();
+            metadata.setString(METADATA_NAME_COLUMN, metadataRow, definition.getName());
+        }
+        if (rebuild) {
+            metadata.setString(METADATA_DESCRIPTION_COLUMN, metadataRow, description);
+        }
+        metadata.setLong(METADATA_VERSION_COLUMN, metadataRow, version + 1);
+    }
+
+    // Empties a view that cannot be built for the current schema, it is built again once the definition matches
+    private void drop(MaterializedViewDefinition definition, Table metadata) {
+        long metadataRow = metadata.findFirstString(METADATA_NAME_COLUMN, definition.getName());
+        if (metadataRow != Table.NO_MATCH) {
+            metadata.moveLastOver(metadataRow);
+        }
+        String groupsTableName = GROUPS_TABLE_PREFIX + definition.getName();
+        if (realm.sharedRealm.hasTable(groupsTableName)) {
+            realm.sharedRealm.getTable(groupsTableName).clear();
+            realm.sharedRealm.getTable(ROWS_TABLE_PREFIX + definition.getName()).clear();
+        }
+    }
+
+    /**
+     * Returns the view with the given name.
+     *
+     * @throws IllegalArgumentException if the configuration has no view with that name.
+     * @throws IllegalStateException if the view has not been built.
+     */
+    MaterializedView get(String name) {
+        for (MaterializedViewDefinition definition : definitions) {
+            if (definition.getName().equals(name)) {
+                String groupsTableName = GROUPS_TABLE_PREFIX + name;
+                if (!realm.sharedRealm.hasTable(groupsTableName)) {
+                    throw new IllegalStateException("Materialized view '" + name + "' has not been built yet.");
+                }
+                return new MaterializedView(realm, definition, realm.sharedRealm.getTable(groupsTableName));
+            }
+        }
+        throw new IllegalArgumentException("No materialized view named '" + name + "' in the configuration.");
+    }
+
+    private Table getMetadataTable() {
+        Table metadata = realm.sharedRealm.getTable(METADATA_TABLE_NAME);
+        if (metadata.getColumnCount() == 0) {
+            metadata.addColumn(RealmFieldType.STRING, "name");
+            metadata.addColumn(RealmFieldType.STRING, "description");
+            metadata.addSearchIndex(METADATA_NAME_COLUMN);
+        }
+        if (metadata.getColumnCount() <= METADATA_VERSION_COLUMN) {
+            // Views built before versions were recorded are built again
+            metadata.addColumn(RealmFieldType.INTEGER, "version");
+        }
+        return metadata;
+    }
+
+    private String getClassName(MaterializedViewDefinition definition) {
+        String tableName = realm.getConfiguration().getSchemaMediator().getTableName(definition.getModelClass());
+        return Table.tableNameToClassName(tableName);
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.realm.internal.Table;
+import io.realm.internal.TableQuery;
+
+/**
+ * Describes how a {@link RealmQuery} will be evaluated: the conditions it consists of, which of them can be answered
+ * by a search index and how many objects the query is evaluated against.
+ * <p>
+ * A search index can only be used by case sensitive equality conditions on indexed fields that are not part of a
+ * link path and not negated. If the query contains such a condition it will only look at the matching objects,
+ * otherwise all objects are scanned. Queries containing {@link RealmQuery#or()} are conservatively reported as full
+ * scans.
+ *
+ * @see RealmQuery#explain()
+ * @see io.realm.annotations.Index
+ */
+public final class QueryPlan {
+
+    /**
+     * A single condition of the query.
+     */
+    public static final class Condition {
+        private final String fieldName;
+        private final String operator;
+        private final boolean indexed;
+        private final boolean usesIndex;
+
+        Condition(String fieldName, String operator, boolean indexed, boolean usesIndex) {
+            this.fieldName = fieldName;
+            this.operator = operator;
+            this.indexed = indexed;
+            this.usesIndex = usesIndex;
+        }
+
+        /**
+         * Returns the name of the field the condition applies to. Fields in linked objects are separated by ".".
+         *
+         * @return the field name.
+         */
+        public String getFieldName() {
+            return fieldName;
+        }
+
+        /**
+         * Returns the operator of the condition, e.g. {@code "=="} or {@code "BEGINSWITH"}.
+         *
+         * @return the operator.
+         */
+        public String getOperator() {
+            return operator;
+        }
+
+        /**
+         * Checks if the field has a search index.
+         *
+         * @return {@code true} if the field is indexed, {@code false} otherwise.
+         */
+        public boolean isIndexed() {
+            return indexed;
+        }
+
+        /**
+         * Checks if the search index of the field can be used to evaluate this condition.
+         *
+         * @return {@code true} if the condition is evaluated using the search index, {@code false} otherwise.
+         */
+        public boolean usesIndex() {
+            return usesIndex;
+        }
+
+        @Override
+        public String toString() {
+            return fieldName + " " + operator + (usesIndex ? " [index]" : (indexed ? " [indexed, not used]" : ""));
+        }
+    }
+
+    private final String className;
+    private final long sourceSize;
+    private final List<Condition> conditions;
+    private final boolean usesIndex;
+    private final String description;
+
+    private QueryPlan(String className, long sourceSize, List<Condition> conditions, boolean usesIndex,
+                      String description) {
+        this.className = className;
+        this.sourceSize = sourceSize;
+        this.conditions = Collections.unmodifiableList(conditions);
+        this.usesIndex = usesIndex;
+        this.description = description;
+    }
+
+    // Builds the plan from the conditions recorded by the TableQuery
+    static QueryPlan create(RealmSchema schema, String className, Table table, TableQuery query, long sourceSize) {
+        List<Condition> conditions = new ArrayList<Condition>();
+        StringBuilder description = new StringBuilder();
+        // Tracks for each open group if it is negated
+        List<Boolean> negatedGroups = new ArrayList<Boolean>();
+        boolean negateNext = false;
+        boolean hasOr = false;
+        boolean anyIndexed = false;
+
+        for (TableQuery.Condition condition : query.getConditions()) {
+            boolean insideNegatedGroup = negatedGroups.contains(Boolean.TRUE);
+            if (condition.isGroupingToken()) {
+                if (TableQuery.Condition.GROUP.equals(condition.operator)) {
+                    negatedGroups.add(negateNext);
+                    negateNext = false;
+                } else if (TableQuery.Condition.END_GROUP.equals(condition.operator)) {
+                    if (!negatedGroups.isEmpty()) {
+                        negatedGroups.remove(negatedGroups.size() - 1);
+                    }
+                } else if (TableQuery.Condition.NOT.equals(condition.operator)) {
+                    negateNext = true;
+                } else if (TableQuery.Condition.OR.equals(condition.operator)) {
+                    hasOr = true;
+                }
+                appendToken(description, condition.operator);
+                continue;
+            }
+
+            long[] columnIndices = condition.columnIndices;
+            Table fieldTable = table;
+            StringBuilder fieldName = new StringBuilder();
+            for (int i = 0; i < columnIndices.length; i++) {
+                if (i > 0) {
+                    fieldName.append('.');
+                }
+                if (columnIndices[i] == TableQuery.BACKLINK_PATH_ELEMENT) {
+                    // Backlinks are described by the class and field holding the links
+                    fieldTable = schema.getTableByIndexInGroup(columnIndices[i + 1]);
+                    fieldName.append("@links(").append(RealmSchema.getSchemaForTable(fieldTable)).append('.')
+                            .append(fieldTable.getColumnName(columnIndices[i + 2])).append(')');
+                    i += 2;
+                    continue;
+                }
+                if (columnIndices[i] == TableQuery.AGGREGATE_PATH_ELEMENT) {
+                    // Aggregates end the path and are described as e.g. "items.@sum.price"
+                    int kind = (int) columnIndices[i + 1];
+                    long listColumnIndex = columnIndices[i + 2];
+                    fieldName.append(fieldTable.getColumnName(listColumnIndex)).append('.')
+                            .append(getAggregateName(kind));
+                    if (kind != TableQuery.AGGREGATE_COUNT) {
+                        fieldName.append('.')
+                                .append(fieldTable.getLinkTarget(listColumnIndex).getColumnName(columnIndices[i + 3]));
+                    }
+                    break;
+                }
+                fieldName.append(fieldTable.getColumnName(columnIndices[i]));
+                if (i < columnIndices.length - 1) {
+                    fieldTable = fieldTable.getLinkTarget(columnIndices[i]);
+                }
+            }
+            boolean indexed = columnIndices.length == 1 && table.hasSearchIndex(columnIndices[0]);
+            boolean conditionUsesIndex = indexed
+                    && TableQuery.Condition.EQUAL.equals(condition.operator)
+                    && condition.caseSensitive
+                    && !negateNext
+                    && !insideNegatedGroup;
+            anyIndexed |= conditionUsesIndex;
+            negateNext = false;
+
+            Condition planCondition = new Condition(fieldName.toString(), condition.operator, indexed,
+                    conditionUsesIndex);
+            conditions.add(planCondition);
+            appendToken(description, planCondition.toString());
+        }
+
+        boolean usesIndex = anyIndexed && !hasOr;
+        String header = "Query on '" + className + "' (" + sourceSize + " objects): "
+                + (usesIndex ? "index lookup" : "full scan");
+        if (description.length() > 0) {
+            header += "\n  " + description;
+        }
+        return new QueryPlan(className, sourceSize, conditions, usesIndex, header);
+    }
+
+    private static String getAggregateName(int kind) {
+        switch (kind) {
+            case TableQuery.AGGREGATE_SUM:
+                return "@sum";
+            case TableQuery.AGGREGATE_MIN:
+                return "@min";
+            case TableQuery.AGGREGATE_MAX:
+                return "@max";
+            case TableQuery.AGGREGATE_AVERAGE:
+                return "@avg";
+            default:
+                return "@count";
+        }
+    }
+
+    private static void appendToken(StringBuilder description, String token) {
+        if (description.length() > 0) {
+            description.append(' ');
+        }
+        description.append(token);
+    }
+
+    /**
+     * Returns the name of the class being queried.
+     *
+     * @return the class name.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the number of objects the query is evaluated against. This is the number of objects in the class, or
+     * the size of the {@link RealmResults} or {@link RealmList} the query was created from.
+     *
+     * @return the number of candidate objects.
+     */
+    public long getSourceSize() {
+        return sourceSize;
+    }
+
+    /**
+     * Returns the conditions of the query in the order they were added. Grouping, {@code or()} and {@code not()}
+     * are not included.
+     *
+     * @return an unmodifiable list of conditions.
+     */
+    public List<Condition> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * Checks if the query can be answered using a search index instead of scanning all objects.
+     *
+     * @return {@code true} if a search index is used, {@code false} if all objects are scanned.
+     */
+    public boolean usesIndex() {
+        return usesIndex;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,731 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import io.realm.internal.TableQuery;
+
+/**
+ * A parsed predicate string as used by {@link RealmQuery#filter(String, Object...)}.
+ * <p>
+ * Parsing resolves all field names and checks the operators and literal values against the field types, and
+ * produces a list of steps which add the conditions to a {@link TableQuery}. Only the arguments are converted when
+ * the predicate is applied, so a cached predicate can be reused with different arguments without parsing or looking
+ * up fields again. All arguments are converted before the first step is applied, so an invalid argument leaves the
+ * query unchanged.
+ * <p>
+ * Grammar, keywords are case insensitive:
+ * <pre>
+ * predicate  := or
+ * or         := and (("OR" | "||") and)*
+ * and        := not (("AND" | "&amp;&amp;") not)*
+ * not        := ("NOT" | "!") not | "(" or ")" | comparison
+ * comparison := keyPath operator value | keyPath "BETWEEN" "{" value "," value "}"
+ * operator   := "==" | "=" | "!=" | "&lt;&gt;" | "&lt;" | "&lt;=" | "&gt;" | "&gt;=" | "BEGINSWITH" | "ENDSWITH" | "CONTAINS",
+ *               optionally followed by "[c]" for case insensitive string comparisons
+ * value      := "$" index | string | number | "true" | "false" | "null" | "nil"
+ * </pre>
+ */
+final class QueryPredicate {
+
+    private static final int EQUAL = 0;
+    private static final int NOT_EQUAL = 1;
+    private static final int GREATER = 2;
+    private static final int GREATER_EQUAL = 3;
+    private static final int LESS = 4;
+    private static final int LESS_EQUAL = 5;
+    private static final int BEGINS_WITH = 6;
+    private static final int ENDS_WITH = 7;
+    private static final int CONTAINS = 8;
+    private static final int BETWEEN = 9;
+
+    private final String predicate;
+    private final List<Step> steps;
+    private final List<Comparison> comparisons;
+    private final int argumentCount;
+    private final boolean dependsOnOtherTables;
+
+    private QueryPredicate(String predicate, List<Step> steps, List<Comparison> comparisons, int argumentCount,
+                           boolean dependsOnOtherTables) {
+        this.predicate = predicate;
+        this.steps = steps;
+        this.comparisons = comparisons;
+        this.argumentCount = argumentCount;
+        this.dependsOnOtherTables = dependsOnOtherTables;
+    }
+
+    /**
+     * Parses a predicate for the given class.
+     *
+     * @param schema the schema of the class being queried.
+     * @param predicate the predicate string.
+     * @return the parsed predicate.
+     * @throws IllegalArgumentException if the predicate is invalid or does not match the schema.
+     */
+    static QueryPredicate parse(RealmObjectSchema schema, String predicate) {
+        if (predicate == null || predicate.trim().isEmpty()) {
+            throw new IllegalArgumentException("Non-empty predicate required.");
+        }
+        Parser parser = new Parser(schema, predicate);
+        List<Step> steps = new ArrayList<Step>();
+        List<Comparison> comparisons = new ArrayList<Comparison>();
+        parser.parseOr().compile(steps, comparisons);
+        parser.expectEnd();
+        return new QueryPredicate(predicate, steps, comparisons, parser.argumentCount, parser.dependsOnOtherTables);
+    }
+
+    /**
+     * Checks if the predicate has conditions on links or on fields of linked objects, whose result can change when
+     * objects of other classes change.
+     */
+    boolean dependsOnOtherTables() {
+        return dependsOnOtherTables;
+    }
+
+    /**
+     * Adds the conditions of the predicate to the query.
+     *
+     * @param query the query to add the conditions to.
+     * @param arguments the values of the {@code $n} placeholders.
+     * @throws IllegalArgumentException if an argument is missing or does not match the type of its field. The query
+     * is not changed in that case.
+     */
+    void apply(TableQuery query, Object[] arguments) {
+        int given = (arguments == null) ? 0 : arguments.length;
+        if (given < argumentCount) {
+            throw new IllegalArgumentException(String.format(Locale.US,
+                    "The predicate '%s' requires %d arguments, but %d were given.", predicate, argumentCount, given));
+        }
+        // Each comparison has two slots, for its value and the upper value of BETWEEN
+        Object[] values = new Object[comparisons.size() * 2];
+        for (Comparison comparison : comparisons) {
+            comparison.convertValues(arguments, values);
+        }
+        for (Step step : steps) {
+            step.apply(query, values);
+        }
+    }
+
+    // A single call on the TableQuery, given the converted values of all comparisons
+    private abstract static class Step {
+        abstract void apply(TableQuery query, Object[] values);
+    }
+
+    private static final Step GROUP = new Step() {
+        @Override
+        void apply(TableQuery query, Object[] values) {
+            query.group();
+        }
+    };
+
+    private static final Step END_GROUP = new Step() {
+        @Override
+        void apply(TableQuery query, Object[] values) {
+            query.endGroup();
+        }
+    };
+
+    private static final Step OR = new Step() {
+        @Override
+        void apply(TableQuery query, Object[] values) {
+            query.or();
+        }
+    };
+
+    private static final Step NOT = new Step() {
+        @Override
+        void apply(TableQuery query, Object[] values) {
+            query.not();
+        }
+    };
+
+    // Syntax tree built by the parser, compiled into steps
+
+    private abstract static class Node {
+        abstract void compile(List<Step> steps, List<Comparison> comparisons);
+    }
+
+    private static final class OrNode extends Node {
+        final List<Node> children;
+
+        OrNode(List<Node> children) {
+            this.children = children;
+        }
+
+        @Override
+        void compile(List<Step> steps, List<Comparison> comparisons) {
+            steps.add(GROUP);
+            for (int i = 0; i < children.size(); i++) {
+                if (i > 0) {
+                    steps.add(OR);
+                }
+                children.get(i).compile(steps, comparisons);
+            }
+            steps.add(END_GROUP);
+        }
+    }
+
+    private static final class AndNode extends Node {
+        final List<Node> children;
+
+        AndNode(List<Node> children) {
+            this.children = children;
+        }
+
+        @Override
+        void compile(List<Step> steps, List<Comparison> comparisons) {
+            // Conditions are combined with AND by default
+            for (Node child : children) {
+                child.compile(steps, comparisons);
+            }
+        }
+    }
+
+    private static final class NotNode extends Node {
+        final Node child;
+
+        NotNode(Node child) {
+            this.child = child;
+        }
+
+        @Override
+        void compile(List<Step> steps, List<Comparison> comparisons) {
+            steps.add(NOT);
+            steps.add(GROUP);
+            child.compile(steps, comparisons);
+            steps.add(END_GROUP);
+        }
+    }
+
+    // A value in the predicate, either a literal converted during parsing or a placeholder
+    private static final class Operand {
+        final int argumentIndex;
+        final Object literal;
+
+        Operand(int argumentIndex, Object literal) {
+            this.argumentIndex = argumentIndex;
+            this.literal = literal;
+        }
+
+        Object get(Comparison comparison, Object[] arguments) {
+            if (argumentIndex < 0) {
+                return literal;
+            }
+            return comparison.convert(arguments[argumentIndex], "$" + argumentIndex);
+        }
+    }
+
+    private static final class Comparison extends Node {
+        final String keyPath;
+        final long[] columnIndices;
+        final RealmFieldType type;
+        final int operator;
+        final Case casing;
+        final Operand value;
+        final Operand upperValue;
+        // Position of the converted values in the array passed to the steps, assigned when compiled
+        private int slot;
+
+        Comparison(String keyPath, RealmObjectSchema.FieldPath fieldPath, int operator, Case casing, Operand value,
+                   Operand upperValue) {
+            this.keyPath = keyPath;
+            // FieldPath.columnIndices is shared with the field path cache and never changed by TableQuery
+            this.columnIndices = fieldPath.columnIndices;
+            this.type = fieldPath.columnType;
+            this.operator = operator;
+            this.casing = casing;
+            // Literals are converted once, only arguments are converted every time the predicate is applied
+            this.value = convertLiteral(value);
+            this.upperValue = (upperValue == null) ? null : convertLiteral(upperValue);
+        }
+
+        private Operand convertLiteral(Operand operand) {
+            if (operand.argumentIndex >= 0) {
+                return operand;
+            }
+            return new Operand(-1, convert(operand.literal, "literal"));
+        }
+
+        @Override
+        void compile(List<Step> steps, List<Comparison> comparisons) {
+            slot = comparisons.size() * 2;
+            comparisons.add(this);
+            steps.add(new Step() {
+                @Override
+                void apply(TableQuery query, Object[] values) {
+                    Comparison.this.apply(query, values[slot], values[slot + 1]);
+                }
+            });
+        }
+
+        // Converts a literal or argument to the type used for the field, null is kept
+        Object convert(Object value, String description) {
+            if (value == null) {
+                if (operator != EQUAL && operator != NOT_EQUAL) {
+                    throw new IllegalArgumentException(String.format(
+                            "'%s': null can only be compared with == and !=.", keyPath));
+                }
+                // TableQuery rejects isNull() on aggregates, which must fail before any step changed the query
+                if (TableQuery.findAggregate(columnIndices) >= 0) {
+                    throw new IllegalArgumentException(String.format(
+                            "'%s': null can not be compared with an aggregate.", keyPath));
+                }
+                return null;
+            }
+            switch (type) {
+                case INTEGER:
+                    if (value instanceof Long || value instanceof Integer || value instanceof Short
+                            || value instanceof Byte) {
+                        return ((Number) value).longValue();
+                    }
+                    break;
+                case FLOAT:
+                    if (value instanceof Number) {
+                        return ((Number) value).floatValue();
+                    }
+                    break;
+                case DOUBLE:
+                    if (value instanceof Number) {
+                        return ((Number) value).doubleValue();
+                    }
+                    break;
+                case BOOLEAN:
+                    if (value instanceof Boolean) {
+                        return value;
+                    }
+                    break;
+                case STRING:
+                    if (value instanceof String) {
+                        return value;
+                    }
+                    break;
+                case DATE:
+                    if (value instanceof Date) {
+                        return value;
+                    }
+                    break;
+                case BINARY:
+                    if (value instanceof byte[]) {
+                        return value;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            throw new IllegalArgumentException(String.format("'%s': type mismatch - %s can not be compared with %s.",
+                    keyPath, description, type));
+        }
+
+        // Converts the values of the comparison and stores them in its slots, without changing any query
+        void convertValues(Object[] arguments, Object[] values) {
+            Object first = value.get(this, arguments);
+            Object second = (upperValue == null) ? null : upperValue.get(this, arguments);
+            if (operator == BETWEEN && (first == null || second == null)) {
+                throw new IllegalArgumentException(String.format("'%s': BETWEEN requires two values.", keyPath));
+            }
+            values[slot] = first;
+            values[slot + 1] = second;
+        }
+
+        void apply(TableQuery query, Object first, Object second) {
+            if (first == null) {
+                if (operator == EQUAL) {
+                    query.isNull(columnIndices);
+                } else {
+                    query.isNotNull(columnIndices);
+                }
+                return;
+            }
+            switch (type) {
+                case INTEGER:
+                    applyLong(query, (Long) first, (Long) second);
+                    break;
+                case FLOAT:
+                    applyFloat(query, (Float) first, (Float) second);
+                    break;
+                case DOUBLE:
+                    applyDouble(query, (Double) first, (Double) second);
+                    break;
+                case DATE:
+                    applyDate(query, (Date) first, (Date) second);
+                    break;
+                case STRING:
+                    applyString(query, (String) first);
+                    break;
+                case BOOLEAN:
+                    query.equalTo(columnIndices, (operator == EQUAL) == (Boolean) first);
+                    break;
+                case BINARY:
+                    if (operator == EQUAL) {
+                        query.equalTo(columnIndices, (byte[]) first);
+                    } else {
+                        query.notEqualTo(columnIndices, (byte[]) first);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported type: " + type);
+            }
+        }
+
+        private void applyLong(TableQuery query, long value, Long upperValue) {
+            switch (operator) {
+                case EQUAL: query.equalTo(columnIndices, value); break;
+                case NOT_EQUAL: query.notEqualTo(columnIndices, value); break;
+                case GREATER: query.greaterThan(columnIndices, value); break;
+                case GREATER_EQUAL: query.greaterThanOrEqual(columnIndices, value); break;
+                case LESS: query.lessThan(columnIndices, value); break;
+                case LESS_EQUAL: query.lessThanOrEqual(columnIndices, value); break;
+                default: query.between(columnIndices, value, upperValue); break;
+            }
+        }
+
+        private void applyFloat(TableQuery query, float value, Float upperValue) {
+            switch (operator) {
+                case EQUAL: query.equalTo(columnIndices, value); break;
+                case NOT_EQUAL: query.notEqualTo(columnIndices, value); break;
+                case GREATER: query.greaterThan(columnIndices, value); break;
+                case GREATER_EQUAL: query.greaterThanOrEqual(columnIndices, value); break;
+                case LESS: query.lessThan(columnIndices, value); break;
+                case LESS_EQUAL: query.lessThanOrEqual(columnIndices, value); break;
+                default: query.between(columnIndices, value, upperValue); break;
+            }
+        }
+
+        private void applyDouble(TableQuery query, double value, Double upperValue) {
+            switch (operator) {
+                case EQUAL: query.equalTo(columnIndices, value); break;
+                case NOT_EQUAL: query.notEqualTo(columnIndices, value); break;
+                case GREATER: query.greaterThan(columnIndices, value); break;
+                case GREATER_EQUAL: query.greaterThanOrEqual(columnIndices, value); break;
+                case LESS: query.lessThan(columnIndices, value); break;
+                case LESS_EQUAL: query.lessThanOrEqual(columnIndices, value); break;
+                default: query.between(columnIndices, value, upperValue); break;
+            }
+        }
+
+        private void applyDate(TableQuery query, Date value, Date upperValue) {
+            switch (operator) {
+                case EQUAL: query.equalTo(columnIndices, value); break;
+                case NOT_EQUAL: query.notEqualTo(columnIndices, value); break;
+                case GREATER: query.greaterThan(columnIndices, value); break;
+                case GREATER_EQUAL: query.greaterThanOrEqual(columnIndices, value); break;
+                case LESS: query.lessThan(columnIndices, value); break;
+                case LESS_EQUAL: query.lessThanOrEqual(columnIndices, value); break;
+                default: query.between(columnIndices, value, upperValue); break;
+            }
+        }
+
+        private void applyString(TableQuery query, String value) {
+            switch (operator) {
+                case EQUAL: query.equalTo(columnIndices, value, casing); break;
+                case NOT_EQUAL: query.notEqualTo(columnIndices, value, casing); break;
+                case BEGINS_WITH: query.beginsWith(columnIndices, value, casing); break;
+                case ENDS_WITH: query.endsWith(columnIndices, value, casing); break;
+                default: query.contains(columnIndices, value, casing); break;
+            }
+        }
+    }
+
+    // Recursive descent parser working directly on the predicate string
+    private static final class Parser {
+        private final RealmObjectSchema schema;
+        private final String input;
+        private int position;
+        int argumentCount;
+        boolean dependsOnOtherTables;
+
+        Parser(RealmObjectSchema schema, String input) {
+            this.schema = schema;
+            this.input = input;
+        }
+
+        Node parseOr() {
+            List<Node> children = new ArrayList<Node>();
+            children.add(parseAnd());
+            while (acceptKeyword("OR") || accept("||")) {
+                children.add(parseAnd());
+            }
+            return (children.size() == 1) ? children.get(0) : new OrNode(children);
+        }
+
+        private Node parseAnd() {
+            List<Node> children = new ArrayList<Node>();
+            children.add(parseNot());
+            while (acceptKeyword("AND") || accept("&&")) {
+                children.add(parseNot());
+            }
+            return (children.size() == 1) ? children.get(0) : new AndNode(children);
+        }
+
+        private Node parseNot() {
+            if (acceptKeyword("NOT") || (!peek("!=") && accept("!"))) {
+                return new NotNode(parseNot());
+            }
+            if (accept("(")) {
+                Node node = parseOr();
+                expect(")");
+                return node;
+            }
+            return parseComparison();
+        }
+
+        private Node parseComparison() {
+            int start = skipWhitespace();
+            String keyPath = readKeyPath();
+            if (keyPath.isEmpty()) {
+                throw error(start, "field name expected");
+            }
+            RealmObjectSchema.FieldPath fieldPath;
+            try {
+                fieldPath = schema.getFieldPath(keyPath);
+            } catch (IllegalArgumentException e) {
+                throw error(start, e.getMessage());
+            }
+            // Link paths and aggregates over lists read other tables, as does checking if a link is null
+            if (keyPath.indexOf('.') >= 0 || fieldPath.columnType == RealmFieldType.OBJECT) {
+                dependsOnOtherTables = true;
+            }
+
+            int operatorPosition = skipWhitespace();
+            int operator = readOperator();
+            Case casing = Case.SENSITIVE;
+            if (accept("[")) {
+                if (!acceptKeyword("c")) {
+                    throw error(position, "only the [c] modifier is supported");
+                }
+                expect("]");
+                casing = Case.INSENSITIVE;
+            }
+            checkOperator(keyPath, fieldPath.columnType, operator, casing, operatorPosition);
+
+            if (operator == BETWEEN) {
+                expect("{");
+                Operand lower = readOperand(fieldPath.columnType);
+                expect(",");
+                Operand upper = readOperand(fieldPath.columnType);
+                expect("}");
+                return new Comparison(keyPath, fieldPath, operator, casing, lower, upper);
+            }
+            return new Comparison(keyPath, fieldPath, operator, casing, readOperand(fieldPath.columnType), null);
+        }
+
+        private void checkOperator(String keyPath, RealmFieldType type, int operator, Case casing, int at) {
+            boolean valid;
+            switch (type) {
+                case INTEGER:
+                case FLOAT:
+                case DOUBLE:
+                case DATE:
+                    valid = operator <= LESS_EQUAL || operator == BETWEEN;
+                    break;
+                case STRING:
+                    valid = operator == EQUAL || operator == NOT_EQUAL || (operator >= BEGINS_WITH
+                            && operator <= CONTAINS);
+                    break;
+                case BOOLEAN:
+                case BINARY:
+                case OBJECT:
+                    // Links can only be compared with null
+                    valid = operator == EQUAL || operator == NOT_EQUAL;
+                    break;
+                default:
+                    valid = false;
+                    break;
+            }
+            if (!valid) {
+                throw error(at, String.format("operator not supported for field '%s' of type %s", keyPath, type));
+            }
+            if (casing == Case.INSENSITIVE && type != RealmFieldType.STRING) {
+                throw error(at, "[c] is only supported for String fields");
+            }
+        }
+
+        private Operand readOperand(RealmFieldType type) {
+            int start = skipWhitespace();
+            if (start >= input.length()) {
+                throw error(start, "value expected");
+            }
+            char c = input.charAt(start);
+            if (c == '$') {
+                position++;
+                int digitsStart = position;
+                while (position < input.length() && Character.isDigit(input.charAt(position))) {
+                    position++;
+                }
+                if (digitsStart == position) {
+                    throw error(start, "argument index expected after '$'");
+                }
+                int index = Integer.parseInt(input.substring(digitsStart, position));
+                argumentCount = Math.max(argumentCount, index + 1);
+                return new Operand(index, null);
+            }
+            if (c == '\'' || c == '"') {
+                return new Operand(-1, readString(c));
+            }
+            if (c == '-' || Character.isDigit(c)) {
+                return new Operand(-1, readNumber(type));
+            }
+            if (acceptKeyword("true")) {
+                return new Operand(-1, Boolean.TRUE);
+            }
+            if (acceptKeyword("false")) {
+                return new Operand(-1, Boolean.FALSE);
+            }
+            if (acceptKeyword("null") || acceptKeyword("nil")) {
+                return new Operand(-1, null);
+            }
+            throw error(start, "value expected");
+        }
+
+        private String readString(char quote) {
+            int start = position;
+            position++;
+            StringBuilder sb = new StringBuilder();
+            while (position < input.length()) {
+                char c = input.charAt(position++);
+                if (c == quote) {
+                    return sb.toString();
+                }
+                if (c == '\\' && position < input.length()) {
+                    c = input.charAt(position++);
+                    switch (c) {
+                        case 'n': sb.append('\n'); break;
+                        case 't': sb.append('\t'); break;
+                        default: sb.append(c); break;
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+            throw error(start, "unterminated string");
+        }
+
+        // Integral literals are longs, unless they are compared with a float or double field
+        private Number readNumber(RealmFieldType type) {
+            int start = position;
+            if (input.charAt(position) == '-') {
+                position++;
+            }
+            boolean integral = true;
+            while (position < input.length()) {
+                char c = input.charAt(position);
+                if (Character.isDigit(c)) {
+                    position++;
+                } else if (c == '.' || c == 'e' || c == 'E'
+                        || ((c == '-' || c == '+') && Character.toLowerCase(input.charAt(position - 1)) == 'e')) {
+                    integral = false;
+                    position++;
+                } else {
+                    break;
+                }
+            }
+            String text = input.substring(start, position);
+            try {
+                if (integral && type != RealmFieldType.FLOAT && type != RealmFieldType.DOUBLE) {
+                    return Long.parseLong(text);
+                }
+                return Double.parseDouble(text);
+            } catch (NumberFormatException e) {
+                throw error(start, "invalid number '" + text + "'");
+            }
+        }
+
+        private String readKeyPath() {
+            int start = position;
+            while (position < input.length()) {
+                char c = input.charAt(position);
+                if (Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '@' || c == '$') {
+                    position++;
+                } else {
+                    break;
+                }
+            }
+            return input.substring(start, position);
+        }
+
+        private int readOperator() {
+            // Longer operators first, so "<=" is not read as "<"
+            if (accept("==")) return EQUAL;
+            if (accept("!=") || accept("<>")) return NOT_EQUAL;
+            if (accept(">=") || accept("=>")) return GREATER_EQUAL;
+            if (accept("<=") || accept("=<")) return LESS_EQUAL;
+            if (accept("=")) return EQUAL;
+            if (accept(">")) return GREATER;
+            if (accept("<")) return LESS;
+            if (acceptKeyword("BEGINSWITH")) return BEGINS_WITH;
+            if (acceptKeyword("ENDSWITH")) return ENDS_WITH;
+            if (acceptKeyword("CONTAINS")) return CONTAINS;
+            if (acceptKeyword("BETWEEN")) return BETWEEN;
+            throw error(position, "operator expected");
+        }
+
+        private int skipWhitespace() {
+            while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+                position++;
+            }
+            return position;
+        }
+
+        private boolean peek(String token) {
+            skipWhitespace();
+            return input.startsWith(token, position);
+        }
+
+        private boolean accept(String token) {
+            if (peek(token)) {
+                position += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        // Keywords are case insensitive and must not be followed by a character of a field name
+        private boolean acceptKeyword(String keyword) {
+            skipWhitespace();
+            int end = position + keyword.length();
+            if (!input.regionMatches(true, position, keyword, 0, keyword.length())) {
+                return false;
+            }
+            if (end < input.length() && (Character.isLetterOrDigit(input.charAt(end)) || input.charAt(end) == '_')) {
+                return false;
+            }
+            position = end;
+            return true;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw error(position, "'" + token + "' expected");
+            }
+        }
+
+        void expectEnd() {
+            if (skipWhitespace() < input.length()) {
+                throw error(position, "unexpected '" + input.substring(position) + "'");
+            }
+        }
+
+        private IllegalArgumentException error(int at, String message) {
+            return new IllegalArgumentException(String.format(Locale.US, "Invalid predicate '%s' at position %d: %s",
+                    input, at, message));
+        }
+    }
+}
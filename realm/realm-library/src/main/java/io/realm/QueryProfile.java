@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Timings and row counts collected while running a {@link RealmQuery} with {@link RealmQuery#profile()}.
+ * <p>
+ * A query is executed in up to three stages: {@link #STAGE_FILTER} evaluates the conditions, {@link #STAGE_SORT}
+ * sorts the matching objects and {@link #STAGE_DISTINCT} removes duplicates. Only the stages that were requested are
+ * reported.
+ *
+ * @see QueryPlan
+ */
+public final class QueryProfile {
+
+    public static final String STAGE_FILTER = "filter";
+    public static final String STAGE_SORT = "sort";
+    public static final String STAGE_DISTINCT = "distinct";
+
+    /**
+     * Timing and row counts of a single stage.
+     */
+    public static final class Stage {
+        private final String name;
+        private final long durationNanos;
+        private final long inputRows;
+        private final long outputRows;
+
+        Stage(String name, long durationNanos, long inputRows, long outputRows) {
+            this.name = name;
+            this.durationNanos = durationNanos;
+            this.inputRows = inputRows;
+            this.outputRows = outputRows;
+        }
+
+        /**
+         * Returns the name of the stage, one of {@link #STAGE_FILTER}, {@link #STAGE_SORT} or
+         * {@link #STAGE_DISTINCT}.
+         *
+         * @return the stage name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the wall clock time spent in the stage, including the JNI call.
+         *
+         * @return the duration in nanoseconds.
+         */
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * Returns the number of rows the stage received.
+         *
+         * @return the number of input rows.
+         */
+        public long getInputRows() {
+            return inputRows;
+        }
+
+        /**
+         * Returns the number of rows the stage produced.
+         *
+         * @return the number of output rows.
+         */
+        public long getOutputRows() {
+            return outputRows;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s: %d -> %d rows in %.3f ms",
+                    name, inputRows, outputRows, durationNanos / 1000000.0);
+        }
+    }
+
+    private final QueryPlan plan;
+    private final List<Stage> stages = new ArrayList<Stage>();
+
+    QueryProfile(QueryPlan plan) {
+        this.plan = plan;
+    }
+
+    void addStage(String name, long durationNanos, long inputRows, long outputRows) {
+        stages.add(new Stage(name, durationNanos, inputRows, outputRows));
+    }
+
+    /**
+     * Returns the plan of the profiled query.
+     *
+     * @return the query plan.
+     */
+    public QueryPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Returns the executed stages in the order they were run.
+     *
+     * @return an unmodifiable list of stages.
+     */
+    public List<Stage> getStages() {
+        return Collections.unmodifiableList(stages);
+    }
+
+    /**
+     * Returns the stage with the given name.
+     *
+     * @param name name of the stage.
+     * @return the stage or {@code null} if it was not executed.
+     */
+    public Stage getStage(String name) {
+        for (Stage stage : stages) {
+            if (stage.name.equals(name)) {
+                return stage;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of rows the filter stage had to look at. If the query could not use a search index this is
+     * the number of candidate objects, otherwise it is the number of objects found through the index.
+     *
+     * @return the number of scanned rows.
+     */
+    public long getRowsScanned() {
+        Stage filter = getStage(STAGE_FILTER);
+        if (filter == null) {
+            return 0;
+        }
+        return plan.usesIndex() ? filter.outputRows : filter.inputRows;
+    }
+
+    /**
+     * Returns the number of objects in the final result.
+     *
+     * @return the result size.
+     */
+    public long getResultSize() {
+        return stages.isEmpty() ? 0 : stages.get(stages.size() - 1).outputRows;
+    }
+
+    /**
+     * Returns the total time spent in all stages.
+     *
+     * @return the duration in nanoseconds.
+     */
+    public long getTotalDurationNanos() {
+        long total = 0;
+        for (Stage stage : stages) {
+            total += stage.durationNanos;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(plan.toString());
+        for (Stage stage : stages) {
+            sb.append("\n  ").append(stage);
+        }
+        return sb.toString();
+    }
+}
@@ -20,6 +20,7 @@ import android.annotation.TargetApi;
 import android.app.IntentService;
 import android.os.Build;
 import android.util.JsonReader;
+import android.util.JsonToken;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -34,8 +35,8 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
-import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
@@ -50,6 +51,7 @@ import io.realm.internal.ColumnInfo;
 import io.realm.internal.RealmObjectProxy;
 import io.realm.internal.RealmProxyMediator;
 import io.realm.internal.Table;
+import io.realm.internal.android.JsonUtils;
 import io.realm.log.RealmLog;
 import rx.Observable;
 
@@ -284,6 +286,11 @@ public final class Realm extends BaseRealm {
                     transaction.execute(realm);
                 }
             }
+
+            // Views are built by the commit
+            if (realm.materializedViews != null && realm.materializedViews.isOutdated()) {
+                commitNeeded = true;
+            }
         } finally {
             if (commitNeeded) {
                 realm.commitTransaction(false);
@@ -456,22 +463,79 @@ public final class Realm extends BaseRealm {
             return;
         }
         checkHasPrimaryKey(clazz);
+        createOrUpdateAllFromJsonStream(clazz, in, 0);
+    }
 
-        // As we need the primary key value we have to first parse the entire input stream as in the general
-        // case that value might be the last property :(
-        Scanner scanner = null;
+    /**
+     * Tries to update a list of existing objects identified by their primary key with new JSON data, like
+     * {@link #createOrUpdateAllFromJson(Class, InputStream)}, and commits the changes every
+     * {@code objectsPerTransaction} objects. This must be called outside a transaction.
+     * <p>
+     * Only the object being read is held in memory, which makes it suitable for streams too large to be parsed at
+     * once. If reading or mapping an object fails, the objects of the current transaction are discarded while the
+     * ones committed before are kept.
+     *
+     * @param clazz type of {@link io.realm.RealmObject} to create or update. It must have a primary key defined.
+     * @param in the InputStream with a list of object data in JSON format.
+     * @param objectsPerTransaction the number of objects to create or update in each transaction.
+     * @throws IllegalArgumentException if trying to update a class without a {@link io.realm.annotations.PrimaryKey}
+     * or if {@code objectsPerTransaction} is not positive.
+     * @throws IllegalStateException if called within a transaction.
+     * @throws RealmException if unable to read JSON.
+     * @see #createOrUpdateAllFromJson(Class, java.io.InputStream)
+     */
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    public <E extends RealmModel> void createOrUpdateAllFromJson(Class<E> clazz, InputStream in,
+                                                                 int objectsPerTransaction) throws IOException {
+        if (objectsPerTransaction < 1) {
+            throw new IllegalArgumentException("'objectsPerTransaction' must be > 0: " + objectsPerTransaction);
+        }
+        if (clazz == null || in == null) {
+            return;
+        }
+        checkHasPrimaryKey(clazz);
+        if (isInTransaction()) {
+            throw new IllegalStateException("Objects cannot be committed in chunks within a transaction.");
+        }
+        createOrUpdateAllFromJsonStream(clazz, in, objectsPerTransaction);
+    }
+
+    // The primary key is needed to look up an object, but might be its last property. Each object of the array is
+    // therefore read into a JSONObject before it is created or updated, but only one at a time.
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    private <E extends RealmModel> void createOrUpdateAllFromJsonStream(Class<E> clazz, InputStream in,
+                                                                        int objectsPerTransaction) throws IOException {
+        boolean chunked = objectsPerTransaction > 0;
+        JsonReader reader = new JsonReader(new InputStreamReader(in, "UTF-8"));
         try {
-            scanner = getFullStringScanner(in);
-            JSONArray json = new JSONArray(scanner.next());
-            for (int i = 0; i < json.length(); i++) {
-                configuration.getSchemaMediator().createOrUpdateUsingJsonObject(clazz, this, json.getJSONObject(i), true);
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                throw new RealmException("Failed to read JSON: expected an array but was " + reader.peek());
+            }
+            if (chunked) {
+                beginTransaction();
+            }
+            int objectsInTransaction = 0;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                JSONObject json = JsonUtils.readJsonObject(reader);
+                configuration.getSchemaMediator().createOrUpdateUsingJsonObject(clazz, this, json, true);
+                if (chunked && ++objectsInTransaction == objectsPerTransaction) {
+                    commitTransaction();
+                    beginTransaction();
+                    objectsInTransaction = 0;
+                }
+            }
+            reader.endArray();
+            if (chunked) {
+                commitTransaction();
             }
         } catch (JSONException e) {
             throw new RealmException("Failed to read JSON", e);
         } finally {
-            if (scanner != null) {
-                scanner.close();
+            if (chunked && isInTransaction()) {
+                cancelTransaction();
             }
+            reader.close();
         }
     }
 
@@ -678,7 +742,8 @@ public final class Realm extends BaseRealm {
     }
 
     /**
-     * Instantiates and adds a new object to the Realm.
+     * Instantiates and adds a new object to the Realm. Objects of classes with a primary key declared with
+     * {@code @PrimaryKey(autoIncrement = true)} get the next key of its sequence.
      *
      * @param clazz the Class of the object to create.
      * @return the new object.
@@ -687,6 +752,11 @@ public final class Realm extends BaseRealm {
     public <E extends RealmModel> E createObject(Class<E> clazz) {
         checkIfValid();
         Table table = schema.getTable(clazz);
+        if (schema.isPrimaryKeyAutoIncrement(clazz)) {
+            long rowIndex = table.addEmptyRowWithPrimaryKey(
+                    table.nextAutoIncrementPrimaryKey(schema.getPrimaryKeyMaxValue(clazz)));
+            return get(clazz, rowIndex);
+        }
         // Check and throw the exception earlier for a better exception message.
         if (table.hasPrimaryKey()) {
             throw new RealmException(String.format("'%s' has a primary key, use" +
@@ -713,6 +783,9 @@ public final class Realm extends BaseRealm {
     public <E extends RealmModel> E createObject(Class<E> clazz, Object primaryKeyValue) {
         Table table = schema.getTable(clazz);
         long rowIndex = table.addEmptyRowWithPrimaryKey(primaryKeyValue);
+        if (schema.isPrimaryKeyAutoIncrement(clazz)) {
+            table.advanceAutoIncrementPrimaryKey(table.getLong(table.getPrimaryKey(), rowIndex));
+        }
         return get(clazz, rowIndex);
     }
 
@@ -845,8 +918,34 @@ public final class Realm extends BaseRealm {
         if (object == null) {
             throw new IllegalArgumentException("Null object cannot be inserted into Realm.");
         }
-        Map<RealmModel, Long> cache = new IdentityHashMap<RealmModel, Long>();
-        configuration.getSchemaMediator().insert(this, object, cache);
+        configuration.getSchemaMediator().insert(this, object);
+    }
+
+    /**
+     * Inserts the objects of a {@link ColumnBatch}, given as an array of values per field. Instead of setting the
+     * fields object by object, all objects are added at once and the values of each field are written with a single
+     * native call. This is much faster than {@link #insert(Collection)} for a large number of objects and does not
+     * allocate any objects per row.
+     * <p>
+     * Only classes without a primary key are supported. Link and list fields are left empty and
+     * {@link io.realm.annotations.Collated} fields cannot be set. Objects of a class declared with
+     * {@link io.realm.annotations.OrderedBy} must be ordered in the batch and come after the existing objects.
+     *
+     * @param clazz the class of the objects to insert.
+     * @param batch the values of the objects.
+     * @throws IllegalArgumentException if the class has a primary key or the values do not match the fields of the
+     * class. No object is inserted in that case.
+     * @throws IllegalStateException if the Realm is closed, called from an incorrect thread or not in a transaction.
+     */
+    public void insert(Class<? extends RealmModel> clazz, ColumnBatch batch) {
+        checkIfValidAndInTransaction();
+        if (clazz == null) {
+            throw new IllegalArgumentException("Non-null 'clazz' required.");
+        }
+        if (batch == null) {
+            throw new IllegalArgumentException("Null batch cannot be inserted into Realm.");
+        }
+        batch.insert(this, clazz);
     }
 
     /**
@@ -914,8 +1013,7 @@ public final class Realm extends BaseRealm {
         if (object == null) {
             throw new IllegalArgumentException("Null object cannot be inserted into Realm.");
         }
-        Map<RealmModel, Long> cache = new IdentityHashMap<RealmModel, Long>();
-        configuration.getSchemaMediator().insertOrUpdate(this, object, cache);
+        configuration.getSchemaMediator().insertOrUpdate(this, object);
     }
 
     /**
@@ -1064,6 +1162,23 @@ public final class Realm extends BaseRealm {
         return RealmQuery.createQuery(this, clazz);
     }
 
+    /**
+     * Returns a materialized view added to the configuration with
+     * {@link RealmConfiguration.Builder#materializedView(MaterializedViewDefinition)}. The view is maintained by
+     * every commit, reading it does not run a query.
+     *
+     * @param name the name of the view.
+     * @return the view, which always reflects the current version of this Realm.
+     * @throws IllegalArgumentException if the configuration has no view with the given name.
+     */
+    public MaterializedView getMaterializedView(String name) {
+        checkIfValid();
+        if (materializedViews == null) {
+            throw new IllegalArgumentException("No materialized view named '" + name + "' in the configuration.");
+        }
+        return materializedViews.get(name);
+    }
+
     /**
      * Adds a change listener to the Realm.
      * <p>
@@ -1297,6 +1412,115 @@ public final class Realm extends BaseRealm {
         schema.getTable(clazz).clear();
     }
 
+    /**
+     * Deletes the objects of a class with an integer primary key given their keys, with a single native call. Each
+     * key is looked up using the index of the primary key, so neither a query nor an {@code in()} condition is needed.
+     *
+     * @param clazz the class which objects should be removed.
+     * @param primaryKeys the primary keys of the objects to delete. Keys without an object are ignored.
+     * @return the number of objects deleted.
+     * @throws IllegalArgumentException if the class does not have an integer primary key.
+     * @throws IllegalStateException if the Realm is closed, called from an incorrect thread or not in a transaction.
+     */
+    public long deleteByPrimaryKeys(Class<? extends RealmModel> clazz, long... primaryKeys) {
+        if (primaryKeys == null) {
+            throw new IllegalArgumentException("Non-null 'primaryKeys' required.");
+        }
+        Table table = getTableForPrimaryKeyDeletion(clazz, RealmFieldType.INTEGER);
+        return table.removeRowsWithPrimaryKeys(primaryKeys, schema.getOrderedColumnIndex(clazz) >= 0);
+    }
+
+    /**
+     * Deletes the objects of a class with a {@code String} primary key given their keys, see
+     * {@link #deleteByPrimaryKeys(Class, long...)}.
+     *
+     * @param clazz the class which objects should be removed.
+     * @param primaryKeys the primary keys of the objects to delete, {@code null} elements delete the object with a
+     * {@code null} key. Keys without an object are ignored.
+     * @return the number of objects deleted.
+     * @throws IllegalArgumentException if the class does not have a {@code String} primary key.
+     * @throws IllegalStateException if the Realm is closed, called from an incorrect thread or not in a transaction.
+     */
+    public long deleteByPrimaryKeys(Class<? extends RealmModel> clazz, String... primaryKeys) {
+        if (primaryKeys == null) {
+            throw new IllegalArgumentException("Non-null 'primaryKeys' required.");
+        }
+        Table table = getTableForPrimaryKeyDeletion(clazz, RealmFieldType.STRING);
+        return table.removeRowsWithPrimaryKeys(primaryKeys, schema.getOrderedColumnIndex(clazz) >= 0);
+    }
+
+    private Table getTableForPrimaryKeyDeletion(Class<? extends RealmModel> clazz, RealmFieldType keyType) {
+        checkIfValid();
+        if (!isInTransaction()) {
+            throw new IllegalStateException("Objects can only be deleted inside a transaction.");
+        }
+        Table table = schema.getTable(clazz);
+        if (!table.hasPrimaryKey()) {
+            throw new IllegalArgumentException(clazz.getSimpleName() + " does not have a primary key.");
+        }
+        if (table.getColumnType(table.getPrimaryKey()) != keyType) {
+            throw new IllegalArgumentException(String.format("The primary key of %s is not of type %s.",
+                    clazz.getSimpleName(), keyType));
+        }
+        return table;
+    }
+
+    /**
+     * Deletes the objects of a class declared with {@link io.realm.annotations.OrderedBy} whose ordered field is
+     * less than the given value, e.g. to only retain the events of the last week. The objects are found by binary
+     * search, so no query is run, and removed with a single pass over the objects that keeps the order of the
+     * remaining ones.
+     *
+     * @param clazz the class which objects should be removed.
+     * @param value all objects with a smaller value are removed.
+     * @return the number of objects deleted.
+     * @throws IllegalArgumentException if the class is not declared with {@code @OrderedBy} or is ordered by a date
+     * field.
+     * @throws IllegalStateException if the Realm is closed, called from an incorrect thread or not in a transaction.
+     */
+    public long deleteBefore(Class<? extends RealmModel> clazz, long value) {
+        return deleteBefore(clazz, RealmFieldType.INTEGER, value);
+    }
+
+    /**
+     * Deletes the objects of a class declared with {@link io.realm.annotations.OrderedBy} whose ordered date field is
+     * before the given date, e.g. to only retain the events of the last week. The objects are found by binary search,
+     * so no query is run, and removed with a single pass over the objects that keeps the order of the remaining
+     * ones.
+     *
+     * @param clazz the class which objects should be removed.
+     * @param date all objects with an earlier date are removed.
+     * @return the number of objects deleted.
+     * @throws IllegalArgumentException if the class is not declared with {@code @OrderedBy} or is not ordered by a
+     * date field, or if the date is {@code null}.
+     * @throws IllegalStateException if the Realm is closed, called from an incorrect thread or not in a transaction.
+     */
+    public long deleteBefore(Class<? extends RealmModel> clazz, Date date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Non-null 'date' required.");
+        }
+        return deleteBefore(clazz, RealmFieldType.DATE, date.getTime());
+    }
+
+    private long deleteBefore(Class<? extends RealmModel> clazz, RealmFieldType fieldType, long value) {
+        checkIfValid();
+        if (!isInTransaction()) {
+            throw new IllegalStateException("Objects can only be deleted inside a transaction.");
+        }
+        Table table = schema.getTable(clazz);
+        long columnIndex = schema.getOrderedColumnIndex(clazz);
+        if (columnIndex < 0) {
+            throw new IllegalArgumentException(clazz.getSimpleName() + " is not declared with @OrderedBy.");
+        }
+        if (table.getColumnType(columnIndex) != fieldType) {
+            throw new IllegalArgumentException(String.format("%s is ordered by '%s' which is not of type %s.",
+                    clazz.getSimpleName(), table.getColumnName(columnIndex), fieldType));
+        }
+        long count = table.lowerBoundOrdered(columnIndex, value);
+        table.removeFirstRows(count);
+        return count;
+    }
+
 
     @SuppressWarnings("unchecked")
     private <E extends RealmModel> E copyOrUpdate(E object, boolean update, Map<RealmModel, RealmObjectProxy> cache) {
@@ -1396,6 +1620,21 @@ public final class Realm extends BaseRealm {
         return BaseRealm.compactRealm(configuration);
     }
 
+    /**
+     * Returns the write lock metrics of the Realm file specified by the given {@link RealmConfiguration}, recorded by
+     * the transactions of all {@link Realm} and {@link DynamicRealm} instances of the file in this process.
+     *
+     * @param configuration a {@link RealmConfiguration} pointing to a Realm file.
+     * @return the live {@link WriteLockMetrics} of the file.
+     * @throws IllegalArgumentException if the {@code configuration} is {@code null}.
+     */
+    public static WriteLockMetrics getWriteLockMetrics(RealmConfiguration configuration) {
+        if (configuration == null) {
+            throw new IllegalArgumentException("RealmConfiguration must be provided");
+        }
+        return WriteLock.forPath(configuration.getPath()).metrics;
+    }
+
     // Get the canonical path for a given file
     static String getCanonicalPath(File realmFile) {
         try {
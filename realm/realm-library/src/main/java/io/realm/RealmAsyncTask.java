@@ -27,18 +27,30 @@ import java.util.concurrent.Future;
  */
 public final class RealmAsyncTask {
     private final Future<?> pendingQuery;
+    private final Runnable cancelAction;
     private volatile boolean isCancelled = false;
 
     RealmAsyncTask(Future<?> pendingQuery) {
         this.pendingQuery = pendingQuery;
+        this.cancelAction = null;
+    }
+
+    // For tasks submitting more than one job, cancelAction is responsible for stopping all of them
+    RealmAsyncTask(Runnable cancelAction) {
+        this.pendingQuery = null;
+        this.cancelAction = cancelAction;
     }
 
     /**
      * Attempts to cancel execution of this transaction (if it hasn't already completed or previously cancelled).
      */
     public void cancel() {
-        pendingQuery.cancel(true);
         isCancelled = true;
+        if (cancelAction != null) {
+            cancelAction.run();
+            return;
+        }
+        pendingQuery.cancel(true);
 
         // From "Java Threads": By Scott Oaks & Henry Wong
         // cancelled tasks are never executed, but may
@@ -25,9 +25,12 @@ import java.io.InputStream;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Set;
 
 import io.realm.annotations.PrimaryKey;
@@ -98,6 +101,9 @@ public final class RealmConfiguration {
     private final RxObservableFactory rxObservableFactory;
     private final Realm.Transaction initialDataTransaction;
     private final WeakReference<Context> contextWeakRef;
+    private final long queryScanWarningThreshold;
+    private final boolean skipUnchangedUpdates;
+    private final List<MaterializedViewDefinition> materializedViews;
 
     private RealmConfiguration(Builder builder) {
         this.realmDirectory = builder.directory;
@@ -113,6 +119,10 @@ public final class RealmConfiguration {
         this.rxObservableFactory = builder.rxFactory;
         this.initialDataTransaction = builder.initialDataTransaction;
         this.contextWeakRef = builder.contextWeakRef;
+        this.queryScanWarningThreshold = builder.queryScanWarningThreshold;
+        this.skipUnchangedUpdates = builder.skipUnchangedUpdates;
+        this.materializedViews = Collections.unmodifiableList(
+                new ArrayList<MaterializedViewDefinition>(builder.materializedViews.values()));
     }
 
     public File getRealmDirectory() {
@@ -143,6 +153,36 @@ public final class RealmConfiguration {
         return durability;
     }
 
+    /**
+     * Returns the number of objects a query may scan without a search index before a warning is logged.
+     *
+     * @return the threshold or {@code 0} if the warning is disabled.
+     * @see Builder#queryScanWarningThreshold(long)
+     */
+    public long getQueryScanWarningThreshold() {
+        return queryScanWarningThreshold;
+    }
+
+    /**
+     * Checks if updates only write the fields which changed.
+     *
+     * @return {@code true} if unchanged fields are skipped, {@code false} otherwise.
+     * @see Builder#skipUnchangedUpdates()
+     */
+    public boolean shouldSkipUnchangedUpdates() {
+        return skipUnchangedUpdates;
+    }
+
+    /**
+     * Returns the materialized views maintained in Realms opened with this configuration.
+     *
+     * @return an unmodifiable list of view definitions, empty if there are none.
+     * @see Builder#materializedView(MaterializedViewDefinition)
+     */
+    public List<MaterializedViewDefinition> getMaterializedViews() {
+        return materializedViews;
+    }
+
     /**
      * Returns the mediator instance of schema which is defined by this configuration.
      *
@@ -223,6 +263,8 @@ public final class RealmConfiguration {
 
         if (schemaVersion != that.schemaVersion) return false;
         if (deleteRealmIfMigrationNeeded != that.deleteRealmIfMigrationNeeded) return false;
+        if (queryScanWarningThreshold != that.queryScanWarningThreshold) return false;
+        if (skipUnchangedUpdates != that.skipUnchangedUpdates) return false;
         if (!realmDirectory.equals(that.realmDirectory)) return false;
         if (!realmFileName.equals(that.realmFileName)) return false;
         if (!canonicalPath.equals(that.canonicalPath)) return false;
@@ -232,6 +274,7 @@ public final class RealmConfiguration {
         //noinspection SimplifiableIfStatement
         if (rxObservableFactory != null ? !rxObservableFactory.equals(that.rxObservableFactory) : that.rxObservableFactory != null) return false;
         if (initialDataTransaction != null ? !initialDataTransaction.equals(that.initialDataTransaction) : that.initialDataTransaction != null) return false;
+        if (!materializedViews.equals(that.materializedViews)) return false;
         return schemaMediator.equals(that.schemaMediator);
     }
 
@@ -248,6 +291,9 @@ public final class RealmConfiguration {
         result = 31 * result + durability.hashCode();
         result = 31 * result + (rxObservableFactory != null ? rxObservableFactory.hashCode() : 0);
         result = 31 * result + (initialDataTransaction != null ? initialDataTransaction.hashCode() : 0);
+        result = 31 * result + (int) (queryScanWarningThreshold ^ (queryScanWarningThreshold >>> 32));
+        result = 31 * result + (skipUnchangedUpdates ? 1 : 0);
+        result = 31 * result + materializedViews.hashCode();
 
         return result;
     }
@@ -322,6 +368,12 @@ public final class RealmConfiguration {
         stringBuilder.append("durability: ").append(durability);
         stringBuilder.append("\n");
         stringBuilder.append("schemaMediator: ").append(schemaMediator);
+        stringBuilder.append("\n");
+        stringBuilder.append("queryScanWarningThreshold: ").append(queryScanWarningThreshold);
+        stringBuilder.append("\n");
+        stringBuilder.append("skipUnchangedUpdates: ").append(skipUnchangedUpdates);
+        stringBuilder.append("\n");
+        stringBuilder.append("materializedViews: ").append(materializedViews);
 
         return stringBuilder.toString();
     }
@@ -360,6 +412,10 @@ public final class RealmConfiguration {
         private WeakReference<Context> contextWeakRef;
         private RxObservableFactory rxFactory;
         private Realm.Transaction initialDataTransaction;
+        private long queryScanWarningThreshold;
+        private boolean skipUnchangedUpdates;
+        private LinkedHashMap<String, MaterializedViewDefinition> materializedViews =
+                new LinkedHashMap<String, MaterializedViewDefinition>();
 
         /**
          * Creates an instance of the Builder for the RealmConfiguration.
@@ -594,6 +650,59 @@ public final class RealmConfiguration {
             return this;
         }
 
+        /**
+         * Logs a warning through {@link io.realm.log.RealmLog} whenever a query is about to scan more than the given
+         * number of objects without being able to use a search index. This is intended as a debugging aid when
+         * deciding which fields to mark with {@link io.realm.annotations.Index}. Use
+         * {@link RealmQuery#explain()} and {@link RealmQuery#profile()} to inspect individual queries.
+         *
+         * @param rows the maximum number of objects scanned without an index. {@code 0} disables the warning, which
+         * is the default.
+         * @throws IllegalArgumentException if {@code rows} is negative.
+         */
+        public Builder queryScanWarningThreshold(long rows) {
+            if (rows < 0) {
+                throw new IllegalArgumentException("Realm query scan warning threshold must be 0 or positive: " + rows);
+            }
+            this.queryScanWarningThreshold = rows;
+            return this;
+        }
+
+        /**
+         * Makes {@link Realm#copyToRealmOrUpdate(RealmModel)} and {@link Realm#insertOrUpdate(RealmModel)} compare
+         * the values of an existing object with the given ones and only write the fields which differ. Objects which
+         * did not change are not written at all, and a transaction which ends up writing nothing is committed without
+         * creating a new version, so no change listeners are notified, on this or any other thread.
+         * <p>
+         * Comparing costs a read per field, but avoids growing the file and waking up listeners when the same data
+         * is imported repeatedly, e.g. when refreshing a cache from a server.
+         */
+        public Builder skipUnchangedUpdates() {
+            this.skipUnchangedUpdates = true;
+            return this;
+        }
+
+        /**
+         * Maintains a materialized view in the Realm. The view is built when the Realm is opened and updated with
+         * every commit from the objects changed in the transaction. Read it with
+         * {@link Realm#getMaterializedView(String)}.
+         *
+         * @param definition the definition of the view.
+         * @throws IllegalArgumentException if the definition is {@code null} or a view with the same name was already
+         * added.
+         */
+        public Builder materializedView(MaterializedViewDefinition definition) {
+            if (definition == null) {
+                throw new IllegalArgumentException("A non-null materialized view definition must be provided");
+            }
+            if (materializedViews.containsKey(definition.getName())) {
+                throw new IllegalArgumentException("A materialized view named '" + definition.getName()
+                        + "' was already added.");
+            }
+            materializedViews.put(definition.getName(), definition);
+            return this;
+        }
+
         private void addModule(Object module) {
             if (module != null) {
                 checkModule(module);
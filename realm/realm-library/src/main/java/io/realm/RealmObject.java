@@ -24,6 +24,7 @@ import io.realm.annotations.RealmClass;
 import io.realm.internal.InvalidRow;
 import io.realm.internal.RealmObjectProxy;
 import io.realm.internal.Row;
+import io.realm.internal.Table;
 import rx.Observable;
 
 /**
@@ -107,10 +108,66 @@ public abstract class RealmObject implements RealmModel {
 
         proxy.realmGet$proxyState().getRealm$realm().checkIfValid();
         Row row = proxy.realmGet$proxyState().getRow$realm();
-        row.getTable().moveLastOver(row.getIndex());
+        Table table = row.getTable();
+        if (proxy.realmGet$proxyState().getRealm$realm().schema.getOrderedColumnIndex(table) >= 0) {
+            // Objects of classes declared with @OrderedBy must keep their order
+            table.remove(row.getIndex());
+        } else {
+            table.moveLastOver(row.getIndex());
+        }
         proxy.realmGet$proxyState().setRow$realm(InvalidRow.INSTANCE);
     }
 
+    /**
+     * Adds a number to an integer field of the object in native code, without reading the value first. Increments
+     * made by other threads or processes add up instead of overwriting each other. This is the way to change fields
+     * annotated with {@link io.realm.annotations.Counter}, but works for any integer field.
+     *
+     * @param fieldName the name of the integer field.
+     * @param delta the number to add, negative to subtract.
+     * @throws IllegalArgumentException if the field does not exist, is not an integer field, is the primary key or
+     * is named by {@link io.realm.annotations.OrderedBy}.
+     * @throws IllegalStateException if the object is not managed, the Realm is not in a transaction or the field is
+     * {@code null}.
+     * @see RealmQuery#increment(String, long)
+     */
+    public final void increment(String fieldName, long delta) {
+        increment(this, fieldName, delta);
+    }
+
+    /**
+     * Adds a number to an integer field of the object in native code, without reading the value first.
+     *
+     * @see #increment(String, long)
+     */
+    public static <E extends RealmModel> void increment(E object, String fieldName, long delta) {
+        if (!(object instanceof RealmObjectProxy)) {
+            throw new IllegalStateException("Only managed objects can be incremented.");
+        }
+        ProxyState proxyState = ((RealmObjectProxy) object).realmGet$proxyState();
+        BaseRealm realm = proxyState.getRealm$realm();
+        realm.checkIfValid();
+        realm.checkIfInTransaction();
+        Row row = proxyState.getRow$realm();
+        if (!row.isAttached()) {
+            throw new IllegalStateException("The object was deleted.");
+        }
+        long columnIndex = row.getColumnIndex(fieldName);
+        if (columnIndex == Table.NO_MATCH) {
+            throw new IllegalArgumentException("Field does not exist: " + fieldName);
+        }
+        if (row.getColumnType(columnIndex) != RealmFieldType.INTEGER) {
+            throw new IllegalArgumentException("Only integer fields can be incremented: " + fieldName);
+        }
+        if (realm.schema.getOrderedColumnIndex(row.getTable()) == columnIndex) {
+            throw new IllegalArgumentException("Fields named by @OrderedBy cannot be incremented: " + fieldName);
+        }
+        if (row.isNull(columnIndex)) {
+            throw new IllegalStateException("A null field cannot be incremented: " + fieldName);
+        }
+        row.getTable().incrementLong(columnIndex, row.getIndex(), delta);
+    }
+
 
     /**
      * Checks if the RealmObject is still valid to use i.e., the RealmObject hasn't been deleted nor has the
@@ -17,13 +17,17 @@
 package io.realm;
 
 import io.realm.annotations.Required;
+import io.realm.internal.Collation;
+import io.realm.internal.ColumnInfo;
 import io.realm.internal.Table;
 import io.realm.internal.TableOrView;
+import io.realm.internal.TableQuery;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
@@ -36,6 +40,7 @@ import java.util.Set;
  */
 public final class RealmObjectSchema {
 
+    private static final int MAX_CACHED_PREDICATES = 128;
     private static final Map<Class<?>, FieldMetaData> SUPPORTED_SIMPLE_FIELDS;
     static {
         SUPPORTED_SIMPLE_FIELDS = new HashMap<Class<?>, FieldMetaData>();
@@ -68,6 +73,18 @@ public final class RealmObjectSchema {
     private final BaseRealm realm;
     final Table table;
     private final Map<String, Long> columnIndices;
+    // Resolved field paths and parsed predicates for the schema generation in cacheGeneration, see getFieldPath()
+    // and getPredicate()
+    private final Map<String, FieldPath> fieldPaths = new HashMap<String, FieldPath>();
+    private final Map<String, QueryPredicate> predicates =
+            new LinkedHashMap<String, QueryPredicate>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, QueryPredicate> eldest) {
+                    // Predicates may contain literals, so the number of distinct strings is not bounded by the schema
+                    return size() > MAX_CACHED_PREDICATES;
+                }
+            };
+    private long cacheGeneration = -1;
 
     /**
      * Creates a schema object for a given Realm class.
@@ -123,6 +140,7 @@ public final class RealmObjectSchema {
             table.setPrimaryKey(null);
         }
         realm.sharedRealm.renameTable(table.getName(), internalTableName);
+        realm.schema.onSchemaChanged();
         if (pkField != null && !pkField.isEmpty()) {
             try {
                 table.setPrimaryKey(pkField);
@@ -168,6 +186,7 @@ public final class RealmObjectSchema {
         }
 
         long columnIndex = table.addColumn(metadata.realmType, fieldName, nullable);
+        realm.schema.onSchemaChanged();
         try {
             addModifiers(fieldName, attributes);
         } catch (Exception e) {
@@ -190,6 +209,7 @@ public final class RealmObjectSchema {
         checkLegalName(fieldName);
         checkFieldNameIsAvailable(fieldName);
         table.addColumnLink(RealmFieldType.OBJECT, fieldName, realm.sharedRealm.getTable(Table.TABLE_PREFIX + objectSchema.getClassName()));
+        realm.schema.onSchemaChanged();
         return this;
     }
 
@@ -205,6 +225,7 @@ public final class RealmObjectSchema {
         checkLegalName(fieldName);
         checkFieldNameIsAvailable(fieldName);
         table.addColumnLink(RealmFieldType.LIST, fieldName, realm.sharedRealm.getTable(Table.TABLE_PREFIX + objectSchema.getClassName()));
+        realm.schema.onSchemaChanged();
         return this;
     }
 
@@ -225,6 +246,7 @@ public final class RealmObjectSchema {
             table.setPrimaryKey(null);
         }
         table.removeColumn(columnIndex);
+        realm.schema.onSchemaChanged();
         return this;
     }
 
@@ -243,6 +265,7 @@ public final class RealmObjectSchema {
         checkFieldNameIsAvailable(newFieldName);
         long columnIndex = getColumnIndex(currentFieldName);
         table.renameColumn(columnIndex, newFieldName);
+        realm.schema.onSchemaChanged();
 
         // ATTENTION: We don't need to re-set the PK table here since the column index won't be changed when renaming.
 
@@ -312,6 +335,56 @@ public final class RealmObjectSchema {
         return this;
     }
 
+    /**
+     * Adds a collation key to a String field and computes the keys of all existing objects. This is the equivalent of
+     * adding the {@link io.realm.annotations.Collated} annotation on the field.
+     *
+     * @param fieldName field to add the collation key to.
+     * @param locale the locale as {@code "language"} or {@code "language_COUNTRY"}. It must be the same as the value of
+     * the annotation.
+     * @return the updated schema.
+     * @throws IllegalArgumentException if field name doesn't exist or isn't a String field.
+     * @throws IllegalStateException if the field already has a collation key.
+     */
+    public RealmObjectSchema addCollationKey(String fieldName, String locale) {
+        checkLegalName(fieldName);
+        checkFieldExists(fieldName);
+        long columnIndex = getColumnIndex(fieldName);
+        if (table.getColumnType(columnIndex) != RealmFieldType.STRING) {
+            throw new IllegalArgumentException("Only String fields can have a collation key: " + fieldName);
+        }
+        String keyColumnName = Collation.getKeyColumnName(fieldName);
+        if (table.getColumnIndex(keyColumnName) != TableOrView.NO_MATCH) {
+            throw new IllegalStateException(fieldName + " already has a collation key.");
+        }
+        long keyColumnIndex = table.addColumn(RealmFieldType.STRING, keyColumnName, true);
+        realm.schema.onSchemaChanged();
+        long size = table.size();
+        for (long rowIndex = 0; rowIndex < size; rowIndex++) {
+            table.setString(keyColumnIndex, rowIndex, Collation.getKey(locale, table.getString(columnIndex, rowIndex)));
+        }
+        return this;
+    }
+
+    /**
+     * Removes the collation key from a given field. This is the same as removing the {@code @Collated} annotation on
+     * the field.
+     *
+     * @param fieldName field to remove the collation key from.
+     * @return the updated schema.
+     * @throws IllegalStateException if the field doesn't have a collation key.
+     */
+    public RealmObjectSchema removeCollationKey(String fieldName) {
+        checkLegalName(fieldName);
+        long keyColumnIndex = table.getColumnIndex(Collation.getKeyColumnName(fieldName));
+        if (keyColumnIndex == TableOrView.NO_MATCH) {
+            throw new IllegalStateException("Field has no collation key: " + fieldName);
+        }
+        table.removeColumn(keyColumnIndex);
+        realm.schema.onSchemaChanged();
+        return this;
+    }
+
     /**
      * Adds a primary key to a given field. This is the same as adding the {@link io.realm.annotations.PrimaryKey}
      * annotation on the field. Further, this implicitly adds {@link io.realm.annotations.Index} annotation to the field as well.
@@ -389,6 +462,7 @@ public final class RealmObjectSchema {
         } else {
             table.convertColumnToNullable(columnIndex);
         }
+        realm.schema.onSchemaChanged();
         return this;
     }
 
@@ -590,57 +664,208 @@ public final class RealmObjectSchema {
      * @param validColumnTypes valid field type for the last field in a linked field
      * @return list of column indices.
      */
-    // TODO: consider another caching strategy so linked classes are included in the cache.
     long[] getColumnIndices(String fieldDescription, RealmFieldType... validColumnTypes) {
+        FieldPath fieldPath = getFieldPath(fieldDescription);
+        if (validColumnTypes != null && validColumnTypes.length > 0
+                && !isValidType(fieldPath.columnType, validColumnTypes)) {
+            if (fieldPath.columnIndices.length > 1) {
+                throw new IllegalArgumentException(String.format("Field '%s': type mismatch.",
+                        fieldDescription.substring(fieldDescription.lastIndexOf('.') + 1)));
+            }
+            throw new IllegalArgumentException(String.format("Field '%s': type mismatch. Was %s, expected %s.",
+                    fieldDescription, fieldPath.columnType, Arrays.toString(validColumnTypes)));
+        }
+        // The cached array must not be changed by the caller
+        return fieldPath.columnIndices.clone();
+    }
+
+    /**
+     * Resolves a field name or link path. Resolved paths are cached until the schema is changed through this Realm,
+     * so repeated queries on the same fields do not need to look up the columns again.
+     *
+     * @param fieldDescription fieldName or link path to a field name.
+     * @return the resolved path.
+     * @throws IllegalArgumentException if the path is invalid.
+     */
+    FieldPath getFieldPath(String fieldDescription) {
         if (fieldDescription == null || fieldDescription.equals("")) {
             throw new IllegalArgumentException("Non-empty fieldname must be provided");
         }
+        checkCacheGeneration();
+        FieldPath fieldPath = fieldPaths.get(fieldDescription);
+        if (fieldPath == null) {
+            fieldPath = resolveFieldPath(fieldDescription);
+            fieldPaths.put(fieldDescription, fieldPath);
+        }
+        return fieldPath;
+    }
+
+    /**
+     * Parses a predicate as used by {@link RealmQuery#filter(String, Object...)}. Parsed predicates are cached like
+     * field paths, the least recently used ones are dropped when more than {@value #MAX_CACHED_PREDICATES} different
+     * predicates are used.
+     *
+     * @param predicate the predicate string.
+     * @return the parsed predicate.
+     * @throws IllegalArgumentException if the predicate is invalid.
+     */
+    QueryPredicate getPredicate(String predicate) {
+        checkCacheGeneration();
+        QueryPredicate parsed = predicates.get(predicate);
+        if (parsed == null) {
+            parsed = QueryPredicate.parse(this, predicate);
+            predicates.put(predicate, parsed);
+        }
+        return parsed;
+    }
+
+    private void checkCacheGeneration() {
+        long generation = realm.schema.getGeneration();
+        if (cacheGeneration != generation) {
+            fieldPaths.clear();
+            predicates.clear();
+            cacheGeneration = generation;
+        }
+    }
+
+    private FieldPath resolveFieldPath(String fieldDescription) {
         if (fieldDescription.startsWith(".") || fieldDescription.endsWith(".")) {
             throw new IllegalArgumentException("Illegal field name. It cannot start or end with a '.': " + fieldDescription);
         }
         Table table = this.table;
-        boolean checkColumnType = validColumnTypes != null && validColumnTypes.length > 0;
         if (fieldDescription.contains(".")) {
             // Resolve field description down to last field name
             String[] names = fieldDescription.split("\\.");
+            int aggregateIndex = indexOfAggregate(names);
+            int linkCount = (aggregateIndex < 0) ? names.length - 1 : aggregateIndex - 1;
             long[] columnIndices = new long[names.length];
-            for (int i = 0; i < names.length - 1; i++) {
+            int pathIndex = 0;
+            for (int i = 0; i < linkCount; i++) {
                 long index = table.getColumnIndex(names[i]);
                 if (index < 0) {
-                    throw new IllegalArgumentException("Invalid query: " + names[i] + " does not refer to a class.");
+                    // Fields declared with @LinkingObjects have no column. They are encoded as a marker followed by
+                    // the table and column holding the links, see TableQuery.BACKLINK_PATH_ELEMENT.
+                    ColumnInfo.Backlink backlink = realm.schema.getBacklink(table, names[i]);
+                    if (backlink == null) {
+                        throw new IllegalArgumentException("Invalid query: " + names[i] + " does not refer to a class.");
+                    }
+                    Table originTable = realm.schema.getTable(backlink.originClassName);
+                    columnIndices = Arrays.copyOf(columnIndices, columnIndices.length + 2);
+                    columnIndices[pathIndex++] = TableQuery.BACKLINK_PATH_ELEMENT;
+                    columnIndices[pathIndex++] = originTable.getIndexInGroup();
+                    columnIndices[pathIndex++] = originTable.getColumnIndex(backlink.originFieldName);
+                    table = originTable;
+                    continue;
                 }
                 RealmFieldType type = table.getColumnType(index);
                 if (type == RealmFieldType.OBJECT || type == RealmFieldType.LIST) {
                     table = table.getLinkTarget(index);
-                    columnIndices[i] = index;
+                    columnIndices[pathIndex++] = index;
                 } else {
                     throw new IllegalArgumentException("Invalid query: " + names[i] + " does not refer to a class.");
                 }
             }
 
+            if (aggregateIndex >= 0) {
+                return resolveAggregatePath(fieldDescription, names, aggregateIndex, table,
+                        Arrays.copyOf(columnIndices, pathIndex));
+            }
+
             // Check if last field name is a valid field
             String columnName = names[names.length - 1];
             long columnIndex = table.getColumnIndex(columnName);
-            columnIndices[names.length - 1] = columnIndex;
+            columnIndices[pathIndex] = columnIndex;
             if (columnIndex < 0) {
                 throw new IllegalArgumentException(columnName + " is not a field name in class " + table.getName());
             }
-            if (checkColumnType && !isValidType(table.getColumnType(columnIndex), validColumnTypes)) {
-                throw new IllegalArgumentException(String.format("Field '%s': type mismatch.", names[names.length - 1]));
-            }
-            return columnIndices;
+            return new FieldPath(columnIndices, table, table.getColumnType(columnIndex));
         } else {
             Long fieldIndex = getFieldIndex(fieldDescription);
             if (fieldIndex == null) {
                 throw new IllegalArgumentException(String.format("Field '%s' does not exist.", fieldDescription));
             }
-            RealmFieldType tableColumnType = table.getColumnType(fieldIndex);
-            if (checkColumnType && !isValidType(tableColumnType, validColumnTypes)) {
-                throw new IllegalArgumentException(String.format("Field '%s': type mismatch. Was %s, expected %s.",
-                        fieldDescription, tableColumnType, Arrays.toString(validColumnTypes)));
+            return new FieldPath(new long[] {fieldIndex}, table, table.getColumnType(fieldIndex));
+        }
+    }
+
+    private static int indexOfAggregate(String[] names) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].startsWith("@")) {
+                return i;
             }
-            return new long[] {fieldIndex};
         }
+        return -1;
+    }
+
+    // Resolves a path ending with an aggregate over a list, e.g. "items.@sum.price" or "items.@count". The link
+    // prefix has already been resolved to the given table and column indices.
+    private FieldPath resolveAggregatePath(String fieldDescription, String[] names, int aggregateIndex, Table table,
+                                           long[] linkIndices) {
+        String aggregate = names[aggregateIndex];
+        int kind;
+        if (aggregate.equals("@sum")) {
+            kind = TableQuery.AGGREGATE_SUM;
+        } else if (aggregate.equals("@min")) {
+            kind = TableQuery.AGGREGATE_MIN;
+        } else if (aggregate.equals("@max")) {
+            kind = TableQuery.AGGREGATE_MAX;
+        } else if (aggregate.equals("@avg")) {
+            kind = TableQuery.AGGREGATE_AVERAGE;
+        } else if (aggregate.equals("@count")) {
+            kind = TableQuery.AGGREGATE_COUNT;
+        } else {
+            throw new IllegalArgumentException(String.format("Invalid query: unknown aggregate '%s' in '%s'. " +
+                    "Supported are @count, @sum, @min, @max and @avg.", aggregate, fieldDescription));
+        }
+        boolean isCount = (kind == TableQuery.AGGREGATE_COUNT);
+        if (aggregateIndex == 0 || names.length != aggregateIndex + (isCount ? 1 : 2)) {
+            String expected = isCount ? "end the path" : "be followed by a single field name";
+            throw new IllegalArgumentException(String.format("Invalid query: '%s' must follow a RealmList field " +
+                    "and %s: %s", aggregate, expected, fieldDescription));
+        }
+
+        String listName = names[aggregateIndex - 1];
+        long listIndex = table.getColumnIndex(listName);
+        if (listIndex < 0 || table.getColumnType(listIndex) != RealmFieldType.LIST) {
+            throw new IllegalArgumentException("Invalid query: " + listName + " is not a RealmList.");
+        }
+        long[] columnIndices = Arrays.copyOf(linkIndices, linkIndices.length + (isCount ? 3 : 4));
+        int pathIndex = linkIndices.length;
+        columnIndices[pathIndex++] = TableQuery.AGGREGATE_PATH_ELEMENT;
+        columnIndices[pathIndex++] = kind;
+        columnIndices[pathIndex++] = listIndex;
+        if (isCount) {
+            return new FieldPath(columnIndices, table, RealmFieldType.INTEGER);
+        }
+
+        Table target = table.getLinkTarget(listIndex);
+        String columnName = names[aggregateIndex + 1];
+        long columnIndex = target.getColumnIndex(columnName);
+        if (columnIndex < 0) {
+            throw new IllegalArgumentException(columnName + " is not a field name in class " + target.getName());
+        }
+        columnIndices[pathIndex] = columnIndex;
+        RealmFieldType columnType = target.getColumnType(columnIndex);
+        if (columnType != RealmFieldType.INTEGER && columnType != RealmFieldType.FLOAT
+                && columnType != RealmFieldType.DOUBLE) {
+            throw new IllegalArgumentException(String.format("Field '%s': type mismatch. %s is only supported on " +
+                    "int, float and double fields.", columnName, aggregate));
+        }
+
+        // Sums of floating point values and averages are always computed as doubles
+        RealmFieldType resultType;
+        switch (kind) {
+            case TableQuery.AGGREGATE_SUM:
+                resultType = (columnType == RealmFieldType.INTEGER) ? RealmFieldType.INTEGER : RealmFieldType.DOUBLE;
+                break;
+            case TableQuery.AGGREGATE_AVERAGE:
+                resultType = RealmFieldType.DOUBLE;
+                break;
+            default:
+                resultType = columnType;
+                break;
+        }
+        return new FieldPath(columnIndices, table, resultType);
     }
 
     private boolean isValidType(RealmFieldType columnType, RealmFieldType[] validColumnTypes) {
@@ -697,6 +922,25 @@ public final class RealmObjectSchema {
     }
 
     // Tuple containing data about each supported Java type
+    /**
+     * A resolved field name or link path.
+     */
+    static final class FieldPath {
+        // Column indices along the path as expected by TableQuery, the last one is the column of the field itself
+        final long[] columnIndices;
+        // The table holding the field, i.e. the target of the last link in the path. For aggregates this is the
+        // table holding the list.
+        final Table table;
+        // The type of the field or, for aggregates, the type of the computed value
+        final RealmFieldType columnType;
+
+        FieldPath(long[] columnIndices, Table table, RealmFieldType columnType) {
+            this.columnIndices = columnIndices;
+            this.table = table;
+            this.columnType = columnType;
+        }
+    }
+
     private static class FieldMetaData {
         public final RealmFieldType realmType;
         public final boolean defaultNullable;
@@ -27,6 +27,7 @@ import java.util.concurrent.Future;
 
 import io.realm.annotations.Required;
 import io.realm.internal.LinkView;
+import io.realm.internal.OrderedRange;
 import io.realm.internal.RealmNotifier;
 import io.realm.internal.RealmObjectProxy;
 import io.realm.internal.Row;
@@ -47,6 +48,13 @@ import io.realm.log.RealmLog;
  * The input to many of the query functions take a field name as String. Note that this is not type safe. If a 
  * RealmObject class is refactored care has to be taken to not break any queries.
  * <p>
+ * The numeric comparisons ({@link #equalTo(String, Long)}, {@link #greaterThan(String, long)} etc.) also accept an
+ * aggregate over a {@link RealmList} field, which is evaluated for every object by the query engine, e.g.
+ * {@code greaterThan("items.@sum.price", 100.0)} or {@code equalTo("items.@count", 0)}. Supported are
+ * {@code @count}, {@code @sum}, {@code @min}, {@code @max} and {@code @avg} over int, float and double fields. The
+ * sum of an integer field is an integer, averages and sums of float or double fields are doubles and minimum and
+ * maximum have the type of the field. The minimum, maximum and average of an empty list never match.
+ * <p>
  * A {@link io.realm.Realm} is unordered, which means that there is no guarantee that querying a Realm will return the
  * objects in the order they where inserted. Use {@link #findAllSorted(String)} and similar methods if a specific order
  * is required.
@@ -74,6 +82,10 @@ public final class RealmQuery<E extends RealmModel> {
     private final static Long INVALID_NATIVE_POINTER = 0L;
     private ArgumentsHolder argumentsHolder;
 
+    // Bounds of the conditions on the field of an @OrderedBy class, see narrowOrderedStart()
+    private long orderedColumnIndex = -1;
+    private OrderedRange orderedRange;
+
     /**
      * Creates a query for objects of a given class from a {@link Realm}.
      *
@@ -138,6 +150,7 @@ public final class RealmQuery<E extends RealmModel> {
         this.table = schema.table;
         this.linkView = null;
         this.query = table.where();
+        this.orderedColumnIndex = realm.schema.getOrderedColumnIndex(clazz);
     }
 
     private RealmQuery(RealmResults<E> queryResults, Class<E> clazz) {
@@ -279,6 +292,8 @@ public final class RealmQuery<E extends RealmModel> {
             this.query.isNull(columnIndices);
         } else {
             this.query.equalTo(columnIndices, value);
+            narrowOrderedStart(columnIndices, value, true);
+            narrowOrderedEnd(columnIndices, value, true);
         }
         return this;
     }
@@ -315,6 +330,8 @@ public final class RealmQuery<E extends RealmModel> {
             this.query.isNull(columnIndices);
         } else {
             this.query.equalTo(columnIndices, value);
+            narrowOrderedStart(columnIndices, value, true);
+            narrowOrderedEnd(columnIndices, value, true);
         }
         return this;
     }
@@ -333,6 +350,8 @@ public final class RealmQuery<E extends RealmModel> {
             this.query.isNull(columnIndices);
         } else {
             this.query.equalTo(columnIndices, value);
+            narrowOrderedStart(columnIndices, value, true);
+            narrowOrderedEnd(columnIndices, value, true);
         }
         return this;
     }
@@ -351,6 +370,8 @@ public final class RealmQuery<E extends RealmModel> {
             this.query.isNull(columnIndices);
         } else {
             this.query.equalTo(columnIndices, value);
+            narrowOrderedStart(columnIndices, value, true);
+            narrowOrderedEnd(columnIndices, value, true);
         }
         return this;
     }
@@ -419,6 +440,10 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> equalTo(String fieldName, Date value) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.DATE);
         this.query.equalTo(columnIndices, value);
+        if (value != null) {
+            narrowOrderedStart(columnIndices, value.getTime(), true);
+            narrowOrderedEnd(columnIndices, value.getTime(), true);
+        }
         return this;
     }
 
@@ -815,6 +840,7 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> greaterThan(String fieldName, int value) {
         long[] columnIndices = schema.getColumnIndices(fieldName, RealmFieldType.INTEGER);
         this.query.greaterThan(columnIndices, value);
+        narrowOrderedStart(columnIndices, value, false);
         return this;
     }
 
@@ -829,6 +855,7 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> greaterThan(String fieldName, long value) {
         long[] columnIndices = schema.getColumnIndices(fieldName, RealmFieldType.INTEGER);
         this.query.greaterThan(columnIndices, value);
+        narrowOrderedStart(columnIndices, value, false);
         return this;
     }
 
@@ -871,6 +898,7 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> greaterThan(String fieldName, Date value) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.DATE);
         this.query.greaterThan(columnIndices, value);
+        narrowOrderedStart(columnIndices, value.getTime(), false);
         return this;
     }
 
@@ -885,6 +913,7 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> greaterThanOrEqualTo(String fieldName, int value) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.INTEGER);
         this.query.greaterThanOrEqual(columnIndices, value);
+        narrowOrderedStart(columnIndices, value, true);
         return this;
     }
 
@@ -899,6 +928,7 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> greaterThanOrEqualTo(String fieldName, long value) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.INTEGER);
         this.query.greaterThanOrEqual(columnIndices, value);
+        narrowOrderedStart(columnIndices, value, true);
         return this;
     }
 
@@ -941,6 +971,7 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> greaterThanOrEqualTo(String fieldName, Date value) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.DATE);
         this.query.greaterThanOrEqual(columnIndices, value);
+        narrowOrderedStart(columnIndices, value.getTime(), true);
         return this;
     }
 
@@ -957,6 +988,7 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> lessThan(String fieldName, int value) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.INTEGER);
         this.query.lessThan(columnIndices, value);
+        narrowOrderedEnd(columnIndices, value, false);
         return this;
     }
 
@@ -971,6 +1003,7 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> lessThan(String fieldName, long value) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.INTEGER);
         this.query.lessThan(columnIndices, value);
+        narrowOrderedEnd(columnIndices, value, false);
         return this;
     }
 
@@ -1013,6 +1046,7 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> lessThan(String fieldName, Date value) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.DATE);
         this.query.lessThan(columnIndices, value);
+        narrowOrderedEnd(columnIndices, value.getTime(), false);
         return this;
     }
 
@@ -1027,6 +1061,7 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> lessThanOrEqualTo(String fieldName, int value) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.INTEGER);
         this.query.lessThanOrEqual(columnIndices, value);
+        narrowOrderedEnd(columnIndices, value, true);
         return this;
     }
 
@@ -1041,6 +1076,7 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> lessThanOrEqualTo(String fieldName, long value) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.INTEGER);
         this.query.lessThanOrEqual(columnIndices, value);
+        narrowOrderedEnd(columnIndices, value, true);
         return this;
     }
 
@@ -1083,6 +1119,7 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> lessThanOrEqualTo(String fieldName, Date value) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.DATE);
         this.query.lessThanOrEqual(columnIndices, value);
+        narrowOrderedEnd(columnIndices, value.getTime(), true);
         return this;
     }
 
@@ -1100,6 +1137,8 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> between(String fieldName, int from, int to) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.INTEGER);
         this.query.between(columnIndices, from, to);
+        narrowOrderedStart(columnIndices, from, true);
+        narrowOrderedEnd(columnIndices, to, true);
         return this;
     }
 
@@ -1115,6 +1154,8 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> between(String fieldName, long from, long to) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.INTEGER);
         this.query.between(columnIndices, from, to);
+        narrowOrderedStart(columnIndices, from, true);
+        narrowOrderedEnd(columnIndices, to, true);
         return this;
     }
 
@@ -1160,6 +1201,8 @@ public final class RealmQuery<E extends RealmModel> {
     public RealmQuery<E> between(String fieldName, Date from, Date to) {
         long columnIndices[] = schema.getColumnIndices(fieldName, RealmFieldType.DATE);
         this.query.between(columnIndices, from, to);
+        narrowOrderedStart(columnIndices, from.getTime(), true);
+        narrowOrderedEnd(columnIndices, to.getTime(), true);
         return this;
     }
 
@@ -1256,6 +1299,8 @@ public final class RealmQuery<E extends RealmModel> {
      * @see #endGroup()
      */
     public RealmQuery<E> beginGroup() {
+        // Conditions in groups can be combined with or()
+        orderedColumnIndex = -1;
         this.query.group();
         return this;
     }
@@ -1277,6 +1322,9 @@ public final class RealmQuery<E extends RealmModel> {
      * @return the query object.
      */
     public RealmQuery<E> or() {
+        // The conditions so far no longer restrict the result
+        orderedColumnIndex = -1;
+        orderedRange = null;
         this.query.or();
         return this;
     }
@@ -1287,6 +1335,7 @@ public final class RealmQuery<E extends RealmModel> {
      * @return the query object.
      */
     public RealmQuery<E> not() {
+        orderedColumnIndex = -1;
         this.query.not();
         return this;
     }
@@ -1319,6 +1368,168 @@ public final class RealmQuery<E extends RealmModel> {
         return this;
     }
 
+    // Subqueries
+
+    /**
+     * Condition that finds objects where at least one object in a {@link RealmList} field matches the subquery, e.g.
+     * {@code realm.where(Order.class).any("items", realm.where(Item.class).greaterThan("price", 100))}. The subquery
+     * is evaluated against the list of every object as part of the same scan, no objects are created.
+     *
+     * @param fieldName the {@link RealmList} field or a link path ending with one.
+     * @param subquery a query created with {@code where()} on the class of the objects in the list. It is copied, so
+     *                 later changes to it do not affect this query.
+     * @return the query object.
+     * @throws java.lang.IllegalArgumentException if the field is not a {@link RealmList} or the subquery is not a query
+     * on the class of the objects in the list from the same Realm.
+     */
+    public RealmQuery<E> any(String fieldName, RealmQuery<?> subquery) {
+        this.query.any(getColumnIndicesForSubquery(fieldName, subquery), subquery.query);
+        return this;
+    }
+
+    /**
+     * Condition that finds objects where all objects in a {@link RealmList} field match the subquery. Objects with an
+     * empty list also match.
+     *
+     * @param fieldName the {@link RealmList} field or a link path ending with one.
+     * @param subquery the query the objects in the list must match, see {@link #any(String, RealmQuery)}.
+     * @return the query object.
+     * @throws java.lang.IllegalArgumentException if the field is not a {@link RealmList} or the subquery is not a query
+     * on the class of the objects in the list from the same Realm.
+     */
+    public RealmQuery<E> all(String fieldName, RealmQuery<?> subquery) {
+        this.query.all(getColumnIndicesForSubquery(fieldName, subquery), subquery.query);
+        return this;
+    }
+
+    /**
+     * Condition that finds objects where no object in a {@link RealmList} field matches the subquery.
+     *
+     * @param fieldName the {@link RealmList} field or a link path ending with one.
+     * @param subquery the query the objects in the list must not match, see {@link #any(String, RealmQuery)}.
+     * @return the query object.
+     * @throws java.lang.IllegalArgumentException if the field is not a {@link RealmList} or the subquery is not a query
+     * on the class of the objects in the list from the same Realm.
+     */
+    public RealmQuery<E> none(String fieldName, RealmQuery<?> subquery) {
+        this.query.none(getColumnIndicesForSubquery(fieldName, subquery), subquery.query);
+        return this;
+    }
+
+    /**
+     * Condition that finds objects where exactly {@code count} objects in a {@link RealmList} field match the
+     * subquery.
+     *
+     * @param fieldName the {@link RealmList} field or a link path ending with one.
+     * @param subquery the query to count the matches of, see {@link #any(String, RealmQuery)}.
+     * @param count the number of matching objects.
+     * @return the query object.
+     * @throws java.lang.IllegalArgumentException if the field is not a {@link RealmList} or the subquery is not a query
+     * on the class of the objects in the list from the same Realm.
+     */
+    public RealmQuery<E> subqueryCountEqualTo(String fieldName, RealmQuery<?> subquery, long count) {
+        this.query.subqueryCountEqualTo(getColumnIndicesForSubquery(fieldName, subquery), subquery.query, count);
+        return this;
+    }
+
+    /**
+     * Condition that finds objects where more than {@code count} objects in a {@link RealmList} field match the
+     * subquery, e.g. orders with more than two items over a certain price.
+     *
+     * @param fieldName the {@link RealmList} field or a link path ending with one.
+     * @param subquery the query to count the matches of, see {@link #any(String, RealmQuery)}.
+     * @param count the number of matching objects to exceed.
+     * @return the query object.
+     * @throws java.lang.IllegalArgumentException if the field is not a {@link RealmList} or the subquery is not a query
+     * on the class of the objects in the list from the same Realm.
+     */
+    public RealmQuery<E> subqueryCountGreaterThan(String fieldName, RealmQuery<?> subquery, long count) {
+        this.query.subqueryCountGreaterThan(getColumnIndicesForSubquery(fieldName, subquery), subquery.query, count);
+        return this;
+    }
+
+    /**
+     * Condition that finds objects where less than {@code count} objects in a {@link RealmList} field match the
+     * subquery.
+     *
+     * @param fieldName the {@link RealmList} field or a link path ending with one.
+     * @param subquery the query to count the matches of, see {@link #any(String, RealmQuery)}.
+     * @param count the upper bound, exclusive.
+     * @return the query object.
+     * @throws java.lang.IllegalArgumentException if the field is not a {@link RealmList} or the subquery is not a query
+     * on the class of the objects in the list from the same Realm.
+     */
+    public RealmQuery<E> subqueryCountLessThan(String fieldName, RealmQuery<?> subquery, long count) {
+        this.query.subqueryCountLessThan(getColumnIndicesForSubquery(fieldName, subquery), subquery.query, count);
+        return this;
+    }
+
+    // Predicate strings
+
+    /**
+     * Adds the conditions described by a predicate string, e.g.
+     * {@code filter("age > $0 AND name BEGINSWITH[c] $1", 18, "a")}. This is useful if queries are defined at runtime,
+     * for example sent by a server.
+     * <p>
+     * The predicate consists of comparisons of the form {@code field operator value}, combined with {@code AND},
+     * {@code OR}, {@code NOT} and parentheses. Field names can be link paths and aggregates over lists as described
+     * in {@link RealmQuery}. Supported operators are {@code ==}, {@code !=}, {@code <}, {@code <=}, {@code >},
+     * {@code >=} and {@code BETWEEN {lower, upper}} for numbers and dates, and {@code ==}, {@code !=},
+     * {@code BEGINSWITH}, {@code ENDSWITH} and {@code CONTAINS} for strings, which are case insensitive when followed
+     * by {@code [c]}. Values are either placeholders {@code $0}, {@code $1}, ... for the given arguments or literals:
+     * quoted strings, numbers, {@code true}, {@code false} and {@code null}.
+     * <p>
+     * Parsed predicates are cached per class until the schema changes, so using the same predicate string again with
+     * different arguments does not parse it or look up its fields again.
+     *
+     * @param predicate the predicate string.
+     * @param arguments the values for the placeholders in the predicate.
+     * @return the query object.
+     * @throws java.lang.IllegalArgumentException if the predicate is invalid, refers to fields that do not exist or
+     * an argument is missing or does not match the type of its field.
+     */
+    public RealmQuery<E> filter(String predicate, Object... arguments) {
+        schema.getPredicate(predicate).apply(this.query, arguments);
+        return this;
+    }
+
+    // Objects of classes declared with @OrderedBy are stored in the order of the field, so a range condition on it
+    // limits the rows the query has to look at. The rows within the bounds are found by binary search when the query
+    // runs and the condition itself is still added to the query, so the rows only have to include all matches.
+    private void narrowOrderedStart(long[] columnIndices, long value, boolean inclusive) {
+        if (isOrderedColumn(columnIndices)) {
+            orderedRange = getOrderedRange().withLowerBound(value, inclusive);
+        }
+    }
+
+    private void narrowOrderedEnd(long[] columnIndices, long value, boolean inclusive) {
+        if (isOrderedColumn(columnIndices)) {
+            orderedRange = getOrderedRange().withUpperBound(value, inclusive);
+        }
+    }
+
+    private OrderedRange getOrderedRange() {
+        return (orderedRange != null) ? orderedRange : new OrderedRange(orderedColumnIndex);
+    }
+
+    private boolean isOrderedColumn(long[] columnIndices) {
+        return orderedColumnIndex >= 0 && columnIndices.length == 1 && columnIndices[0] == orderedColumnIndex;
+    }
+
+    private long[] getColumnIndicesForSubquery(String fieldName, RealmQuery<?> subquery) {
+        if (subquery == null) {
+            throw new IllegalArgumentException("Non-null subquery required.");
+        }
+        if (subquery.realm != realm) {
+            throw new IllegalArgumentException("The subquery must be created from the same Realm as this query.");
+        }
+        if (subquery.linkView != null || subquery.query.isRestrictedToView()) {
+            throw new IllegalArgumentException("The subquery must be created with where() on a class, not from " +
+                    "a RealmResults or RealmList.");
+        }
+        return schema.getColumnIndices(fieldName, RealmFieldType.LIST);
+    }
+
     /**
      * Returns a distinct set of objects of a specific class. If the result is sorted, the first
      * object will be returned in case of multiple occurrences, otherwise it is undefined which
@@ -1331,6 +1542,7 @@ public final class RealmQuery<E extends RealmModel> {
      */
     public RealmResults<E> distinct(String fieldName) {
         checkQueryIsNotReused();
+        warnIfUnindexedScan();
         long columnIndex = getAndValidateDistinctColumnIndex(fieldName, this.table.getTable());
         TableView tableView = this.query.findAll();
         tableView.distinct(columnIndex);
@@ -1359,6 +1571,7 @@ public final class RealmQuery<E extends RealmModel> {
      */
     public RealmResults<E> distinctAsync(String fieldName) {
         checkQueryIsNotReused();
+        warnIfUnindexedScan();
         final long columnIndex = getAndValidateDistinctColumnIndex(fieldName, this.table.getTable());
         final WeakReference<RealmNotifier> weakNotifier = getWeakReferenceNotifier();
 
@@ -1463,6 +1676,7 @@ public final class RealmQuery<E extends RealmModel> {
      */
     public RealmResults<E> distinct(String firstFieldName, String... remainingFieldNames) {
         checkQueryIsNotReused();
+        warnIfUnindexedScan();
         List<Long> columnIndexes = getValidatedColumIndexes(this.table.getTable(), firstFieldName, remainingFieldNames);
         TableView tableView = this.query.findAll();
         tableView.distinct(columnIndexes);
@@ -1477,6 +1691,180 @@ public final class RealmQuery<E extends RealmModel> {
         return realmResults;
     }
 
+    /**
+     * Similar to {@link #distinct(String, String...)} but runs asynchronously on a worker thread.
+     * This method is only available from a Looper thread.
+     *
+     * @param firstFieldName first field name to use when finding distinct objects.
+     * @param remainingFieldNames remaining field names when determining all unique combinations of field values.
+     * @return immediately a {@link RealmResults}. Users need to register a listener
+     * {@link io.realm.RealmResults#addChangeListener(RealmChangeListener)} to be notified when the
+     * query completes.
+     * @throws IllegalArgumentException if field names is empty or {@code null}, does not exist,
+     * is an unsupported type, is not indexed, or points to a linked field.
+     */
+    public RealmResults<E> distinctAsync(String firstFieldName, String... remainingFieldNames) {
+        checkQueryIsNotReused();
+        warnIfUnindexedScan();
+        long[] distinctColumnIndices = toArray(getValidatedColumIndexes(this.table.getTable(), firstFieldName,
+                remainingFieldNames));
+        return findAllSortedDistinctAsync(new long[0], new Sort[0], distinctColumnIndices);
+    }
+
+    /**
+     * Finds all objects that fulfill the query conditions sorted by specific field names, and then removes objects
+     * with the same values in the distinct fields as an earlier object. The first object of each unique combination
+     * of values in sort order is kept and the results stay sorted.
+     *
+     * @param sortFieldNames an array of field names to sort by.
+     * @param sortOrders how to sort the field names.
+     * @param distinctFieldNames the field names used to determine the unique combinations of values.
+     * @return a non-null {@link RealmResults} containing the distinct objects.
+     * @throws IllegalArgumentException if one of the sort field names does not exist or it belongs to a child
+     * {@link RealmObject} or a child {@link RealmList}, or if a distinct field is {@code null}, does not exist,
+     * is an unsupported type, is not indexed, or points to a linked field.
+     */
+    @SuppressWarnings("unchecked")
+    public RealmResults<E> findAllSortedDistinct(String[] sortFieldNames, Sort[] sortOrders,
+                                                  String[] distinctFieldNames) {
+        checkQueryIsNotReused();
+        checkSortParameters(sortFieldNames, sortOrders);
+        List<Long> distinctColumnIndices = getValidatedDistinctColumnIndexes(distinctFieldNames);
+        List<Long> sortColumnIndices = new ArrayList<Long>();
+        for (String fieldName : sortFieldNames) {
+            sortColumnIndices.add(getColumnIndexForSort(fieldName));
+        }
+        warnIfUnindexedScan();
+        TableView tableView = query.findAll();
+        tableView.sort(sortColumnIndices, sortOrders);
+        tableView.distinct(distinctColumnIndices);
+
+        RealmResults<E> realmResults;
+        if (isDynamicQuery()) {
+            realmResults = (RealmResults<E>) RealmResults.createFromDynamicTableOrView(realm, tableView, className);
+        } else {
+            realmResults = RealmResults.createFromTableOrView(realm, tableView, clazz);
+        }
+        return realmResults;
+    }
+
+    /**
+     * Similar to {@link #findAllSortedDistinct(String[], Sort[], String[])} but runs asynchronously on a worker
+     * thread. Sorting and removing duplicates happen in the same background pass, also when the results are updated
+     * after a change.
+     * This method is only available from a Looper thread.
+     *
+     * @return immediately a {@link RealmResults}. Users need to register a listener
+     * {@link io.realm.RealmResults#addChangeListener(RealmChangeListener)} to be notified when the
+     * query completes.
+     * @throws IllegalArgumentException if one of the sort field names does not exist or it belongs to a child
+     * {@link RealmObject} or a child {@link RealmList}, or if a distinct field is {@code null}, does not exist,
+     * is an unsupported type, is not indexed, or points to a linked field.
+     */
+    public RealmResults<E> findAllSortedDistinctAsync(String[] sortFieldNames, Sort[] sortOrders,
+                                                       String[] distinctFieldNames) {
+        checkQueryIsNotReused();
+        checkSortParameters(sortFieldNames, sortOrders);
+        long[] distinctColumnIndices = toArray(getValidatedDistinctColumnIndexes(distinctFieldNames));
+        long[] sortColumnIndices = new long[sortFieldNames.length];
+        for (int i = 0; i < sortFieldNames.length; i++) {
+            sortColumnIndices[i] = getColumnIndexForSort(sortFieldNames[i]);
+        }
+        warnIfUnindexedScan();
+        return findAllSortedDistinctAsync(sortColumnIndices, sortOrders, distinctColumnIndices);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RealmResults<E> findAllSortedDistinctAsync(final long[] sortColumnIndices, final Sort[] sortOrders,
+                                                       final long[] distinctColumnIndices) {
+        final WeakReference<RealmNotifier> weakNotifier = getWeakReferenceNotifier();
+
+        // handover the query (to be used by a worker thread)
+        final long handoverQueryPointer = query.handoverQuery(realm.sharedRealm);
+
+        // capture the query arguments for future retries & update
+        argumentsHolder = new ArgumentsHolder(ArgumentsHolder.TYPE_FIND_ALL_SORTED_DISTINCT);
+        argumentsHolder.columnIndices = sortColumnIndices;
+        argumentsHolder.sortOrders = sortOrders;
+        argumentsHolder.distinctColumnIndices = distinctColumnIndices;
+
+        // we need to use the same configuration to open a background SharedRealm to perform the query
+        final RealmConfiguration realmConfiguration = realm.getConfiguration();
+
+        RealmResults<E> realmResults;
+        if (isDynamicQuery()) {
+            //noinspection unchecked
+            realmResults = (RealmResults<E>) RealmResults.createFromDynamicClass(realm, query, className);
+        } else {
+            realmResults = RealmResults.createFromTableQuery(realm, query, clazz);
+        }
+
+        final WeakReference<RealmResults<? extends RealmModel>> weakRealmResults =
+                realm.handlerController.addToAsyncRealmResults(realmResults, this);
+
+        final Future<Long> pendingQuery = Realm.asyncTaskExecutor.submitQuery(new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                if (!Thread.currentThread().isInterrupted()) {
+                    SharedRealm sharedRealm = null;
+
+                    try {
+                        sharedRealm = SharedRealm.getInstance(realmConfiguration);
+
+                        // run the query, sort and distinct & handover the table view for the caller thread
+                        long handoverTableViewPointer = TableQuery.findAllSortedDistinctWithHandover(sharedRealm,
+                                handoverQueryPointer, sortColumnIndices, sortOrders, distinctColumnIndices);
+
+                        QueryUpdateTask.Result result = QueryUpdateTask.Result.newRealmResultsResponse();
+                        result.updatedTableViews.put(weakRealmResults, handoverTableViewPointer);
+                        result.versionID = sharedRealm.getVersionID();
+                        closeSharedRealmAndSendEventToNotifier(sharedRealm,
+                                weakNotifier, QueryUpdateTask.NotifyEvent.COMPLETE_ASYNC_RESULTS, result);
+
+                        return handoverTableViewPointer;
+                    } catch (BadVersionException e) {
+                        // In some rare race conditions, this can happen. In that case, just ignore the error.
+                        RealmLog.debug("distinctAsync handover could not complete due to a BadVersionException. " +
+                                "Retry is scheduled by a REALM_CHANGED event.");
+
+                    } catch (Throwable e) {
+                        RealmLog.error(e);
+                        closeSharedRealmAndSendEventToNotifier(sharedRealm,
+                                weakNotifier, QueryUpdateTask.NotifyEvent.THROW_BACKGROUND_EXCEPTION, e);
+                    } finally {
+                        if (sharedRealm != null && !sharedRealm.isClosed()) {
+                            sharedRealm.close();
+                        }
+                    }
+                } else {
+                    TableQuery.nativeCloseQueryHandover(handoverQueryPointer);
+                }
+
+                return INVALID_NATIVE_POINTER;
+            }
+        });
+
+        realmResults.setPendingQuery(pendingQuery);
+        return realmResults;
+    }
+
+    private List<Long> getValidatedDistinctColumnIndexes(String[] distinctFieldNames) {
+        if (distinctFieldNames == null || distinctFieldNames.length == 0) {
+            throw new IllegalArgumentException("At least one distinct field name must be specified.");
+        }
+        String[] remainingFieldNames = new String[distinctFieldNames.length - 1];
+        System.arraycopy(distinctFieldNames, 1, remainingFieldNames, 0, remainingFieldNames.length);
+        return getValidatedColumIndexes(this.table.getTable(), distinctFieldNames[0], remainingFieldNames);
+    }
+
+    private static long[] toArray(List<Long> list) {
+        long[] array = new long[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
     // find and validate the column indices of fields for building a distinctive TableView with multi-args
     static List<Long> getValidatedColumIndexes(Table table, String firstFieldName, String... remainingFieldNames) {
         List<Long> columnIndexes = new ArrayList<Long>();
@@ -1625,6 +2013,78 @@ public final class RealmQuery<E extends RealmModel> {
         return this.query.maximumDate(columnIndex);
     }
 
+    /**
+     * Groups the objects matching the query by a date field into buckets of a fixed interval and computes the count,
+     * minimum, maximum, sum, average, first and last value of a number field in each of them. Buckets start at
+     * multiples of the interval since the epoch, so an interval of a day produces buckets starting at midnight UTC.
+     * Objects with a {@code null} date or value are ignored.
+     *
+     * @param dateFieldName the date field to group by.
+     * @param valueFieldName the field to aggregate. Only int, long, short, byte, float and double fields are supported.
+     * @param intervalMillis the length of the buckets in milliseconds.
+     * @return a {@link TimeSeries} with one bucket for each interval containing objects.
+     * @throws IllegalArgumentException if a field does not exist or has the wrong type, or if the interval is not
+     * positive.
+     */
+    public TimeSeries aggregateByInterval(String dateFieldName, String valueFieldName, long intervalMillis) {
+        long dateColumnIndex = getColumnIndexForInterval(dateFieldName, valueFieldName, intervalMillis);
+        long valueColumnIndex = schema.getAndCheckFieldIndex(valueFieldName);
+        long[] data = query.aggregateByInterval(dateColumnIndex, valueColumnIndex, intervalMillis);
+        return TimeSeries.fromNative(intervalMillis, data, null);
+    }
+
+    /**
+     * Similar to {@link #aggregateByInterval(String, String, long)} but the aggregation is done on a worker thread
+     * and the listener is called with the result on the current thread. The aggregation is repeated each time the
+     * Realm changes until the returned task is cancelled. Updates only recompute the last bucket and the ones after
+     * it, which makes them cheap when objects are appended in date order. All buckets are recomputed if objects are
+     * removed, if objects outside of the last bucket and the ones after it are changed, if an object is added to or
+     * moved into an earlier bucket, or if the query follows links and linked objects change.
+     *
+     * @param dateFieldName the date field to group by.
+     * @param valueFieldName the field to aggregate. Only int, long, short, byte, float and double fields are supported.
+     * @param intervalMillis the length of the buckets in milliseconds.
+     * @param listener the listener receiving the {@link TimeSeries}.
+     * @return a {@link RealmAsyncTask} that stops the updates when cancelled. It must be cancelled from the current
+     * thread.
+     * @throws IllegalArgumentException if a field does not exist or has the wrong type, if the interval is not
+     * positive or if the listener is {@code null}.
+     * @throws IllegalStateException if the Realm is opened from a thread without a Looper.
+     */
+    public RealmAsyncTask aggregateByIntervalAsync(String dateFieldName, String valueFieldName, long intervalMillis,
+                                                   RealmChangeListener<TimeSeries> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener should not be null");
+        }
+        long dateColumnIndex = getColumnIndexForInterval(dateFieldName, valueFieldName, intervalMillis);
+        long valueColumnIndex = schema.getAndCheckFieldIndex(valueFieldName);
+        getWeakReferenceNotifier(); // Checks for a Looper
+        boolean dependsOnOtherTables = linkView != null || query.dependsOnOtherTables();
+        return new TimeSeriesObserver(realm, query, table.getTable().getIndexInGroup(), dependsOnOtherTables,
+                dateColumnIndex, valueColumnIndex, intervalMillis, listener).start();
+    }
+
+    // Validates the arguments of the interval aggregation and returns the column index of the date field
+    private long getColumnIndexForInterval(String dateFieldName, String valueFieldName, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("The interval must be positive: " + intervalMillis);
+        }
+        long dateColumnIndex = schema.getAndCheckFieldIndex(dateFieldName);
+        if (table.getColumnType(dateColumnIndex) != RealmFieldType.DATE) {
+            throw new IllegalArgumentException(String.format(TYPE_MISMATCH, dateFieldName, "Date"));
+        }
+        long valueColumnIndex = schema.getAndCheckFieldIndex(valueFieldName);
+        switch (table.getColumnType(valueColumnIndex)) {
+            case INTEGER:
+            case FLOAT:
+            case DOUBLE:
+                return dateColumnIndex;
+            default:
+                throw new IllegalArgumentException(String.format(TYPE_MISMATCH, valueFieldName,
+                        "int, float or double"));
+        }
+    }
+
     /**
      * Counts the number of objects that fulfill the query conditions.
      *
@@ -1632,9 +2092,183 @@ public final class RealmQuery<E extends RealmModel> {
      * @throws java.lang.UnsupportedOperationException if the query is not valid ("syntax error").
      */
     public long count() {
+        if (orderedRange != null) {
+            long[] rows = orderedRange.findRows(table.getTable());
+            if (rows[0] == rows[1]) {
+                return 0;
+            }
+            return this.query.count(rows[0], rows[1], Table.INFINITE);
+        }
         return this.query.count();
     }
 
+    /**
+     * Deletes all objects that fulfill the query conditions. Matching objects are deleted while the table is
+     * scanned, without collecting them in a {@link RealmResults} first. Queries on a {@link RealmResults} or a
+     * {@link RealmList} only search their objects, these are found first and deleted afterwards.
+     *
+     * @return the number of objects deleted.
+     * @throws IllegalStateException if the Realm is closed, called from an incorrect thread or not in a transaction.
+     * @throws java.lang.UnsupportedOperationException if the query is not valid ("syntax error").
+     */
+    public long deleteAll() {
+        realm.checkIfValid();
+        realm.checkIfInTransaction();
+        if (linkView != null || query.isRestrictedToView()) {
+            RealmResults<E> results = findAll();
+            long size = results.size();
+            results.deleteAllFromRealm();
+            return size;
+        }
+        // Removing rows of an ordered class must keep the order of the remaining ones
+        boolean ordered = realm.schema.getOrderedColumnIndex(table.getTable()) >= 0;
+        if (orderedRange != null) {
+            long[] rows = orderedRange.findRows(table.getTable());
+            if (rows[0] == rows[1]) {
+                return 0;
+            }
+            return query.remove(rows[0], rows[1], ordered);
+        }
+        return query.remove(0, Table.INFINITE, ordered);
+    }
+
+    /**
+     * Adds a number to an integer field of all objects that fulfill the query conditions. Matching objects are
+     * incremented in native code while the table is scanned, without reading the values or collecting the objects
+     * in a {@link RealmResults} first. Objects where the field is {@code null} are left unchanged. Queries on a
+     * {@link RealmResults} or a {@link RealmList} only search their objects, these are found first and incremented
+     * afterwards.
+     *
+     * @param fieldName the integer field to increment.
+     * @param delta the number to add, negative to subtract.
+     * @throws IllegalArgumentException if the field does not exist, is not an integer field, is a field of a linked
+     * object, the primary key or named by {@link io.realm.annotations.OrderedBy}.
+     * @throws IllegalStateException if the Realm is closed, called from an incorrect thread or not in a transaction.
+     * @see RealmObject#increment(String, long)
+     */
+    public void increment(String fieldName, long delta) {
+        realm.checkIfValid();
+        realm.checkIfInTransaction();
+        if (linkView != null || query.isRestrictedToView()) {
+            findAll().increment(fieldName, delta);
+            return;
+        }
+        long[] columnIndices = schema.getColumnIndices(fieldName, RealmFieldType.INTEGER);
+        if (columnIndices.length > 1) {
+            throw new IllegalArgumentException("Fields of linked objects cannot be incremented: " + fieldName);
+        }
+        long columnIndex = columnIndices[0];
+        Table parent = table.getTable();
+        if (parent.hasPrimaryKey() && parent.getPrimaryKey() == columnIndex) {
+            throw new IllegalArgumentException("The primary key cannot be incremented: " + fieldName);
+        }
+        if (realm.schema.getOrderedColumnIndex(parent) == columnIndex) {
+            throw new IllegalArgumentException("Fields named by @OrderedBy cannot be incremented: " + fieldName);
+        }
+        if (orderedRange != null) {
+            long[] rows = orderedRange.findRows(table.getTable());
+            if (rows[0] == rows[1]) {
+                return;
+            }
+            query.incrementLong(rows[0], rows[1], columnIndex, delta);
+            return;
+        }
+        query.incrementLong(0, Table.INFINITE, columnIndex, delta);
+    }
+
+    /**
+     * Describes how the query will be evaluated without running it. The returned {@link QueryPlan} lists the
+     * conditions of the query and which of them can be answered using a search index.
+     *
+     * @return the plan of the query.
+     * @see io.realm.annotations.Index
+     */
+    public QueryPlan explain() {
+        return QueryPlan.create(realm.schema, schema.getClassName(), table.getTable(), query, getSourceSize());
+    }
+
+    /**
+     * Runs the query and collects timings and row counts for the filter stage. The query can still be used
+     * afterwards.
+     *
+     * @return the collected {@link QueryProfile}.
+     * @throws java.lang.UnsupportedOperationException if the query is not valid ("syntax error").
+     */
+    public QueryProfile profile() {
+        return profile(null, null);
+    }
+
+    /**
+     * Runs the query and collects timings and row counts for the filter, sort and distinct stages. The sort stage is
+     * run before the distinct stage, the same way as sorting a {@link RealmResults} before calling distinct on it.
+     * The query can still be used afterwards.
+     *
+     * @param sortFieldNames fields to sort by or {@code null} to skip the sort stage.
+     * @param sortOrders how to sort the fields. Must have the same length as {@code sortFieldNames}.
+     * @param distinctFieldNames fields to find distinct objects for. If none are given the distinct stage is skipped.
+     * @return the collected {@link QueryProfile}.
+     * @throws java.lang.IllegalArgumentException if a sort or distinct field is invalid, see
+     * {@link #findAllSorted(String[], Sort[])} and {@link #distinct(String, String...)}.
+     */
+    public QueryProfile profile(String[] sortFieldNames, Sort[] sortOrders, String... distinctFieldNames) {
+        List<Long> sortColumnIndices = null;
+        if (sortFieldNames != null) {
+            checkSortParameters(sortFieldNames, sortOrders);
+            sortColumnIndices = new ArrayList<Long>(sortFieldNames.length);
+            for (String fieldName : sortFieldNames) {
+                sortColumnIndices.add(getColumnIndexForSort(fieldName));
+            }
+        }
+        List<Long> distinctColumnIndices = null;
+        if (distinctFieldNames != null && distinctFieldNames.length > 0) {
+            distinctColumnIndices = new ArrayList<Long>(distinctFieldNames.length);
+            for (String fieldName : distinctFieldNames) {
+                distinctColumnIndices.add(getAndValidateDistinctColumnIndex(fieldName, table.getTable()));
+            }
+        }
+
+        QueryProfile profile = new QueryProfile(explain());
+        long sourceSize = profile.getPlan().getSourceSize();
+
+        long start = System.nanoTime();
+        TableView tableView = query.findAll();
+        long size = tableView.size();
+        profile.addStage(QueryProfile.STAGE_FILTER, System.nanoTime() - start, sourceSize, size);
+
+        if (sortColumnIndices != null) {
+            start = System.nanoTime();
+            tableView.sort(sortColumnIndices, sortOrders);
+            profile.addStage(QueryProfile.STAGE_SORT, System.nanoTime() - start, size, size);
+        }
+
+        if (distinctColumnIndices != null) {
+            start = System.nanoTime();
+            tableView.distinct(distinctColumnIndices);
+            long distinctSize = tableView.size();
+            profile.addStage(QueryProfile.STAGE_DISTINCT, System.nanoTime() - start, size, distinctSize);
+        }
+        return profile;
+    }
+
+    // Number of objects the query is evaluated against.
+    private long getSourceSize() {
+        return (linkView != null) ? linkView.size() : query.getSourceSize();
+    }
+
+    // Logs a warning if the query is about to scan more objects than allowed by
+    // RealmConfiguration.Builder#queryScanWarningThreshold(long) without using a search index.
+    private void warnIfUnindexedScan() {
+        long threshold = realm.getConfiguration().getQueryScanWarningThreshold();
+        if (threshold <= 0 || getSourceSize() <= threshold) {
+            return;
+        }
+        QueryPlan plan = explain();
+        if (!plan.usesIndex()) {
+            RealmLog.warn("Query scans %d objects without using a search index (threshold is %d):\n%s",
+                    plan.getSourceSize(), threshold, plan);
+        }
+    }
+
     /**
      * Finds all objects that fulfill the query conditions.
      *
@@ -1645,11 +2279,18 @@ public final class RealmQuery<E extends RealmModel> {
     @SuppressWarnings("unchecked")
     public RealmResults<E> findAll() {
         checkQueryIsNotReused();
+        TableView tableView;
+        if (orderedRange != null) {
+            tableView = query.findAll(orderedRange);
+        } else {
+            warnIfUnindexedScan();
+            tableView = query.findAll();
+        }
         RealmResults<E> realmResults;
         if (isDynamicQuery()) {
-            realmResults =  (RealmResults<E>) RealmResults.createFromDynamicTableOrView(realm, query.findAll(), className);
+            realmResults =  (RealmResults<E>) RealmResults.createFromDynamicTableOrView(realm, tableView, className);
         } else {
-            realmResults = RealmResults.createFromTableOrView(realm, query.findAll(), clazz);
+            realmResults = RealmResults.createFromTableOrView(realm, tableView, clazz);
         }
         return realmResults;
     }
@@ -1664,6 +2305,7 @@ public final class RealmQuery<E extends RealmModel> {
      */
     public RealmResults<E> findAllAsync() {
         checkQueryIsNotReused();
+        warnIfUnindexedScan();
         final WeakReference<RealmNotifier> weakNotifier = getWeakReferenceNotifier();
 
         // handover the query (to be used by a worker thread)
@@ -1741,7 +2383,8 @@ public final class RealmQuery<E extends RealmModel> {
      * Finds all objects that fulfill the query conditions and sorted by specific field name.
      * <p>
      * Sorting is currently limited to character sets in 'Latin Basic', 'Latin Supplement', 'Latin Extended A',
-     * 'Latin Extended B' (UTF-8 range 0-591). For other character sets, sorting will have no effect.
+     * 'Latin Extended B' (UTF-8 range 0-591). For other character sets, sorting will have no effect unless the
+     * field is annotated with {@link io.realm.annotations.Collated}.
      *
      * @param fieldName the field name to sort by.
      * @param sortOrder how to sort the results.
@@ -1753,6 +2396,7 @@ public final class RealmQuery<E extends RealmModel> {
     @SuppressWarnings("unchecked")
     public RealmResults<E> findAllSorted(String fieldName, Sort sortOrder) {
         checkQueryIsNotReused();
+        warnIfUnindexedScan();
         TableView tableView = query.findAll();
         long columnIndex = getColumnIndexForSort(fieldName);
         tableView.sort(columnIndex, sortOrder);
@@ -1777,6 +2421,7 @@ public final class RealmQuery<E extends RealmModel> {
      */
     public RealmResults<E> findAllSortedAsync(final String fieldName, final Sort sortOrder) {
         checkQueryIsNotReused();
+        warnIfUnindexedScan();
         long columnIndex = getColumnIndexForSort(fieldName);
 
         // capture the query arguments for future retries & update
@@ -1856,7 +2501,8 @@ public final class RealmQuery<E extends RealmModel> {
      * Finds all objects that fulfill the query conditions and sorted by specific field name in ascending order.
      *
      * Sorting is currently limited to character sets in 'Latin Basic', 'Latin Supplement', 'Latin Extended A',
-     * 'Latin Extended B' (UTF-8 range 0-591). For other character sets, sorting will have no effect.
+     * 'Latin Extended B' (UTF-8 range 0-591). For other character sets, sorting will have no effect unless the
+     * field is annotated with {@link io.realm.annotations.Collated}.
      *
      * @param fieldName the field name to sort by.
      * @return a {@link io.realm.RealmResults} containing objects. If no objects match the condition, a list with zero
@@ -1885,7 +2531,8 @@ public final class RealmQuery<E extends RealmModel> {
      * Finds all objects that fulfill the query conditions and sorted by specific field names.
      * <p>
      * Sorting is currently limited to character sets in 'Latin Basic', 'Latin Supplement', 'Latin Extended A',
-     * 'Latin Extended B' (UTF-8 range 0-591). For other character sets, sorting will have no effect.
+     * 'Latin Extended B' (UTF-8 range 0-591). For other character sets, sorting will have no effect unless the
+     * field is annotated with {@link io.realm.annotations.Collated}.
      *
      * @param fieldNames an array of field names to sort by.
      * @param sortOrders how to sort the field names.
@@ -1901,6 +2548,7 @@ public final class RealmQuery<E extends RealmModel> {
         if (fieldNames.length == 1 && sortOrders.length == 1) {
             return findAllSorted(fieldNames[0], sortOrders[0]);
         } else {
+            warnIfUnindexedScan();
             TableView tableView = query.findAll();
             List<Long> columnIndices = new ArrayList<Long>();
             //noinspection ForLoopReplaceableByForEach
@@ -1941,9 +2589,11 @@ public final class RealmQuery<E extends RealmModel> {
         checkSortParameters(fieldNames, sortOrders);
 
         if (fieldNames.length == 1 && sortOrders.length == 1) {
+            // The single field overload warns about unindexed scans itself
             return findAllSortedAsync(fieldNames[0], sortOrders[0]);
 
         } else {
+            warnIfUnindexedScan();
             final WeakReference<RealmNotifier> weakNotifier = getWeakReferenceNotifier();
 
             // Handover the query (to be used by a worker thread)
@@ -2026,7 +2676,8 @@ public final class RealmQuery<E extends RealmModel> {
      * Finds all objects that fulfill the query conditions and sorted by specific field names in ascending order.
      *
      * Sorting is currently limited to character sets in 'Latin Basic', 'Latin Supplement', 'Latin Extended A',
-     * 'Latin Extended B' (UTF-8 range 0-591). For other character sets, sorting will have no effect.
+     * 'Latin Extended B' (UTF-8 range 0-591). For other character sets, sorting will have no effect unless the
+     * field is annotated with {@link io.realm.annotations.Collated}.
      *
      * @param fieldName1 first field name
      * @param sortOrder1 sort order for first field
@@ -2056,6 +2707,135 @@ public final class RealmQuery<E extends RealmModel> {
         return findAllSortedAsync(new String[]{fieldName1, fieldName2}, new Sort[]{sortOrder1, sortOrder2});
     }
 
+    /**
+     * Finds the first {@code k} objects that fulfill the query conditions when sorted by the given field. This is
+     * faster than {@link #findAllSorted(String, Sort)} when only the first objects are needed, as the objects after
+     * the k-th one are neither sorted nor part of the results.
+     * <p>
+     * Objects with the same value as the k-th object are included, so the results can contain more than {@code k}
+     * objects. Objects where the field is {@code null} are never included.
+     * <p>
+     * The returned {@link RealmResults} are live, but only objects sorting before or equal to the k-th object at the
+     * time of the query will be part of them. Use {@link #findTopKAsync(String, Sort, int)} to have the first
+     * {@code k} objects found again after every change.
+     *
+     * @param fieldName the field name to sort by. Only integer, float, double and date fields are supported.
+     * @param sortOrder how to sort the results.
+     * @param k the number of objects to find.
+     * @return a {@link io.realm.RealmResults} containing the first {@code k} objects.
+     * @throws java.lang.IllegalArgumentException if {@code k} is negative, the field name does not exist, it belongs to
+     * a child {@link RealmObject} or a child {@link RealmList} or the type of the field is not supported.
+     * @throws java.lang.UnsupportedOperationException if the query contains an {@link #or()} outside a group. Use
+     * {@link #beginGroup()} and {@link #endGroup()} around the alternatives.
+     */
+    @SuppressWarnings("unchecked")
+    public RealmResults<E> findTopK(String fieldName, Sort sortOrder, int k) {
+        checkQueryIsNotReused();
+        long columnIndex = getColumnIndexForTopK(fieldName, sortOrder, k);
+        warnIfUnindexedScan();
+        TableView tableView = query.findTopK(columnIndex, sortOrder, k);
+
+        RealmResults<E> realmResults;
+        if (isDynamicQuery()) {
+            realmResults = (RealmResults<E>) RealmResults.createFromDynamicTableOrView(realm, tableView, className);
+        } else {
+            realmResults = RealmResults.createFromTableOrView(realm, tableView, clazz);
+        }
+        return realmResults;
+    }
+
+    /**
+     * Similar to {@link #findTopK(String, Sort, int)} but runs asynchronously on a worker thread. The first {@code k}
+     * objects are found again every time the Realm changes.
+     * This method is only available from a Looper thread.
+     *
+     * @return immediately an empty {@link RealmResults}. Users need to register a listener
+     * {@link io.realm.RealmResults#addChangeListener(RealmChangeListener)} to be notified when the query completes.
+     * @throws java.lang.IllegalArgumentException if {@code k} is negative, the field name does not exist, it belongs to
+     * a child {@link RealmObject} or a child {@link RealmList} or the type of the field is not supported.
+     * @throws java.lang.UnsupportedOperationException if the query contains an {@link #or()} outside a group.
+     */
+    @SuppressWarnings("unchecked")
+    public RealmResults<E> findTopKAsync(final String fieldName, final Sort sortOrder, final int k) {
+        checkQueryIsNotReused();
+        final long columnIndex = getColumnIndexForTopK(fieldName, sortOrder, k);
+        warnIfUnindexedScan();
+
+        // capture the query arguments for future retries & update
+        final ArgumentsHolder topKArguments = new ArgumentsHolder(ArgumentsHolder.TYPE_FIND_TOP_K);
+        topKArguments.sortOrder = sortOrder;
+        topKArguments.columnIndex = columnIndex;
+        topKArguments.limit = k;
+        argumentsHolder = topKArguments;
+
+        final WeakReference<RealmNotifier> weakNotifier = getWeakReferenceNotifier();
+
+        // handover the query (to be used by a worker thread)
+        final long handoverQueryPointer = query.handoverQuery(realm.sharedRealm);
+
+        // we need to use the same configuration to open a background SharedRealm to perform the query
+        final RealmConfiguration realmConfiguration = realm.getConfiguration();
+
+        RealmResults<E> realmResults;
+        if (isDynamicQuery()) {
+            //noinspection unchecked
+            realmResults = (RealmResults<E>) RealmResults.createFromDynamicClass(realm, query, className);
+        } else {
+            realmResults = RealmResults.createFromTableQuery(realm, query, clazz);
+        }
+
+        final WeakReference<RealmResults<? extends RealmModel>> weakRealmResults =
+                realm.handlerController.addToAsyncRealmResults(realmResults, this);
+
+        final Future<Long> pendingQuery = Realm.asyncTaskExecutor.submitQuery(new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                if (!Thread.currentThread().isInterrupted()) {
+                    SharedRealm sharedRealm = null;
+
+                    try {
+                        sharedRealm = SharedRealm.getInstance(realmConfiguration);
+
+                        // run the query & handover the table view for the caller thread
+                        long[] threshold = new long[2];
+                        long handoverTableViewPointer = TableQuery.findTopKWithHandover(sharedRealm,
+                                handoverQueryPointer, columnIndex, sortOrder, k, threshold);
+                        // the updates after the next changes only examine the objects up to this threshold
+                        topKArguments.topKThreshold = (threshold[0] == 1) ? threshold[1] : null;
+
+                        QueryUpdateTask.Result result = QueryUpdateTask.Result.newRealmResultsResponse();
+                        result.updatedTableViews.put(weakRealmResults, handoverTableViewPointer);
+                        result.versionID = sharedRealm.getVersionID();
+                        closeSharedRealmAndSendEventToNotifier(sharedRealm,
+                                weakNotifier, QueryUpdateTask.NotifyEvent.COMPLETE_ASYNC_RESULTS, result);
+
+                        return handoverTableViewPointer;
+                    } catch (BadVersionException e) {
+                        // In some rare race conditions, this can happen. In that case, just ignore the error.
+                        RealmLog.debug("findTopKAsync handover could not complete due to a BadVersionException. " +
+                                "Retry is scheduled by a REALM_CHANGED event.");
+
+                    } catch (Throwable e) {
+                        RealmLog.error(e);
+                        closeSharedRealmAndSendEventToNotifier(sharedRealm,
+                                weakNotifier, QueryUpdateTask.NotifyEvent.THROW_BACKGROUND_EXCEPTION, e);
+
+                    } finally {
+                        if (sharedRealm!= null && !sharedRealm.isClosed()) {
+                            sharedRealm.close();
+                        }
+                    }
+                } else {
+                    TableQuery.nativeCloseQueryHandover(handoverQueryPointer);
+                }
+
+                return INVALID_NATIVE_POINTER;
+            }
+        });
+        realmResults.setPendingQuery(pendingQuery);
+        return realmResults;
+    }
+
     /**
      * Finds the first object that fulfills the query conditions.
      *
@@ -2064,6 +2844,9 @@ public final class RealmQuery<E extends RealmModel> {
      */
     public E findFirst() {
         checkQueryIsNotReused();
+        if (orderedRange == null) {
+            warnIfUnindexedScan();
+        }
         long tableRowIndex = getSourceRowIndexForFirstObject();
         if (tableRowIndex >= 0) {
             E realmObject = realm.get(clazz, className, tableRowIndex);
@@ -2086,6 +2869,7 @@ public final class RealmQuery<E extends RealmModel> {
      */
     public E findFirstAsync() {
         checkQueryIsNotReused();
+        warnIfUnindexedScan();
         final WeakReference<RealmNotifier> weakNotifier = getWeakReferenceNotifier();
 
         // handover the query (to be used by a worker thread)
@@ -2217,7 +3001,8 @@ public final class RealmQuery<E extends RealmModel> {
     }
 
     private long getSourceRowIndexForFirstObject() {
-        long tableRowIndex = this.query.find();
+        long start = (orderedRange != null) ? orderedRange.findRows(table.getTable())[0] : 0;
+        long tableRowIndex = this.query.find(start);
         return tableRowIndex;
     }
     // Get the column index for sorting related functions. A proper exception will be thrown if the field doesn't exist
@@ -2235,6 +3020,35 @@ public final class RealmQuery<E extends RealmModel> {
             throw new IllegalArgumentException(String.format("Field name '%s' does not exist.", fieldName));
         }
 
+        // Collated fields are sorted by their collation keys
+        if (!isDynamicQuery()) {
+            Long collationKeyColumnIndex = realm.schema.getCollationKeyColumnIndex(clazz, fieldName);
+            if (collationKeyColumnIndex != null) {
+                return collationKeyColumnIndex;
+            }
+        }
+        return columnIndex;
+    }
+
+    // Validates the arguments of findTopK() and returns the column index to sort by
+    private long getColumnIndexForTopK(String fieldName, Sort sortOrder, int k) {
+        if (sortOrder == null) {
+            throw new IllegalArgumentException("Non-null 'sortOrder' required.");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("'k' must not be negative: " + k);
+        }
+        long columnIndex = getColumnIndexForSort(fieldName);
+        RealmFieldType type = table.getColumnType(columnIndex);
+        if (type != RealmFieldType.INTEGER && type != RealmFieldType.FLOAT && type != RealmFieldType.DOUBLE
+                && type != RealmFieldType.DATE) {
+            throw new IllegalArgumentException(String.format("Field '%s' of type %s cannot be used with findTopK(). " +
+                    "Only integer, float, double and date fields are supported.", fieldName, type));
+        }
+        if (query.hasTopLevelOr()) {
+            throw new UnsupportedOperationException("findTopK() does not support queries with an or() outside a " +
+                    "group. Use beginGroup() and endGroup() around the alternatives.");
+        }
         return columnIndex;
     }
 
@@ -20,8 +20,11 @@ package io.realm;
 import android.app.IntentService;
 
 import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.Date;
 import java.util.Iterator;
@@ -31,8 +34,10 @@ import java.util.NoSuchElementException;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
 
+import io.realm.internal.Collation;
 import io.realm.internal.InvalidRow;
 import io.realm.internal.RealmObjectProxy;
+import io.realm.internal.Row;
 import io.realm.internal.Table;
 import io.realm.internal.TableOrView;
 import io.realm.internal.TableQuery;
@@ -100,6 +105,19 @@ public final class RealmResults<E extends RealmModel> extends AbstractList<E> im
         return realmResults;
     }
 
+    // Creates live results of all objects of srcTableType linking to the given row through srcFieldName.
+    static <E extends RealmModel> RealmResults<E> createBacklinkResults(BaseRealm realm, Row row,
+                                                                       Class<E> srcTableType, String srcFieldName) {
+        Table srcTable = realm.schema.getTable(srcTableType);
+        Long srcColumnIndex = realm.schema.getColumnInfo(srcTableType).getIndicesMap().get(srcFieldName);
+        if (srcColumnIndex == null) {
+            throw new IllegalStateException(String.format("Field '%s' does not exist in '%s'.",
+                    srcFieldName, srcTableType.getSimpleName()));
+        }
+        TableView backlinks = row.getTable().getBacklinkView(row.getIndex(), srcTable, srcColumnIndex);
+        return createFromTableOrView(realm, backlinks, srcTableType);
+    }
+
     static RealmResults<DynamicRealmObject> createFromDynamicClass(BaseRealm realm, TableQuery query, String className) {
         return new RealmResults<DynamicRealmObject>(realm, query, className);
     }
@@ -252,7 +270,17 @@ public final class RealmResults<E extends RealmModel> extends AbstractList<E> im
     public void deleteFromRealm(int location) {
         realm.checkIfValid();
         TableOrView table = getTableOrView();
-        table.remove(location);
+        if (isOrderedView(table)) {
+            ((TableView) table).removeOrdered(location);
+        } else {
+            table.remove(location);
+        }
+    }
+
+    // Views of classes declared with @OrderedBy must remove objects without moving the last object of the table into
+    // their place. Tables always remove in order.
+    private boolean isOrderedView(TableOrView table) {
+        return table instanceof TableView && realm.schema.getOrderedColumnIndex(table.getTable()) >= 0;
     }
 
     /**
@@ -263,13 +291,175 @@ public final class RealmResults<E extends RealmModel> extends AbstractList<E> im
         realm.checkIfValid();
         if (size() > 0) {
             TableOrView table = getTableOrView();
-            table.clear();
+            if (isOrderedView(table)) {
+                ((TableView) table).clearOrdered();
+            } else {
+                table.clear();
+            }
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Sets a field to the same value in all objects of the results with a single native call, instead of calling
+     * the setter of each object. This must be done within a transaction.
+     * <p>
+     * Primary keys, fields named by {@link io.realm.annotations.OrderedBy} and {@link io.realm.annotations.Collated}
+     * fields cannot be set this way, nor can binary, link and list fields.
+     *
+     * @param fieldName the field to set.
+     * @param value the new value. {@code null} is only allowed for nullable fields. Integer fields accept all integer
+     * types, float and double fields all numbers.
+     * @throws IllegalArgumentException if the field does not exist, cannot be set this way or {@code value} does not
+     * match its type.
+     * @throws IllegalStateException if not in a transaction.
+     */
+    public void setValue(String fieldName, Object value) {
+        realm.checkIfValid();
+        realm.checkIfInTransaction();
+        long columnIndex = getColumnIndexForUpdate(fieldName);
+        if (size() == 0) {
+            return;
+        }
+        TableView view = getTableView();
+        if (value == null) {
+            view.setNullForAll(columnIndex);
+            return;
+        }
+        RealmFieldType type = view.getColumnType(columnIndex);
+        switch (type) {
+            case INTEGER:
+                if (isIntegral(value)) {
+                    view.setLongForAll(columnIndex, ((Number) value).longValue());
+                    return;
+                }
+                break;
+            case FLOAT:
+                if (value instanceof Number) {
+                    view.setFloatForAll(columnIndex, ((Number) value).floatValue());
+                    return;
+                }
+                break;
+            case DOUBLE:
+                if (value instanceof Number) {
+                    view.setDoubleForAll(columnIndex, ((Number) value).doubleValue());
+                    return;
+                }
+                break;
+            case BOOLEAN:
+                if (value instanceof Boolean) {
+                    view.setBooleanForAll(columnIndex, (Boolean) value);
+                    return;
+                }
+                break;
+            case DATE:
+                if (value instanceof Date) {
+                    view.setDateForAll(columnIndex, (Date) value);
+                    return;
+                }
+                break;
+            case STRING:
+                if (value instanceof String) {
+                    view.setStringForAll(columnIndex, (String) value);
+                    return;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("Field '%s' of type %s cannot be set in bulk.",
+                        fieldName, type));
+        }
+        throw new IllegalArgumentException(String.format(TYPE_MISMATCH, fieldName, type));
+    }
+
+    /**
+     * Adds a number to a numeric field of all objects of the results with a single native call. This must be done
+     * within a transaction. Objects where the field is {@code null} are left unchanged.
+     *
+     * @param fieldName an integer, float or double field. The same restrictions as for
+     * {@link #setValue(String, Object)} apply.
+     * @param delta the number to add. Integer fields require an integer type.
+     * @throws IllegalArgumentException if the field does not exist, is not numeric or cannot be set in bulk.
+     * @throws IllegalStateException if not in a transaction.
+     */
+    public void increment(String fieldName, Number delta) {
+        realm.checkIfValid();
+        realm.checkIfInTransaction();
+        if (delta == null) {
+            throw new IllegalArgumentException("Non-null 'delta' required.");
+        }
+        long columnIndex = getColumnIndexForUpdate(fieldName);
+        RealmFieldType type = getTableOrView().getColumnType(columnIndex);
+        switch (type) {
+            case INTEGER:
+                if (!isIntegral(delta)) {
+                    throw new IllegalArgumentException(String.format(TYPE_MISMATCH, fieldName, "integer delta"));
+                }
+                if (size() > 0) {
+                    getTableView().incrementLongForAll(columnIndex, delta.longValue());
+                }
+                break;
+            case FLOAT:
+            case DOUBLE:
+                if (size() > 0) {
+                    getTableView().incrementDoubleForAll(columnIndex, delta.doubleValue());
+                }
+                break;
+            default:
+                throw new IllegalArgumentException(String.format(TYPE_MISMATCH, fieldName, "int, float or double"));
+        }
+    }
+
+    /**
+     * Subtracts a number from a numeric field of all objects of the results, see {@link #increment(String, Number)}.
+     */
+    public void decrement(String fieldName, Number delta) {
+        if (delta == null) {
+            throw new IllegalArgumentException("Non-null 'delta' required.");
+        }
+        if (isIntegral(delta)) {
+            increment(fieldName, -delta.longValue());
+        } else {
+            increment(fieldName, -delta.doubleValue());
+        }
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    // Bulk updates cannot maintain the uniqueness of primary keys, the order of @OrderedBy classes or the keys of
+    // collated fields which are computed by the proxies.
+    private long getColumnIndexForUpdate(String fieldName) {
+        if (fieldName == null || fieldName.isEmpty()) {
+            throw new IllegalArgumentException("Non-empty field name required.");
+        }
+        Table parent = getTableOrView().getTable();
+        long columnIndex = parent.getColumnIndex(fieldName);
+        if (columnIndex < 0) {
+            throw new IllegalArgumentException(String.format("Field '%s' does not exist.", fieldName));
+        }
+        if (parent.hasPrimaryKey() && parent.getPrimaryKey() == columnIndex) {
+            throw new IllegalArgumentException("Primary keys cannot be set in bulk: " + fieldName);
+        }
+        if (realm.schema.getOrderedColumnIndex(parent) == columnIndex) {
+            throw new IllegalArgumentException("Fields named by @OrderedBy cannot be set in bulk: " + fieldName);
+        }
+        if (parent.getColumnIndex(Collation.getKeyColumnName(fieldName)) != Table.NO_MATCH) {
+            throw new IllegalArgumentException("Collated fields cannot be set in bulk: " + fieldName);
+        }
+        return columnIndex;
+    }
+
+    private TableView getTableView() {
+        TableOrView tableOrView = getTableOrView();
+        if (tableOrView instanceof TableView) {
+            return (TableView) tableOrView;
+        }
+        return ((Table) tableOrView).where().findAll();
+    }
+
     /**
      * Returns an iterator for the results of a query. Any change to Realm while iterating will cause this iterator to
      * throw a {@link java.util.ConcurrentModificationException} if accessed.
@@ -494,6 +684,126 @@ public final class RealmResults<E extends RealmModel> extends AbstractList<E> im
         }
     }
 
+    /**
+     * Computes an aggregate over a {@link RealmList} field for every object in the results, e.g. the total of each
+     * order with {@code orders.aggregate("items.@sum.price")} or the number of items with
+     * {@code orders.aggregate("items.@count")}. All values are computed in a single pass without creating the objects
+     * or the objects in their lists.
+     * <p>
+     * Counts and sums of integer fields are returned as {@link Long}, averages and sums of float or double fields
+     * as {@link Double}, and minimum and maximum have the type of the field. Null values are ignored. The minimum,
+     * maximum and average of a list without values are {@code null}.
+     *
+     * @param fieldName a {@link RealmList} field of this class followed by {@code @count}, or by {@code @sum},
+     *                  {@code @min}, {@code @max} or {@code @avg} and an int, float or double field of the class
+     *                  in the list.
+     * @return the values in the order of the results. The list is not live, it must be computed again when the results
+     * change.
+     * @throws IllegalArgumentException if the field path is invalid or does not end with an aggregate over a
+     * {@link RealmList} field of this class.
+     * @see RealmQuery#greaterThan(String, long)
+     */
+    public List<Number> aggregate(String fieldName) {
+        realm.checkIfValid();
+        RealmObjectSchema.FieldPath fieldPath = getSchema().getFieldPath(fieldName);
+        long[] columnIndices = fieldPath.columnIndices;
+        if (TableQuery.findAggregate(columnIndices) != 0) {
+            throw new IllegalArgumentException("A RealmList field of this class followed by an aggregate is " +
+                    "required, e.g. 'items.@sum.price': " + fieldName);
+        }
+        if (!isLoaded()) {
+            return Collections.emptyList();
+        }
+
+        int kind = (int) columnIndices[1];
+        long listColumnIndex = columnIndices[2];
+        long columnIndex = (kind == TableQuery.AGGREGATE_COUNT) ? -1 : columnIndices[3];
+        TableOrView tableOrView = getTableOrView();
+        TableView view = (tableOrView instanceof TableView) ? (TableView) tableOrView : tableOrView.where().findAll();
+        int size = (int) view.size();
+        long[] values = new long[size];
+        boolean[] nulls = new boolean[size];
+        view.aggregateLinkList(listColumnIndex, columnIndex, kind, values, nulls);
+
+        Number[] result = new Number[size];
+        for (int i = 0; i < size; i++) {
+            if (nulls[i]) {
+                continue;
+            }
+            switch (fieldPath.columnType) {
+                case INTEGER:
+                    result[i] = values[i];
+                    break;
+                case FLOAT:
+                    result[i] = (float) Double.longBitsToDouble(values[i]);
+                    break;
+                default:
+                    result[i] = Double.longBitsToDouble(values[i]);
+                    break;
+            }
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Returns the objects sorted by an aggregate over a {@link RealmList} field, e.g. orders by the total of their
+     * items with {@code orders.sortByAggregate("items.@sum.price", Sort.DESCENDING)}. The aggregate is computed as
+     * described in {@link #aggregate(String)}.
+     * <p>
+     * Objects with a {@code null} aggregate are sorted before all others in ascending order and after all others in
+     * descending order. Objects with equal aggregates keep their order in these results.
+     * <p>
+     * Realm can only sort by fields, so unlike {@link #sort(String, Sort)} the returned list is not live. The objects in
+     * it are managed and stay up to date, but the list itself is not updated when the results change.
+     *
+     * @param fieldName the aggregate to sort by, see {@link #aggregate(String)}.
+     * @param sortOrder the direction to sort by.
+     * @return a sorted, unmodifiable list of the objects in these results.
+     * @throws IllegalArgumentException if the field path is invalid or does not end with an aggregate over a
+     * {@link RealmList} field of this class.
+     */
+    public List<E> sortByAggregate(String fieldName, Sort sortOrder) {
+        final List<Number> values = aggregate(fieldName);
+        final boolean ascending = sortOrder.getValue();
+        Integer[] order = new Integer[values.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // Arrays.sort() on objects is stable, so ties keep their position
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer left, Integer right) {
+                int result = compareAggregates(values.get(left), values.get(right));
+                return ascending ? result : -result;
+            }
+        });
+
+        List<E> sorted = new ArrayList<E>(order.length);
+        for (Integer index : order) {
+            sorted.add(get(index));
+        }
+        return Collections.unmodifiableList(sorted);
+    }
+
+    private static int compareAggregates(Number left, Number right) {
+        if (left == null || right == null) {
+            return (left == null) ? (right == null ? 0 : -1) : 1;
+        }
+        if (left instanceof Long) {
+            long l = left.longValue();
+            long r = right.longValue();
+            return (l < r) ? -1 : ((l == r) ? 0 : 1);
+        }
+        return Double.compare(left.doubleValue(), right.doubleValue());
+    }
+
+    private RealmObjectSchema getSchema() {
+        if (classSpec != null) {
+            return realm.schema.getSchemaForClass(classSpec);
+        }
+        return realm.schema.getSchemaForClass(className);
+    }
+
     /**
      * Returns a distinct set of objects of a specific class. If the result is sorted, the first
      * object will be returned in case of multiple occurrences, otherwise it is undefined which
@@ -549,6 +859,22 @@ public final class RealmResults<E extends RealmModel> extends AbstractList<E> im
         return where().distinct(firstFieldName, remainingFieldNames);
     }
 
+    /**
+     * Asynchronously returns a distinct set of objects from a specific class. When multiple distinct fields are
+     * given, all unique combinations of values in the fields will be returned.
+     *
+     * @param firstFieldName first field name to use when finding distinct objects.
+     * @param remainingFieldNames remaining field names when determining all unique combinations of field values.
+     * @return immediately a {@link RealmResults}. Users need to register a listener
+     * {@link io.realm.RealmResults#addChangeListener(RealmChangeListener)} to be notified when the
+     * query completes.
+     * @throws IllegalArgumentException if field names is empty or {@code null}, does not exist,
+     * is an unsupported type, is not indexed, or points to a linked field.
+     */
+    public RealmResults<E> distinctAsync(String firstFieldName, String... remainingFieldNames) {
+        return where().distinctAsync(firstFieldName, remainingFieldNames);
+    }
+
     // Deleting
 
     /**
@@ -618,7 +944,11 @@ public final class RealmResults<E extends RealmModel> extends AbstractList<E> im
         realm.checkIfValid();
         if (size() > 0) {
             TableOrView table = getTableOrView();
-            table.removeLast();
+            if (isOrderedView(table)) {
+                ((TableView) table).removeOrdered(table.size() - 1);
+            } else {
+                table.removeLast();
+            }
             return true;
         } else {
             return false;
@@ -648,7 +978,11 @@ public final class RealmResults<E extends RealmModel> extends AbstractList<E> im
     public boolean deleteFirstFromRealm() {
         if (size() > 0) {
             TableOrView table = getTableOrView();
-            table.removeFirst();
+            if (isOrderedView(table)) {
+                ((TableView) table).removeOrdered(0);
+            } else {
+                table.removeFirst();
+            }
             return true;
         } else {
             return false;
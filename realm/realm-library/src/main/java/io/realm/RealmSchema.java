@@ -50,6 +50,9 @@ public final class RealmSchema {
 
     private final BaseRealm realm;
     ColumnIndices columnIndices; // Cached field look up
+    // Incremented on every schema change made through this Realm. Field paths resolved by RealmObjectSchema are
+    // only reused within the same generation.
+    private long generation;
 
     /**
      * Creates a wrapper to easily manipulate the current schema of a Realm.
@@ -113,6 +116,7 @@ public final class RealmSchema {
             throw new IllegalArgumentException("Class already exists: " + className);
         }
         Table table = realm.sharedRealm.getTable(internalTableName);
+        onSchemaChanged();
         RealmObjectSchema.DynamicColumnMap columnIndices = new RealmObjectSchema.DynamicColumnMap(table);
         return new RealmObjectSchema(realm, table, columnIndices);
     }
@@ -132,6 +136,7 @@ public final class RealmSchema {
             table.setPrimaryKey(null);
         }
         realm.sharedRealm.removeTable(internalTableName);
+        onSchemaChanged();
     }
 
     /**
@@ -160,6 +165,7 @@ public final class RealmSchema {
         }
 
         realm.sharedRealm.renameTable(oldInternalName, newInternalName);
+        onSchemaChanged();
         Table table = realm.sharedRealm.getTable(newInternalName);
 
         // Set the primary key for the new class if necessary
@@ -276,6 +282,86 @@ public final class RealmSchema {
         return dynamicSchema;
     }
 
+    /**
+     * Returns the backlink declared by a field in the class represented by the given table or {@code null} if the
+     * field is not declared with {@link io.realm.annotations.LinkingObjects}. Backlinks are only known for typed
+     * Realms.
+     */
+    ColumnInfo.Backlink getBacklink(Table table, String fieldName) {
+        if (columnIndices == null) {
+            return null;
+        }
+        return columnIndices.getBacklink(getSchemaForTable(table), fieldName);
+    }
+
+    /**
+     * Returns the index of the column holding the collation keys of a field declared with
+     * {@link io.realm.annotations.Collated} or {@code null} if the field is not collated. Collation keys are only
+     * known for typed Realms.
+     */
+    Long getCollationKeyColumnIndex(Class<? extends RealmModel> clazz, String fieldName) {
+        if (columnIndices == null) {
+            return null;
+        }
+        ColumnInfo columnInfo = columnIndices.getColumnInfo(clazz);
+        return (columnInfo == null) ? null : columnInfo.getCollationKeysMap().get(fieldName);
+    }
+
+    // Returns the largest value of a byte, short or int field, or null for fields of other types
+    Long getIntegerMaxValue(Class<? extends RealmModel> clazz, String fieldName) {
+        if (columnIndices == null) {
+            return null;
+        }
+        ColumnInfo columnInfo = columnIndices.getColumnInfo(clazz);
+        return (columnInfo == null) ? null : columnInfo.getIntegerMaxValuesMap().get(fieldName);
+    }
+
+    /**
+     * Returns the index of the column the objects in the given table are ordered by or {@code -1} if their class is
+     * not declared with {@link io.realm.annotations.OrderedBy}. The order is only known for typed Realms.
+     */
+    long getOrderedColumnIndex(Table table) {
+        if (columnIndices == null) {
+            return -1;
+        }
+        return columnIndices.getOrderedColumnIndex(getSchemaForTable(table));
+    }
+
+    long getOrderedColumnIndex(Class<? extends RealmModel> clazz) {
+        if (columnIndices == null) {
+            return -1;
+        }
+        ColumnInfo columnInfo = columnIndices.getColumnInfo(clazz);
+        return (columnInfo == null) ? -1 : columnInfo.getOrderedColumnIndex();
+    }
+
+    boolean isPrimaryKeyAutoIncrement(Class<? extends RealmModel> clazz) {
+        if (columnIndices == null) {
+            return false;
+        }
+        ColumnInfo columnInfo = columnIndices.getColumnInfo(clazz);
+        return columnInfo != null && columnInfo.isPrimaryKeyAutoIncrement();
+    }
+
+    long getPrimaryKeyMaxValue(Class<? extends RealmModel> clazz) {
+        return columnIndices.getColumnInfo(clazz).getPrimaryKeyMaxValue();
+    }
+
+    // Returns the table at the given position in the group, as stored in backlink path elements
+    Table getTableByIndexInGroup(long indexInGroup) {
+        String tableName = realm.sharedRealm.getTableName((int) indexInGroup);
+        return getTable(tableName.substring(Table.TABLE_PREFIX.length()));
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    // Must be called after any change to tables or columns, so cached field paths are resolved again
+    void onSchemaChanged() {
+        generation++;
+    }
+
     void setColumnIndices(ColumnIndices columnIndices) {
         this.columnIndices = columnIndices;
     }
@@ -0,0 +1,394 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.realm.log.RealmLog;
+
+/**
+ * Writes to a Realm from a single writer thread on behalf of any number of producer threads. Producers submit
+ * transactions or unmanaged objects instead of writing themselves, and the writer executes them in batches, one
+ * transaction per batch. Threads writing themselves each wait for the write lock and pay for a commit, while the queue
+ * only takes the lock once per batch.
+ * <p>
+ * A batch is committed once it holds the maximum number of writes, or once its first write has waited for the maximum
+ * latency. Each submission returns a {@link Future} which completes when the batch containing it is committed, or
+ * fails with the exception the write threw:
+ * <pre>
+ * {@code
+ * RealmWriteQueue queue = new RealmWriteQueue.Builder(configuration)
+ *         .maxBatchSize(500)
+ *         .maxLatency(50, TimeUnit.MILLISECONDS)
+ *         .start();
+ *
+ * // On any thread
+ * Future<Void> written = queue.insert(event);
+ *
+ * // When shutting down
+ * queue.close();
+ * }
+ * </pre>
+ * A write which throws is rolled back with the rest of its batch, and the other writes of the batch are executed
+ * again in a new transaction. Writes must hence not have side effects outside the Realm they are given. Writes are
+ * executed in the order they were submitted.
+ */
+public final class RealmWriteQueue implements Closeable {
+
+    private final RealmConfiguration configuration;
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+    private final BlockingQueue<Write> queue = new LinkedBlockingQueue<Write>();
+    private final Thread writerThread;
+    private boolean closed;
+
+    private RealmWriteQueue(Builder builder) {
+        this.configuration = builder.configuration;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxLatencyNanos = builder.maxLatencyNanos;
+        writerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeBatches();
+            }
+        }, "RealmWriteQueue-" + configuration.getRealmFileName());
+        writerThread.start();
+    }
+
+    /**
+     * Returns the configuration of the Realm the queue writes to.
+     *
+     * @return the {@link RealmConfiguration}.
+     */
+    public RealmConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Queues a transaction. The transaction is executed on the writer thread, together with other writes, and must
+     * not keep references to the Realm or the objects it is given.
+     *
+     * @param transaction the {@link Realm.Transaction} to execute.
+     * @return a {@link Future} which completes when the transaction is committed.
+     * @throws IllegalArgumentException if the {@code transaction} is {@code null}.
+     * @throws IllegalStateException if the queue is closed.
+     */
+    public Future<Void> submit(Realm.Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction should not be null");
+        }
+        return enqueue(transaction);
+    }
+
+    /**
+     * Queues an unmanaged object to be written like {@link Realm#insert(RealmModel)}. The object is read on the
+     * writer thread and must not be changed until the returned future completes.
+     *
+     * @param object the unmanaged object to insert.
+     * @return a {@link Future} which completes when the object is committed.
+     * @throws IllegalArgumentException if the {@code object} is {@code null}.
+     * @throws IllegalStateException if the queue is closed.
+     */
+    public Future<Void> insert(final RealmModel object) {
+        checkNotNullObject(object);
+        return enqueue(new Realm.Transaction() {
+            @Override
+            public void execute(Realm realm) {
+                realm.insert(object);
+            }
+        });
+    }
+
+    /**
+     * Queues an unmanaged object to be written like {@link Realm#insertOrUpdate(RealmModel)}. The object is read on
+     * the writer thread and must not be changed until the returned future completes.
+     *
+     * @param object the unmanaged object to insert or update.
+     * @return a {@link Future} which completes when the object is committed.
+     * @throws IllegalArgumentException if the {@code object} is {@code null}.
+     * @throws IllegalStateException if the queue is closed.
+     */
+    public Future<Void> insertOrUpdate(final RealmModel object) {
+        checkNotNullObject(object);
+        return enqueue(new Realm.Transaction() {
+            @Override
+            public void execute(Realm realm) {
+                realm.insertOrUpdate(object);
+            }
+        });
+    }
+
+    /**
+     * Returns the number of writes waiting for the writer thread, not counting the batch being written.
+     *
+     * @return the number of queued writes.
+     */
+    public int getQueuedWrites() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting writes and waits until the writes already queued are committed and the writer thread has
+     * closed its Realm. Closing a closed queue only waits for the writer thread.
+     *
+     * @throws IllegalStateException if called from a transaction executed by the queue.
+     */
+    @Override
+    public void close() {
+        if (Thread.currentThread() == writerThread) {
+            throw new IllegalStateException("A write queue cannot be closed from one of its own transactions.");
+        }
+        synchronized (this) {
+            if (!closed) {
+                closed = true;
+                queue.add(Write.END_OF_QUEUE);
+            }
+        }
+        boolean interrupted = false;
+        while (writerThread.isAlive()) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks if the queue was closed.
+     *
+     * @return {@code true} if writes are no longer accepted, {@code false} otherwise.
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private synchronized Future<Void> enqueue(Realm.Transaction transaction) {
+        if (closed) {
+            throw new IllegalStateException("The write queue for " + configuration.getPath() + " is closed.");
+        }
+        Write write = new Write(transaction);
+        queue.add(write);
+        return write;
+    }
+
+    private static void checkNotNullObject(RealmModel object) {
+        if (object == null) {
+            throw new IllegalArgumentException("Null objects cannot be written.");
+        }
+    }
+
+    private void writeBatches() {
+        Realm realm = null;
+        List<Write> batch = new ArrayList<Write>(Math.min(maxBatchSize, 1024));
+        boolean endOfQueue = false;
+        try {
+            while (!endOfQueue) {
+                endOfQueue = takeBatch(batch);
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                try {
+                    if (realm == null) {
+                        realm = Realm.getInstance(configuration);
+                    }
+                    writeBatch(realm, batch);
+                } catch (Throwable e) {
+                    // Opening the Realm or committing failed, none of the writes of the batch were committed
+                    if (realm != null && realm.isInTransaction()) {
+                        realm.cancelTransaction();
+                    }
+                    for (Write write : batch) {
+                        write.fail(e);
+                    }
+                }
+                batch.clear();
+            }
+        } finally {
+            if (realm != null) {
+                realm.close();
+            }
+        }
+    }
+
+    /**
+     * Waits for the next batch. The batch is complete once it holds {@link #maxBatchSize} writes or its first write
+     * is {@link #maxLatencyNanos} old.
+     *
+     * @return {@code true} if the queue was closed and the batch holds the last writes, {@code false} otherwise.
+     */
+    private boolean takeBatch(List<Write> batch) {
+        try {
+            Write first = queue.take();
+            if (first == Write.END_OF_QUEUE) {
+                return true;
+            }
+            batch.add(first);
+            long deadline = first.submittedAt + maxLatencyNanos;
+            while (batch.size() < maxBatchSize) {
+                long timeout = deadline - System.nanoTime();
+                Write write = (timeout > 0) ? queue.poll(timeout, TimeUnit.NANOSECONDS) : queue.poll();
+                if (write == null) {
+                    break;
+                }
+                if (write == Write.END_OF_QUEUE) {
+                    return true;
+                }
+                batch.add(write);
+            }
+            return false;
+        } catch (InterruptedException e) {
+            // The writer thread is never interrupted by the queue, only stop if there is nothing left to write
+            return batch.isEmpty() && isClosed() && queue.isEmpty();
+        }
+    }
+
+    private void writeBatch(Realm realm, List<Write> batch) {
+        while (!batch.isEmpty()) {
+            realm.beginTransaction();
+            Iterator<Write> iterator = batch.iterator();
+            Write failed = null;
+            Throwable failure = null;
+            while (iterator.hasNext()) {
+                Write write = iterator.next();
+                if (write.isCancelled()) {
+                    iterator.remove();
+                    continue;
+                }
+                try {
+                    write.transaction.execute(realm);
+                } catch (Throwable e) {
+                    failed = write;
+                    failure = e;
+                    iterator.remove();
+                    break;
+                }
+            }
+
+            if (failed == null) {
+                realm.commitTransaction(false);
+                for (Write write : batch) {
+                    write.succeed();
+                }
+                batch.clear();
+            } else {
+                // The writes before the failed one are rolled back with it and written again in the next transaction
+                if (realm.isInTransaction()) {
+                    realm.cancelTransaction();
+                } else {
+                    RealmLog.warn("Could not cancel transaction, not currently in a transaction.");
+                }
+                failed.fail(failure);
+            }
+        }
+    }
+
+    /**
+     * A queued write and the future completed once it is committed.
+     */
+    private static final class Write extends FutureTask<Void> {
+        static final Write END_OF_QUEUE = new Write(null);
+
+        private static final Runnable NO_OP = new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+
+        final Realm.Transaction transaction;
+        final long submittedAt = System.nanoTime();
+
+        Write(Realm.Transaction transaction) {
+            super(NO_OP, null);
+            this.transaction = transaction;
+        }
+
+        void succeed() {
+            set(null);
+        }
+
+        void fail(Throwable e) {
+            setException(e);
+        }
+    }
+
+    /**
+     * Configures and starts a {@link RealmWriteQueue}.
+     */
+    public static final class Builder {
+        private final RealmConfiguration configuration;
+        private int maxBatchSize = 1000;
+        private long maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
+        /**
+         * @param configuration the configuration of the Realm to write to.
+         */
+        public Builder(RealmConfiguration configuration) {
+            if (configuration == null) {
+                throw new IllegalArgumentException("Non-null 'configuration' required.");
+            }
+            this.configuration = configuration;
+        }
+
+        /**
+         * Sets the maximum number of writes committed in one transaction. The default is 1000.
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("'maxBatchSize' must be > 0: " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets how long the first write of a batch waits for more writes before the batch is committed. With {@code 0}
+         * a batch only holds the writes queued while the previous batch was written. The default is 10 milliseconds.
+         */
+        public Builder maxLatency(long maxLatency, TimeUnit unit) {
+            if (maxLatency < 0) {
+                throw new IllegalArgumentException("'maxLatency' must be >= 0: " + maxLatency);
+            }
+            if (unit == null) {
+                throw new IllegalArgumentException("Non-null 'unit' required.");
+            }
+            this.maxLatencyNanos = unit.toNanos(maxLatency);
+            return this;
+        }
+
+        /**
+         * Starts the writer thread. The thread opens its own {@link Realm} when the first batch is written and closes
+         * it when the queue is closed.
+         *
+         * @return the queue, which must be closed to stop the writer thread.
+         */
+        public RealmWriteQueue start() {
+            return new RealmWriteQueue(this);
+        }
+    }
+}
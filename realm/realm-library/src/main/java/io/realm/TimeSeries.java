@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import io.realm.internal.TableQuery;
+
+/**
+ * The result of aggregating the objects of a query by a date field at a fixed interval. Each {@link Bucket} covers
+ * the objects whose date falls in {@code [start, start + interval)}, where {@code start} is a multiple of the interval
+ * since the epoch. Only buckets containing at least one object are included and they are ordered by date. Objects
+ * with a {@code null} date or value are ignored.
+ * <p>
+ * A {@code TimeSeries} is a snapshot, it is not updated when the Realm changes.
+ *
+ * @see RealmQuery#aggregateByInterval(String, String, long)
+ * @see RealmQuery#aggregateByIntervalAsync(String, String, long, RealmChangeListener)
+ */
+public final class TimeSeries {
+
+    // Number of longs describing a bucket in the native result
+    private static final int BUCKET_SIZE = 7;
+
+    /**
+     * The aggregated values of the objects in one interval.
+     */
+    public static final class Bucket {
+        private final long start;
+        private final long count;
+        private final double min;
+        private final double max;
+        private final double sum;
+        private final double first;
+        private final double last;
+
+        private Bucket(long[] data, int offset) {
+            this.start = data[offset];
+            this.count = data[offset + 1];
+            this.min = Double.longBitsToDouble(data[offset + 2]);
+            this.max = Double.longBitsToDouble(data[offset + 3]);
+            this.sum = Double.longBitsToDouble(data[offset + 4]);
+            this.first = Double.longBitsToDouble(data[offset + 5]);
+            this.last = Double.longBitsToDouble(data[offset + 6]);
+        }
+
+        /**
+         * Returns the start of the interval covered by this bucket.
+         *
+         * @return the start date, inclusive.
+         */
+        public Date getStart() {
+            return new Date(start);
+        }
+
+        /**
+         * Returns the number of objects in this bucket.
+         *
+         * @return the number of objects, at least 1.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the minimum value in this bucket.
+         *
+         * @return the minimum value.
+         */
+        public double getMin() {
+            return min;
+        }
+
+        /**
+         * Returns the maximum value in this bucket.
+         *
+         * @return the maximum value.
+         */
+        public double getMax() {
+            return max;
+        }
+
+        /**
+         * Returns the sum of the values in this bucket.
+         *
+         * @return the sum.
+         */
+        public double getSum() {
+            return sum;
+        }
+
+        /**
+         * Returns the average of the values in this bucket.
+         *
+         * @return the average.
+         */
+        public double getAverage() {
+            return sum / count;
+        }
+
+        /**
+         * Returns the value of the object with the earliest date in this bucket. If several objects share that date,
+         * the one inserted first is used.
+         *
+         * @return the first value.
+         */
+        public double getFirst() {
+            return first;
+        }
+
+        /**
+         * Returns the value of the object with the latest date in this bucket. If several objects share that date,
+         * the one inserted last is used.
+         *
+         * @return the last value.
+         */
+        public double getLast() {
+            return last;
+        }
+
+        @Override
+        public String toString() {
+            return "Bucket{start=" + start + ", count=" + count + ", min=" + min + ", max=" + max
+                    + ", avg=" + getAverage() + ", first=" + first + ", last=" + last + "}";
+        }
+    }
+
+    private final long interval;
+    private final List<Bucket> buckets;
+
+    private TimeSeries(long interval, List<Bucket> buckets) {
+        this.interval = interval;
+        this.buckets = Collections.unmodifiableList(buckets);
+    }
+
+    // Creates the series from the result of TableQuery.aggregateByInterval(). If only the buckets from a given start
+    // were computed, the earlier ones are taken from the previous series.
+    static TimeSeries fromNative(long interval, long[] data, TimeSeries previous) {
+        long computedFrom = data[0];
+        List<Bucket> buckets = new ArrayList<Bucket>((data.length - 1) / BUCKET_SIZE);
+        if (computedFrom != TableQuery.ALL_BUCKETS && previous != null) {
+            for (Bucket bucket : previous.buckets) {
+                if (bucket.start >= computedFrom) {
+                    break;
+                }
+                buckets.add(bucket);
+            }
+        }
+        for (int offset = 1; offset < data.length; offset += BUCKET_SIZE) {
+            buckets.add(new Bucket(data, offset));
+        }
+        return new TimeSeries(interval, buckets);
+    }
+
+    // Start of the last bucket, the only one appended objects can fall into besides new ones. Buckets before it can
+    // be reused as long as no object dated before it changed.
+    long getLastBucketStart() {
+        return buckets.isEmpty() ? TableQuery.ALL_BUCKETS : buckets.get(buckets.size() - 1).start;
+    }
+
+    /**
+     * Returns the length of the intervals.
+     *
+     * @return the interval in milliseconds.
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Returns the buckets ordered by their start date.
+     *
+     * @return an unmodifiable list of buckets, empty if no objects were aggregated.
+     */
+    public List<Bucket> getBuckets() {
+        return buckets;
+    }
+
+    @Override
+    public String toString() {
+        return "TimeSeries{interval=" + interval + ", buckets=" + buckets + "}";
+    }
+}
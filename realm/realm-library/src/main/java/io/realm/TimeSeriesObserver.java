@@ -0,0 +1,222 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.realm.exceptions.RealmException;
+import io.realm.internal.RealmNotifier;
+import io.realm.internal.SharedRealm;
+import io.realm.internal.TableQuery;
+import io.realm.internal.async.BadVersionException;
+import io.realm.log.RealmLog;
+
+/**
+ * Computes a {@link TimeSeries} on a worker thread and recomputes it each time the Realm changes. After the first
+ * result only the last bucket and the ones after it are recomputed, as appended objects can only fall into those.
+ * The version the current result was computed at stays pinned, so the worker can read the transaction log from there
+ * on and fall back to computing all buckets if any object dated before the last bucket could have changed. The
+ * version is released when the observer is cancelled or the Realm is closed.
+ * <p>
+ * All methods must be called from the thread of the Realm, which must have a Looper.
+ */
+final class TimeSeriesObserver implements RealmChangeListener<BaseRealm> {
+
+    private final BaseRealm realm;
+    private final TableQuery query;
+    private final long sourceTableIndex;
+    private final boolean dependsOnOtherTables;
+    private final long dateColumnIndex;
+    private final long valueColumnIndex;
+    private final long interval;
+    private final RealmChangeListener<TimeSeries> listener;
+    private final RealmConfiguration configuration;
+    private final WeakReference<RealmNotifier> weakNotifier;
+
+    private TimeSeries current;
+    // The pinned version current was computed at. Taken by the worker computing the next result, which releases it.
+    private final AtomicReference<SharedRealm.VersionID> currentVersion = new AtomicReference<SharedRealm.VersionID>();
+    private Future<?> pendingQuery;
+    // A computation is running, changes in the meantime are handled once it completes
+    private boolean running;
+    private boolean changedWhileRunning;
+    private volatile boolean cancelled;
+
+    TimeSeriesObserver(BaseRealm realm, TableQuery query, long sourceTableIndex, boolean dependsOnOtherTables,
+                       long dateColumnIndex, long valueColumnIndex, long interval,
+                       RealmChangeListener<TimeSeries> listener) {
+        this.realm = realm;
+        this.query = query;
+        this.sourceTableIndex = sourceTableIndex;
+        this.dependsOnOtherTables = dependsOnOtherTables;
+        this.dateColumnIndex = dateColumnIndex;
+        this.valueColumnIndex = valueColumnIndex;
+        this.interval = interval;
+        this.listener = listener;
+        this.configuration = realm.getConfiguration();
+        this.weakNotifier = new WeakReference<RealmNotifier>(realm.sharedRealm.realmNotifier);
+    }
+
+    RealmAsyncTask start() {
+        realm.handlerController.addChangeListener(this);
+        realm.timeSeriesObservers.add(this);
+        submit();
+        return new RealmAsyncTask(new Runnable() {
+            @Override
+            public void run() {
+                cancel();
+            }
+        });
+    }
+
+    @Override
+    public void onChange(BaseRealm element) {
+        if (cancelled) {
+            return;
+        }
+        if (running) {
+            changedWhileRunning = true;
+        } else {
+            submit();
+        }
+    }
+
+    // Also called by the Realm before it is closed
+    void cancel() {
+        cancelled = true;
+        if (pendingQuery != null) {
+            pendingQuery.cancel(true);
+            Realm.asyncTaskExecutor.getQueue().remove(pendingQuery);
+            pendingQuery = null;
+        }
+        realm.timeSeriesObservers.remove(this);
+        if (!realm.isClosed()) {
+            realm.handlerController.removeChangeListener(this);
+        }
+        unpin(currentVersion.getAndSet(null));
+    }
+
+    private void unpin(SharedRealm.VersionID version) {
+        if (version == null) {
+            return;
+        }
+        if (!realm.isClosed()) {
+            realm.sharedRealm.unpinVersion(version);
+            return;
+        }
+        SharedRealm sharedRealm = SharedRealm.getInstance(configuration);
+        try {
+            sharedRealm.unpinVersion(version);
+        } finally {
+            sharedRealm.close();
+        }
+    }
+
+    private void submit() {
+        running = true;
+        changedWhileRunning = false;
+
+        final TimeSeries previous = current;
+        final long fromMillis = (previous == null) ? TableQuery.ALL_BUCKETS : previous.getLastBucketStart();
+        final long handoverQueryPointer = query.handoverQuery(realm.sharedRealm);
+
+        pendingQuery = Realm.asyncTaskExecutor.submitQuery(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                if (Thread.currentThread().isInterrupted()) {
+                    TableQuery.nativeCloseQueryHandover(handoverQueryPointer);
+                    return null;
+                }
+
+                SharedRealm sharedRealm = null;
+                SharedRealm.VersionID fromVersion = currentVersion.getAndSet(null);
+                try {
+                    sharedRealm = SharedRealm.getInstance(configuration);
+                    // Not older than the handed over query, as the worker Realm was opened after it was handed over
+                    SharedRealm.VersionID toVersion = sharedRealm.pinVersion();
+                    boolean posted = false;
+                    try {
+                        long[] data = TableQuery.aggregateByIntervalWithHandover(sharedRealm, handoverQueryPointer,
+                                sourceTableIndex, dateColumnIndex, valueColumnIndex, interval, fromMillis,
+                                fromVersion, toVersion, dependsOnOtherTables);
+                        posted = postResult(TimeSeries.fromNative(interval, data, previous), toVersion, null);
+                    } finally {
+                        if (!posted) {
+                            sharedRealm.unpinVersion(toVersion);
+                        }
+                    }
+                } catch (BadVersionException e) {
+                    // The version of the handed over query is gone, try again with the latest one
+                    postResult(null, null, null);
+                } catch (Throwable e) {
+                    RealmLog.error(e);
+                    postResult(null, null, e);
+                } finally {
+                    if (sharedRealm != null && !sharedRealm.isClosed()) {
+                        if (fromVersion != null) {
+                            sharedRealm.unpinVersion(fromVersion);
+                        }
+                        sharedRealm.close();
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    // Called from the worker thread. A result of null without an error means the computation should be retried. The
+    // pinned version of the result is released by the Realm thread if the result was posted, which is returned.
+    private boolean postResult(final TimeSeries result, final SharedRealm.VersionID version, final Throwable error) {
+        RealmNotifier notifier = weakNotifier.get();
+        if (notifier == null || cancelled || Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        notifier.post(new Runnable() {
+            @Override
+            public void run() {
+                running = false;
+                pendingQuery = null;
+                if (cancelled || realm.isClosed()) {
+                    unpin(version);
+                    return;
+                }
+                if (error != null) {
+                    if (error instanceof RuntimeException) {
+                        throw (RuntimeException) error;
+                    } else if (error instanceof Error) {
+                        throw (Error) error;
+                    }
+                    throw new RealmException("Aggregating by interval failed", error);
+                }
+                if (result == null) {
+                    submit();
+                    return;
+                }
+                current = result;
+                currentVersion.set(version);
+                listener.onChange(result);
+                if (changedWhileRunning && !cancelled) {
+                    submit();
+                }
+            }
+        });
+        return true;
+    }
+}
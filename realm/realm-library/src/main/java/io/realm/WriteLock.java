@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes the write transactions of this process on a Realm file before they reach the interprocess write lock of
+ * core. Core can only block until its lock is free, while this lock can be waited for with a timeout. The native lock
+ * is only taken while holding this one, so a thread waiting on it only waits for other processes.
+ */
+final class WriteLock {
+
+    private static final Map<String, WriteLock> locks = new HashMap<String, WriteLock>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    final WriteLockMetrics metrics = new WriteLockMetrics();
+
+    private WriteLock() {
+    }
+
+    /**
+     * Returns the lock of a Realm file, shared by all configurations with the same path.
+     */
+    static WriteLock forPath(String path) {
+        synchronized (locks) {
+            WriteLock writeLock = locks.get(path);
+            if (writeLock == null) {
+                writeLock = new WriteLock();
+                locks.put(path, writeLock);
+            }
+            return writeLock;
+        }
+    }
+
+    void lock() {
+        lock.lock();
+    }
+
+    /**
+     * @return {@code true} if the lock was acquired, {@code false} if it timed out or the thread was interrupted, in
+     * which case the interrupted status is kept.
+     */
+    boolean tryLock(long timeout, TimeUnit unit) {
+        try {
+            return lock.tryLock(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    void unlock() {
+        if (lock.isHeldByCurrentThread()) {
+            lock.unlock();
+        }
+    }
+}
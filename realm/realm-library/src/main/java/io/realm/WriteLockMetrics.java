@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long the transactions of this process waited for and held the write lock of a Realm file. Waiting
+ * includes both threads of this process and other processes holding the lock. All Realm and DynamicRealm instances of
+ * the same file share the metrics, which are kept until the process ends or {@link #reset()} is called.
+ *
+ * @see Realm#getWriteLockMetrics(RealmConfiguration)
+ * @see BaseRealm#tryBeginTransaction(long, TimeUnit)
+ */
+public final class WriteLockMetrics {
+
+    private long transactions;
+    private long timeouts;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long totalHoldNanos;
+    private long maxHoldNanos;
+
+    WriteLockMetrics() {
+    }
+
+    synchronized void recordWait(long waitNanos) {
+        transactions++;
+        totalWaitNanos += waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    synchronized void recordTimeout(long waitNanos) {
+        timeouts++;
+        totalWaitNanos += waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    synchronized void recordHold(long holdNanos) {
+        totalHoldNanos += holdNanos;
+        maxHoldNanos = Math.max(maxHoldNanos, holdNanos);
+    }
+
+    /**
+     * Returns the number of transactions which got the write lock.
+     *
+     * @return the number of transactions begun.
+     */
+    public synchronized long getTransactionCount() {
+        return transactions;
+    }
+
+    /**
+     * Returns the number of calls to {@link BaseRealm#tryBeginTransaction(long, TimeUnit)} which gave up waiting for
+     * the write lock.
+     *
+     * @return the number of timed out attempts.
+     */
+    public synchronized long getTimeoutCount() {
+        return timeouts;
+    }
+
+    /**
+     * Returns the time spent waiting for the write lock, including attempts which timed out.
+     *
+     * @param unit the unit of the returned time.
+     * @return the total time waited.
+     */
+    public synchronized long getTotalWaitTime(TimeUnit unit) {
+        return unit.convert(totalWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the longest time a single transaction or attempt waited for the write lock.
+     *
+     * @param unit the unit of the returned time.
+     * @return the longest time waited.
+     */
+    public synchronized long getMaxWaitTime(TimeUnit unit) {
+        return unit.convert(maxWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the time transactions held the write lock, from beginning until they were committed or cancelled.
+     *
+     * @param unit the unit of the returned time.
+     * @return the total time the lock was held.
+     */
+    public synchronized long getTotalHoldTime(TimeUnit unit) {
+        return unit.convert(totalHoldNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the longest time a single transaction held the write lock.
+     *
+     * @param unit the unit of the returned time.
+     * @return the longest time the lock was held.
+     */
+    public synchronized long getMaxHoldTime(TimeUnit unit) {
+        return unit.convert(maxHoldNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets all metrics back to {@code 0}. A transaction in progress still records its hold time when it ends.
+     */
+    public synchronized void reset() {
+        transactions = 0;
+        timeouts = 0;
+        totalWaitNanos = 0;
+        maxWaitNanos = 0;
+        totalHoldNanos = 0;
+        maxHoldNanos = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US,
+                "WriteLockMetrics{transactions: %d, timeouts: %d, wait: %d ms (max %d ms), hold: %d ms (max %d ms)}",
+                transactions, timeouts,
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos), TimeUnit.NANOSECONDS.toMillis(maxWaitNanos),
+                TimeUnit.NANOSECONDS.toMillis(totalHoldNanos), TimeUnit.NANOSECONDS.toMillis(maxHoldNanos));
+    }
+}
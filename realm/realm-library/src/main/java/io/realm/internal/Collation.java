@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm.internal;
+
+import java.text.Collator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Computes the collation keys stored for fields annotated with {@link io.realm.annotations.Collated}.
+ * <p>
+ * A key is the {@link java.text.CollationKey} of the value encoded as a String of the letters 'a' to 'p', one letter
+ * per 4 bits. Comparing two keys character by character gives the same result as comparing the values with the
+ * {@link Collator} of the locale, and the letters are ordered the same way by the native string sort.
+ */
+public final class Collation {
+
+    /**
+     * Suffix of the column holding the collation keys of a field.
+     */
+    public static final String KEY_COLUMN_SUFFIX = "$collation";
+
+    // Collators are not thread safe, so each thread keeps its own instance per locale.
+    private static final ThreadLocal<Map<String, Collator>> collators = new ThreadLocal<Map<String, Collator>>() {
+        @Override
+        protected Map<String, Collator> initialValue() {
+            return new HashMap<String, Collator>();
+        }
+    };
+
+    private Collation() {
+    }
+
+    /**
+     * Returns the name of the column holding the collation keys for the given field.
+     */
+    public static String getKeyColumnName(String fieldName) {
+        return fieldName + KEY_COLUMN_SUFFIX;
+    }
+
+    /**
+     * Returns the collation key of a value.
+     *
+     * @param locale the locale as {@code "language"} or {@code "language_COUNTRY"}. The root locale is used if empty.
+     * @param value the value to compute the key for.
+     * @return the encoded collation key or {@code null} if {@code value} is {@code null}.
+     */
+    public static String getKey(String locale, String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = getCollator(locale).getCollationKey(value).toByteArray();
+        char[] key = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            key[i * 2] = (char) ('a' + ((bytes[i] >> 4) & 0xF));
+            key[i * 2 + 1] = (char) ('a' + (bytes[i] & 0xF));
+        }
+        return new String(key);
+    }
+
+    private static Collator getCollator(String locale) {
+        Map<String, Collator> cache = collators.get();
+        Collator collator = cache.get(locale);
+        if (collator == null) {
+            collator = Collator.getInstance(toLocale(locale));
+            cache.put(locale, collator);
+        }
+        return collator;
+    }
+
+    private static Locale toLocale(String locale) {
+        if (locale == null || locale.isEmpty()) {
+            return Locale.ROOT;
+        }
+        String[] parts = locale.split("_", 3);
+        switch (parts.length) {
+            case 1: return new Locale(parts[0]);
+            case 2: return new Locale(parts[0], parts[1]);
+            default: return new Locale(parts[0], parts[1], parts[2]);
+        }
+    }
+}
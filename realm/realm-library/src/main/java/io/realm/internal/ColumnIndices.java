@@ -50,4 +50,30 @@ public class ColumnIndices {
             return -1;
         }
     }
+
+    /**
+     * Returns the backlink declared by the given field of the class with the given name or {@code null} if the
+     * field is not declared with {@link io.realm.annotations.LinkingObjects}.
+     */
+    public ColumnInfo.Backlink getBacklink(String className, String fieldName) {
+        for (Map.Entry<Class<? extends RealmModel>, ColumnInfo> entry : classes.entrySet()) {
+            if (entry.getKey().getSimpleName().equals(className)) {
+                return entry.getValue().getBacklinksMap().get(fieldName);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the column the class with the given name is ordered by or {@code -1} if the class is not
+     * declared with {@link io.realm.annotations.OrderedBy}.
+     */
+    public long getOrderedColumnIndex(String className) {
+        for (Map.Entry<Class<? extends RealmModel>, ColumnInfo> entry : classes.entrySet()) {
+            if (entry.getKey().getSimpleName().equals(className)) {
+                return entry.getValue().getOrderedColumnIndex();
+            }
+        }
+        return -1;
+    }
 }
@@ -23,6 +23,26 @@ import io.realm.exceptions.RealmMigrationNeededException;
 
 public class ColumnInfo {
     private Map<String, Long> indicesMap;
+    private Map<String, Backlink> backlinksMap = Collections.emptyMap();
+    private Map<String, Long> collationKeysMap = Collections.emptyMap();
+    private Map<String, Long> integerMaxValuesMap = Collections.emptyMap();
+    private long orderedColumnIndex = -1;
+    private boolean primaryKeyAutoIncrement;
+    private long primaryKeyMaxValue = Long.MAX_VALUE;
+
+    /**
+     * Describes a field declared with {@link io.realm.annotations.LinkingObjects}. Such fields have no column, they
+     * are resolved through the backlinks of the field {@link #originFieldName} in the class {@link #originClassName}.
+     */
+    public static final class Backlink {
+        public final String originClassName;
+        public final String originFieldName;
+
+        public Backlink(String originClassName, String originFieldName) {
+            this.originClassName = originClassName;
+            this.originFieldName = originFieldName;
+        }
+    }
 
     protected final long getValidColumnIndex(String realmPath, Table table,
                                              String className, String columnName) {
@@ -41,4 +61,70 @@ public class ColumnInfo {
     public Map<String, Long> getIndicesMap() {
         return indicesMap;
     }
+
+    protected final void setBacklinksMap(Map<String, Backlink> backlinksMap) {
+        this.backlinksMap = Collections.unmodifiableMap(backlinksMap);
+    }
+
+    /**
+     * Returns the fields declared with {@link io.realm.annotations.LinkingObjects} mapped by their field names.
+     */
+    public Map<String, Backlink> getBacklinksMap() {
+        return backlinksMap;
+    }
+
+    protected final void setCollationKeysMap(Map<String, Long> collationKeysMap) {
+        this.collationKeysMap = Collections.unmodifiableMap(collationKeysMap);
+    }
+
+    /**
+     * Returns the indices of the collation key columns of fields declared with
+     * {@link io.realm.annotations.Collated} mapped by their field names.
+     */
+    public Map<String, Long> getCollationKeysMap() {
+        return collationKeysMap;
+    }
+
+    protected final void setIntegerMaxValuesMap(Map<String, Long> integerMaxValuesMap) {
+        this.integerMaxValuesMap = Collections.unmodifiableMap(integerMaxValuesMap);
+    }
+
+    /**
+     * Returns the largest value of {@code byte}, {@code short} and {@code int} fields mapped by their field names.
+     * Fields of other types are not included.
+     */
+    public Map<String, Long> getIntegerMaxValuesMap() {
+        return integerMaxValuesMap;
+    }
+
+    protected final void setOrderedColumnIndex(long orderedColumnIndex) {
+        this.orderedColumnIndex = orderedColumnIndex;
+    }
+
+    /**
+     * Returns the index of the column named by {@link io.realm.annotations.OrderedBy} or {@code -1} if the class is
+     * not ordered.
+     */
+    public long getOrderedColumnIndex() {
+        return orderedColumnIndex;
+    }
+
+    protected final void setPrimaryKeyAutoIncrement(long primaryKeyMaxValue) {
+        this.primaryKeyAutoIncrement = true;
+        this.primaryKeyMaxValue = primaryKeyMaxValue;
+    }
+
+    /**
+     * Returns {@code true} if the primary key is declared with {@code @PrimaryKey(autoIncrement = true)}.
+     */
+    public boolean isPrimaryKeyAutoIncrement() {
+        return primaryKeyAutoIncrement;
+    }
+
+    /**
+     * Returns the largest value the field of an auto-increment primary key can hold.
+     */
+    public long getPrimaryKeyMaxValue() {
+        return primaryKeyMaxValue;
+    }
 }
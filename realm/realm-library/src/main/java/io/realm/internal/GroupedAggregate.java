@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm.internal;
+
+import io.realm.RealmFieldType;
+
+/**
+ * Maintains the number of rows matching a query and the sum of a column per value of a key column in a table of the
+ * same Realm, so they can be read without running the query.
+ * <p>
+ * Two tables are used: the groups table with one row per key and a rows table mirroring the rows of the queried table,
+ * which remembers what each row added to its group. Within a write transaction, the changes made so far are read
+ * from the transaction log and only the groups of the inserted, changed and deleted rows are updated.
+ */
+public final class GroupedAggregate {
+
+    // Columns of the groups table, there is a row for each key with at least one matching row
+    public static final long GROUP_KEY_COLUMN = 0;
+    public static final long GROUP_COUNT_COLUMN = 1;
+    public static final long GROUP_SUM_COLUMN = 2;
+
+    private GroupedAggregate() {
+    }
+
+    /**
+     * Creates the columns of the groups and rows tables. Existing columns are removed.
+     *
+     * @param groups the table holding the groups.
+     * @param rows the table mirroring the rows of the queried table.
+     * @param keyType the type of the key column, {@link RealmFieldType#INTEGER} or {@link RealmFieldType#STRING}.
+     */
+    public static void createTables(Table groups, Table rows, RealmFieldType keyType) {
+        removeColumns(groups);
+        removeColumns(rows);
+        groups.addColumn(keyType, "key", true);
+        groups.addColumn(RealmFieldType.INTEGER, "count");
+        groups.addColumn(RealmFieldType.DOUBLE, "sum");
+        groups.addSearchIndex(GROUP_KEY_COLUMN);
+        // The order must match the ROW_ constants in io_realm_internal_GroupedAggregate.cpp
+        rows.addColumn(RealmFieldType.BOOLEAN, "matched");
+        rows.addColumn(keyType, "key", true);
+        rows.addColumn(RealmFieldType.DOUBLE, "value");
+    }
+
+    private static void removeColumns(Table table) {
+        while (table.getColumnCount() > 0) {
+            table.removeColumn(0);
+        }
+    }
+
+    /**
+     * Updates the groups with the changes made to the queried table in the current write transaction. All groups are
+     * computed again if {@code rebuild} is {@code true} or the changes cannot be applied one by one, e.g. if the
+     * table was cleared or its columns changed.
+     *
+     * @param sharedRealm the Realm in a write transaction.
+     * @param query the query selecting the rows to aggregate.
+     * @param keyColumnIndex the column to group the rows by.
+     * @param valueColumnIndex the column to sum or {@code -1} to only count the rows.
+     * @param groups the table holding the groups.
+     * @param rows the table mirroring the rows of the queried table.
+     * @param dependsOnOtherTables {@code true} if the query has conditions on linked objects. All groups are computed
+     * again if other tables changed.
+     * @param rebuild {@code true} to compute all groups again.
+     */
+    public static void update(SharedRealm sharedRealm, TableQuery query, long keyColumnIndex, long valueColumnIndex,
+                              Table groups, Table rows, boolean dependsOnOtherTables, boolean rebuild) {
+        nativeUpdate(sharedRealm.getNativePtr(), query.nativePtr, keyColumnIndex, valueColumnIndex,
+                groups.nativePtr, rows.nativePtr, dependsOnOtherTables, rebuild);
+    }
+
+    private static native void nativeUpdate(long sharedRealmPtr, long queryPtr, long keyColumnIndex,
+                                            long valueColumnIndex, long groupsPtr, long rowsPtr,
+                                            boolean dependsOnOtherTables, boolean rebuild);
+}
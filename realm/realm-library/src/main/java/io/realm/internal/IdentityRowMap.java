@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm.internal;
+
+/**
+ * Maps objects, compared by identity, to the index of the row they were inserted in. Used by the generated
+ * {@code insert()} and {@code insertOrUpdate()} methods to insert an object referenced several times only once.
+ * <p>
+ * Unlike an {@link java.util.IdentityHashMap IdentityHashMap&lt;RealmModel, Long&gt;}, row indices are stored as
+ * primitives in an open addressing table, so adding an object does not allocate.
+ */
+public final class IdentityRowMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private Object[] keys;
+    private long[] rows;
+    private int size;
+
+    public IdentityRowMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * @param expectedSize the number of objects expected to be added. The map grows if more are added.
+     */
+    public IdentityRowMap(int expectedSize) {
+        // Keeps the table at most half full
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2 && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        keys = new Object[capacity];
+        rows = new long[capacity];
+    }
+
+    /**
+     * Returns the row index of the given object or {@link TableOrView#NO_MATCH} if it was not added.
+     */
+    public long get(Object key) {
+        int slot = findSlot(keys, key);
+        return (keys[slot] == null) ? TableOrView.NO_MATCH : rows[slot];
+    }
+
+    public boolean containsKey(Object key) {
+        return keys[findSlot(keys, key)] != null;
+    }
+
+    public void put(Object key, long rowIndex) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not supported.");
+        }
+        int slot = findSlot(keys, key);
+        if (keys[slot] == null) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = findSlot(keys, key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        rows[slot] = rowIndex;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Returns the slot holding the key or the empty slot it would be added to
+    private static int findSlot(Object[] keys, Object key) {
+        int mask = keys.length - 1;
+        // Fibonacci hashing, takes the high bits of the product as identity hash codes are not evenly distributed
+        int slot = (System.identityHashCode(key) * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(mask);
+        while (keys[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        Object[] oldKeys = keys;
+        long[] oldRows = rows;
+        keys = new Object[oldKeys.length * 2];
+        rows = new long[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = findSlot(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                rows[slot] = oldRows[i];
+            }
+        }
+    }
+}
@@ -179,6 +179,7 @@ public class LinkView extends NativeObject {
     private native void nativeMove(long nativeLinkViewPtr, long oldPos, long newPos);
     private native void nativeRemove(long nativeLinkViewPtr, long pos);
     public static native void nativeClear(long nativeLinkViewPtr);
+    public static native void nativeSetAll(long nativeLinkViewPtr, long[] rowIndices, boolean skipUnchanged);
     private native long nativeSize(long nativeLinkViewPtr);
     private native boolean nativeIsEmpty(long nativeLinkViewPtr);
     protected native long nativeWhere(long nativeLinkViewPtr);
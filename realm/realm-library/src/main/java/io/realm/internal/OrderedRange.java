@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Realm Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.realm.internal;
+
+/**
+ * The bounds of range conditions on the field of a class declared with {@link io.realm.annotations.OrderedBy}.
+ * <p>
+ * The rows within the bounds are found by binary search each time a query runs, as removing older objects moves the
+ * rows. Instances are immutable, so a {@link TableView} can keep the range it was created with.
+ */
+public final class OrderedRange {
+
+    private final long columnIndex;
+    private final boolean hasLowerBound;
+    private final long lowerBound;
+    private final boolean lowerBoundInclusive;
+    private final boolean hasUpperBound;
+    private final long upperBound;
+    private final boolean upperBoundInclusive;
+
+    /**
+     * Creates a range without bounds.
+     *
+     * @param columnIndex the index of the ordered column.
+     */
+    public OrderedRange(long columnIndex) {
+        this(columnIndex, false, 0, false, false, 0, false);
+    }
+
+    private OrderedRange(long columnIndex, boolean hasLowerBound, long lowerBound, boolean lowerBoundInclusive,
+                         boolean hasUpperBound, long upperBound, boolean upperBoundInclusive) {
+        this.columnIndex = columnIndex;
+        this.hasLowerBound = hasLowerBound;
+        this.lowerBound = lowerBound;
+        this.lowerBoundInclusive = lowerBoundInclusive;
+        this.hasUpperBound = hasUpperBound;
+        this.upperBound = upperBound;
+        this.upperBoundInclusive = upperBoundInclusive;
+    }
+
+    /**
+     * Returns the range further limited to values greater than, or equal to if {@code inclusive}, the given one.
+     */
+    public OrderedRange withLowerBound(long value, boolean inclusive) {
+        if (hasLowerBound && (value < lowerBound || (value == lowerBound && !lowerBoundInclusive))) {
+            return this;
+        }
+        return new OrderedRange(columnIndex, true, value, inclusive, hasUpperBound, upperBound, upperBoundInclusive);
+    }
+
+    /**
+     * Returns the range further limited to values less than, or equal to if {@code inclusive}, the given one.
+     */
+    public OrderedRange withUpperBound(long value, boolean inclusive) {
+        if (hasUpperBound && (value > upperBound || (value == upperBound && !upperBoundInclusive))) {
+            return this;
+        }
+        return new OrderedRange(columnIndex, hasLowerBound, lowerBound, lowerBoundInclusive, true, value, inclusive);
+    }
+
+    /**
+     * Checks if the range has any bound.
+     */
+    public boolean isBounded() {
+        return hasLowerBound || hasUpperBound;
+    }
+
+    /**
+     * Finds the rows within the bounds.
+     *
+     * @param table the table of the ordered class.
+     * @return the index of the first row in the range and the index after its last row, or {@link Table#INFINITE} if
+     * the range has no upper bound. Both are equal if the range is empty.
+     */
+    public long[] findRows(Table table) {
+        long start = 0;
+        if (hasLowerBound) {
+            start = lowerBoundInclusive ? table.lowerBoundOrdered(columnIndex, lowerBound)
+                    : table.upperBoundOrdered(columnIndex, lowerBound);
+        }
+        long end = Table.INFINITE;
+        if (hasUpperBound) {
+            end = upperBoundInclusive ? table.upperBoundOrdered(columnIndex, upperBound)
+                    : table.lowerBoundOrdered(columnIndex, upperBound);
+            end = Math.max(start, end);
+        }
+        return new long[] {start, end};
+    }
+}
@@ -113,9 +113,8 @@ public abstract class RealmProxyMediator {
      *
      * @param realm reference to the {@link Realm} where the object will be inserted.
      * @param object {@link RealmObject} to insert.
-     * @param cache the cache for mapping between unmanaged objects and their table row index for eventual reuse.
      */
-    public abstract void insert(Realm realm, RealmModel object, Map<RealmModel, Long> cache);
+    public abstract void insert(Realm realm, RealmModel object);
 
     /**
      * Insert or update a RealmObject. This is generally faster than {@link #copyOrUpdate(Realm, RealmModel, boolean, Map)} since it
@@ -124,9 +123,8 @@ public abstract class RealmProxyMediator {
      *
      * @param realm reference to the {@link Realm} where the objecs will be inserted.
      * @param object {@link RealmObject} to insert.
-     * @param cache the cache for mapping between unmanaged objects and their table row index for eventual reuse.
      */
-    public abstract void insertOrUpdate(Realm realm, RealmModel object, Map<RealmModel, Long> cache);
+    public abstract void insertOrUpdate(Realm realm, RealmModel object);
 
     /**
      * Insert or update a RealmObject. This is generally faster than {@link #copyOrUpdate(Realm, RealmModel, boolean, Map)} since it
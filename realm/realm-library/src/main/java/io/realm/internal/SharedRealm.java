@@ -126,6 +126,8 @@ public final class SharedRealm implements Closeable {
 
     private long nativePtr;
     private RealmConfiguration configuration;
+    // Counts the write transactions begun by this Realm, lets tables cache lookups for the current one
+    private long writeTransactionCount;
     final Context context;
 
     private SharedRealm(long nativePtr, RealmConfiguration configuration, RealmNotifier notifier) {
@@ -161,6 +163,7 @@ public final class SharedRealm implements Closeable {
 
     public void beginTransaction() {
         nativeBeginTransaction(nativePtr);
+        writeTransactionCount++;
     }
 
     public void commitTransaction() {
@@ -171,10 +174,27 @@ public final class SharedRealm implements Closeable {
         nativeCancelTransaction(nativePtr);
     }
 
+    /**
+     * Returns the number of write transactions begun by this Realm, which identifies the current one.
+     */
+    long getWriteTransactionCount() {
+        return writeTransactionCount;
+    }
+
     public boolean isInTransaction() {
         return nativeIsInTransaction(nativePtr);
     }
 
+    /**
+     * Checks if anything was written in the current transaction. Writes are recorded even if they set a value to the
+     * value it already had.
+     *
+     * @return {@code true} if the transaction log of the current transaction is not empty.
+     */
+    public boolean hasUncommittedChanges() {
+        return nativeHasUncommittedChanges(nativePtr);
+    }
+
     public long getSchemaVersion() {
         return nativeGetVersion(nativePtr);
     }
@@ -233,6 +253,31 @@ public final class SharedRealm implements Closeable {
         return new SharedRealm.VersionID(versionId[0], versionId[1]);
     }
 
+    /**
+     * Returns the number of the version read by the current transaction. Committing a write transaction creates the
+     * version with the next number.
+     *
+     * @return the version number.
+     */
+    public long getTransactionVersion() {
+        return getVersionID().version;
+    }
+
+    /**
+     * Keeps the version read by this Realm available after the Realm has moved on or has been closed. The version
+     * must be released with {@link #unpinVersion(VersionID)} by any {@code SharedRealm} of the same file.
+     *
+     * @return the pinned version.
+     */
+    public SharedRealm.VersionID pinVersion() {
+        long[] versionId = nativePinVersion(nativePtr);
+        return new SharedRealm.VersionID(versionId[0], versionId[1]);
+    }
+
+    public void unpinVersion(SharedRealm.VersionID version) {
+        nativeUnpinVersion(nativePtr, version.version, version.index);
+    }
+
     public boolean isClosed() {
         return nativePtr == 0 || nativeIsClosed(nativePtr);
     }
@@ -294,12 +339,15 @@ public final class SharedRealm implements Closeable {
     private static native void nativeCommitTransaction(long nativeSharedRealmPtr);
     private static native void nativeCancelTransaction(long nativeSharedRealmPtr);
     private static native boolean nativeIsInTransaction(long nativeSharedRealmPtr);
+    private static native boolean nativeHasUncommittedChanges(long nativeSharedRealmPtr);
     private static native long nativeGetVersion(long nativeSharedRealmPtr);
     private static native long nativeReadGroup(long nativeSharedRealmPtr);
     private static native boolean nativeIsEmpty(long nativeSharedRealmPtr);
     private static native void nativeRefresh(long nativeSharedRealmPtr);
     private static native void nativeRefresh(long nativeSharedRealmPtr, long version, long index);
     private static native long[]  nativeGetVersionID(long nativeSharedRealmPtr);
+    private static native long[] nativePinVersion(long nativeSharedRealmPtr);
+    private static native void nativeUnpinVersion(long nativeSharedRealmPtr, long version, long index);
     private static native long nativeGetTable(long nativeSharedRealmPtr, String tableName);
     private static native String nativeGetTableName(long nativeSharedRealmPtr, int index);
     private static native boolean nativeHasTable(long nativeSharedRealmPtr, String tableName);
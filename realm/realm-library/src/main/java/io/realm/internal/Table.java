@@ -38,6 +38,13 @@ public class Table implements TableOrView, TableSchema {
     @SuppressWarnings("WeakerAccess")
     public static final long INTEGER_DEFAULT_VALUE = 0;
     public static final String METADATA_TABLE_NAME = "metadata";
+    // Prefix of the tables holding materialized views, must match io_realm_internal_GroupedAggregate.cpp
+    public static final String VIEW_TABLE_PREFIX = "view_";
+    // Progress of the sessions of io.realm.BulkWriteSession
+    public static final String BULK_WRITE_TABLE_NAME = "bulk_writes";
+    private static final String SEQUENCE_TABLE_NAME = "sequences";
+    private static final long SEQUENCE_CLASS_COLUMN_INDEX = 0;
+    private static final long SEQUENCE_NEXT_VALUE_COLUMN_INDEX = 1;
     public static final boolean NULLABLE = true;
     public static final boolean NOT_NULLABLE = false;
 
@@ -52,6 +59,10 @@ public class Table implements TableOrView, TableSchema {
     private final Context context;
     private final SharedRealm sharedRealm;
     private long cachedPrimaryKeyColumnIndex = NO_MATCH;
+    // The sequence of an auto-increment primary key, looked up once per write transaction
+    private long sequenceTransaction = -1;
+    private Table sequenceTable;
+    private long sequenceRow = NO_MATCH;
 
     static {
         RealmCore.loadLibrary();
@@ -372,6 +383,22 @@ public class Table implements TableOrView, TableSchema {
         nativeMoveLastOver(nativePtr, rowIndex);
     }
 
+    /**
+     * Removes the first rows of the table. The remaining rows keep their order.
+     * <p>
+     * Unless all rows are removed, which clears the table, each remaining row is swapped with the row {@code count}
+     * places before it and the removed rows are then taken off the end of the table. This costs {@code O(n)} row
+     * moves for a table of {@code n} rows, instead of shifting all following rows for every removed one.
+     *
+     * @param count the number of rows to remove, all rows are removed if it exceeds the size of the table.
+     */
+    public void removeFirstRows(long count) {
+        checkImmutable();
+        if (count > 0) {
+            nativeRemoveFirstRows(nativePtr, count);
+        }
+    }
+
     /**
      * Add an empty row to the table which doesn't have a primary key defined.
      * <p>
@@ -467,6 +494,61 @@ public class Table implements TableOrView, TableSchema {
         return rowIndex;
     }
 
+    /**
+     * Finds the rows of the given integer primary keys and adds a row for every key not found, with a single native
+     * call. The keys are looked up in sorted order and equal keys resolve to the same row. Used by the bulk
+     * {@code insertOrUpdate()} which sets the other fields of the returned rows.
+     *
+     * @param keys the primary key values.
+     * @param nulls {@code true} for the keys which are {@code null}, can be {@code null} if no key is {@code null}.
+     * @return the row index of every key, in the order of the keys.
+     */
+    public long[] findOrAddRowsWithPrimaryKeys(long[] keys, boolean[] nulls) {
+        checkImmutable();
+        checkHasPrimaryKey();
+        return nativeFindOrAddRowsWithLongPrimaryKeys(nativePtr, getPrimaryKey(), keys, nulls);
+    }
+
+    /**
+     * Finds the rows of the given String primary keys and adds a row for every key not found, see
+     * {@link #findOrAddRowsWithPrimaryKeys(long[], boolean[])}.
+     *
+     * @param keys the primary key values, {@code null} elements are only allowed for a nullable primary key.
+     * @return the row index of every key, in the order of the keys.
+     */
+    public long[] findOrAddRowsWithPrimaryKeys(String[] keys) {
+        checkImmutable();
+        checkHasPrimaryKey();
+        return nativeFindOrAddRowsWithStringPrimaryKeys(nativePtr, getPrimaryKey(), keys);
+    }
+
+    /**
+     * Removes the rows of the given integer primary keys with a single native call. Keys without a row are ignored.
+     *
+     * @param keys the primary key values.
+     * @param ordered {@code true} to keep the order of the remaining rows, otherwise a removed row is replaced by
+     * the last one.
+     * @return the number of rows removed.
+     */
+    public long removeRowsWithPrimaryKeys(long[] keys, boolean ordered) {
+        checkImmutable();
+        checkHasPrimaryKey();
+        return nativeRemoveRowsWithLongPrimaryKeys(nativePtr, getPrimaryKey(), keys, ordered);
+    }
+
+    /**
+     * Removes the rows of the given String primary keys, see {@link #removeRowsWithPrimaryKeys(long[], boolean)}.
+     *
+     * @param keys the primary key values, {@code null} elements remove the row with a {@code null} key.
+     * @param ordered {@code true} to keep the order of the remaining rows.
+     * @return the number of rows removed.
+     */
+    public long removeRowsWithPrimaryKeys(String[] keys, boolean ordered) {
+        checkImmutable();
+        checkHasPrimaryKey();
+        return nativeRemoveRowsWithStringPrimaryKeys(nativePtr, getPrimaryKey(), keys, ordered);
+    }
+
     @SuppressWarnings("WeakerAccess")
     public long addEmptyRows(long rows) {
         checkImmutable();
@@ -782,6 +864,22 @@ public class Table implements TableOrView, TableSchema {
         nativeSetLong(nativePtr, columnIndex, rowIndex, value);
     }
 
+    /**
+     * Adds a value to an integer in native code. The addition is recorded as such in the transaction log, not as the
+     * resulting value.
+     *
+     * @param columnIndex the integer column, which cannot be the primary key.
+     * @param rowIndex the row to change.
+     * @param delta the value to add, negative to subtract.
+     */
+    public void incrementLong(long columnIndex, long rowIndex, long delta) {
+        checkImmutable();
+        if (isPrimaryKeyColumn(columnIndex)) {
+            throw new IllegalArgumentException("The primary key cannot be incremented: " + getColumnName(columnIndex));
+        }
+        nativeIncrementLong(nativePtr, columnIndex, rowIndex, delta);
+    }
+
     @Override
     public void setBoolean(long columnIndex, long rowIndex, boolean value) {
         checkImmutable();
@@ -838,6 +936,45 @@ public class Table implements TableOrView, TableSchema {
         nativeSetLink(nativePtr, columnIndex, rowIndex, value);
     }
 
+    // Bulk setters used by columnar inserts. They set the consecutive rows starting at startRow to the given values
+    // with a single native call. Rows whose flag in nulls is true are set to null, nulls may be null. Primary key
+    // columns are not supported.
+
+    public void setLongs(long columnIndex, long startRow, long[] values, boolean[] nulls) {
+        checkImmutable();
+        nativeSetLongs(nativePtr, columnIndex, startRow, values, nulls);
+    }
+
+    public void setBooleans(long columnIndex, long startRow, boolean[] values, boolean[] nulls) {
+        checkImmutable();
+        nativeSetBooleans(nativePtr, columnIndex, startRow, values, nulls);
+    }
+
+    public void setFloats(long columnIndex, long startRow, float[] values, boolean[] nulls) {
+        checkImmutable();
+        nativeSetFloats(nativePtr, columnIndex, startRow, values, nulls);
+    }
+
+    public void setDoubles(long columnIndex, long startRow, double[] values, boolean[] nulls) {
+        checkImmutable();
+        nativeSetDoubles(nativePtr, columnIndex, startRow, values, nulls);
+    }
+
+    /**
+     * Sets consecutive rows of a date column, see {@link #setLongs(long, long, long[], boolean[])}.
+     *
+     * @param values the dates in milliseconds.
+     */
+    public void setDates(long columnIndex, long startRow, long[] values, boolean[] nulls) {
+        checkImmutable();
+        nativeSetTimestamps(nativePtr, columnIndex, startRow, values, nulls);
+    }
+
+    public void setStrings(long columnIndex, long startRow, String[] values) {
+        checkImmutable();
+        nativeSetStrings(nativePtr, columnIndex, startRow, values);
+    }
+
     public void addSearchIndex(long columnIndex) {
         checkImmutable();
         nativeAddSearchIndex(nativePtr, columnIndex);
@@ -883,6 +1020,123 @@ public class Table implements TableOrView, TableSchema {
         return pkTable;
     }
 
+    /**
+     * Returns the next value of the sequence of an auto-increment primary key and advances the sequence. The sequence
+     * is stored in a meta table and created on first use, starting after the largest key of the table.
+     *
+     * @param maxValue the largest value the primary key field can hold, e.g. {@link Integer#MAX_VALUE} for an
+     * {@code int} field.
+     * @return the key to assign to a new object.
+     * @throws IllegalStateException if the table has no primary key, is not part of a {@link SharedRealm} or if the
+     * next value of the sequence would be larger than {@code maxValue}.
+     */
+    public long nextAutoIncrementPrimaryKey(long maxValue) {
+        checkImmutable();
+        long row = findOrAddSequence();
+        long next = sequenceTable.getLong(SEQUENCE_NEXT_VALUE_COLUMN_INDEX, row);
+        // Long.MAX_VALUE marks a sequence which reached the largest key, see advanceSequence()
+        if (next > maxValue || next == Long.MAX_VALUE) {
+            throw new IllegalStateException(String.format(
+                    "The auto-increment primary key of %s cannot go beyond %d, the largest value of its field.",
+                    tableNameToClassName(getName()), maxValue));
+        }
+        sequenceTable.setLong(SEQUENCE_NEXT_VALUE_COLUMN_INDEX, row, next + 1);
+        return next;
+    }
+
+    /**
+     * Keeps the sequence of an auto-increment primary key ahead of a key set explicitly. Only classes declared with
+     * {@code @PrimaryKey(autoIncrement = true)} need to call this after adding a row. Tables without a sequence yet
+     * don't need one, it starts after the largest key when it is created.
+     *
+     * @param primaryKey the key of the added row.
+     */
+    public void advanceAutoIncrementPrimaryKey(long primaryKey) {
+        if (sharedRealm == null) {
+            return;
+        }
+        long row = findSequence();
+        if (row != NO_MATCH) {
+            advanceSequence(sequenceTable, row, primaryKey);
+        }
+    }
+
+    /**
+     * Keeps the sequence of an auto-increment primary key ahead of the keys of rows added by
+     * {@link #findOrAddRowsWithPrimaryKeys(long[], boolean[])}, see {@link #advanceAutoIncrementPrimaryKey(long)}.
+     *
+     * @param keys the primary key values.
+     */
+    public void advanceAutoIncrementPrimaryKey(long[] keys) {
+        if (keys.length == 0) {
+            return;
+        }
+        long max = Long.MIN_VALUE;
+        for (long key : keys) {
+            max = Math.max(max, key);
+        }
+        advanceAutoIncrementPrimaryKey(max);
+    }
+
+    private static void advanceSequence(Table sequences, long row, long primaryKey) {
+        if (primaryKey >= sequences.getLong(SEQUENCE_NEXT_VALUE_COLUMN_INDEX, row)) {
+            sequences.setLong(SEQUENCE_NEXT_VALUE_COLUMN_INDEX, row,
+                    (primaryKey == Long.MAX_VALUE) ? Long.MAX_VALUE : primaryKey + 1);
+        }
+    }
+
+    // Returns the row of the sequence of this table or NO_MATCH. Rows are never removed from the sequence table, so
+    // the row found stays valid until the write transaction ends.
+    private long findSequence() {
+        long transaction = sharedRealm.getWriteTransactionCount();
+        if (sequenceTransaction != transaction) {
+            sequenceTransaction = transaction;
+            sequenceTable = null;
+            sequenceRow = NO_MATCH;
+            if (sharedRealm.hasTable(SEQUENCE_TABLE_NAME)) {
+                Table sequences = sharedRealm.getTable(SEQUENCE_TABLE_NAME);
+                if (sequences.getColumnCount() > 0) {
+                    sequenceTable = sequences;
+                    sequenceRow = sequences.findFirstString(SEQUENCE_CLASS_COLUMN_INDEX,
+                            tableNameToClassName(getName()));
+                }
+            }
+        }
+        return sequenceRow;
+    }
+
+    private long findOrAddSequence() {
+        checkHasPrimaryKey();
+        if (sharedRealm == null) {
+            throw new IllegalStateException("Table is not created from a SharedRealm, sequences are not available");
+        }
+        if (findSequence() != NO_MATCH) {
+            return sequenceRow;
+        }
+        Table sequences = sequenceTable;
+        if (sequences == null) {
+            sequences = sharedRealm.getTable(SEQUENCE_TABLE_NAME);
+            if (sequences.getColumnCount() == 0) {
+                sequences.addColumn(RealmFieldType.STRING, "class");
+                sequences.addColumn(RealmFieldType.INTEGER, "next_value");
+                sequences.addSearchIndex(SEQUENCE_CLASS_COLUMN_INDEX);
+            }
+        }
+        // Objects added before the sequence existed keep their keys
+        long row = sequences.addEmptyRow();
+        sequences.setString(SEQUENCE_CLASS_COLUMN_INDEX, row, tableNameToClassName(getName()));
+        sequences.setLong(SEQUENCE_NEXT_VALUE_COLUMN_INDEX, row, 1);
+        if (size() > 0) {
+            Long max = maximumLong(getPrimaryKey());
+            if (max != null) {
+                advanceSequence(sequences, row, max);
+            }
+        }
+        sequenceTable = sequences;
+        sequenceRow = row;
+        return row;
+    }
+
     /**
      * Invalidating a cached primary key column index for the table.
      */
@@ -1183,6 +1437,34 @@ public class Table implements TableOrView, TableSchema {
         return nativeUpperBoundInt(nativePtr, columnIndex, value);
     }
 
+    // Ordered columns, see io.realm.annotations.OrderedBy. Values of date columns are given in milliseconds.
+
+    /**
+     * Checks that the value can be set in the given row of a column ordered by
+     * {@link io.realm.annotations.OrderedBy} without breaking the order with the neighbouring rows.
+     *
+     * @throws IllegalArgumentException if the value is out of order.
+     */
+    public void checkOrder(long columnIndex, long rowIndex, long value) {
+        nativeCheckOrder(nativePtr, columnIndex, rowIndex, value);
+    }
+
+    /**
+     * Returns the index of the first row with a value not less than the given one in an ordered integer or date
+     * column, or the size of the table if there is none.
+     */
+    public long lowerBoundOrdered(long columnIndex, long value) {
+        return nativeFindOrderedBound(nativePtr, columnIndex, value, false);
+    }
+
+    /**
+     * Returns the index of the first row with a value greater than the given one in an ordered integer or date
+     * column, or the size of the table if there is none.
+     */
+    public long upperBoundOrdered(long columnIndex, long value) {
+        return nativeFindOrderedBound(nativePtr, columnIndex, value, true);
+    }
+
     @Override
     public Table pivot(long stringCol, long intCol, PivotType pivotType) {
         if (! this.getColumnType(stringCol).equals(RealmFieldType.STRING ))
@@ -1208,6 +1490,27 @@ public class Table implements TableOrView, TableSchema {
         }
     }
 
+    /**
+     * Returns a view of all rows in {@code srcTable} which link to the given row through {@code srcColumnIndex}.
+     * The view is kept up to date by {@link TableView#syncIfNeeded()}.
+     *
+     * @param rowIndex the row in this table the links point to.
+     * @param srcTable the table holding the links.
+     * @param srcColumnIndex the Object or List column in {@code srcTable} linking to this table.
+     * @return a view of the linking rows.
+     */
+    public TableView getBacklinkView(long rowIndex, Table srcTable, long srcColumnIndex) {
+        // Execute the disposal of abandoned realm objects each time a new realm object is created
+        this.context.executeDelayedDisposal();
+        long nativeViewPtr = nativeGetBacklinkView(nativePtr, rowIndex, srcTable.nativePtr, srcColumnIndex);
+        try {
+            return new TableView(this.context, srcTable, nativeViewPtr);
+        } catch (RuntimeException e) {
+            TableView.nativeClose(nativeViewPtr);
+            throw e;
+        }
+    }
+
     /**
      * Returns the table name as it is in the associated group.
      *
@@ -1217,6 +1520,16 @@ public class Table implements TableOrView, TableSchema {
         return nativeGetName(nativePtr);
     }
 
+    /**
+     * Returns the position of the table in its group. Unlike a table accessor it stays valid as long as no table is
+     * removed, so it can be kept in cached column paths.
+     *
+     * @return the index of the table in the group.
+     */
+    public long getIndexInGroup() {
+        return nativeGetIndexInGroup(nativePtr);
+    }
+
     @Override
     public String toJson() {
         return nativeToJson(nativePtr);
@@ -1280,7 +1593,9 @@ public class Table implements TableOrView, TableSchema {
      * Checks if a given table name is a meta-table, i.e. a table used by Realm to track its internal state.
      */
     public static boolean isMetaTable(String tableName) {
-        return (tableName.equals(METADATA_TABLE_NAME) || tableName.equals(PRIMARY_KEY_TABLE_NAME));
+        return (tableName.equals(METADATA_TABLE_NAME) || tableName.equals(PRIMARY_KEY_TABLE_NAME)
+                || tableName.startsWith(VIEW_TABLE_PREFIX) || tableName.equals(BULK_WRITE_TABLE_NAME)
+                || tableName.equals(SEQUENCE_TABLE_NAME));
     }
 
     /**
@@ -1321,6 +1636,7 @@ public class Table implements TableOrView, TableSchema {
     private native void nativeRemove(long nativeTablePtr, long rowIndex);
     private native void nativeRemoveLast(long nativeTablePtr);
     private native void nativeMoveLastOver(long nativeTablePtr, long rowIndex);
+    private native void nativeRemoveFirstRows(long nativeTablePtr, long count);
     public static native long nativeAddEmptyRow(long nativeTablePtr, long rows);
     private native long nativeGetSortedViewMulti(long nativeTableViewPtr, long[] columnIndices, boolean[] ascending);
     private native long nativeGetLong(long nativeTablePtr, long columnIndex, long rowIndex);
@@ -1336,6 +1652,7 @@ public class Table implements TableOrView, TableSchema {
     native long nativeGetRowPtr(long nativePtr, long index);
     public static native void nativeSetLong(long nativeTablePtr, long columnIndex, long rowIndex, long value);
     public static native void nativeSetLongUnique(long nativeTablePtr, long columnIndex, long rowIndex, long value);
+    private static native void nativeIncrementLong(long nativeTablePtr, long columnIndex, long rowIndex, long delta);
     public static native void nativeSetBoolean(long nativeTablePtr, long columnIndex, long rowIndex, boolean value);
     public static native void nativeSetFloat(long nativeTablePtr, long columnIndex, long rowIndex, float value);
     public static native void nativeSetDouble(long nativeTablePtr, long columnIndex, long rowIndex, double value);
@@ -1343,6 +1660,27 @@ public class Table implements TableOrView, TableSchema {
     public static native void nativeSetString(long nativeTablePtr, long columnIndex, long rowIndex, String value);
     public static native void nativeSetStringUnique(long nativeTablePtr, long columnIndex, long rowIndex, String value);
     public static native void nativeSetNull(long nativeTablePtr, long columnIndex, long rowIndex);
+    // Used by the generated insertOrUpdate() methods, an unchanged value is not written if skipUnchanged is set
+    public static native void nativeUpdateLong(long nativeTablePtr, long columnIndex, long rowIndex, long value, boolean skipUnchanged);
+    public static native void nativeUpdateBoolean(long nativeTablePtr, long columnIndex, long rowIndex, boolean value, boolean skipUnchanged);
+    public static native void nativeUpdateFloat(long nativeTablePtr, long columnIndex, long rowIndex, float value, boolean skipUnchanged);
+    public static native void nativeUpdateDouble(long nativeTablePtr, long columnIndex, long rowIndex, double value, boolean skipUnchanged);
+    public static native void nativeUpdateTimestamp(long nativeTablePtr, long columnIndex, long rowIndex, long dateTimeValue, boolean skipUnchanged);
+    public static native void nativeUpdateString(long nativeTablePtr, long columnIndex, long rowIndex, String value, boolean skipUnchanged);
+    public static native void nativeUpdateByteArray(long nativeTablePtr, long columnIndex, long rowIndex, byte[] data, boolean skipUnchanged);
+    public static native void nativeUpdateNull(long nativeTablePtr, long columnIndex, long rowIndex, boolean skipUnchanged);
+    public static native void nativeUpdateLink(long nativeTablePtr, long columnIndex, long rowIndex, long value, boolean skipUnchanged);
+    public static native void nativeUpdateNullLink(long nativeTablePtr, long columnIndex, long rowIndex, boolean skipUnchanged);
+    private static native void nativeSetLongs(long nativeTablePtr, long columnIndex, long startRow, long[] values, boolean[] nulls);
+    private static native void nativeSetBooleans(long nativeTablePtr, long columnIndex, long startRow, boolean[] values, boolean[] nulls);
+    private static native void nativeSetFloats(long nativeTablePtr, long columnIndex, long startRow, float[] values, boolean[] nulls);
+    private static native void nativeSetDoubles(long nativeTablePtr, long columnIndex, long startRow, double[] values, boolean[] nulls);
+    private static native void nativeSetTimestamps(long nativeTablePtr, long columnIndex, long startRow, long[] values, boolean[] nulls);
+    private static native void nativeSetStrings(long nativeTablePtr, long columnIndex, long startRow, String[] values);
+    private static native long[] nativeFindOrAddRowsWithLongPrimaryKeys(long nativeTablePtr, long columnIndex, long[] keys, boolean[] nulls);
+    private static native long[] nativeFindOrAddRowsWithStringPrimaryKeys(long nativeTablePtr, long columnIndex, String[] keys);
+    private static native long nativeRemoveRowsWithLongPrimaryKeys(long nativeTablePtr, long columnIndex, long[] keys, boolean ordered);
+    private static native long nativeRemoveRowsWithStringPrimaryKeys(long nativeTablePtr, long columnIndex, String[] keys, boolean ordered);
     public static native void nativeSetByteArray(long nativePtr, long columnIndex, long rowIndex, byte[] data);
     public static native void nativeSetLink(long nativeTablePtr, long columnIndex, long rowIndex, long value);
     private native long nativeSetPrimaryKey(long privateKeyTableNativePtr, long nativePtr, String columnName);
@@ -1387,9 +1725,13 @@ public class Table implements TableOrView, TableSchema {
     private native long nativeFindAllString(long nativePtr, long columnIndex, String value);
     private native long nativeLowerBoundInt(long nativePtr, long columnIndex, long value);
     private native long nativeUpperBoundInt(long nativePtr, long columnIndex, long value);
+    private native long nativeFindOrderedBound(long nativePtr, long columnIndex, long value, boolean upper);
+    public static native void nativeCheckOrder(long nativeTablePtr, long columnIndex, long rowIndex, long value);
     private native void nativePivot(long nativeTablePtr, long stringCol, long intCol, int pivotType, long resultPtr);
     private native long nativeGetDistinctView(long nativePtr, long columnIndex);
+    private native long nativeGetBacklinkView(long nativePtr, long rowIndex, long srcTablePtr, long srcColumnIndex);
     private native String nativeGetName(long nativeTablePtr);
+    private native long nativeGetIndexInGroup(long nativeTablePtr);
     private native String nativeToJson(long nativeTablePtr);
     private native boolean nativeHasSameSchema(long thisTable, long otherTable);
     private native long nativeVersion(long nativeTablePtr);
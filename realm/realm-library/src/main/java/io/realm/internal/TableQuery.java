@@ -17,7 +17,10 @@
 package io.realm.internal;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import io.realm.Case;
 import io.realm.Sort;
@@ -26,19 +29,93 @@ import io.realm.internal.async.BadVersionException;
 public class TableQuery implements Closeable {
     protected boolean DEBUG = false;
 
+    /**
+     * Marks a backlink in the column indices of a link query. It is followed by the index in the group of the table
+     * holding the links and the index of the link column in that table, e.g. {@code [BACKLINK_PATH_ELEMENT,
+     * originTableIndex, originColumnIndex, columnIndex]}. Backlinks can never be the last element of a path.
+     */
+    public static final long BACKLINK_PATH_ELEMENT = -2;
+
+    /**
+     * Marks an aggregate over a {@code RealmList} at the end of the column indices of a link query. It is followed by
+     * one of the {@code AGGREGATE_*} kinds, the index of the list column and, except for {@link #AGGREGATE_COUNT},
+     * the index of the aggregated column in the target table, e.g. {@code [AGGREGATE_PATH_ELEMENT, AGGREGATE_SUM,
+     * listColumnIndex, columnIndex]}.
+     */
+    public static final long AGGREGATE_PATH_ELEMENT = -3;
+    public static final int AGGREGATE_SUM = 0;
+    public static final int AGGREGATE_MIN = 1;
+    public static final int AGGREGATE_MAX = 2;
+    public static final int AGGREGATE_AVERAGE = 3;
+    public static final int AGGREGATE_COUNT = 4;
+
+    // Predicates of subqueries over a list, see subquery()
+    private static final int SUBQUERY_ANY = 0;
+    private static final int SUBQUERY_ALL = 1;
+    private static final int SUBQUERY_NONE = 2;
+    private static final int SUBQUERY_COUNT_EQUAL = 3;
+    private static final int SUBQUERY_COUNT_GREATER = 4;
+    private static final int SUBQUERY_COUNT_LESS = 5;
+
     protected long nativePtr;
     protected final Table table;
     // Don't convert this into local variable and don't remove this.
     // Core requests Query to hold the TableView reference which it is built from.
-    @SuppressWarnings({"unused"})
     private final TableOrView origin; // Table or TableView which created this TableQuery
     private final Context context;
 
     // All actions (find(), findAll(), sum(), etc.) must call validateQuery() before performing
-    // the actual action. The other methods must set queryValidated to false in order to enforce
-    // the first action to validate the syntax of the query.
+    // the actual action. The other methods must call addCondition() which sets queryValidated to false in order to
+    // enforce the first action to validate the syntax of the query.
     private boolean queryValidated = true;
 
+    // Conditions in the order they were added. Only used to describe the query, see RealmQuery.explain().
+    private final List<Condition> conditions = new ArrayList<Condition>();
+
+    /**
+     * Describes a single condition or grouping token added to the query.
+     */
+    public static final class Condition {
+        public static final String EQUAL = "==";
+        public static final String NOT_EQUAL = "!=";
+        public static final String GREATER = ">";
+        public static final String GREATER_EQUAL = ">=";
+        public static final String LESS = "<";
+        public static final String LESS_EQUAL = "<=";
+        public static final String BETWEEN = "BETWEEN";
+        public static final String BEGINS_WITH = "BEGINSWITH";
+        public static final String ENDS_WITH = "ENDSWITH";
+        public static final String CONTAINS = "CONTAINS";
+        public static final String IS_EMPTY = "ISEMPTY";
+        public static final String IS_NULL = "ISNULL";
+        public static final String IS_NOT_NULL = "ISNOTNULL";
+        public static final String ANY = "ANY";
+        public static final String ALL = "ALL";
+        public static final String NONE = "NONE";
+        public static final String SUBQUERY_COUNT_EQUAL = "SUBQUERY.@count ==";
+        public static final String SUBQUERY_COUNT_GREATER = "SUBQUERY.@count >";
+        public static final String SUBQUERY_COUNT_LESS = "SUBQUERY.@count <";
+        public static final String GROUP = "(";
+        public static final String END_GROUP = ")";
+        public static final String OR = "OR";
+        public static final String NOT = "NOT";
+
+        public final String operator;
+        // null for grouping tokens
+        public final long[] columnIndices;
+        public final boolean caseSensitive;
+
+        Condition(String operator, long[] columnIndices, boolean caseSensitive) {
+            this.operator = operator;
+            this.columnIndices = columnIndices;
+            this.caseSensitive = caseSensitive;
+        }
+
+        public boolean isGroupingToken() {
+            return columnIndices == null;
+        }
+    }
+
     // TODO: Can we protect this?
     public TableQuery(Context context, Table table, long nativeQueryPtr) {
         if (DEBUG) {
@@ -95,6 +172,57 @@ public class TableQuery implements Closeable {
         }
     }
 
+    private void addCondition(String operator, long[] columnIndices, boolean caseSensitive) {
+        conditions.add(new Condition(operator, columnIndices, caseSensitive));
+        queryValidated = false;
+    }
+
+    /**
+     * Checks if the query only searches the rows of the {@link TableView} it was created from.
+     *
+     * @return {@code true} if the query was created from a {@link TableView}, {@code false} otherwise.
+     */
+    public boolean isRestrictedToView() {
+        return origin instanceof TableView;
+    }
+
+    /**
+     * Returns the conditions added to this query so far, in the order they were added.
+     *
+     * @return an unmodifiable list of conditions.
+     */
+    public List<Condition> getConditions() {
+        return Collections.unmodifiableList(conditions);
+    }
+
+    /**
+     * Checks if the query contains an {@code or()} that is not inside a group. Conditions added to such a query only
+     * apply to the last branch of the {@code or()}.
+     *
+     * @return {@code true} if there is a top-level {@code or()}, {@code false} otherwise.
+     */
+    public boolean hasTopLevelOr() {
+        int depth = 0;
+        for (Condition condition : conditions) {
+            if (Condition.GROUP.equals(condition.operator)) {
+                depth++;
+            } else if (Condition.END_GROUP.equals(condition.operator)) {
+                depth--;
+            } else if (Condition.OR.equals(condition.operator) && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of rows this query is evaluated against, i.e. the size of the {@link TableView} it was
+     * created from or the size of the table.
+     */
+    public long getSourceSize() {
+        return (origin != null) ? origin.size() : table.size();
+    }
+
     // Query TableView
     public TableQuery tableview(TableView tv) {
         nativeTableview(nativePtr, tv.nativePtr);
@@ -105,25 +233,25 @@ public class TableQuery implements Closeable {
 
     public TableQuery group() {
         nativeGroup(nativePtr);
-        queryValidated = false;
+        addCondition(Condition.GROUP, null, true);
         return this;
     }
 
     public TableQuery endGroup() {
         nativeEndGroup(nativePtr);
-        queryValidated = false;
+        addCondition(Condition.END_GROUP, null, true);
         return this;
     }
 
     public TableQuery or() {
         nativeOr(nativePtr);
-        queryValidated = false;
+        addCondition(Condition.OR, null, true);
         return this;
     }
 
     public TableQuery not() {
         nativeNot(nativePtr);
-        queryValidated = false;
+        addCondition(Condition.NOT, null, true);
         return this;
     }
 
@@ -131,43 +259,43 @@ public class TableQuery implements Closeable {
 
     public TableQuery equalTo(long columnIndexes[], long value) {
         nativeEqual(nativePtr, columnIndexes, value);
-        queryValidated = false;
+        addCondition(Condition.EQUAL, columnIndexes, true);
         return this;
     }
 
     public TableQuery notEqualTo(long columnIndex[], long value) {
         nativeNotEqual(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.NOT_EQUAL, columnIndex, true);
         return this;
     }
 
     public TableQuery greaterThan(long columnIndex[], long value) {
         nativeGreater(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.GREATER, columnIndex, true);
         return this;
     }
 
     public TableQuery greaterThanOrEqual(long columnIndex[], long value) {
         nativeGreaterEqual(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.GREATER_EQUAL, columnIndex, true);
         return this;
     }
 
     public TableQuery lessThan(long columnIndex[], long value) {
         nativeLess(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.LESS, columnIndex, true);
         return this;
     }
 
     public TableQuery lessThanOrEqual(long columnIndex[], long value) {
         nativeLessEqual(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.LESS_EQUAL, columnIndex, true);
         return this;
     }
 
     public TableQuery between(long columnIndex[], long value1, long value2) {
         nativeBetween(nativePtr, columnIndex, value1, value2);
-        queryValidated = false;
+        addCondition(Condition.BETWEEN, columnIndex, true);
         return this;
     }
 
@@ -175,43 +303,43 @@ public class TableQuery implements Closeable {
 
     public TableQuery equalTo(long columnIndex[], float value) {
         nativeEqual(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.EQUAL, columnIndex, true);
         return this;
     }
 
     public TableQuery notEqualTo(long columnIndex[], float value) {
         nativeNotEqual(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.NOT_EQUAL, columnIndex, true);
         return this;
     }
 
     public TableQuery greaterThan(long columnIndex[], float value) {
         nativeGreater(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.GREATER, columnIndex, true);
         return this;
     }
 
     public TableQuery greaterThanOrEqual(long columnIndex[], float value) {
         nativeGreaterEqual(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.GREATER_EQUAL, columnIndex, true);
         return this;
     }
 
     public TableQuery lessThan(long columnIndex[], float value) {
         nativeLess(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.LESS, columnIndex, true);
         return this;
     }
 
     public TableQuery lessThanOrEqual(long columnIndex[], float value) {
         nativeLessEqual(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.LESS_EQUAL, columnIndex, true);
         return this;
     }
 
     public TableQuery between(long columnIndex[], float value1, float value2) {
         nativeBetween(nativePtr, columnIndex, value1, value2);
-        queryValidated = false;
+        addCondition(Condition.BETWEEN, columnIndex, true);
         return this;
     }
 
@@ -219,43 +347,43 @@ public class TableQuery implements Closeable {
 
     public TableQuery equalTo(long columnIndex[], double value) {
         nativeEqual(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.EQUAL, columnIndex, true);
         return this;
     }
 
     public TableQuery notEqualTo(long columnIndex[], double value) {
         nativeNotEqual(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.NOT_EQUAL, columnIndex, true);
         return this;
     }
 
     public TableQuery greaterThan(long columnIndex[], double value) {
         nativeGreater(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.GREATER, columnIndex, true);
         return this;
     }
 
     public TableQuery greaterThanOrEqual(long columnIndex[], double value) {
         nativeGreaterEqual(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.GREATER_EQUAL, columnIndex, true);
         return this;
     }
 
     public TableQuery lessThan(long columnIndex[], double value) {
         nativeLess(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.LESS, columnIndex, true);
         return this;
     }
 
     public TableQuery lessThanOrEqual(long columnIndex[], double value) {
         nativeLessEqual(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.LESS_EQUAL, columnIndex, true);
         return this;
     }
 
     public TableQuery between(long columnIndex[], double value1, double value2) {
         nativeBetween(nativePtr, columnIndex, value1, value2);
-        queryValidated = false;
+        addCondition(Condition.BETWEEN, columnIndex, true);
         return this;
     }
 
@@ -263,7 +391,7 @@ public class TableQuery implements Closeable {
 
     public TableQuery equalTo(long columnIndex[], boolean value) {
         nativeEqual(nativePtr, columnIndex, value);
-        queryValidated = false;
+        addCondition(Condition.EQUAL, columnIndex, true);
         return this;
     }
 
@@ -277,7 +405,7 @@ public class TableQuery implements Closeable {
         } else {
             nativeEqualTimestamp(nativePtr, columnIndex, value.getTime());
         }
-        queryValidated = false;
+        addCondition(Condition.EQUAL, columnIndex, true);
         return this;
     }
 
@@ -285,7 +413,7 @@ public class TableQuery implements Closeable {
         if (value == null)
             throw new IllegalArgumentException(DATE_NULL_ERROR_MESSAGE);
         nativeNotEqualTimestamp(nativePtr, columnIndex, value.getTime());
-        queryValidated = false;
+        addCondition(Condition.NOT_EQUAL, columnIndex, true);
         return this;
     }
 
@@ -293,7 +421,7 @@ public class TableQuery implements Closeable {
         if (value == null)
             throw new IllegalArgumentException(DATE_NULL_ERROR_MESSAGE);
         nativeGreaterTimestamp(nativePtr, columnIndex, value.getTime());
-        queryValidated = false;
+        addCondition(Condition.GREATER, columnIndex, true);
         return this;
     }
 
@@ -301,7 +429,7 @@ public class TableQuery implements Closeable {
         if (value == null)
             throw new IllegalArgumentException(DATE_NULL_ERROR_MESSAGE);
         nativeGreaterEqualTimestamp(nativePtr, columnIndex, value.getTime());
-        queryValidated = false;
+        addCondition(Condition.GREATER_EQUAL, columnIndex, true);
         return this;
     }
 
@@ -309,7 +437,7 @@ public class TableQuery implements Closeable {
         if (value == null)
             throw new IllegalArgumentException(DATE_NULL_ERROR_MESSAGE);
         nativeLessTimestamp(nativePtr, columnIndex, value.getTime());
-        queryValidated = false;
+        addCondition(Condition.LESS, columnIndex, true);
         return this;
     }
 
@@ -317,7 +445,7 @@ public class TableQuery implements Closeable {
         if (value == null)
             throw new IllegalArgumentException(DATE_NULL_ERROR_MESSAGE);
         nativeLessEqualTimestamp(nativePtr, columnIndex, value.getTime());
-        queryValidated = false;
+        addCondition(Condition.LESS_EQUAL, columnIndex, true);
         return this;
     }
 
@@ -325,7 +453,7 @@ public class TableQuery implements Closeable {
         if (value1 == null || value2 == null)
             throw new IllegalArgumentException("Date values in query criteria must not be null."); // Different text
         nativeBetweenTimestamp(nativePtr, columnIndex, value1.getTime(), value2.getTime());
-        queryValidated = false;
+        addCondition(Condition.BETWEEN, columnIndex, true);
         return this;
     }
 
@@ -333,13 +461,13 @@ public class TableQuery implements Closeable {
 
     public TableQuery equalTo(long[] columnIndices, byte[] value) {
         nativeEqual(nativePtr, columnIndices, value);
-        queryValidated = false;
+        addCondition(Condition.EQUAL, columnIndices, true);
         return this;
     }
 
     public TableQuery notEqualTo(long[] columnIndices, byte[] value) {
         nativeNotEqual(nativePtr, columnIndices, value);
-        queryValidated = false;
+        addCondition(Condition.NOT_EQUAL, columnIndices, true);
         return this;
     }
 
@@ -350,67 +478,67 @@ public class TableQuery implements Closeable {
     // Equal
     public TableQuery equalTo(long[] columnIndexes, String value, Case caseSensitive) {
         nativeEqual(nativePtr, columnIndexes, value, caseSensitive.getValue());
-        queryValidated = false;
+        addCondition(Condition.EQUAL, columnIndexes, caseSensitive == Case.SENSITIVE);
         return this;
     }
 
     public TableQuery equalTo(long[] columnIndexes, String value) {
         nativeEqual(nativePtr, columnIndexes, value, true);
-        queryValidated = false;
+        addCondition(Condition.EQUAL, columnIndexes, true);
         return this;
     }
 
     // Not Equal
     public TableQuery notEqualTo(long columnIndex[], String value, Case caseSensitive) {
         nativeNotEqual(nativePtr, columnIndex, value, caseSensitive.getValue());
-        queryValidated = false;
+        addCondition(Condition.NOT_EQUAL, columnIndex, caseSensitive == Case.SENSITIVE);
         return this;
     }
     public TableQuery notEqualTo(long columnIndex[], String value) {
         nativeNotEqual(nativePtr, columnIndex, value, true);
-        queryValidated = false;
+        addCondition(Condition.NOT_EQUAL, columnIndex, true);
         return this;
     }
 
     public TableQuery beginsWith(long columnIndices[], String value, Case caseSensitive) {
         nativeBeginsWith(nativePtr, columnIndices, value, caseSensitive.getValue());
-        queryValidated = false;
+        addCondition(Condition.BEGINS_WITH, columnIndices, caseSensitive == Case.SENSITIVE);
         return this;
     }
 
     public TableQuery beginsWith(long columnIndices[], String value) {
         nativeBeginsWith(nativePtr, columnIndices, value, true);
-        queryValidated = false;
+        addCondition(Condition.BEGINS_WITH, columnIndices, true);
         return this;
     }
 
     public TableQuery endsWith(long columnIndices[], String value, Case caseSensitive) {
         nativeEndsWith(nativePtr, columnIndices, value, caseSensitive.getValue());
-        queryValidated = false;
+        addCondition(Condition.ENDS_WITH, columnIndices, caseSensitive == Case.SENSITIVE);
         return this;
     }
 
     public TableQuery endsWith(long columnIndices[], String value) {
         nativeEndsWith(nativePtr, columnIndices, value, true);
-        queryValidated = false;
+        addCondition(Condition.ENDS_WITH, columnIndices, true);
         return this;
     }
 
     public TableQuery contains(long columnIndices[], String value, Case caseSensitive) {
         nativeContains(nativePtr, columnIndices, value, caseSensitive.getValue());
-        queryValidated = false;
+        addCondition(Condition.CONTAINS, columnIndices, caseSensitive == Case.SENSITIVE);
         return this;
     }
 
     public TableQuery contains(long columnIndices[], String value) {
         nativeContains(nativePtr, columnIndices, value, true);
-        queryValidated = false;
+        addCondition(Condition.CONTAINS, columnIndices, true);
         return this;
     }
 
     public TableQuery isEmpty(long[] columnIndices) {
         nativeIsEmpty(nativePtr, columnIndices);
-        queryValidated = false;
+        addCondition(Condition.IS_EMPTY, columnIndices, true);
         return this;
     }
 
@@ -418,6 +546,42 @@ public class TableQuery implements Closeable {
         return not().isEmpty(columnIndices);
     }
 
+    // Subqueries. The subquery is evaluated against the list of each row and must be a query on the table of the
+    // objects in the list.
+
+    public TableQuery any(long[] columnIndices, TableQuery subquery) {
+        return subquery(columnIndices, subquery, SUBQUERY_ANY, 0, Condition.ANY);
+    }
+
+    public TableQuery all(long[] columnIndices, TableQuery subquery) {
+        return subquery(columnIndices, subquery, SUBQUERY_ALL, 0, Condition.ALL);
+    }
+
+    public TableQuery none(long[] columnIndices, TableQuery subquery) {
+        return subquery(columnIndices, subquery, SUBQUERY_NONE, 0, Condition.NONE);
+    }
+
+    public TableQuery subqueryCountEqualTo(long[] columnIndices, TableQuery subquery, long count) {
+        return subquery(columnIndices, subquery, SUBQUERY_COUNT_EQUAL, count, Condition.SUBQUERY_COUNT_EQUAL);
+    }
+
+    public TableQuery subqueryCountGreaterThan(long[] columnIndices, TableQuery subquery, long count) {
+        return subquery(columnIndices, subquery, SUBQUERY_COUNT_GREATER, count, Condition.SUBQUERY_COUNT_GREATER);
+    }
+
+    public TableQuery subqueryCountLessThan(long[] columnIndices, TableQuery subquery, long count) {
+        return subquery(columnIndices, subquery, SUBQUERY_COUNT_LESS, count, Condition.SUBQUERY_COUNT_LESS);
+    }
+
+    private TableQuery subquery(long[] columnIndices, TableQuery subquery, int predicate, long count,
+                                String operator) {
+        // The subquery is copied, so it must be complete
+        subquery.validateQuery();
+        nativeSubquery(nativePtr, columnIndices, subquery.nativePtr, predicate, count);
+        addCondition(operator, columnIndices, true);
+        return this;
+    }
+
     // Searching methods.
 
     @Deprecated // Doesn't seem to be used
@@ -460,6 +624,60 @@ public class TableQuery implements Closeable {
         }
     }
 
+    /**
+     * Finds the matching rows among the rows of an ordered range. The returned view finds the range again each time
+     * it is synced, as rows move when older rows are removed.
+     *
+     * @param orderedRange the range of a class declared with {@link io.realm.annotations.OrderedBy}.
+     * @return a {@link TableView} of the matching rows.
+     */
+    public TableView findAll(OrderedRange orderedRange) {
+        validateQuery();
+
+        // Execute the disposal of abandoned realm objects each time a new realm object is created
+        context.executeDelayedDisposal();
+        long nativeViewPtr = findAllInRange(orderedRange);
+        try {
+            return new TableView(this.context, this.table, nativeViewPtr, this, orderedRange);
+        } catch (RuntimeException e) {
+            TableView.nativeClose(nativeViewPtr);
+            throw e;
+        }
+    }
+
+    // Returns a native view of the matching rows within the range, or all rows if the range is null
+    long findAllInRange(OrderedRange orderedRange) {
+        if (orderedRange == null) {
+            return nativeFindAll(nativePtr, 0, Table.INFINITE, Table.INFINITE);
+        }
+        long[] rows = orderedRange.findRows(table);
+        return nativeFindAll(nativePtr, rows[0], rows[1], Table.INFINITE);
+    }
+
+    /**
+     * Finds the first {@code k} rows when sorted by the given column. Rows with the same value as the k-th row are
+     * included as well and rows with a null value are excluded. The view only contains rows on the same side of the
+     * k-th value when it is synced, the rows are not ranked again.
+     *
+     * @param columnIndex the integer, float, double or date column to sort by.
+     * @param sortOrder the sort order.
+     * @param k the number of rows to find.
+     * @return a sorted {@link TableView}.
+     */
+    public TableView findTopK(long columnIndex, Sort sortOrder, long k) {
+        validateQuery();
+
+        // Execute the disposal of abandoned realm objects each time a new realm object is created
+        context.executeDelayedDisposal();
+        long nativeViewPtr = nativeFindTopK(nativePtr, columnIndex, sortOrder.getValue(), k);
+        try {
+            return new TableView(this.context, this.table, nativeViewPtr, this);
+        } catch (RuntimeException e) {
+            TableView.nativeClose(nativeViewPtr);
+            throw e;
+        }
+    }
+
     public TableView findAll() {
         validateQuery();
 
@@ -494,11 +712,30 @@ public class TableQuery implements Closeable {
         return nativeFindAllMultiSortedWithHandover(sharedRealm.getNativePtr(), ptrQuery, 0, Table.INFINITE, Table.INFINITE, columnIndices, ascendings);
     }
 
+    /**
+     * Finds the first {@code k} rows on a worker thread, see {@link #findTopK(long, Sort, long)}.
+     *
+     * @param threshold receives {@code 1} as first element if a threshold was found and the threshold as second
+     * element, to seed the updates of the results.
+     */
+    public static long findTopKWithHandover(SharedRealm sharedRealm, long ptrQuery, long columnIndex, Sort sortOrder, long k, long[] threshold) throws BadVersionException {
+        return nativeFindTopKWithHandover(sharedRealm.getNativePtr(), ptrQuery, columnIndex, sortOrder.getValue(), k, threshold);
+    }
+
+    public static long findAllSortedDistinctWithHandover(SharedRealm sharedRealm, long ptrQuery,
+                                                         long[] sortColumnIndices, Sort[] sortOrders,
+                                                         long[] distinctColumnIndices) throws BadVersionException {
+        boolean[] ascendings = getNativeSortOrderValues(sortOrders);
+        return nativeFindAllSortedDistinctWithHandover(sharedRealm.getNativePtr(), ptrQuery, sortColumnIndices,
+                ascendings, distinctColumnIndices);
+    }
+
     public static long[] batchUpdateQueries(SharedRealm sharedRealm, long[] handoverQueries, long[][] parameters,
-                                            long[][] queriesParameters, boolean[][] multiSortOrder)
+                                            long[][] queriesParameters, boolean[][] multiSortOrder,
+                                            long[][] distinctColumnIndices)
             throws BadVersionException {
         return nativeBatchUpdateQueries(sharedRealm.getNativePtr(), handoverQueries, parameters, queriesParameters,
-                multiSortOrder);
+                multiSortOrder, distinctColumnIndices);
     }
     /**
      * Imports a TableView from a worker thread to the caller thread.
@@ -697,17 +934,111 @@ public class TableQuery implements Closeable {
 
     // isNull and isNotNull
     public TableQuery isNull(long columnIndices[]) {
+        checkNotAggregate(columnIndices);
         nativeIsNull(nativePtr, columnIndices);
-        queryValidated = false;
+        addCondition(Condition.IS_NULL, columnIndices, true);
         return this;
     }
 
     public TableQuery isNotNull(long columnIndices[]) {
+        checkNotAggregate(columnIndices);
         nativeIsNotNull(nativePtr, columnIndices);
-        queryValidated = false;
+        addCondition(Condition.IS_NOT_NULL, columnIndices, true);
         return this;
     }
 
+    /**
+     * Checks if the column indices end with an aggregate over a list, see {@link #AGGREGATE_PATH_ELEMENT}.
+     *
+     * @param columnIndices the column indices of a field or link path.
+     * @return the position of the aggregate marker or {@code -1} if the path has no aggregate.
+     */
+    public static int findAggregate(long[] columnIndices) {
+        for (int i = 0; i < columnIndices.length; i++) {
+            if (columnIndices[i] == BACKLINK_PATH_ELEMENT) {
+                i += 2;
+            } else if (columnIndices[i] == AGGREGATE_PATH_ELEMENT) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void checkNotAggregate(long[] columnIndices) {
+        if (findAggregate(columnIndices) >= 0) {
+            throw new IllegalArgumentException("isNull() and isNotNull() are not supported on aggregates.");
+        }
+    }
+
+    // aggregation by date interval
+
+    /**
+     * Returned as the first computed bucket start if all buckets were computed.
+     */
+    public static final long ALL_BUCKETS = Long.MIN_VALUE;
+
+    /**
+     * Groups the rows by the date column into buckets of {@code intervalMillis} aligned to the epoch and aggregates
+     * the value column in each of them. Rows with a {@code null} date or value are ignored.
+     *
+     * @return {@link #ALL_BUCKETS}, followed by start, count, min, max, sum, first and last value of each bucket in
+     * date order. Values are encoded as double bits.
+     */
+    public long[] aggregateByInterval(long dateColumnIndex, long valueColumnIndex, long intervalMillis) {
+        validateQuery();
+        return nativeAggregateByInterval(nativePtr, dateColumnIndex, valueColumnIndex, intervalMillis);
+    }
+
+    /**
+     * Like {@link #aggregateByInterval(long, long, long)}, but computed at {@code toVersion} on a worker Realm. If
+     * {@code fromVersion} is the version the previous buckets were computed at, and no row dated before
+     * {@code fromMillis} was inserted, modified or removed since according to the transaction log, only the buckets
+     * from {@code fromMillis} on are computed.
+     *
+     * @param sourceTableIndex the index in the group of the table the query was created on.
+     * @param fromVersion the version of the previous buckets or {@code null} to compute all buckets.
+     * @param toVersion the version to compute the buckets at, which must not be older than the handed over query.
+     * @param dependsOnOtherTables if changes to other tables can change the rows found by the query.
+     * @return the first computed bucket start or {@link #ALL_BUCKETS}, followed by the buckets like
+     * {@link #aggregateByInterval(long, long, long)}.
+     */
+    public static long[] aggregateByIntervalWithHandover(SharedRealm sharedRealm, long ptrQuery, long sourceTableIndex,
+                                                         long dateColumnIndex, long valueColumnIndex,
+                                                         long intervalMillis, long fromMillis,
+                                                         SharedRealm.VersionID fromVersion,
+                                                         SharedRealm.VersionID toVersion,
+                                                         boolean dependsOnOtherTables)
+            throws BadVersionException {
+        return nativeAggregateByIntervalWithHandover(sharedRealm.getNativePtr(), ptrQuery, sourceTableIndex,
+                dateColumnIndex, valueColumnIndex, intervalMillis, fromMillis,
+                (fromVersion == null) ? -1 : fromVersion.version, (fromVersion == null) ? -1 : fromVersion.index,
+                toVersion.version, toVersion.index, dependsOnOtherTables);
+    }
+
+    /**
+     * Checks if changes to other tables than the one of the query can change the rows it finds, i.e. if it has
+     * conditions on linked fields or over lists.
+     *
+     * @return {@code true} if the query follows links, {@code false} otherwise.
+     */
+    public boolean dependsOnOtherTables() {
+        for (Condition condition : conditions) {
+            if (condition.isGroupingToken()) {
+                continue;
+            }
+            if (condition.columnIndices.length > 1 || isSubquery(condition.operator)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSubquery(String operator) {
+        return operator.equals(Condition.ANY) || operator.equals(Condition.ALL) || operator.equals(Condition.NONE) ||
+                operator.equals(Condition.SUBQUERY_COUNT_EQUAL) || operator.equals(Condition.SUBQUERY_COUNT_GREATER) ||
+                operator.equals(Condition.SUBQUERY_COUNT_LESS);
+    }
+
     // count
 
     // TODO: Rename all start, end parameter names to firstRow, lastRow
@@ -727,6 +1058,37 @@ public class TableQuery implements Closeable {
         return nativeRemove(nativePtr);
     }
 
+    /**
+     * Removes the matching rows in the given range while scanning the table, without collecting them first.
+     *
+     * @param start the first row to check.
+     * @param end the row after the last one to check or {@link Table#INFINITE}.
+     * @param ordered {@code true} to keep the order of the remaining rows, otherwise a removed row is replaced by
+     * the last one.
+     * @return the number of rows removed.
+     */
+    public long remove(long start, long end, boolean ordered) {
+        validateQuery();
+        if (table.isImmutable()) throwImmutable();
+        return nativeRemoveInRange(nativePtr, start, end, ordered);
+    }
+
+    /**
+     * Adds a value to an integer column of the matching rows in the given range while scanning the table, without
+     * collecting them first. {@code null} values are left unchanged.
+     *
+     * @param start the first row to check.
+     * @param end the row after the last one to check or {@link Table#INFINITE}.
+     * @param columnIndex the integer column.
+     * @param delta the value to add, negative to subtract.
+     * @return the number of rows incremented.
+     */
+    public long incrementLong(long start, long end, long columnIndex, long delta) {
+        validateQuery();
+        if (table.isImmutable()) throwImmutable();
+        return nativeIncrementLongInRange(nativePtr, start, end, columnIndex, delta);
+    }
+
     /**
      * Converts a list of sort orders to their native values.
      */
@@ -786,8 +1148,20 @@ public class TableQuery implements Closeable {
     private native void nativeEndsWith(long nativeQueryPtr, long columnIndices[], String value, boolean caseSensitive);
     private native void nativeContains(long nativeQueryPtr, long columnIndices[], String value, boolean caseSensitive);
     private native void nativeIsEmpty(long nativePtr, long[] columnIndices);
+    private native void nativeSubquery(long nativePtr, long[] columnIndices, long nativeSubqueryPtr, int predicate,
+                                       long count);
     private native long nativeFind(long nativeQueryPtr, long fromTableRow);
     private native long nativeFindAll(long nativeQueryPtr, long start, long end, long limit);
+    private native long nativeFindTopK(long nativeQueryPtr, long columnIndex, boolean ascending, long k);
+    private native long[] nativeAggregateByInterval(long nativeQueryPtr, long dateColumnIndex, long valueColumnIndex,
+                                                    long intervalMillis);
+    private static native long[] nativeAggregateByIntervalWithHandover(long bgSharedRealmPtr, long nativeQueryPtr,
+                                                                       long sourceTableIndex, long dateColumnIndex,
+                                                                       long valueColumnIndex, long intervalMillis,
+                                                                       long fromMillis, long fromVersion,
+                                                                       long fromIndex, long toVersion, long toIndex,
+                                                                       boolean dependsOnOtherTables)
+            throws BadVersionException;
     private native long nativeSumInt(long nativeQueryPtr, long columnIndex, long start, long end, long limit);
     private native Long nativeMaximumInt(long nativeQueryPtr, long columnIndex, long start, long end, long limit);
     private native Long nativeMinimumInt(long nativeQueryPtr, long columnIndex, long start, long end, long limit);
@@ -806,14 +1180,18 @@ public class TableQuery implements Closeable {
     private native void nativeIsNotNull(long nativePtr, long columnIndices[]);
     private native long nativeCount(long nativeQueryPtr, long start, long end, long limit);
     private native long nativeRemove(long nativeQueryPtr);
+    private native long nativeRemoveInRange(long nativeQueryPtr, long start, long end, boolean ordered);
+    private native long nativeIncrementLongInRange(long nativeQueryPtr, long start, long end, long columnIndex, long delta);
     private native long nativeImportHandoverTableViewIntoSharedGroup(long handoverTableViewPtr, long callerSharedRealmPtr) throws BadVersionException;
     private native long nativeHandoverQuery(long callerSharedRealmPtr, long nativeQueryPtr);
     private static native long nativeFindAllSortedWithHandover(long bgSharedRealmPtr, long nativeQueryPtr, long start, long end, long limit, long columnIndex, boolean ascending) throws BadVersionException;
     private static native long nativeFindAllWithHandover(long bgSharedRealmPtr, long nativeQueryPtr, long start, long end, long limit) throws BadVersionException;
     private  static native long nativeGetDistinctViewWithHandover(long bgSharedRealmPtr, long nativeQueryPtr, long columnIndex) throws BadVersionException;
     private static native long nativeFindWithHandover(long bgSharedRealmPtr, long nativeQueryPtr, long fromTableRow);
+    private static native long nativeFindAllSortedDistinctWithHandover(long bgSharedRealmPtr, long nativeQueryPtr, long[] sortColumnIndices, boolean[] ascending, long[] distinctColumnIndices) throws BadVersionException;
+    private static native long nativeFindTopKWithHandover(long bgSharedRealmPtr, long nativeQueryPtr, long columnIndex, boolean ascending, long k, long[] threshold) throws BadVersionException;
     private static native long nativeFindAllMultiSortedWithHandover(long bgSharedRealmPtr, long nativeQueryPtr, long start, long end, long limit, long[] columnIndices, boolean[] ascending) throws BadVersionException;
     private static native long nativeImportHandoverRowIntoSharedGroup(long handoverRowPtr, long callerSharedRealmPtr);
     public static native void nativeCloseQueryHandover(long nativePtr);
-    private static native long[] nativeBatchUpdateQueries(long bgSharedRealmPtr, long[] handoverQueries, long[][] parameters, long[][] queriesParameters, boolean[][] multiSortOrder) throws BadVersionException;
+    private static native long[] nativeBatchUpdateQueries(long bgSharedRealmPtr, long[] handoverQueries, long[][] parameters, long[][] queriesParameters, boolean[][] multiSortOrder, long[][] distinctColumnIndices) throws BadVersionException;
 }
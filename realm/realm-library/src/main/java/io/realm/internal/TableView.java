@@ -35,6 +35,8 @@ public class TableView implements TableOrView {
     @SuppressWarnings({"unused"})
     private final TableQuery query; // the query which created this TableView
     private long version; // Last seen version number. Call refresh() to update this.
+    // Rows of an @OrderedBy class the query was run on, found again when the view is synced
+    private OrderedRange orderedRange;
 
     /**
      * Creates a TableView. This constructor is used if the TableView is created from a table.
@@ -66,6 +68,21 @@ public class TableView implements TableOrView {
         this.query = query;
     }
 
+    /**
+     * Creates a TableView of the rows of a query within the rows of an ordered range. Rows move when older rows are
+     * removed, so the range is found again each time the view is synced.
+     *
+     * @param context
+     * @param parent A table.
+     * @param nativePtr pointer to table view.
+     * @param query a reference to the query which the table view is based.
+     * @param orderedRange the range the query was run on.
+     */
+    protected TableView(Context context, Table parent, long nativePtr, TableQuery query, OrderedRange orderedRange) {
+        this(context, parent, nativePtr, query);
+        this.orderedRange = orderedRange;
+    }
+
     @Override
     public Table getTable() {
         return parent;
@@ -369,11 +386,84 @@ public class TableView implements TableOrView {
         nativeNullifyLink(nativePtr, columnIndex, rowIndex);
     }
 
+    // Methods for setting a column in all rows with a single native call. Rows of the view which have been deleted
+    // are skipped.
+
+    public void setLongForAll(long columnIndex, long value) {
+        if (parent.isImmutable()) throwImmutable();
+        nativeSetLongForAll(nativePtr, columnIndex, value);
+    }
+
+    public void setBooleanForAll(long columnIndex, boolean value) {
+        if (parent.isImmutable()) throwImmutable();
+        nativeSetBooleanForAll(nativePtr, columnIndex, value);
+    }
+
+    public void setFloatForAll(long columnIndex, float value) {
+        if (parent.isImmutable()) throwImmutable();
+        nativeSetFloatForAll(nativePtr, columnIndex, value);
+    }
+
+    public void setDoubleForAll(long columnIndex, double value) {
+        if (parent.isImmutable()) throwImmutable();
+        nativeSetDoubleForAll(nativePtr, columnIndex, value);
+    }
+
+    public void setDateForAll(long columnIndex, Date value) {
+        if (parent.isImmutable()) throwImmutable();
+        nativeSetTimestampForAll(nativePtr, columnIndex, value.getTime());
+    }
+
+    public void setStringForAll(long columnIndex, String value) {
+        if (parent.isImmutable()) throwImmutable();
+        nativeSetStringForAll(nativePtr, columnIndex, value);
+    }
+
+    public void setNullForAll(long columnIndex) {
+        if (parent.isImmutable()) throwImmutable();
+        nativeSetNullForAll(nativePtr, columnIndex);
+    }
+
+    /**
+     * Adds a value to an integer column in all rows. {@code null} values are left unchanged.
+     *
+     * @param columnIndex the integer column.
+     * @param delta the value to add, negative to subtract.
+     */
+    public void incrementLongForAll(long columnIndex, long delta) {
+        if (parent.isImmutable()) throwImmutable();
+        nativeIncrementLongForAll(nativePtr, columnIndex, delta);
+    }
+
+    /**
+     * Adds a value to a float or double column in all rows. {@code null} values are left unchanged.
+     *
+     * @param columnIndex the float or double column.
+     * @param delta the value to add, negative to subtract.
+     */
+    public void incrementDoubleForAll(long columnIndex, double delta) {
+        if (parent.isImmutable()) throwImmutable();
+        if (getColumnType(columnIndex) == RealmFieldType.FLOAT) {
+            nativeIncrementFloatForAll(nativePtr, columnIndex, delta);
+        } else {
+            nativeIncrementDoubleForAll(nativePtr, columnIndex, delta);
+        }
+    }
+
     // Methods for deleting.
     @Override
     public void clear(){
         if (parent.isImmutable()) throwImmutable();
-        nativeClear(nativePtr);
+        nativeClear(nativePtr, false);
+    }
+
+    /**
+     * Removes all rows of the tableview from the underlying table. Unlike {@link #clear()} the last rows of the
+     * table are not moved into their place, so the remaining rows keep their order.
+     */
+    public void clearOrdered() {
+        if (parent.isImmutable()) throwImmutable();
+        nativeClear(nativePtr, true);
     }
 
     /**
@@ -385,14 +475,26 @@ public class TableView implements TableOrView {
     @Override
     public void remove(long rowIndex){
         if (parent.isImmutable()) throwImmutable();
-        nativeRemoveRow(nativePtr, rowIndex);
+        nativeRemoveRow(nativePtr, rowIndex, false);
+    }
+
+    /**
+     * Removes a particular row identified by the index from the tableview and the underlying table. Unlike
+     * {@link #remove(long)} the last row of the table is not moved into its place, so the remaining rows keep their
+     * order.
+     *
+     * @param rowIndex the row index.
+     */
+    public void removeOrdered(long rowIndex) {
+        if (parent.isImmutable()) throwImmutable();
+        nativeRemoveRow(nativePtr, rowIndex, true);
     }
 
     @Override
     public void removeFirst() {
         if (parent.isImmutable()) throwImmutable();
         if (!isEmpty()) {
-            nativeRemoveRow(nativePtr, 0);
+            nativeRemoveRow(nativePtr, 0, false);
         }
     }
 
@@ -400,7 +502,7 @@ public class TableView implements TableOrView {
     public void removeLast() {
         if (parent.isImmutable()) throwImmutable();
         if (!isEmpty()) {
-            nativeRemoveRow(nativePtr, size() - 1);
+            nativeRemoveRow(nativePtr, size() - 1, false);
         }
     }
 
@@ -634,11 +736,13 @@ public class TableView implements TableOrView {
     // Sorting
     public void sort(long columnIndex, Sort sortOrder) {
         // Don't check for immutable. Sorting does not modify original table
+        removeOrderedRange();
         nativeSort(nativePtr, columnIndex, sortOrder.getValue());
     }
 
     public void sort(long columnIndex) {
         // Don't check for immutable. Sorting does not modify original table
+        removeOrderedRange();
         nativeSort(nativePtr, columnIndex, true);
     }
 
@@ -648,6 +752,7 @@ public class TableView implements TableOrView {
             indices[i] = columnIndices.get(i);
         }
         boolean nativeSortOrder[] = TableQuery.getNativeSortOrderValues(sortOrders);
+        removeOrderedRange();
         nativeSortMulti(nativePtr, indices, nativeSortOrder);
     }
 
@@ -745,6 +850,7 @@ public class TableView implements TableOrView {
     public void distinct(long columnIndex) {
         // Execute the disposal of abandoned realm objects each time a new realm object is created
         this.context.executeDelayedDisposal();
+        removeOrderedRange();
         nativeDistinct(nativePtr, columnIndex);
     }
 
@@ -764,17 +870,54 @@ public class TableView implements TableOrView {
         for (int i = 0; i < columnIndexes.size(); i++) {
             indexes[i] = columnIndexes.get(i);
         }
+        removeOrderedRange();
         nativeDistinctMulti(nativePtr, indexes);
     }
 
+    /**
+     * Computes an aggregate over a list for every row in the view. Integer results are stored as is, floating point
+     * results as the bits of a double, see {@link Double#doubleToRawLongBits(double)}.
+     *
+     * @param listColumnIndex the index of the list column.
+     * @param columnIndex the index of the aggregated column in the target table. Ignored for
+     *                    {@link TableQuery#AGGREGATE_COUNT}.
+     * @param kind one of the {@code TableQuery.AGGREGATE_*} kinds.
+     * @param values receives the result for each row, must have the size of the view.
+     * @param nulls receives {@code true} for each row whose result is {@code null}, must have the size of the view.
+     * @throws IllegalArgumentException if the column is not an integer, float or double column.
+     */
+    public void aggregateLinkList(long listColumnIndex, long columnIndex, int kind, long[] values, boolean[] nulls) {
+        nativeAggregateLinkList(nativePtr, listColumnIndex, columnIndex, kind, values, nulls);
+    }
+
     @Override
     public long syncIfNeeded() {
+        if (orderedRange != null && !nativeIsInSync(nativePtr)) {
+            replaceNativeView(query.findAllInRange(orderedRange));
+        }
         version = nativeSyncIfNeeded(nativePtr);
         return version;
     }
 
+    // A sorted or distinct view is kept up to date by core, which only runs the query on the rows it was first run
+    // on. The view is replaced by one of all rows before it is sorted.
+    private void removeOrderedRange() {
+        if (orderedRange != null) {
+            orderedRange = null;
+            replaceNativeView(query.findAllInRange(null));
+        }
+    }
+
+    private void replaceNativeView(long nativeViewPtr) {
+        synchronized (context) {
+            nativeClose(nativePtr);
+            nativePtr = nativeViewPtr;
+        }
+    }
+
     static native void nativeClose(long nativeViewPtr);
     private native long nativeSize(long nativeViewPtr);
+    private native boolean nativeIsInSync(long nativeViewPtr);
     private native long nativeGetSourceRowIndex(long nativeViewPtr, long rowIndex);
     private native long nativeGetColumnCount(long nativeViewPtr);
     private native String nativeGetColumnName(long nativeViewPtr, long columnIndex);
@@ -798,8 +941,18 @@ public class TableView implements TableOrView {
     private native void nativeSetLink(long nativeViewPtr, long columnIndex, long rowIndex, long value);
     private native boolean nativeIsNullLink(long nativePtr, long columnIndex, long rowIndex);
     private native void nativeNullifyLink(long nativePtr, long columnIndex, long rowIndex);
-    private native void nativeClear(long nativeViewPtr);
-    private native void nativeRemoveRow(long nativeViewPtr, long rowIndex);
+    private native void nativeSetLongForAll(long nativeViewPtr, long columnIndex, long value);
+    private native void nativeSetBooleanForAll(long nativeViewPtr, long columnIndex, boolean value);
+    private native void nativeSetFloatForAll(long nativeViewPtr, long columnIndex, float value);
+    private native void nativeSetDoubleForAll(long nativeViewPtr, long columnIndex, double value);
+    private native void nativeSetTimestampForAll(long nativeViewPtr, long columnIndex, long value);
+    private native void nativeSetStringForAll(long nativeViewPtr, long columnIndex, String value);
+    private native void nativeSetNullForAll(long nativeViewPtr, long columnIndex);
+    private native void nativeIncrementLongForAll(long nativeViewPtr, long columnIndex, long delta);
+    private native void nativeIncrementFloatForAll(long nativeViewPtr, long columnIndex, double delta);
+    private native void nativeIncrementDoubleForAll(long nativeViewPtr, long columnIndex, double delta);
+    private native void nativeClear(long nativeViewPtr, boolean ordered);
+    private native void nativeRemoveRow(long nativeViewPtr, long rowIndex, boolean ordered);
     private native long nativeFindFirstInt(long nativeTableViewPtr, long columnIndex, long value);
     private native long nativeFindFirstBool(long nativePtr, long columnIndex, boolean value);
     private native long nativeFindFirstFloat(long nativePtr, long columnIndex, float value);
@@ -827,6 +980,8 @@ public class TableView implements TableOrView {
     private native double nativeAverageDouble(long nativePtr, long columnIndex);
     private native Long nativeMaximumTimestamp(long nativePtr, long columnIndex);
     private native Long nativeMinimumTimestamp(long nativePtr, long columnIndex);
+    private native void nativeAggregateLinkList(long nativeViewPtr, long listColumnIndex, long columnIndex, int kind,
+                                                long[] values, boolean[] nulls);
     private native void nativeSort(long nativeTableViewPtr, long columnIndex, boolean sortOrder);
     private native void nativeSortMulti(long nativeTableViewPtr, long columnIndices[], boolean ascending[]);
     private native long createNativeTableView(Table table, long nativeTablePtr);
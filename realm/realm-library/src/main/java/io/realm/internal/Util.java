@@ -16,6 +16,9 @@
 
 package io.realm.internal;
 
+import java.util.Arrays;
+import java.util.List;
+
 import io.realm.RealmModel;
 import io.realm.RealmObject;
 
@@ -64,4 +67,47 @@ public class Util {
 
         return clazz;
     }
+
+    /**
+     * Compares two field values. Used by the generated {@code update()} methods to skip unchanged fields.
+     *
+     * @return {@code true} if both are {@code null}, equal or byte arrays with the same content.
+     */
+    public static boolean isSameValue(Object value1, Object value2) {
+        if (value1 == null || value2 == null) {
+            return value1 == value2;
+        }
+        if (value1 instanceof byte[] && value2 instanceof byte[]) {
+            return Arrays.equals((byte[]) value1, (byte[]) value2);
+        }
+        return value1.equals(value2);
+    }
+
+    /**
+     * Checks if two managed objects of the same class refer to the same row.
+     *
+     * @return {@code true} if both are {@code null} or point to the same row.
+     */
+    public static boolean isSameRow(RealmModel object1, RealmModel object2) {
+        if (object1 == null || object2 == null) {
+            return object1 == object2;
+        }
+        return ((RealmObjectProxy) object1).realmGet$proxyState().getRow$realm().getIndex()
+                == ((RealmObjectProxy) object2).realmGet$proxyState().getRow$realm().getIndex();
+    }
+
+    /**
+     * Checks if two lists of managed objects of the same class refer to the same rows in the same order.
+     */
+    public static boolean isSameRows(List<? extends RealmModel> list1, List<? extends RealmModel> list2) {
+        if (list1.size() != list2.size()) {
+            return false;
+        }
+        for (int i = 0; i < list1.size(); i++) {
+            if (!isSameRow(list1.get(i), list2.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
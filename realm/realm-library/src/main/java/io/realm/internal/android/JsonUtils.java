@@ -16,8 +16,17 @@
 
 package io.realm.internal.android;
 
+import android.annotation.TargetApi;
+import android.os.Build;
 import android.util.Base64;
+import android.util.JsonReader;
+import android.util.JsonToken;
 
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
 import java.text.ParseException;
 import java.text.ParsePosition;
 import java.util.Date;
@@ -79,4 +88,62 @@ public class JsonUtils {
         if (str == null || str.length() == 0) return new byte[0];
         return Base64.decode(str, Base64.DEFAULT);
     }
+
+    /**
+     * Reads the next JSON object of a stream into a {@link JSONObject}. Used to buffer a single object of a large
+     * array at a time instead of the entire array.
+     *
+     * @param reader the stream positioned before the object.
+     * @return the object with numbers as {@link Long} if they are integers and {@link Double} otherwise.
+     * @throws JSONException if the next value is not an object.
+     * @throws IOException if the stream could not be read.
+     */
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    public static JSONObject readJsonObject(JsonReader reader) throws IOException, JSONException {
+        JsonToken token = reader.peek();
+        if (token != JsonToken.BEGIN_OBJECT) {
+            throw new JSONException("Expected a JSON object but was " + token);
+        }
+        JSONObject json = new JSONObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            json.put(name, readJsonValue(reader));
+        }
+        reader.endObject();
+        return json;
+    }
+
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    private static Object readJsonValue(JsonReader reader) throws IOException, JSONException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                return readJsonObject(reader);
+            case BEGIN_ARRAY:
+                JSONArray array = new JSONArray();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    array.put(readJsonValue(reader));
+                }
+                reader.endArray();
+                return array;
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NULL:
+                reader.nextNull();
+                return JSONObject.NULL;
+            case NUMBER:
+                String number = reader.nextString();
+                if (numericOnly.matcher(number).matches()) {
+                    try {
+                        return Long.parseLong(number);
+                    } catch (NumberFormatException ignored) {
+                        // Too large for a long
+                    }
+                }
+                return Double.parseDouble(number);
+            default:
+                return reader.nextString();
+        }
+    }
 }
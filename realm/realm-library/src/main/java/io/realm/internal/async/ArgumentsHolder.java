@@ -27,12 +27,19 @@ public class ArgumentsHolder {
     public final static int TYPE_FIND_ALL_MULTI_SORTED = 2;
     public final static int TYPE_FIND_FIRST = 3;
     public final static int TYPE_DISTINCT = 4;
+    public final static int TYPE_FIND_TOP_K = 5;
+    public final static int TYPE_FIND_ALL_SORTED_DISTINCT = 6;
 
     public final int type;
     public long columnIndex;
     public Sort sortOrder;
     public long[] columnIndices;
     public Sort[] sortOrders;
+    public long[] distinctColumnIndices;
+    public long limit;
+    // Sort value of the k-th object found by the last run of a top-k query, used to narrow down the next run. The
+    // worker threads replace it as a whole, null if the last run found no object.
+    public volatile Long topKThreshold;
 
     public ArgumentsHolder(int type) {
         this.type = type;
@@ -88,8 +88,10 @@ public class QueryUpdateTask implements Runnable {
                         alignedParameters.handoverQueries,
                         alignedParameters.queriesParameters,
                         alignedParameters.multiSortColumnIndices,
-                        alignedParameters.multiSortOrder);
+                        alignedParameters.multiSortOrder,
+                        alignedParameters.distinctColumnIndices);
                 swapPointers(result, handoverTableViewPointer);
+                updateTopKThresholds(alignedParameters.queriesParameters);
                 updateSuccessful = true;
                 result.versionID = sharedRealm.getVersionID();
 
@@ -140,6 +142,7 @@ public class QueryUpdateTask implements Runnable {
         long[][] queriesParameters = new long[realmResultsEntries.size()][6];
         long[][] multiSortColumnIndices = new long[realmResultsEntries.size()][];
         boolean[][] multiSortOrder = new boolean[realmResultsEntries.size()][];
+        long[][] distinctColumnIndices = new long[realmResultsEntries.size()][];
 
         int i = 0;
         for (Builder.QueryEntry  queryEntry : realmResultsEntries) {
@@ -177,6 +180,23 @@ public class QueryUpdateTask implements Runnable {
                     multiSortColumnIndices[i] = queryEntry.queryArguments.columnIndices;
                     multiSortOrder[i] = TableQuery.getNativeSortOrderValues(queryEntry.queryArguments.sortOrders);
                     break;
+                case ArgumentsHolder.TYPE_FIND_ALL_SORTED_DISTINCT:
+                    handoverQueries[i] = queryEntry.handoverQueryPointer;
+                    queriesParameters[i][0] = ArgumentsHolder.TYPE_FIND_ALL_SORTED_DISTINCT;
+                    multiSortColumnIndices[i] = queryEntry.queryArguments.columnIndices;
+                    multiSortOrder[i] = TableQuery.getNativeSortOrderValues(queryEntry.queryArguments.sortOrders);
+                    distinctColumnIndices[i] = queryEntry.queryArguments.distinctColumnIndices;
+                    break;
+                case ArgumentsHolder.TYPE_FIND_TOP_K:
+                    handoverQueries[i] = queryEntry.handoverQueryPointer;
+                    queriesParameters[i][0] = ArgumentsHolder.TYPE_FIND_TOP_K;
+                    queriesParameters[i][1] = queryEntry.queryArguments.columnIndex;
+                    queriesParameters[i][2] = (queryEntry.queryArguments.sortOrder.getValue()) ? 1 : 0;
+                    queriesParameters[i][3] = queryEntry.queryArguments.limit;
+                    Long threshold = queryEntry.queryArguments.topKThreshold;
+                    queriesParameters[i][4] = (threshold != null) ? 1 : 0;
+                    queriesParameters[i][5] = (threshold != null) ? threshold : 0;
+                    break;
                 default:
                     throw new IllegalArgumentException("Query mode " + queryEntry.queryArguments.type + " not supported");
             }
@@ -187,11 +207,23 @@ public class QueryUpdateTask implements Runnable {
         alignedParameters.handoverQueries = handoverQueries;
         alignedParameters.multiSortColumnIndices = multiSortColumnIndices;
         alignedParameters.multiSortOrder = multiSortOrder;
+        alignedParameters.distinctColumnIndices = distinctColumnIndices;
         alignedParameters.queriesParameters = queriesParameters;
 
         return alignedParameters;
     }
 
+    // The native code writes the new threshold of top-k queries back into their parameters
+    private void updateTopKThresholds(long[][] queriesParameters) {
+        int i = 0;
+        for (Builder.QueryEntry queryEntry : realmResultsEntries) {
+            if (queryEntry.queryArguments.type == ArgumentsHolder.TYPE_FIND_TOP_K) {
+                queryEntry.queryArguments.topKThreshold = (queriesParameters[i][4] == 1) ? queriesParameters[i][5] : null;
+            }
+            i++;
+        }
+    }
+
     private void swapPointers(Result result, long[] handoverTableViewPointer) {
         int i = 0;
         for (Builder.QueryEntry  queryEntry : realmResultsEntries) {
@@ -246,6 +278,7 @@ public class QueryUpdateTask implements Runnable {
         long[][] queriesParameters;
         long[][] multiSortColumnIndices;
         boolean[][] multiSortOrder;
+        long[][] distinctColumnIndices;
     }
     /*
       This uses the step builder pattern to guide the caller throughout the creation of the instance
@@ -99,9 +99,9 @@ public class CompositeMediator extends RealmProxyMediator {
     }
 
     @Override
-    public void insert(Realm realm, RealmModel object, Map<RealmModel, Long> cache) {
+    public void insert(Realm realm, RealmModel object) {
         RealmProxyMediator mediator = getMediator(Util.getOriginalModelClass(object.getClass()));
-        mediator.insert(realm, object, cache);
+        mediator.insert(realm, object);
     }
 
     @Override
@@ -111,9 +111,9 @@ public class CompositeMediator extends RealmProxyMediator {
     }
 
     @Override
-    public void insertOrUpdate(Realm realm, RealmModel object, Map<RealmModel, Long> cache) {
+    public void insertOrUpdate(Realm realm, RealmModel object) {
         RealmProxyMediator mediator = getMediator(Util.getOriginalModelClass(object.getClass()));
-        mediator.insertOrUpdate(realm, object, cache);
+        mediator.insertOrUpdate(realm, object);
     }
 
     @Override
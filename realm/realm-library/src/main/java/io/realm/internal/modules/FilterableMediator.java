@@ -114,9 +114,9 @@ public class FilterableMediator extends RealmProxyMediator {
     }
 
     @Override
-    public void insert(Realm realm, RealmModel object, Map<RealmModel, Long> cache) {
+    public void insert(Realm realm, RealmModel object) {
         checkSchemaHasClass(Util.getOriginalModelClass(object.getClass()));
-        originalMediator.insert(realm, object, cache);
+        originalMediator.insert(realm, object);
     }
 
     @Override
@@ -126,9 +126,9 @@ public class FilterableMediator extends RealmProxyMediator {
     }
 
     @Override
-    public void insertOrUpdate(Realm realm, RealmModel object, Map<RealmModel, Long> cache) {
+    public void insertOrUpdate(Realm realm, RealmModel object) {
         checkSchemaHasClass(Util.getOriginalModelClass(object.getClass()));
-        originalMediator.insertOrUpdate(realm, object, cache);
+        originalMediator.insertOrUpdate(realm, object);
     }
 
     @Override